@@ -0,0 +1,74 @@
+package io.aiven.klaw.clusterapi.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+
+/**
+ * Publishes the pool usage of an http client 5 connection manager as
+ * httpcomponents.httpclient.pool.* metrics, as Micrometer's binder of the same name does for http
+ * client 4. Micrometer 1.10, managed by Spring Boot 3.0, has no http client 5 binder yet, it ships
+ * from 1.11 on and can replace this class.
+ *
+ * <p>The same class is in core. The two applications are built and deployed separately and
+ * share no module, like their cluster models, so keep both copies the same.
+ */
+public class PoolingHttpClientConnectionManagerMetricsBinder implements MeterBinder {
+
+  private final PoolingHttpClientConnectionManager connectionManager;
+
+  private final Iterable<Tag> tags;
+
+  /**
+   * @param name of the connection manager, published in the httpclient tag
+   */
+  public PoolingHttpClientConnectionManagerMetricsBinder(
+      PoolingHttpClientConnectionManager connectionManager, String name, String... tags) {
+    this.connectionManager = connectionManager;
+    this.tags = Tags.of(tags).and("httpclient", name);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder(
+            "httpcomponents.httpclient.pool.total.max",
+            connectionManager,
+            manager -> manager.getTotalStats().getMax())
+        .description(
+            "The configured maximum number of allowed persistent connections for all routes.")
+        .tags(tags)
+        .register(registry);
+    Gauge.builder(
+            "httpcomponents.httpclient.pool.total.connections",
+            connectionManager,
+            manager -> manager.getTotalStats().getLeased())
+        .description("The number of persistent and leased connections for all routes.")
+        .tags(Tags.of(tags).and("state", "leased"))
+        .register(registry);
+    Gauge.builder(
+            "httpcomponents.httpclient.pool.total.connections",
+            connectionManager,
+            manager -> manager.getTotalStats().getAvailable())
+        .description("The number of persistent and leased connections for all routes.")
+        .tags(Tags.of(tags).and("state", "available"))
+        .register(registry);
+    Gauge.builder(
+            "httpcomponents.httpclient.pool.total.pending",
+            connectionManager,
+            manager -> manager.getTotalStats().getPending())
+        .description("The number of connection requests being blocked awaiting a free connection.")
+        .tags(tags)
+        .register(registry);
+    Gauge.builder(
+            "httpcomponents.httpclient.pool.route.max.default",
+            connectionManager,
+            PoolingHttpClientConnectionManager::getDefaultMaxPerRoute)
+        .description(
+            "The configured default maximum number of allowed persistent connections per route.")
+        .tags(tags)
+        .register(registry);
+  }
+}
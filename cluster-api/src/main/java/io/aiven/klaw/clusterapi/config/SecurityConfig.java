@@ -1,6 +1,7 @@
 package io.aiven.klaw.clusterapi.config;
 
 import io.aiven.klaw.clusterapi.services.JwtTokenUtilService;
+import jakarta.servlet.DispatcherType;
 import java.util.Properties;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,7 +38,12 @@ public class SecurityConfig {
     http.csrf().disable();
     http.formLogin().disable();
     http.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
-    http.authorizeHttpRequests().anyRequest().fullyAuthenticated();
+    // async dispatches of streamed responses were authorized with the original request
+    http.authorizeHttpRequests()
+        .dispatcherTypeMatchers(DispatcherType.ASYNC)
+        .permitAll()
+        .anyRequest()
+        .fullyAuthenticated();
     http.addFilterBefore(
         new JwtRequestFilter(userDetailsService, jwtTokenUtilService),
         UsernamePasswordAuthenticationFilter.class);
@@ -1,5 +1,6 @@
 package io.aiven.klaw.clusterapi.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -12,10 +13,11 @@ import java.security.UnrecoverableKeyException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
-import org.apache.hc.client5.http.io.HttpClientConnectionManager;
 import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
 import org.apache.hc.client5.http.socket.PlainConnectionSocketFactory;
 import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
@@ -23,7 +25,10 @@ import org.apache.hc.core5.http.config.Registry;
 import org.apache.hc.core5.http.config.RegistryBuilder;
 import org.apache.hc.core5.ssl.SSLContextBuilder;
 import org.apache.hc.core5.ssl.TrustStrategy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
@@ -35,6 +40,8 @@ public class SslContextConfig implements InitializingBean {
 
   private HttpComponentsClientHttpRequestFactory requestFactory;
 
+  private HttpComponentsClientHttpRequestFactory plainRequestFactory;
+
   @Value("${server.ssl.trust-store:null}")
   private String trustStore;
 
@@ -50,11 +57,40 @@ public class SslContextConfig implements InitializingBean {
   @Value("${server.ssl.key-store-type:JKS}")
   private String keyStoreType;
 
+  @Value("${klaw.http.max.connections:50}")
+  private int maxConnections = 50;
+
+  @Value("${klaw.http.max.connections.per.route:20}")
+  private int maxConnectionsPerRoute = 20;
+
+  @Value("${klaw.http.connect.timeout.ms:5000}")
+  private long connectTimeoutMs = 5000;
+
+  @Value("${klaw.http.read.timeout.ms:60000}")
+  private long readTimeoutMs = 60000;
+
+  @Autowired(required = false)
+  private MeterRegistry meterRegistry;
+
+  // https with the configured key store, or the default trust store if none is configured
   public HttpComponentsClientHttpRequestFactory getClientHttpRequestFactory() {
     return requestFactory;
   }
 
+  public HttpComponentsClientHttpRequestFactory getPlainClientHttpRequestFactory() {
+    return plainRequestFactory;
+  }
+
   private void setKwSSLContext() throws Exception {
+    plainRequestFactory =
+        createPooledRequestFactory(
+            RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", SSLConnectionSocketFactory.getSocketFactory())
+                .build(),
+            "plain");
+    requestFactory = plainRequestFactory;
+
     if (keyStore != null && !keyStore.equals("null")) {
       TrustStrategy acceptingTrustStrategy = (X509Certificate[] chain, String authType) -> true;
       SSLContextBuilder builder = new SSLContextBuilder();
@@ -68,12 +104,7 @@ public class SslContextConfig implements InitializingBean {
                 .register("http", new PlainConnectionSocketFactory())
                 .register("https", sslsf)
                 .build();
-        HttpClientConnectionManager poolingConnManager =
-            new PoolingHttpClientConnectionManager(registry);
-        CloseableHttpClient httpClient =
-            HttpClients.custom().setConnectionManager(poolingConnManager).build();
-        requestFactory = new HttpComponentsClientHttpRequestFactory();
-        requestFactory.setHttpClient(httpClient);
+        requestFactory = createPooledRequestFactory(registry, "ssl");
       } catch (NoSuchAlgorithmException
           | KeyStoreException
           | CertificateException
@@ -86,6 +117,40 @@ public class SslContextConfig implements InitializingBean {
     }
   }
 
+  // keep-alive connections are pooled and shared by all rest calls to schema registries, kafka
+  // connect and confluent cloud
+  private HttpComponentsClientHttpRequestFactory createPooledRequestFactory(
+      Registry<ConnectionSocketFactory> registry, String poolName) {
+    PoolingHttpClientConnectionManager poolingConnManager =
+        new PoolingHttpClientConnectionManager(registry);
+    poolingConnManager.setMaxTotal(maxConnections);
+    poolingConnManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+    poolingConnManager.setDefaultConnectionConfig(
+        ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+            .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+            .build());
+    if (meterRegistry != null) {
+      new PoolingHttpClientConnectionManagerMetricsBinder(poolingConnManager, poolName)
+          .bindTo(meterRegistry);
+    }
+
+    CloseableHttpClient httpClient =
+        HttpClients.custom()
+            .setConnectionManager(poolingConnManager)
+            .setDefaultRequestConfig(
+                RequestConfig.custom()
+                    .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                    .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                    .build())
+            .evictIdleConnections(TimeValue.ofSeconds(30))
+            .build();
+    HttpComponentsClientHttpRequestFactory pooledRequestFactory =
+        new HttpComponentsClientHttpRequestFactory();
+    pooledRequestFactory.setHttpClient(httpClient);
+    return pooledRequestFactory;
+  }
+
   protected KeyStore getStore(String secret, String storeLoc)
       throws KeyStoreException, IOException, CertificateException, NoSuchAlgorithmException {
 
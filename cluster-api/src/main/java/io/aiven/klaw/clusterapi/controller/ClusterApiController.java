@@ -1,14 +1,20 @@
 package io.aiven.klaw.clusterapi.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.aiven.klaw.clusterapi.models.ApiResponse;
 import io.aiven.klaw.clusterapi.models.ClusterAclRequest;
 import io.aiven.klaw.clusterapi.models.ClusterSchemaRequest;
+import io.aiven.klaw.clusterapi.models.ClusterTopic;
 import io.aiven.klaw.clusterapi.models.ClusterTopicRequest;
+import io.aiven.klaw.clusterapi.models.ConsumerGroupLags;
+import io.aiven.klaw.clusterapi.models.enums.AclResourceNameMatch;
 import io.aiven.klaw.clusterapi.models.enums.AclType;
 import io.aiven.klaw.clusterapi.models.enums.AclsNativeType;
 import io.aiven.klaw.clusterapi.models.enums.ApiResultStatus;
 import io.aiven.klaw.clusterapi.models.enums.ClusterStatus;
 import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
+import io.aiven.klaw.clusterapi.models.enums.RequestOperationType;
 import io.aiven.klaw.clusterapi.services.AivenApiService;
 import io.aiven.klaw.clusterapi.services.ApacheKafkaAclService;
 import io.aiven.klaw.clusterapi.services.ApacheKafkaTopicService;
@@ -17,21 +23,34 @@ import io.aiven.klaw.clusterapi.services.MonitoringService;
 import io.aiven.klaw.clusterapi.services.SchemaService;
 import io.aiven.klaw.clusterapi.services.UtilComponentsService;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.resource.ResourceType;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/topics")
@@ -39,6 +58,14 @@ import org.springframework.web.bind.annotation.RestController;
 @AllArgsConstructor
 public class ClusterApiController {
 
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  // compact encoding of lists, the names of the fields once and the values of every element as an
+  // array in the same order
+  private static final String COLUMNS_JSON_VALUE = "application/vnd.klaw.columns+json";
+
+  private static final MediaType COLUMNS_JSON = MediaType.parseMediaType(COLUMNS_JSON_VALUE);
+
   UtilComponentsService utilComponentsService;
 
   ApacheKafkaAclService apacheKafkaAclService;
@@ -106,27 +133,142 @@ public class ClusterApiController {
     return new ResponseEntity<>(topics, HttpStatus.OK);
   }
 
+  /*
+  Streams the topics as {"topics":[...],"failedTopics":[...]}, writing every chunk of described topics
+  as soon as it is available. failedTopics lists the topics which could not be described.
+  With Accept application/vnd.klaw.columns+json every topic is an array of the values of "columns".
+   */
+  @RequestMapping(
+      value =
+          "/getTopicsStream/{bootstrapServers}/{protocol}/{clusterName}/topicsNativeType/{aclsNativeType}",
+      method = RequestMethod.GET,
+      produces = {MediaType.APPLICATION_JSON_VALUE, COLUMNS_JSON_VALUE})
+  public ResponseEntity<StreamingResponseBody> getTopicsStream(
+      @PathVariable String bootstrapServers,
+      @Valid @PathVariable KafkaSupportedProtocol protocol,
+      @PathVariable String clusterName,
+      @PathVariable String aclsNativeType,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+    boolean columns = acceptsColumns(accept);
+    StreamingResponseBody responseBody =
+        outputStream -> {
+          try (JsonGenerator jsonGenerator =
+              OBJECT_MAPPER.getFactory().createGenerator(outputStream)) {
+            jsonGenerator.writeStartObject();
+            if (columns) {
+              jsonGenerator.writeObjectField("columns", ClusterTopic.COLUMNS);
+            }
+            jsonGenerator.writeArrayFieldStart("topics");
+            Consumer<ClusterTopic> topicWriter =
+                topic -> {
+                  try {
+                    if (columns) {
+                      jsonGenerator.writeStartArray();
+                      jsonGenerator.writeString(topic.getTopicName());
+                      jsonGenerator.writeNumber(topic.getPartitions());
+                      jsonGenerator.writeNumber(topic.getReplicationFactor());
+                      jsonGenerator.writeEndArray();
+                    } else {
+                      jsonGenerator.writeObject(topic);
+                    }
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                };
+
+            List<String> failedTopics;
+            if (AclsNativeType.CONFLUENT_CLOUD.name().equals(aclsNativeType)) {
+              confluentCloudApiService
+                  .listTopics(bootstrapServers, protocol, clusterName)
+                  .forEach(
+                      topic ->
+                          topicWriter.accept(
+                              new ClusterTopic(
+                                  topic.get("topicName"),
+                                  Integer.parseInt(topic.get("partitions")),
+                                  Integer.parseInt(topic.get("replicationFactor")))));
+              failedTopics = Collections.emptyList();
+            } else {
+              failedTopics =
+                  apacheKafkaTopicService.loadTopics(
+                      bootstrapServers, protocol, clusterName, topicWriter);
+            }
+            jsonGenerator.writeEndArray();
+            jsonGenerator.writeObjectField("failedTopics", failedTopics);
+            jsonGenerator.writeEndObject();
+          } catch (IOException e) {
+            throw e;
+          } catch (Exception e) {
+            log.error("Exception:", e);
+            throw new IOException("Could not load topics.", e);
+          }
+        };
+    return ResponseEntity.ok()
+        .contentType(columns ? COLUMNS_JSON : MediaType.APPLICATION_JSON)
+        .body(responseBody);
+  }
+
+  private static boolean acceptsColumns(String accept) {
+    return accept != null
+        && MediaType.parseMediaTypes(accept).stream().anyMatch(COLUMNS_JSON::equalsTypeAndSubtype);
+  }
+
+  /**
+   * Acls as {"columns":[...],"rows":[[...],...]}, a null value for a field an acl does not have.
+   */
+  private static Map<String, Object> getAclColumns(Set<Map<String, String>> acls) {
+    Set<String> columns = new TreeSet<>();
+    acls.forEach(acl -> columns.addAll(acl.keySet()));
+    List<List<String>> rows = new ArrayList<>(acls.size());
+    for (Map<String, String> acl : acls) {
+      List<String> row = new ArrayList<>(columns.size());
+      columns.forEach(column -> row.add(acl.get(column)));
+      rows.add(row);
+    }
+    Map<String, Object> aclColumns = new LinkedHashMap<>();
+    aclColumns.put("columns", columns);
+    aclColumns.put("rows", rows);
+    return aclColumns;
+  }
+
   @RequestMapping(
       value =
           "/getAcls/{bootstrapServers}/{aclsNativeType}/{protocol}/{clusterName}/{projectName}/{serviceName}",
       method = RequestMethod.GET,
-      produces = {MediaType.APPLICATION_JSON_VALUE})
-  public ResponseEntity<Set<Map<String, String>>> getAcls(
+      produces = {MediaType.APPLICATION_JSON_VALUE, COLUMNS_JSON_VALUE})
+  public ResponseEntity<?> getAcls(
       @PathVariable String bootstrapServers,
       @Valid @PathVariable KafkaSupportedProtocol protocol,
       @PathVariable String clusterName,
       @PathVariable String aclsNativeType,
       @PathVariable String projectName,
-      @PathVariable String serviceName)
+      @PathVariable String serviceName,
+      @RequestParam(value = "resourceType", required = false) ResourceType resourceType,
+      @RequestParam(value = "resourceName", required = false) String resourceName,
+      @RequestParam(value = "resourceNameMatch", required = false)
+          AclResourceNameMatch resourceNameMatch,
+      @RequestParam(value = "principal", required = false) String principal,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept)
       throws Exception {
     Set<Map<String, String>> acls;
     if (AclsNativeType.NATIVE.name().equals(aclsNativeType)) {
-      acls = apacheKafkaAclService.loadAcls(bootstrapServers, protocol, clusterName);
+      acls =
+          apacheKafkaAclService.loadAcls(
+              bootstrapServers,
+              protocol,
+              clusterName,
+              resourceType,
+              resourceName,
+              resourceNameMatch,
+              principal);
     } else if (AclsNativeType.CONFLUENT_CLOUD.name().equals(aclsNativeType)) {
       acls = confluentCloudApiService.listAcls(bootstrapServers, protocol, clusterName);
     } else {
       acls = aivenApiService.listAcls(projectName, serviceName);
     }
+    if (acceptsColumns(accept)) {
+      return ResponseEntity.ok().contentType(COLUMNS_JSON).body(getAclColumns(acls));
+    }
     return new ResponseEntity<>(acls, HttpStatus.OK);
   }
 
@@ -181,9 +323,11 @@ public class ClusterApiController {
       @PathVariable String bootstrapServers,
       @Valid @PathVariable KafkaSupportedProtocol protocol,
       @PathVariable String topicName,
-      @PathVariable String clusterIdentification) {
+      @PathVariable String clusterIdentification,
+      @RequestParam(value = "latestOnly", defaultValue = "false") boolean latestOnly) {
     Map<Integer, Map<String, Object>> schema =
-        schemaService.getSchema(bootstrapServers, protocol, clusterIdentification, topicName);
+        schemaService.getSchema(
+            bootstrapServers, protocol, clusterIdentification, topicName, latestOnly);
     return new ResponseEntity<>(schema, HttpStatus.OK);
   }
 
@@ -206,6 +350,22 @@ public class ClusterApiController {
     return new ResponseEntity<>(consumerOffsetDetails, HttpStatus.OK);
   }
 
+  // consumer group id -> topics in the request body, lags of all of them are listed together
+  @PostMapping(
+      value = "/getConsumerGroupLags/{bootstrapServers}/{protocol}/{clusterName}",
+      produces = {MediaType.APPLICATION_JSON_VALUE})
+  public ResponseEntity<ConsumerGroupLags> getConsumerGroupLags(
+      @PathVariable String bootstrapServers,
+      @Valid @PathVariable KafkaSupportedProtocol protocol,
+      @PathVariable String clusterName,
+      @RequestBody Map<String, List<String>> topicsByConsumerGroup)
+      throws Exception {
+    return new ResponseEntity<>(
+        monitoringService.getConsumerGroupLags(
+            bootstrapServers, protocol, clusterName, topicsByConsumerGroup),
+        HttpStatus.OK);
+  }
+
   @PostMapping(value = "/createTopics")
   public ResponseEntity<ApiResponse> createTopics(
       @RequestBody @Valid ClusterTopicRequest clusterTopicRequest) {
@@ -257,6 +417,57 @@ public class ClusterApiController {
     }
   }
 
+  /*
+  Executes create, update and delete topic requests in one call, results are in the order of the
+  requests. Apache Kafka requests are batched per cluster.
+   */
+  @PostMapping(value = "/executeTopicRequests")
+  public ResponseEntity<List<ApiResponse>> executeTopicRequests(
+      @RequestBody @Valid List<ClusterTopicRequest> clusterTopicRequests) {
+    log.info("executeTopicRequests {} requests", clusterTopicRequests.size());
+    ApiResponse[] results = new ApiResponse[clusterTopicRequests.size()];
+    List<Integer> nativeIndexes = new ArrayList<>();
+    for (int i = 0; i < clusterTopicRequests.size(); i++) {
+      ClusterTopicRequest clusterTopicRequest = clusterTopicRequests.get(i);
+      if (AclsNativeType.CONFLUENT_CLOUD == clusterTopicRequest.getAclsNativeType()) {
+        results[i] = executeConfluentCloudTopicRequest(clusterTopicRequest);
+      } else {
+        nativeIndexes.add(i);
+      }
+    }
+
+    List<ApiResponse> nativeResults =
+        apacheKafkaTopicService.executeTopicRequests(
+            nativeIndexes.stream().map(clusterTopicRequests::get).toList());
+    for (int i = 0; i < nativeIndexes.size(); i++) {
+      results[nativeIndexes.get(i)] = nativeResults.get(i);
+    }
+    return new ResponseEntity<>(Arrays.asList(results), HttpStatus.OK);
+  }
+
+  private ApiResponse executeConfluentCloudTopicRequest(ClusterTopicRequest clusterTopicRequest) {
+    try {
+      ApiResponse apiResponse;
+      if (RequestOperationType.DELETE == clusterTopicRequest.getRequestOperationType()) {
+        apiResponse = confluentCloudApiService.deleteTopic(clusterTopicRequest);
+      } else if (RequestOperationType.UPDATE == clusterTopicRequest.getRequestOperationType()) {
+        apiResponse = confluentCloudApiService.updateTopic(clusterTopicRequest);
+      } else {
+        apiResponse = confluentCloudApiService.createTopic(clusterTopicRequest);
+      }
+      return ApiResponse.builder()
+          .result(apiResponse.getResult())
+          .data(clusterTopicRequest.getTopicName())
+          .build();
+    } catch (Exception e) {
+      log.error("Exception:", e);
+      return ApiResponse.builder()
+          .result(e.getMessage())
+          .data(clusterTopicRequest.getTopicName())
+          .build();
+    }
+  }
+
   @PostMapping(value = "/createAcls")
   public ResponseEntity<ApiResponse> createAcls(
       @RequestBody @Valid ClusterAclRequest clusterAclRequest) {
@@ -330,6 +541,34 @@ public class ClusterApiController {
         HttpStatus.INTERNAL_SERVER_ERROR);
   }
 
+  /*
+  Applies producer and consumer acl requests of native clusters in bulk. data holds the outcome of
+  every request, in the order of the requests.
+   */
+  @PostMapping(value = "/updateAcls")
+  public ResponseEntity<ApiResponse> updateAcls(
+      @RequestBody @Valid List<ClusterAclRequest> clusterAclRequests) {
+    if (clusterAclRequests.stream()
+        .anyMatch(
+            clusterAclRequest ->
+                !AclsNativeType.NATIVE.name().equals(clusterAclRequest.getAclNativeType()))) {
+      return new ResponseEntity<>(
+          ApiResponse.builder().result("Not a valid request").build(), HttpStatus.BAD_REQUEST);
+    }
+
+    try {
+      List<String> results = apacheKafkaAclService.updateAcls(clusterAclRequests);
+      String result =
+          results.stream().allMatch(aclResult -> aclResult.endsWith(ApiResultStatus.SUCCESS.value))
+              ? ApiResultStatus.SUCCESS.value
+              : ApiResultStatus.FAILURE.value;
+      return new ResponseEntity<>(
+          ApiResponse.builder().result(result).data(results).build(), HttpStatus.OK);
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
   @PostMapping(value = "/postSchema")
   public ResponseEntity<ApiResponse> postSchema(
       @RequestBody @Valid ClusterSchemaRequest clusterSchemaRequest) {
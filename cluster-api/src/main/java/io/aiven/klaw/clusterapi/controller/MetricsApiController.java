@@ -1,6 +1,8 @@
 package io.aiven.klaw.clusterapi.controller;
 
+import io.aiven.klaw.clusterapi.models.ClusterMetricsRequest;
 import io.aiven.klaw.clusterapi.services.MetricsApiService;
+import jakarta.validation.Valid;
 import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -12,16 +14,34 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/metrics")
 public class MetricsApiController {
 
-  // JMX_HOST is hardcoded here below as this is work in progress and not totally integrated.
+  // used when the request does not name a jmx url
   public static final String JMX_HOST = "localhost:9996";
+  public static final String DEFAULT_OBJECT_NAME =
+      "kafka.server:type=BrokerTopicMetrics,name=MessagesInPerSec";
   @Autowired MetricsApiService metricsApiService;
 
+  // core only sends jmx urls which are configured for the cluster
   @PostMapping(value = "/getMetrics")
   public ResponseEntity<Map<String, String>> getMetrics(
       @RequestBody MultiValueMap<String, String> metricsRequest) throws Exception {
-    String metricsObjectName = "kafka.server:type=BrokerTopicMetrics,name=MessagesInPerSec";
-    String jmxUrl = "service:jmx:rmi:///jndi/rmi://" + JMX_HOST + "/jmxrmi";
+    String jmxUrl = metricsRequest.getFirst("jmxUrl");
+    if (jmxUrl == null) {
+      jmxUrl = "service:jmx:rmi:///jndi/rmi://" + JMX_HOST + "/jmxrmi";
+    }
+    String metricsObjectName = metricsRequest.getFirst("objectName");
+    if (metricsObjectName == null) {
+      metricsObjectName = DEFAULT_OBJECT_NAME;
+    }
     return new ResponseEntity<>(
         metricsApiService.getMetrics(jmxUrl, metricsObjectName), HttpStatus.OK);
   }
+
+  @PostMapping(value = "/getClusterMetrics")
+  public ResponseEntity<Map<String, Map<String, Map<String, String>>>> getClusterMetrics(
+      @RequestBody @Valid ClusterMetricsRequest clusterMetricsRequest) throws Exception {
+    return new ResponseEntity<>(
+        metricsApiService.getMetrics(
+            clusterMetricsRequest.getJmxUrls(), clusterMetricsRequest.getObjectNames()),
+        HttpStatus.OK);
+  }
 }
@@ -2,15 +2,19 @@ package io.aiven.klaw.clusterapi.controller;
 
 import io.aiven.klaw.clusterapi.services.TopicContentsService;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/topics")
@@ -19,6 +23,9 @@ public class TopicContentsController {
 
   @Autowired TopicContentsService topicContentsService;
 
+  @Value("${klaw.topiccontents.stream.timeout.ms:60000}")
+  private long streamTimeoutMs = 60000;
+
   @RequestMapping(
       value =
           "/getTopicContents/{bootstrapServers}/{protocol}/{clusterName}/{consumerGroupId}/{topicName}/{offsetPosition}",
@@ -30,17 +37,72 @@ public class TopicContentsController {
       @PathVariable String clusterName,
       @PathVariable String consumerGroupId,
       @PathVariable String topicName,
-      @PathVariable int offsetPosition) {
-    Map<Long, String> events =
-        topicContentsService.readEvents(
-            bootstrapServers,
-            protocol,
-            clusterName,
-            consumerGroupId,
-            topicName,
-            offsetPosition,
-            "OFFSET_ID");
+      @PathVariable int offsetPosition,
+      @RequestParam(value = "partitionId", required = false) Integer partitionId,
+      @RequestParam(value = "startOffset", required = false) Long startOffset,
+      @RequestParam(value = "endOffset", required = false) Long endOffset,
+      @RequestParam(value = "maxBytes", required = false) Long maxBytes) {
+    Map<Long, String> events;
+    if (partitionId == null && startOffset == null && endOffset == null && maxBytes == null) {
+      events =
+          topicContentsService.readEvents(
+              bootstrapServers,
+              protocol,
+              clusterName,
+              consumerGroupId,
+              topicName,
+              offsetPosition,
+              TopicContentsService.OFFSET_ID);
+    } else {
+      events =
+          topicContentsService.readEvents(
+              bootstrapServers,
+              protocol,
+              topicName,
+              offsetPosition,
+              TopicContentsService.OFFSET_ID,
+              partitionId,
+              startOffset,
+              endOffset,
+              maxBytes);
+    }
 
     return new ResponseEntity<>(events, HttpStatus.OK);
   }
+
+  // records are sent as server-sent events while they are read
+  @RequestMapping(
+      value =
+          "/streamTopicContents/{bootstrapServers}/{protocol}/{clusterName}/{topicName}/{offsetPosition}",
+      method = RequestMethod.GET,
+      produces = {MediaType.TEXT_EVENT_STREAM_VALUE})
+  public ResponseEntity<SseEmitter> streamTopicContents(
+      @PathVariable String bootstrapServers,
+      @PathVariable String protocol,
+      @PathVariable String clusterName,
+      @PathVariable String topicName,
+      @PathVariable int offsetPosition,
+      @RequestParam(value = "partitionId", required = false) Integer partitionId,
+      @RequestParam(value = "startOffset", required = false) Long startOffset,
+      @RequestParam(value = "endOffset", required = false) Long endOffset,
+      @RequestParam(value = "maxBytes", required = false) Long maxBytes) {
+    log.info("streamTopicContents {} {} {}", clusterName, topicName, offsetPosition);
+    SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+    try {
+      topicContentsService.streamEvents(
+          bootstrapServers,
+          protocol,
+          topicName,
+          offsetPosition,
+          partitionId,
+          startOffset,
+          endOffset,
+          maxBytes,
+          emitter);
+    } catch (RejectedExecutionException e) {
+      log.warn("Too many topic contents streams, rejecting {} {}", clusterName, topicName);
+      return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+    return new ResponseEntity<>(emitter, HttpStatus.OK);
+  }
 }
@@ -0,0 +1,22 @@
+package io.aiven.klaw.clusterapi.models;
+
+import jakarta.validation.constraints.NotEmpty;
+import java.io.Serializable;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Builder
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClusterMetricsRequest implements Serializable {
+
+  // jmx service urls of the brokers of one cluster
+  @NotEmpty private List<String> jmxUrls;
+
+  // object names, patterns like kafka.server:type=BrokerTopicMetrics,name=* are allowed
+  @NotEmpty private List<String> objectNames;
+}
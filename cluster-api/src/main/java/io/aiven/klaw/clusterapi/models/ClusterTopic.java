@@ -0,0 +1,26 @@
+package io.aiven.klaw.clusterapi.models;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Topic on a cluster, as listed to core. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterTopic {
+
+  // order of the values of a topic in the columns encoding
+  public static final List<String> COLUMNS =
+      List.of("topicName", "partitions", "replicationFactor");
+
+  @JsonProperty private String topicName;
+
+  @JsonProperty private int partitions;
+
+  @JsonProperty private int replicationFactor;
+}
@@ -3,13 +3,14 @@ package io.aiven.klaw.clusterapi.models;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.aiven.klaw.clusterapi.models.enums.AclsNativeType;
 import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
+import io.aiven.klaw.clusterapi.models.enums.RequestOperationType;
 import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
-@Builder
+@Builder(toBuilder = true)
 @Getter
 @AllArgsConstructor
 @NoArgsConstructor
@@ -29,4 +30,7 @@ public class ClusterTopicRequest {
   @JsonProperty private Map<String, String> advancedTopicConfiguration;
 
   @JsonProperty private AclsNativeType aclsNativeType;
+
+  // only evaluated by the bulk topic endpoint, defaults to CREATE
+  @JsonProperty private RequestOperationType requestOperationType;
 }
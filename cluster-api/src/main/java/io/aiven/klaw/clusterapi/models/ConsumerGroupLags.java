@@ -0,0 +1,22 @@
+package io.aiven.klaw.clusterapi.models;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Lags of consumer groups, as listed to core. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumerGroupLags {
+
+  // consumer group id -> topic -> partitions with topicPartitionId, currentOffset, endOffset, lag
+  @JsonProperty private Map<String, Map<String, List<Map<String, String>>>> lags = new HashMap<>();
+
+  // consumer group id -> error, groups whose committed offsets could not be listed
+  @JsonProperty private Map<String, String> failedConsumerGroups = new HashMap<>();
+}
@@ -0,0 +1,25 @@
+package io.aiven.klaw.clusterapi.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopicContentEvent {
+  private int partition;
+
+  private long offset;
+
+  private long timestamp;
+
+  private String key;
+
+  private String value;
+
+  // value was cut at klaw.topiccontents.stream.max.value.length characters
+  private boolean valueTruncated;
+}
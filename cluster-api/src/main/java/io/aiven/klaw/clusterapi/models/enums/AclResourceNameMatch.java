@@ -0,0 +1,7 @@
+package io.aiven.klaw.clusterapi.models.enums;
+
+public enum AclResourceNameMatch {
+  EXACT,
+  PREFIX,
+  CONTAINS
+}
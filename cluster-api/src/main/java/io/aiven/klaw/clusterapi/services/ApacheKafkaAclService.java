@@ -1,24 +1,41 @@
 package io.aiven.klaw.clusterapi.services;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.Striped;
 import io.aiven.klaw.clusterapi.models.ClusterAclRequest;
 import io.aiven.klaw.clusterapi.models.enums.AclIPPrincipleType;
 import io.aiven.klaw.clusterapi.models.enums.AclPatternType;
+import io.aiven.klaw.clusterapi.models.enums.AclResourceNameMatch;
+import io.aiven.klaw.clusterapi.models.enums.AclType;
 import io.aiven.klaw.clusterapi.models.enums.ApiResultStatus;
 import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
 import io.aiven.klaw.clusterapi.models.enums.RequestOperationType;
 import io.aiven.klaw.clusterapi.utils.ClusterApiUtils;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.DeleteAclsResult;
 import org.apache.kafka.clients.admin.DescribeAclsResult;
+import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.acl.AccessControlEntry;
 import org.apache.kafka.common.acl.AccessControlEntryFilter;
 import org.apache.kafka.common.acl.AclBinding;
@@ -29,6 +46,7 @@ import org.apache.kafka.common.resource.PatternType;
 import org.apache.kafka.common.resource.ResourcePattern;
 import org.apache.kafka.common.resource.ResourcePatternFilter;
 import org.apache.kafka.common.resource.ResourceType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -36,16 +54,64 @@ import org.springframework.stereotype.Service;
 public class ApacheKafkaAclService {
 
   private static final long TIME_OUT_SECS_FOR_ACLS = 5;
+  private static final int ACL_SNAPSHOTS_CACHE_SIZE = 100;
 
   private final ClusterApiUtils clusterApiUtils;
 
+  // Acl updates of the same topic on a cluster are ordered, others run in parallel.
+  private final Striped<Lock> aclLocks = Striped.lazyWeakLock(256);
+
+  // acls changed outside of Klaw are seen after this time at the latest
+  @Value("${klaw.acls.snapshot.cache.ttl.ms:30000}")
+  private long aclSnapshotCacheTtlMs = 30000;
+
+  // cluster -> all acls of the cluster, replaced after every acl update of Klaw on the cluster
+  private Cache<String, AclSnapshot> aclSnapshots;
+
+  // cluster -> version of the acls, incremented by every acl update of Klaw on the cluster
+  private final ConcurrentHashMap<String, AtomicLong> aclVersions = new ConcurrentHashMap<>();
+
   public ApacheKafkaAclService(ClusterApiUtils clusterApiUtils) {
     this.clusterApiUtils = clusterApiUtils;
   }
 
-  public synchronized Set<Map<String, String>> loadAcls(
+  @PostConstruct
+  public void init() {
+    aclSnapshots =
+        CacheBuilder.newBuilder()
+            .maximumSize(ACL_SNAPSHOTS_CACHE_SIZE)
+            .expireAfterWrite(Duration.ofMillis(aclSnapshotCacheTtlMs))
+            .build();
+  }
+
+  public Set<Map<String, String>> loadAcls(
       String environment, KafkaSupportedProtocol protocol, String clusterName) throws Exception {
-    log.info("loadAcls {} {}", environment, protocol);
+    return loadAcls(environment, protocol, clusterName, null, null, null, null);
+  }
+
+  /**
+   * Literal acls of the cluster, optionally only of one resource type, resource name and principal.
+   * An exact resource name, resource type and principal are filtered by the broker, unless a
+   * snapshot of the acls of the cluster is cached. Prefix and contains matches of the resource name
+   * are filtered from the snapshot.
+   */
+  public Set<Map<String, String>> loadAcls(
+      String environment,
+      KafkaSupportedProtocol protocol,
+      String clusterName,
+      ResourceType resourceType,
+      String resourceName,
+      AclResourceNameMatch resourceNameMatch,
+      String principal)
+      throws Exception {
+    log.info(
+        "loadAcls {} {} {} {} {} {}",
+        environment,
+        protocol,
+        resourceType,
+        resourceName,
+        resourceNameMatch,
+        principal);
     Set<Map<String, String>> acls = new HashSet<>();
 
     AdminClient client = clusterApiUtils.getAdminClient(environment, protocol, clusterName);
@@ -53,13 +119,37 @@ public class ApacheKafkaAclService {
       throw new Exception("Cannot connect to cluster.");
     }
 
+    AclResourceNameMatch nameMatch =
+        resourceNameMatch == null ? AclResourceNameMatch.EXACT : resourceNameMatch;
     try {
-      AclBindingFilter aclBindingFilter = AclBindingFilter.ANY;
-      DescribeAclsResult aclsResult = client.describeAcls(aclBindingFilter);
+      String clusterKey = getClusterKey(environment, protocol, clusterName);
+      AclSnapshot aclSnapshot = getAclSnapshot(clusterKey);
+      Collection<AclBinding> aclBindings;
+      if (aclSnapshot == null
+          && nameMatch == AclResourceNameMatch.EXACT
+          && (resourceType != null || resourceName != null || principal != null)) {
+        aclBindings =
+            client
+                .describeAcls(
+                    new AclBindingFilter(
+                        new ResourcePatternFilter(
+                            resourceType == null ? ResourceType.ANY : resourceType,
+                            resourceName,
+                            PatternType.LITERAL),
+                        new AccessControlEntryFilter(
+                            principal, null, AclOperation.ANY, AclPermissionType.ANY)))
+                .values()
+                .get(TIME_OUT_SECS_FOR_ACLS, TimeUnit.SECONDS);
+      } else {
+        if (aclSnapshot == null) {
+          aclSnapshot = loadAclSnapshot(client, clusterKey);
+        }
+        aclBindings = aclSnapshot.aclBindings();
+      }
 
-      aclsResult
-          .values()
-          .get(TIME_OUT_SECS_FOR_ACLS, TimeUnit.SECONDS)
+      aclBindings.stream()
+          .filter(
+              aclBinding -> matches(aclBinding, resourceType, resourceName, nameMatch, principal))
           .forEach(aclBinding -> filterAndUpdateAclBindings(acls, aclBinding));
     } catch (Exception e) {
       log.error("Exception: ", e);
@@ -68,6 +158,76 @@ public class ApacheKafkaAclService {
     return acls;
   }
 
+  private static boolean matches(
+      AclBinding aclBinding,
+      ResourceType resourceType,
+      String resourceName,
+      AclResourceNameMatch resourceNameMatch,
+      String principal) {
+    if (resourceType != null && resourceType != aclBinding.pattern().resourceType()) {
+      return false;
+    }
+    if (principal != null && !principal.equals(aclBinding.entry().principal())) {
+      return false;
+    }
+    if (resourceName == null) {
+      return true;
+    }
+    String name = aclBinding.pattern().name();
+    return switch (resourceNameMatch) {
+      case EXACT -> resourceName.equals(name);
+      case PREFIX -> name.startsWith(resourceName);
+      case CONTAINS -> name.contains(resourceName);
+    };
+  }
+
+  private AclSnapshot getAclSnapshot(String clusterKey) {
+    AclSnapshot aclSnapshot = aclSnapshots.getIfPresent(clusterKey);
+    if (aclSnapshot != null && aclSnapshot.version() == getAclVersion(clusterKey).get()) {
+      return aclSnapshot;
+    }
+    return null;
+  }
+
+  private AclSnapshot loadAclSnapshot(AdminClient client, String clusterKey)
+      throws InterruptedException, ExecutionException, TimeoutException {
+    long version = getAclVersion(clusterKey).get();
+    AclSnapshot aclSnapshot =
+        new AclSnapshot(
+            version,
+            List.copyOf(
+                client
+                    .describeAcls(AclBindingFilter.ANY)
+                    .values()
+                    .get(TIME_OUT_SECS_FOR_ACLS, TimeUnit.SECONDS)));
+    // a snapshot described while Klaw updated the acls is not kept
+    if (version == getAclVersion(clusterKey).get()) {
+      aclSnapshots.put(clusterKey, aclSnapshot);
+    }
+    return aclSnapshot;
+  }
+
+  private AtomicLong getAclVersion(String clusterKey) {
+    return aclVersions.computeIfAbsent(clusterKey, key -> new AtomicLong());
+  }
+
+  private void invalidateAclSnapshot(ClusterAclRequest clusterAclRequest) {
+    String clusterKey =
+        getClusterKey(
+            clusterAclRequest.getEnv(),
+            clusterAclRequest.getProtocol(),
+            clusterAclRequest.getClusterName());
+    getAclVersion(clusterKey).incrementAndGet();
+    aclSnapshots.invalidate(clusterKey);
+  }
+
+  private static String getClusterKey(
+      String environment, KafkaSupportedProtocol protocol, String clusterName) {
+    return environment + "-" + protocol + "-" + clusterName;
+  }
+
+  private record AclSnapshot(long version, List<AclBinding> aclBindings) {}
+
   private static void filterAndUpdateAclBindings(
       Set<Map<String, String>> acls, AclBinding aclBinding) {
     if (aclBinding.pattern().patternType().name().equals(AclPatternType.LITERAL.value)) {
@@ -89,7 +249,18 @@ public class ApacheKafkaAclService {
     }
   }
 
-  public synchronized String updateProducerAcl(ClusterAclRequest clusterAclRequest) {
+  public String updateProducerAcl(ClusterAclRequest clusterAclRequest) {
+    Lock lock = aclLocks.get(getLockKey(clusterAclRequest));
+    lock.lock();
+    try {
+      return updateProducerAclLocked(clusterAclRequest);
+    } finally {
+      invalidateAclSnapshot(clusterAclRequest);
+      lock.unlock();
+    }
+  }
+
+  private String updateProducerAclLocked(ClusterAclRequest clusterAclRequest) {
     log.info("updateProducerAclRequest {}", clusterAclRequest);
     AdminClient client;
     try {
@@ -275,7 +446,18 @@ public class ApacheKafkaAclService {
     }
   }
 
-  public synchronized String updateConsumerAcl(ClusterAclRequest clusterAclRequest) {
+  public String updateConsumerAcl(ClusterAclRequest clusterAclRequest) {
+    Lock lock = aclLocks.get(getLockKey(clusterAclRequest));
+    lock.lock();
+    try {
+      return updateConsumerAclLocked(clusterAclRequest);
+    } finally {
+      invalidateAclSnapshot(clusterAclRequest);
+      lock.unlock();
+    }
+  }
+
+  private String updateConsumerAclLocked(ClusterAclRequest clusterAclRequest) {
     log.info("updateConsumerAclRequest {} ", clusterAclRequest);
     AdminClient client;
     String resultStr = "";
@@ -475,4 +657,221 @@ public class ApacheKafkaAclService {
     }
     return resultStr;
   }
+
+  /**
+   * Applies a batch of producer and consumer acl requests. All bindings of the requests of a
+   * cluster are compared with one describeAcls snapshot of the cluster. The missing bindings are
+   * then created in one createAcls call and the existing ones deleted in one deleteAcls call.
+   *
+   * @return outcome of every request, in the order of the requests
+   */
+  public List<String> updateAcls(List<ClusterAclRequest> clusterAclRequests) {
+    String[] results = new String[clusterAclRequests.size()];
+    Map<String, List<Integer>> requestsByCluster = new LinkedHashMap<>();
+    for (int i = 0; i < clusterAclRequests.size(); i++) {
+      ClusterAclRequest clusterAclRequest = clusterAclRequests.get(i);
+      requestsByCluster
+          .computeIfAbsent(
+              clusterAclRequest.getEnv()
+                  + "/"
+                  + clusterAclRequest.getProtocol()
+                  + "/"
+                  + clusterAclRequest.getClusterName(),
+              key -> new ArrayList<>())
+          .add(i);
+    }
+
+    for (List<Integer> requestIndexes : requestsByCluster.values()) {
+      // the locks of the single updates of the topics, taken in the order of the stripes
+      Set<String> lockKeys = new HashSet<>();
+      requestIndexes.forEach(i -> lockKeys.add(getLockKey(clusterAclRequests.get(i))));
+      List<Lock> lockedLocks = new ArrayList<>();
+      try {
+        for (Lock lock : aclLocks.bulkGet(lockKeys)) {
+          lock.lock();
+          lockedLocks.add(lock);
+        }
+        updateClusterAclsLocked(clusterAclRequests, requestIndexes, results);
+      } finally {
+        invalidateAclSnapshot(clusterAclRequests.get(requestIndexes.get(0)));
+        for (int i = lockedLocks.size() - 1; i >= 0; i--) {
+          lockedLocks.get(i).unlock();
+        }
+      }
+    }
+    return Arrays.asList(results);
+  }
+
+  private void updateClusterAclsLocked(
+      List<ClusterAclRequest> clusterAclRequests, List<Integer> requestIndexes, String[] results) {
+    ClusterAclRequest firstRequest = clusterAclRequests.get(requestIndexes.get(0));
+    log.info(
+        "updateAcls {} requests on {} {}",
+        requestIndexes.size(),
+        firstRequest.getEnv(),
+        firstRequest.getClusterName());
+
+    Set<AclBinding> existingAclBindings;
+    AdminClient client;
+    try {
+      client =
+          clusterApiUtils.getAdminClient(
+              firstRequest.getEnv(), firstRequest.getProtocol(), firstRequest.getClusterName());
+      if (client == null) {
+        requestIndexes.forEach(i -> results[i] = ApiResultStatus.FAILURE.value);
+        return;
+      }
+      existingAclBindings =
+          new HashSet<>(
+              client
+                  .describeAcls(AclBindingFilter.ANY)
+                  .values()
+                  .get(TIME_OUT_SECS_FOR_ACLS, TimeUnit.SECONDS));
+    } catch (Exception e) {
+      log.error("Exception: ", e);
+      requestIndexes.forEach(i -> results[i] = ApiResultStatus.FAILURE.value);
+      return;
+    }
+
+    Map<Integer, Set<AclBinding>> aclBindingsByRequest = new HashMap<>();
+    Set<AclBinding> aclBindingsToCreate = new LinkedHashSet<>();
+    Map<AclBindingFilter, AclBinding> aclBindingsToDelete = new LinkedHashMap<>();
+    for (Integer i : requestIndexes) {
+      ClusterAclRequest clusterAclRequest = clusterAclRequests.get(i);
+      Set<AclBinding> aclBindings = getAclBindings(clusterAclRequest);
+      if (aclBindings.isEmpty()) {
+        results[i] = ApiResultStatus.FAILURE.value;
+      } else if (RequestOperationType.CREATE.equals(clusterAclRequest.getRequestOperationType())) {
+        if (existingAclBindings.containsAll(aclBindings)) {
+          results[i] = "Acl already exists. success";
+        } else {
+          aclBindings.stream()
+              .filter(aclBinding -> !existingAclBindings.contains(aclBinding))
+              .forEach(aclBindingsToCreate::add);
+        }
+      } else {
+        aclBindings.stream()
+            .filter(existingAclBindings::contains)
+            .forEach(aclBinding -> aclBindingsToDelete.put(aclBinding.toFilter(), aclBinding));
+      }
+      aclBindingsByRequest.put(i, aclBindings);
+    }
+
+    Map<AclBinding, KafkaFuture<Void>> createResults =
+        aclBindingsToCreate.isEmpty()
+            ? Collections.emptyMap()
+            : client.createAcls(aclBindingsToCreate).values();
+    Map<AclBindingFilter, KafkaFuture<DeleteAclsResult.FilterResults>> deleteResults =
+        aclBindingsToDelete.isEmpty()
+            ? Collections.emptyMap()
+            : client.deleteAcls(aclBindingsToDelete.keySet()).values();
+
+    Set<AclBinding> failedAclBindings = new HashSet<>();
+    createResults.forEach(
+        (aclBinding, result) -> {
+          if (!isCompleted(result)) {
+            failedAclBindings.add(aclBinding);
+          }
+        });
+    deleteResults.forEach(
+        (aclBindingFilter, result) -> {
+          if (!isCompleted(result)) {
+            failedAclBindings.add(aclBindingsToDelete.get(aclBindingFilter));
+          }
+        });
+
+    for (Integer i : requestIndexes) {
+      if (results[i] == null) {
+        results[i] =
+            aclBindingsByRequest.get(i).stream().anyMatch(failedAclBindings::contains)
+                ? ApiResultStatus.FAILURE.value
+                : ApiResultStatus.SUCCESS.value;
+      }
+    }
+  }
+
+  private boolean isCompleted(KafkaFuture<?> result) {
+    try {
+      result.get(TIME_OUT_SECS_FOR_ACLS, TimeUnit.SECONDS);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (ExecutionException | TimeoutException e) {
+      log.error("Exception: ", e);
+      return false;
+    }
+  }
+
+  // the bindings updateProducerAcl and updateConsumerAcl create or delete for the request
+  private static Set<AclBinding> getAclBindings(ClusterAclRequest clusterAclRequest) {
+    boolean isProducer = AclType.PRODUCER.value.equals(clusterAclRequest.getAclType());
+    Map<String, String> hostsByPrincipal = new LinkedHashMap<>();
+    String aclSsl = clusterAclRequest.getAclSsl();
+    if (aclSsl != null
+        && aclSsl.trim().length() > 0
+        && (isProducer || !aclSsl.equals("User:*"))
+        && AclIPPrincipleType.PRINCIPAL.name().equals(clusterAclRequest.getAclIpPrincipleType())) {
+      hostsByPrincipal.put("User:" + aclSsl.trim(), "*");
+    }
+    String aclIp = clusterAclRequest.getAclIp();
+    if (aclIp != null && aclIp.trim().length() > 0) {
+      hostsByPrincipal.put("User:*", aclIp.trim());
+    }
+
+    Set<AclBinding> aclBindings = new LinkedHashSet<>();
+    hostsByPrincipal.forEach(
+        (principal, host) -> {
+          if (isProducer) {
+            PatternType patternType =
+                clusterAclRequest.isPrefixAcl() ? PatternType.PREFIXED : PatternType.LITERAL;
+            ResourcePattern topicPattern =
+                new ResourcePattern(
+                    ResourceType.TOPIC, clusterAclRequest.getTopicName(), patternType);
+            aclBindings.add(getAclBinding(topicPattern, principal, host, AclOperation.WRITE));
+            aclBindings.add(getAclBinding(topicPattern, principal, host, AclOperation.DESCRIBE));
+            String transactionalId = clusterAclRequest.getTransactionalId();
+            if (transactionalId != null && transactionalId.trim().length() > 0) {
+              aclBindings.add(
+                  getAclBinding(
+                      new ResourcePattern(
+                          ResourceType.TRANSACTIONAL_ID, transactionalId.trim(), patternType),
+                      principal,
+                      host,
+                      AclOperation.WRITE));
+            }
+          } else if (clusterAclRequest.getConsumerGroup() != null) {
+            ResourcePattern topicPattern =
+                new ResourcePattern(
+                    ResourceType.TOPIC, clusterAclRequest.getTopicName(), PatternType.LITERAL);
+            aclBindings.add(getAclBinding(topicPattern, principal, host, AclOperation.READ));
+            aclBindings.add(getAclBinding(topicPattern, principal, host, AclOperation.DESCRIBE));
+            aclBindings.add(
+                getAclBinding(
+                    new ResourcePattern(
+                        ResourceType.GROUP,
+                        clusterAclRequest.getConsumerGroup(),
+                        PatternType.LITERAL),
+                    principal,
+                    host,
+                    AclOperation.READ));
+          }
+        });
+    return aclBindings;
+  }
+
+  private static AclBinding getAclBinding(
+      ResourcePattern resourcePattern, String principal, String host, AclOperation operation) {
+    return new AclBinding(
+        resourcePattern,
+        new AccessControlEntry(principal, host, operation, AclPermissionType.ALLOW));
+  }
+
+  private static String getLockKey(ClusterAclRequest clusterAclRequest) {
+    return clusterAclRequest.getEnv()
+        + "/"
+        + clusterAclRequest.getClusterName()
+        + "/"
+        + clusterAclRequest.getTopicName();
+  }
 }
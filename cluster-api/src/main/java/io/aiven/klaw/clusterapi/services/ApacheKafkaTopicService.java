@@ -1,20 +1,30 @@
 package io.aiven.klaw.clusterapi.services;
 
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Striped;
 import io.aiven.klaw.clusterapi.models.ApiResponse;
+import io.aiven.klaw.clusterapi.models.ClusterTopic;
 import io.aiven.klaw.clusterapi.models.ClusterTopicRequest;
 import io.aiven.klaw.clusterapi.models.enums.ApiResultStatus;
 import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
+import io.aiven.klaw.clusterapi.models.enums.RequestOperationType;
 import io.aiven.klaw.clusterapi.utils.ClusterApiUtils;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.CreateTopicsResult;
@@ -26,6 +36,9 @@ import org.apache.kafka.clients.admin.NewPartitions;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.admin.TopicDescription;
 import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Slf4j
@@ -36,15 +49,56 @@ public class ApacheKafkaTopicService {
 
   private final ClusterApiUtils clusterApiUtils;
 
+  // Writes to the same topic on a cluster are ordered, other topics and clusters run in parallel.
+  private final Striped<Lock> topicLocks = Striped.lazyWeakLock(256);
+
+  @Value("${klaw.topics.describe.batch.size:1000}")
+  private int describeBatchSize = 1000;
+
+  @Value("${klaw.topics.describe.parallelism:4}")
+  private int describeParallelism = 4;
+
   public ApacheKafkaTopicService(ClusterApiUtils clusterApiUtils) {
     this.clusterApiUtils = clusterApiUtils;
   }
 
-  public synchronized Set<Map<String, String>> loadTopics(
+  public Set<Map<String, String>> loadTopics(
       String environment, KafkaSupportedProtocol protocol, String clusterName) throws Exception {
+    Set<Map<String, String>> topics = new HashSet<>();
+    List<String> failedTopics =
+        loadTopics(
+            environment,
+            protocol,
+            clusterName,
+            topic -> {
+              Map<String, String> hashMap = new HashMap<>();
+              hashMap.put("topicName", topic.getTopicName());
+              hashMap.put("replicationFactor", "" + topic.getReplicationFactor());
+              hashMap.put("partitions", "" + topic.getPartitions());
+              topics.add(hashMap);
+            });
+    if (!failedTopics.isEmpty()) {
+      // an incomplete list would make missing topics look deleted on the cluster
+      throw new Exception("Could not describe " + failedTopics.size() + " topics.");
+    }
+    return topics;
+  }
+
+  /**
+   * Describes the topics of a cluster in chunks of {@code describeBatchSize} topics, with at most
+   * {@code describeParallelism} describe requests in flight. Every described topic is handed to the
+   * consumer as soon as its chunk completes. Topics deleted after they were listed are skipped.
+   *
+   * @return names of the topics which could not be described
+   */
+  public List<String> loadTopics(
+      String environment,
+      KafkaSupportedProtocol protocol,
+      String clusterName,
+      Consumer<ClusterTopic> topicConsumer)
+      throws Exception {
     log.info("loadTopics {} {}", environment, protocol);
     AdminClient client = clusterApiUtils.getAdminClient(environment, protocol, clusterName);
-    Set<Map<String, String>> topics = new HashSet<>();
     if (client == null) {
       throw new Exception("Cannot connect to cluster.");
     }
@@ -53,36 +107,78 @@ public class ApacheKafkaTopicService {
     listTopicsOptions = listTopicsOptions.listInternal(false);
 
     ListTopicsResult topicsResult = client.listTopics(listTopicsOptions);
+    List<String> topicNames = new ArrayList<>(topicsResult.names().get());
+    topicNames.removeIf(
+        topicName -> topicName.equals("_schemas") || topicName.startsWith("_confluent"));
 
-    try {
-      DescribeTopicsResult s = client.describeTopics(new ArrayList<>(topicsResult.names().get()));
-      Map<String, TopicDescription> topicDesc =
-          s.all().get(TIME_OUT_SECS_FOR_TOPICS, TimeUnit.SECONDS);
-      Set<String> keySet = topicDesc.keySet();
-      keySet.remove("_schemas");
-      List<String> lstK = new ArrayList<>(keySet);
-      Map<String, String> hashMap;
-      for (String topicName : lstK) {
-        if (topicName.startsWith("_confluent")) {
-          continue;
+    List<String> failedTopics = new ArrayList<>();
+    Deque<Map<String, KafkaFuture<TopicDescription>>> inFlight = new ArrayDeque<>();
+    for (List<String> chunk : Lists.partition(topicNames, describeBatchSize)) {
+      if (inFlight.size() >= describeParallelism) {
+        collectTopicDescriptions(inFlight.poll(), topicConsumer, failedTopics);
+      }
+      inFlight.add(client.describeTopics(chunk).topicNameValues());
+    }
+    while (!inFlight.isEmpty()) {
+      collectTopicDescriptions(inFlight.poll(), topicConsumer, failedTopics);
+    }
+
+    if (!failedTopics.isEmpty()) {
+      log.error(
+          "loadTopics {} could not describe {} of {} topics",
+          clusterName,
+          failedTopics.size(),
+          topicNames.size());
+    }
+    return failedTopics;
+  }
+
+  private void collectTopicDescriptions(
+      Map<String, KafkaFuture<TopicDescription>> describeChunk,
+      Consumer<ClusterTopic> topicConsumer,
+      List<String> failedTopics)
+      throws InterruptedException {
+    // the topics of a chunk share one deadline, as they are described by the same requests
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIME_OUT_SECS_FOR_TOPICS);
+    for (Map.Entry<String, KafkaFuture<TopicDescription>> topic : describeChunk.entrySet()) {
+      TopicDescription topicDesc;
+      try {
+        topicDesc =
+            topic.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof UnknownTopicOrPartitionException) {
+          // deleted after it was listed
+          log.info("loadTopics topic {} no longer exists", topic.getKey());
+        } else {
+          log.error("Exception:", e);
+          failedTopics.add(topic.getKey());
         }
-        hashMap = new HashMap<>();
-        hashMap.put("topicName", topicName);
-        hashMap.put(
-            "replicationFactor",
-            "" + topicDesc.get(topicName).partitions().get(0).replicas().size());
-        hashMap.put("partitions", "" + topicDesc.get(topicName).partitions().size());
-        topics.add(hashMap);
+        continue;
+      } catch (TimeoutException e) {
+        log.error("Exception:", e);
+        failedTopics.add(topic.getKey());
+        continue;
       }
 
-    } catch (InterruptedException | ExecutionException | TimeoutException e) {
-      log.error("Exception:", e);
+      topicConsumer.accept(
+          new ClusterTopic(
+              topic.getKey(),
+              topicDesc.partitions().size(),
+              topicDesc.partitions().get(0).replicas().size()));
     }
-    return topics;
   }
 
-  public synchronized ApiResponse createTopic(ClusterTopicRequest clusterTopicRequest)
-      throws Exception {
+  public ApiResponse createTopic(ClusterTopicRequest clusterTopicRequest) throws Exception {
+    Lock lock = topicLocks.get(getLockKey(clusterTopicRequest));
+    lock.lock();
+    try {
+      return createTopicLocked(clusterTopicRequest);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private ApiResponse createTopicLocked(ClusterTopicRequest clusterTopicRequest) throws Exception {
     log.info("createTopic {}", clusterTopicRequest);
     AdminClient client;
     try {
@@ -141,8 +237,17 @@ public class ApacheKafkaTopicService {
     return ApiResponse.builder().result(ApiResultStatus.SUCCESS.value).build();
   }
 
-  public synchronized ApiResponse updateTopic(ClusterTopicRequest clusterTopicRequest)
-      throws Exception {
+  public ApiResponse updateTopic(ClusterTopicRequest clusterTopicRequest) throws Exception {
+    Lock lock = topicLocks.get(getLockKey(clusterTopicRequest));
+    lock.lock();
+    try {
+      return updateTopicLocked(clusterTopicRequest);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private ApiResponse updateTopicLocked(ClusterTopicRequest clusterTopicRequest) throws Exception {
     log.info("updateTopic Name: {}", clusterTopicRequest);
 
     AdminClient client =
@@ -159,14 +264,14 @@ public class ApacheKafkaTopicService {
         client.describeTopics(Collections.singleton(clusterTopicRequest.getTopicName()));
     TopicDescription result =
         describeTopicsResult
-            .all()
+            .allTopicNames()
             .get(TIME_OUT_SECS_FOR_TOPICS, TimeUnit.SECONDS)
             .get(clusterTopicRequest.getTopicName());
 
     if (result.partitions().size() > clusterTopicRequest.getPartitions()) {
       // delete topic and recreate
-      deleteTopic(clusterTopicRequest);
-      createTopic(clusterTopicRequest);
+      deleteTopicLocked(clusterTopicRequest);
+      createTopicLocked(clusterTopicRequest);
     } else {
       Map<String, NewPartitions> newPartitionSet = new HashMap<>();
       newPartitionSet.put(
@@ -179,8 +284,17 @@ public class ApacheKafkaTopicService {
     return ApiResponse.builder().result(ApiResultStatus.SUCCESS.value).build();
   }
 
-  public synchronized ApiResponse deleteTopic(ClusterTopicRequest clusterTopicRequest)
-      throws Exception {
+  public ApiResponse deleteTopic(ClusterTopicRequest clusterTopicRequest) throws Exception {
+    Lock lock = topicLocks.get(getLockKey(clusterTopicRequest));
+    lock.lock();
+    try {
+      return deleteTopicLocked(clusterTopicRequest);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private ApiResponse deleteTopicLocked(ClusterTopicRequest clusterTopicRequest) throws Exception {
     log.info("deleteTopic Topic {}", clusterTopicRequest);
 
     AdminClient client;
@@ -219,4 +333,249 @@ public class ApacheKafkaTopicService {
       throw e;
     }
   }
+
+  /**
+   * Executes a batch of topic requests with one createTopics, one deleteTopics and one
+   * createPartitions call per cluster. Results are returned in the order of the requests.
+   */
+  public List<ApiResponse> executeTopicRequests(List<ClusterTopicRequest> clusterTopicRequests) {
+    log.info("executeTopicRequests {} requests", clusterTopicRequests.size());
+    ApiResponse[] results = new ApiResponse[clusterTopicRequests.size()];
+    Map<String, List<Integer>> requestsPerCluster = new LinkedHashMap<>();
+    for (int i = 0; i < clusterTopicRequests.size(); i++) {
+      ClusterTopicRequest clusterTopicRequest = clusterTopicRequests.get(i);
+      requestsPerCluster
+          .computeIfAbsent(
+              clusterTopicRequest.getEnv()
+                  + "/"
+                  + clusterTopicRequest.getProtocol()
+                  + "/"
+                  + clusterTopicRequest.getClusterName(),
+              k -> new ArrayList<>())
+          .add(i);
+    }
+
+    requestsPerCluster
+        .values()
+        .forEach(
+            indexes -> {
+              List<ClusterTopicRequest> clusterRequests =
+                  indexes.stream().map(clusterTopicRequests::get).toList();
+              List<ApiResponse> clusterResults = executeTopicRequestsOnCluster(clusterRequests);
+              for (int i = 0; i < indexes.size(); i++) {
+                results[indexes.get(i)] = clusterResults.get(i);
+              }
+            });
+    return Arrays.asList(results);
+  }
+
+  private List<ApiResponse> executeTopicRequestsOnCluster(
+      List<ClusterTopicRequest> clusterTopicRequests) {
+    ApiResponse[] results = new ApiResponse[clusterTopicRequests.size()];
+    List<Lock> acquiredLocks = new ArrayList<>();
+    // bulkGet returns the locks in a stable order, so concurrent batches cannot deadlock
+    topicLocks
+        .bulkGet(clusterTopicRequests.stream().map(ApacheKafkaTopicService::getLockKey).toList())
+        .forEach(
+            lock -> {
+              lock.lock();
+              acquiredLocks.add(lock);
+            });
+    try {
+      ClusterTopicRequest firstRequest = clusterTopicRequests.get(0);
+      AdminClient client =
+          clusterApiUtils.getAdminClient(
+              firstRequest.getEnv(), firstRequest.getProtocol(), firstRequest.getClusterName());
+
+      // A topic can be batched once per admin call, repeated topics are executed one by one after
+      Set<String> batchedTopics = new HashSet<>();
+      Map<Integer, NewTopic> creates = new LinkedHashMap<>();
+      Map<Integer, String> deletes = new LinkedHashMap<>();
+      Map<Integer, ClusterTopicRequest> updates = new LinkedHashMap<>();
+      List<Integer> sequential = new ArrayList<>();
+      for (int i = 0; i < clusterTopicRequests.size(); i++) {
+        ClusterTopicRequest clusterTopicRequest = clusterTopicRequests.get(i);
+        if (!batchedTopics.add(clusterTopicRequest.getTopicName())) {
+          sequential.add(i);
+          continue;
+        }
+        switch (getRequestOperationType(clusterTopicRequest)) {
+          case CREATE -> creates.put(
+              i,
+              new NewTopic(
+                      clusterTopicRequest.getTopicName(),
+                      clusterTopicRequest.getPartitions(),
+                      clusterTopicRequest.getReplicationFactor())
+                  .configs(clusterTopicRequest.getAdvancedTopicConfiguration()));
+          case DELETE -> deletes.put(i, clusterTopicRequest.getTopicName());
+          case UPDATE -> updates.put(i, clusterTopicRequest);
+        }
+      }
+
+      Map<Integer, KafkaFuture<Void>> futures = new HashMap<>();
+      if (!creates.isEmpty()) {
+        Map<String, KafkaFuture<Void>> createFutures =
+            client.createTopics(creates.values()).values();
+        creates.forEach((i, newTopic) -> futures.put(i, createFutures.get(newTopic.name())));
+      }
+      if (!deletes.isEmpty()) {
+        Map<String, KafkaFuture<Void>> deleteFutures =
+            client.deleteTopics(deletes.values()).topicNameValues();
+        deletes.forEach((i, topicName) -> futures.put(i, deleteFutures.get(topicName)));
+      }
+      if (!updates.isEmpty()) {
+        try {
+          executeUpdates(client, updates, futures, results);
+        } catch (Exception e) {
+          log.error("Unable to update topics ", e);
+          updates.forEach(
+              (i, clusterTopicRequest) -> {
+                if (results[i] == null) {
+                  results[i] =
+                      ApiResponse.builder()
+                          .result(e.getMessage())
+                          .data(clusterTopicRequest.getTopicName())
+                          .build();
+                }
+              });
+        }
+      }
+
+      futures.forEach((i, future) -> results[i] = getResult(clusterTopicRequests.get(i), future));
+      for (Integer i : sequential) {
+        results[i] = executeTopicRequestLocked(clusterTopicRequests.get(i));
+      }
+    } catch (Exception e) {
+      log.error("Exception:", e);
+      for (int i = 0; i < results.length; i++) {
+        if (results[i] == null) {
+          results[i] =
+              ApiResponse.builder()
+                  .result(e.getMessage())
+                  .data(clusterTopicRequests.get(i).getTopicName())
+                  .build();
+        }
+      }
+    } finally {
+      acquiredLocks.forEach(Lock::unlock);
+    }
+    return Arrays.asList(results);
+  }
+
+  private void executeUpdates(
+      AdminClient client,
+      Map<Integer, ClusterTopicRequest> updates,
+      Map<Integer, KafkaFuture<Void>> futures,
+      ApiResponse[] results)
+      throws Exception {
+    Map<String, KafkaFuture<TopicDescription>> topicDescriptions =
+        client
+            .describeTopics(
+                updates.values().stream().map(ClusterTopicRequest::getTopicName).toList())
+            .topicNameValues();
+
+    Map<String, NewPartitions> newPartitions = new HashMap<>();
+    Map<Integer, String> increasedTopics = new HashMap<>();
+    for (Map.Entry<Integer, ClusterTopicRequest> update : updates.entrySet()) {
+      ClusterTopicRequest clusterTopicRequest = update.getValue();
+      String topicName = clusterTopicRequest.getTopicName();
+      int currentPartitions;
+      try {
+        currentPartitions =
+            topicDescriptions
+                .get(topicName)
+                .get(TIME_OUT_SECS_FOR_TOPICS, TimeUnit.SECONDS)
+                .partitions()
+                .size();
+      } catch (ExecutionException e) {
+        // e.g. the topic does not exist, the other topics are still updated
+        log.error("Unable to describe topic {}, {}", topicName, e.getCause().getMessage());
+        results[update.getKey()] =
+            ApiResponse.builder().result(e.getMessage()).data(topicName).build();
+        continue;
+      }
+      if (currentPartitions > clusterTopicRequest.getPartitions()) {
+        // partitions cannot be decreased, the topic is deleted and recreated
+        results[update.getKey()] = executeTopicRequestLocked(clusterTopicRequest);
+      } else if (currentPartitions == clusterTopicRequest.getPartitions()) {
+        results[update.getKey()] = getSuccessResult(topicName);
+      } else {
+        newPartitions.put(topicName, NewPartitions.increaseTo(clusterTopicRequest.getPartitions()));
+        increasedTopics.put(update.getKey(), topicName);
+      }
+    }
+
+    if (!newPartitions.isEmpty()) {
+      Map<String, KafkaFuture<Void>> partitionFutures =
+          client.createPartitions(newPartitions).values();
+      increasedTopics.forEach((i, topicName) -> futures.put(i, partitionFutures.get(topicName)));
+    }
+  }
+
+  private ApiResponse executeTopicRequestLocked(ClusterTopicRequest clusterTopicRequest) {
+    try {
+      ApiResponse apiResponse =
+          switch (getRequestOperationType(clusterTopicRequest)) {
+            case CREATE -> createTopicLocked(clusterTopicRequest);
+            case UPDATE -> updateTopicLocked(clusterTopicRequest);
+            case DELETE -> deleteTopicLocked(clusterTopicRequest);
+          };
+      return ApiResponse.builder()
+          .result(apiResponse.getResult())
+          .data(clusterTopicRequest.getTopicName())
+          .build();
+    } catch (Exception e) {
+      return ApiResponse.builder()
+          .result(e.getMessage())
+          .data(clusterTopicRequest.getTopicName())
+          .build();
+    }
+  }
+
+  private ApiResponse getResult(ClusterTopicRequest clusterTopicRequest, KafkaFuture<Void> future) {
+    try {
+      future.get(TIME_OUT_SECS_FOR_TOPICS, TimeUnit.SECONDS);
+      return getSuccessResult(clusterTopicRequest.getTopicName());
+    } catch (ExecutionException e) {
+      log.error(
+          "Unable to execute topic request {}, {}",
+          clusterTopicRequest.getTopicName(),
+          e.getCause().getMessage());
+      return ApiResponse.builder()
+          .result(e.getMessage())
+          .data(clusterTopicRequest.getTopicName())
+          .build();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return ApiResponse.builder()
+          .result(e.getMessage())
+          .data(clusterTopicRequest.getTopicName())
+          .build();
+    } catch (TimeoutException e) {
+      log.error("Timeout executing topic request {}", clusterTopicRequest.getTopicName());
+      return ApiResponse.builder()
+          .result("Timeout executing topic request")
+          .data(clusterTopicRequest.getTopicName())
+          .build();
+    }
+  }
+
+  private static ApiResponse getSuccessResult(String topicName) {
+    return ApiResponse.builder().result(ApiResultStatus.SUCCESS.value).data(topicName).build();
+  }
+
+  private static RequestOperationType getRequestOperationType(
+      ClusterTopicRequest clusterTopicRequest) {
+    return clusterTopicRequest.getRequestOperationType() == null
+        ? RequestOperationType.CREATE
+        : clusterTopicRequest.getRequestOperationType();
+  }
+
+  private static String getLockKey(ClusterTopicRequest clusterTopicRequest) {
+    return clusterTopicRequest.getEnv()
+        + "/"
+        + clusterTopicRequest.getClusterName()
+        + "/"
+        + clusterTopicRequest.getTopicName();
+  }
 }
@@ -1,10 +1,14 @@
 package io.aiven.klaw.clusterapi.services;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.function.Function;
 import javax.crypto.spec.SecretKeySpec;
@@ -15,11 +19,23 @@ import org.springframework.stereotype.Service;
 
 @Service
 public class JwtTokenUtilService implements InitializingBean {
+  private static final int VERIFIED_TOKENS_CACHE_SIZE = 1000;
+  // klaw issues tokens which expire in 3 minutes
+  private static final Duration VERIFIED_TOKENS_CACHE_EXPIRY = Duration.ofMinutes(3);
+
   @Value("${klaw.clusterapi.access.base64.secret}")
   private String clusterApiSecret;
 
   private static byte[] decodedSecret;
 
+  private JwtParser jwtParser;
+
+  private final Cache<String, Claims> verifiedTokens =
+      CacheBuilder.newBuilder()
+          .maximumSize(VERIFIED_TOKENS_CACHE_SIZE)
+          .expireAfterWrite(VERIFIED_TOKENS_CACHE_EXPIRY)
+          .build();
+
   // retrieve username from jwt token
   public String getUsernameFromToken(String token) {
     return getClaimFromToken(token, Claims::getSubject);
@@ -36,10 +52,20 @@ public class JwtTokenUtilService implements InitializingBean {
   }
 
   // for retrieving any information from token we will need the secret key
+  // klaw reuses its tokens until shortly before expiry, verified claims are cached per token
   private Claims getAllClaimsFromToken(String token) {
-    Key hmacKey = new SecretKeySpec(decodedSecret, SignatureAlgorithm.HS256.getJcaName());
-    Jws<Claims> jwt = Jwts.parserBuilder().setSigningKey(hmacKey).build().parseClaimsJws(token);
-    return jwt.getBody();
+    Claims claims = verifiedTokens.getIfPresent(token);
+    if (claims != null && claims.getExpiration().after(new Date())) {
+      return claims;
+    }
+    verifiedTokens.invalidate(token);
+
+    Jws<Claims> jwt = jwtParser.parseClaimsJws(token);
+    claims = jwt.getBody();
+    if (claims.getExpiration() != null) {
+      verifiedTokens.put(token, claims);
+    }
+    return claims;
   }
 
   // check if the token has expired
@@ -59,6 +85,8 @@ public class JwtTokenUtilService implements InitializingBean {
     if (clusterApiSecret != null && !clusterApiSecret.trim().equals("")) {
       try {
         decodedSecret = Base64.decodeBase64(clusterApiSecret);
+        Key hmacKey = new SecretKeySpec(decodedSecret, SignatureAlgorithm.HS256.getJcaName());
+        jwtParser = Jwts.parserBuilder().setSigningKey(hmacKey).build();
         return;
       } catch (Exception e) {
         throw new Exception(
@@ -1,7 +1,10 @@
 package io.aiven.klaw.clusterapi.services;
 
 import io.aiven.klaw.clusterapi.utils.MetricsUtils;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import javax.management.*;
 import javax.management.remote.JMXConnector;
@@ -15,32 +18,75 @@ public class MetricsApiService {
 
   @Autowired MetricsUtils metricsUtils;
 
-  //    public void getMetrics(){
-  //        getMetrics("service:jmx:rmi:///jndi/rmi://localhost:9996/jmxrmi",
-  //                "kafka.server:type=BrokerTopicMetrics,name=MessagesInPerSec");
-  //    }
-
   public Map<String, String> getMetrics(String jmxUrl, String objectName) throws Exception {
     Map<String, String> metricsMap = new HashMap<>();
+    JMXConnector jmxc = metricsUtils.getJmxConnector(jmxUrl);
     try {
-      JMXConnector jmxc = metricsUtils.getJmxConnector(jmxUrl);
       MBeanServerConnection mbsc = jmxc.getMBeanServerConnection();
 
-      //            String[] domains = mbsc.getDomains();
-      //            System.out.println(Arrays.toString(domains));
-
       // kafka.server:name=MessagesInPerSec,topic=topicName,type=BrokerTopicMetrics
-      ObjectName mxbeanName = new ObjectName(objectName);
-      MBeanAttributeInfo[] attributes = mbsc.getMBeanInfo(mxbeanName).getAttributes();
-
-      for (MBeanAttributeInfo attr : attributes) {
-        metricsMap.put(attr.getName(), "" + mbsc.getAttribute(mxbeanName, attr.getName()));
-        log.debug(attr.getName() + " " + mbsc.getAttribute(mxbeanName, attr.getName()));
-      }
+      metricsMap.putAll(getAttributes(mbsc, new ObjectName(objectName)));
+    } catch (IOException e) {
+      metricsUtils.invalidateJmxConnector(jmxUrl, jmxc);
+      log.error("Error ", e);
+      throw e;
     } catch (Exception e) {
       log.error("Error ", e);
       throw e;
     }
     return metricsMap;
   }
+
+  /**
+   * Reads every MBean matching the object name patterns (like
+   * kafka.server:type=BrokerTopicMetrics,name=*) from every jmx url, over the pooled connections. A
+   * jmx url which cannot be read is left out of the result.
+   *
+   * @return jmx url -> object name -> attribute -> value
+   */
+  public Map<String, Map<String, Map<String, String>>> getMetrics(
+      List<String> jmxUrls, List<String> objectNamePatterns) throws MalformedObjectNameException {
+    List<ObjectName> objectNames = new ArrayList<>();
+    for (String objectNamePattern : objectNamePatterns) {
+      objectNames.add(new ObjectName(objectNamePattern));
+    }
+
+    Map<String, Map<String, Map<String, String>>> metrics = new HashMap<>();
+    for (String jmxUrl : jmxUrls) {
+      JMXConnector jmxc = null;
+      try {
+        jmxc = metricsUtils.getJmxConnector(jmxUrl);
+        MBeanServerConnection mbsc = jmxc.getMBeanServerConnection();
+        Map<String, Map<String, String>> jmxUrlMetrics = new HashMap<>();
+        for (ObjectName objectName : objectNames) {
+          for (ObjectName mbeanName : mbsc.queryNames(objectName, null)) {
+            jmxUrlMetrics.put(mbeanName.toString(), getAttributes(mbsc, mbeanName));
+          }
+        }
+        metrics.put(jmxUrl, jmxUrlMetrics);
+      } catch (IOException e) {
+        metricsUtils.invalidateJmxConnector(jmxUrl, jmxc);
+        log.error("Error reading metrics from {}", jmxUrl, e);
+      } catch (Exception e) {
+        log.error("Error reading metrics from {}", jmxUrl, e);
+      }
+    }
+    return metrics;
+  }
+
+  private Map<String, String> getAttributes(MBeanServerConnection mbsc, ObjectName mbeanName)
+      throws Exception {
+    MBeanAttributeInfo[] attributeInfos = mbsc.getMBeanInfo(mbeanName).getAttributes();
+    String[] attributeNames = new String[attributeInfos.length];
+    for (int i = 0; i < attributeInfos.length; i++) {
+      attributeNames[i] = attributeInfos[i].getName();
+    }
+
+    // all attributes of the mbean in one round trip
+    Map<String, String> attributes = new HashMap<>();
+    for (Attribute attribute : mbsc.getAttributes(mbeanName, attributeNames).asList()) {
+      attributes.put(attribute.getName(), "" + attribute.getValue());
+    }
+    return attributes;
+  }
 }
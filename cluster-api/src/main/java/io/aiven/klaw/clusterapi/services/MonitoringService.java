@@ -1,12 +1,23 @@
 package io.aiven.klaw.clusterapi.services;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.aiven.klaw.clusterapi.models.ConsumerGroupLags;
 import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
 import io.aiven.klaw.clusterapi.utils.ClusterApiUtils;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.*;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.TopicPartitionInfo;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Slf4j
@@ -14,12 +25,28 @@ import org.springframework.stereotype.Service;
 public class MonitoringService {
 
   private static final long timeOutSecsForAcls = 5;
+  private static final int CONSUMER_LAG_CACHE_SIZE = 10000;
   final ClusterApiUtils clusterApiUtils;
 
+  // the consumer offsets panel is refreshed often, lags are reused for a short time
+  @Value("${klaw.monitoring.consumer.lag.cache.ttl.ms:10000}")
+  private long consumerLagCacheTtlMs = 10000;
+
+  private Cache<ConsumerLagKey, List<Map<String, String>>> consumerLags;
+
   public MonitoringService(ClusterApiUtils clusterApiUtils) {
     this.clusterApiUtils = clusterApiUtils;
   }
 
+  @PostConstruct
+  public void init() {
+    consumerLags =
+        CacheBuilder.newBuilder()
+            .maximumSize(CONSUMER_LAG_CACHE_SIZE)
+            .expireAfterWrite(Duration.ofMillis(consumerLagCacheTtlMs))
+            .build();
+  }
+
   public List<Map<String, String>> getConsumerGroupDetails(
       String consumerGroupId,
       String topicName,
@@ -35,58 +62,188 @@ public class MonitoringService {
         protocol,
         clusterName);
 
-    AdminClient adminClient = clusterApiUtils.getAdminClient(environment, protocol, clusterName);
-
-    List<Map<String, String>> consumerGroupOffsetList = new ArrayList<>();
-    Map<String, String> offsetDetails;
     try {
-      DescribeTopicsResult describeTopicsResult =
-          adminClient.describeTopics(Collections.singletonList(topicName));
-      List<TopicPartitionInfo> topicPartitions =
-          describeTopicsResult.values().get(topicName).get().partitions();
+      return getConsumerGroupLags(
+              environment,
+              protocol,
+              clusterName,
+              Collections.singletonMap(consumerGroupId, Collections.singleton(topicName)))
+          .getLags()
+          .get(consumerGroupId)
+          .get(topicName);
+    } catch (Exception exception) {
+      log.error(
+          "Cannot retrieve consumer offset details topicName: {} groupid: {} Error: {}",
+          topicName,
+          consumerGroupId,
+          exception);
+      return new ArrayList<>();
+    }
+  }
+
+  /**
+   * Lag of every partition of the topics consumed by the groups, from the committed offsets of the
+   * groups and the latest offsets of the partitions. Offsets of all groups and topics which are not
+   * cached are listed together, in one request per kind of offset. A group whose committed offsets
+   * cannot be listed, e.g. as it is not authorized, is reported in the failed groups without
+   * failing the others. A topic which cannot be described or whose offsets cannot be listed has no
+   * partitions.
+   *
+   * @param topicsByConsumerGroup consumer group id -> topics consumed by the group
+   * @return consumer group id -> topic -> partitions with topicPartitionId, currentOffset,
+   *     endOffset and lag. A partition without committed offset has the earliest offset as current
+   *     offset.
+   */
+  public ConsumerGroupLags getConsumerGroupLags(
+      String environment,
+      KafkaSupportedProtocol protocol,
+      String clusterName,
+      Map<String, ? extends Collection<String>> topicsByConsumerGroup)
+      throws Exception {
+    String clusterKey = environment + "-" + protocol + "-" + clusterName;
+    ConsumerGroupLags result = new ConsumerGroupLags();
+    Map<String, Map<String, List<Map<String, String>>>> consumerGroupLags = result.getLags();
+    Map<String, Set<String>> missingTopicsByConsumerGroup = new HashMap<>();
+    topicsByConsumerGroup.forEach(
+        (consumerGroupId, topicNames) -> {
+          for (String topicName : topicNames) {
+            List<Map<String, String>> lag =
+                consumerLags.getIfPresent(
+                    new ConsumerLagKey(clusterKey, consumerGroupId, topicName));
+            if (lag != null) {
+              consumerGroupLags
+                  .computeIfAbsent(consumerGroupId, key -> new HashMap<>())
+                  .put(topicName, lag);
+            } else {
+              missingTopicsByConsumerGroup
+                  .computeIfAbsent(consumerGroupId, key -> new HashSet<>())
+                  .add(topicName);
+            }
+          }
+        });
+    if (missingTopicsByConsumerGroup.isEmpty()) {
+      return result;
+    }
 
-      TopicPartition topicPartition;
-      Map<TopicPartition, OffsetSpec> topicPartitionOffsetSpecMap = new HashMap<>();
+    AdminClient adminClient = clusterApiUtils.getAdminClient(environment, protocol, clusterName);
+    Set<String> topicNames = new HashSet<>();
+    missingTopicsByConsumerGroup.values().forEach(topicNames::addAll);
+    Map<String, KafkaFuture<TopicDescription>> topicDescriptions =
+        adminClient.describeTopics(topicNames).topicNameValues();
 
-      for (TopicPartitionInfo topicPartitionInfo : topicPartitions) {
-        topicPartition = new TopicPartition(topicName, topicPartitionInfo.partition());
-        topicPartitionOffsetSpecMap.put(topicPartition, OffsetSpec.earliest());
+    Map<String, List<TopicPartition>> partitionsByTopic = new HashMap<>();
+    // topics which could not be described or listed, their empty lags are not cached
+    Set<String> failedTopics = new HashSet<>();
+    Map<TopicPartition, OffsetSpec> earliestOffsetSpecs = new HashMap<>();
+    Map<TopicPartition, OffsetSpec> latestOffsetSpecs = new HashMap<>();
+    for (Map.Entry<String, KafkaFuture<TopicDescription>> topicDescription :
+        topicDescriptions.entrySet()) {
+      String topicName = topicDescription.getKey();
+      List<TopicPartition> topicPartitions = new ArrayList<>();
+      try {
+        for (TopicPartitionInfo topicPartitionInfo :
+            topicDescription.getValue().get(timeOutSecsForAcls, TimeUnit.SECONDS).partitions()) {
+          TopicPartition topicPartition =
+              new TopicPartition(topicName, topicPartitionInfo.partition());
+          topicPartitions.add(topicPartition);
+          earliestOffsetSpecs.put(topicPartition, OffsetSpec.earliest());
+          latestOffsetSpecs.put(topicPartition, OffsetSpec.latest());
+        }
+      } catch (ExecutionException | TimeoutException e) {
+        // e.g. the topic does not exist, it has no partitions to report
+        log.error("Cannot describe topic {} ", topicName, e);
+        topicPartitions.clear();
+        failedTopics.add(topicName);
       }
-      ListOffsetsResult listOffsetsEarliestResult =
-          adminClient.listOffsets(topicPartitionOffsetSpecMap);
+      partitionsByTopic.put(topicName, topicPartitions);
+    }
 
-      topicPartitionOffsetSpecMap = new HashMap<>();
-      for (TopicPartitionInfo topicPartitionInfo : topicPartitions) {
-        topicPartition = new TopicPartition(topicName, topicPartitionInfo.partition());
-        topicPartitionOffsetSpecMap.put(topicPartition, OffsetSpec.latest());
-      }
+    Map<String, ListConsumerGroupOffsetsSpec> consumerGroupOffsetsSpecs = new HashMap<>();
+    missingTopicsByConsumerGroup.forEach(
+        (consumerGroupId, groupTopicNames) -> {
+          List<TopicPartition> groupPartitions = new ArrayList<>();
+          groupTopicNames.forEach(
+              topicName ->
+                  groupPartitions.addAll(
+                      partitionsByTopic.getOrDefault(topicName, Collections.emptyList())));
+          consumerGroupOffsetsSpecs.put(
+              consumerGroupId, new ListConsumerGroupOffsetsSpec().topicPartitions(groupPartitions));
+        });
 
-      ListOffsetsResult listOffsetsLatestResult =
-          adminClient.listOffsets(topicPartitionOffsetSpecMap);
+    // all requests are sent before waiting for any of them
+    ListConsumerGroupOffsetsResult consumerGroupOffsetsResult =
+        adminClient.listConsumerGroupOffsets(consumerGroupOffsetsSpecs);
+    ListOffsetsResult earliestOffsetsResult = adminClient.listOffsets(earliestOffsetSpecs);
+    ListOffsetsResult latestOffsetsResult = adminClient.listOffsets(latestOffsetSpecs);
 
-      for (TopicPartitionInfo topicPartitionInfo : topicPartitions) {
-        topicPartition = new TopicPartition(topicName, topicPartitionInfo.partition());
+    // earliest and latest offset of the partitions of each topic, topics failing are left out
+    Map<TopicPartition, long[]> partitionOffsets = new HashMap<>();
+    for (Map.Entry<String, List<TopicPartition>> topicPartitions : partitionsByTopic.entrySet()) {
+      try {
+        Map<TopicPartition, long[]> topicOffsets = new HashMap<>();
+        for (TopicPartition topicPartition : topicPartitions.getValue()) {
+          topicOffsets.put(
+              topicPartition,
+              new long[] {
+                earliestOffsetsResult
+                    .partitionResult(topicPartition)
+                    .get(timeOutSecsForAcls, TimeUnit.SECONDS)
+                    .offset(),
+                latestOffsetsResult
+                    .partitionResult(topicPartition)
+                    .get(timeOutSecsForAcls, TimeUnit.SECONDS)
+                    .offset()
+              });
+        }
+        partitionOffsets.putAll(topicOffsets);
+      } catch (ExecutionException | TimeoutException e) {
+        log.error("Cannot list offsets of topic {} ", topicPartitions.getKey(), e);
+        topicPartitions.getValue().clear();
+        failedTopics.add(topicPartitions.getKey());
+      }
+    }
 
-        offsetDetails = new HashMap<>();
-        long earliestOffset =
-            listOffsetsEarliestResult.partitionResult(topicPartition).get().offset();
-        long latestOffset = listOffsetsLatestResult.partitionResult(topicPartition).get().offset();
-        long lag = latestOffset - earliestOffset;
+    for (Map.Entry<String, Set<String>> groupTopics : missingTopicsByConsumerGroup.entrySet()) {
+      String consumerGroupId = groupTopics.getKey();
+      Map<TopicPartition, OffsetAndMetadata> groupOffsets;
+      try {
+        groupOffsets =
+            consumerGroupOffsetsResult
+                .partitionsToOffsetAndMetadata(consumerGroupId)
+                .get(timeOutSecsForAcls, TimeUnit.SECONDS);
+      } catch (ExecutionException | TimeoutException e) {
+        log.error("Cannot list offsets of consumer group {} ", consumerGroupId, e);
+        Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+        result.getFailedConsumerGroups().put(consumerGroupId, String.valueOf(cause));
+        continue;
+      }
+      for (String topicName : groupTopics.getValue()) {
+        List<Map<String, String>> lag = new ArrayList<>();
+        for (TopicPartition topicPartition :
+            partitionsByTopic.getOrDefault(topicName, Collections.emptyList())) {
+          OffsetAndMetadata committedOffset = groupOffsets.get(topicPartition);
+          long[] offsets = partitionOffsets.get(topicPartition);
+          long currentOffset = committedOffset != null ? committedOffset.offset() : offsets[0];
+          long endOffset = offsets[1];
 
-        offsetDetails.put("topicPartitionId", Long.toString(topicPartition.partition()));
-        offsetDetails.put("currentOffset", Long.toString(earliestOffset));
-        offsetDetails.put("endOffset", Long.toString(latestOffset));
-        offsetDetails.put("lag", Long.toString(lag));
-        consumerGroupOffsetList.add(offsetDetails);
+          Map<String, String> offsetDetails = new HashMap<>();
+          offsetDetails.put("topicPartitionId", Long.toString(topicPartition.partition()));
+          offsetDetails.put("currentOffset", Long.toString(currentOffset));
+          offsetDetails.put("endOffset", Long.toString(endOffset));
+          offsetDetails.put("lag", Long.toString(Math.max(0, endOffset - currentOffset)));
+          lag.add(offsetDetails);
+        }
+        lag = Collections.unmodifiableList(lag);
+        if (!failedTopics.contains(topicName)) {
+          consumerLags.put(new ConsumerLagKey(clusterKey, consumerGroupId, topicName), lag);
+        }
+        consumerGroupLags
+            .computeIfAbsent(consumerGroupId, key -> new HashMap<>())
+            .put(topicName, lag);
       }
-      return consumerGroupOffsetList;
-    } catch (Exception exception) {
-      log.error(
-          "Cannot retrieve consumer offset details topicName: {} groupid: {} Error: {}",
-          topicName,
-          consumerGroupId,
-          exception);
-      return consumerGroupOffsetList;
     }
+    return result;
   }
+
+  private record ConsumerLagKey(String cluster, String consumerGroupId, String topicName) {}
 }
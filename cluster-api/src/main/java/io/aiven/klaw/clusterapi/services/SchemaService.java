@@ -1,17 +1,25 @@
 package io.aiven.klaw.clusterapi.services;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.aiven.klaw.clusterapi.models.ApiResponse;
 import io.aiven.klaw.clusterapi.models.ClusterSchemaRequest;
 import io.aiven.klaw.clusterapi.models.enums.ClusterStatus;
 import io.aiven.klaw.clusterapi.models.enums.KafkaClustersType;
 import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
 import io.aiven.klaw.clusterapi.utils.ClusterApiUtils;
+import jakarta.annotation.PreDestroy;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,6 +28,7 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
@@ -41,13 +50,41 @@ public class SchemaService {
       "application/vnd.schemaregistry.v1+json";
   public static final String SCHEMA_COMPATIBILITY_NOT_SET = "NOT SET";
 
+  private static final String SCHEMA_KEY = "schema";
+  private static final String SCHEMA_ID_KEY = "id";
+  private static final int SCHEMA_VERSIONS_CACHE_SIZE = 10000;
+  private static final int SCHEMA_VERSIONS_FETCH_THREADS = 8;
+
   @Value("${klaw.schemaregistry.compatibility.default:BACKWARD}")
   private String defaultSchemaCompatibility;
 
   final ClusterApiUtils clusterApiUtils;
 
+  // keyed by the schema registry the ids and versions belong to
+  private final Cache<SchemaVersionKey, Map<String, Object>> schemaVersions =
+      CacheBuilder.newBuilder().maximumSize(SCHEMA_VERSIONS_CACHE_SIZE).build();
+
+  private final Cache<SchemaIdKey, String> schemas =
+      CacheBuilder.newBuilder().maximumSize(SCHEMA_VERSIONS_CACHE_SIZE).build();
+
+  private final ThreadPoolExecutor schemaVersionsExecutor =
+      new ThreadPoolExecutor(
+          SCHEMA_VERSIONS_FETCH_THREADS,
+          SCHEMA_VERSIONS_FETCH_THREADS,
+          60,
+          TimeUnit.SECONDS,
+          new LinkedBlockingQueue<>(),
+          new CustomizableThreadFactory("klaw-schema-versions-"));
+
   public SchemaService(ClusterApiUtils clusterApiUtils) {
     this.clusterApiUtils = clusterApiUtils;
+    // idle fetch threads are released instead of being kept until shutdown
+    schemaVersionsExecutor.allowCoreThreadTimeOut(true);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    schemaVersionsExecutor.shutdownNow();
   }
 
   public synchronized ApiResponse registerSchema(ClusterSchemaRequest clusterSchemaRequest) {
@@ -140,6 +177,17 @@ public class SchemaService {
       KafkaSupportedProtocol protocol,
       String clusterIdentification,
       String topicName) {
+    return getSchema(environmentVal, protocol, clusterIdentification, topicName, false);
+  }
+
+  // registered versions never change, only the versions list and the compatibility are fetched
+  // on every call
+  public Map<Integer, Map<String, Object>> getSchema(
+      String environmentVal,
+      KafkaSupportedProtocol protocol,
+      String clusterIdentification,
+      String topicName,
+      boolean latestOnly) {
     try {
       log.info("Into getSchema request {} {} {}", topicName, environmentVal, protocol);
       if (environmentVal == null) {
@@ -152,28 +200,44 @@ public class SchemaService {
           getSubjectSchemaCompatibility(environmentVal, topicName, protocol, clusterIdentification);
       Map<Integer, Map<String, Object>> allSchemaObjects = new TreeMap<>();
 
-      if (versionsList != null) {
+      if (versionsList != null && !versionsList.isEmpty()) {
+        if (latestOnly) {
+          versionsList = List.of(Collections.max(versionsList));
+        }
+
+        Map<Integer, CompletableFuture<Map<String, Object>>> missingVersions = new HashMap<>();
         for (Integer schemaVersion : versionsList) {
-          String suffixUrl =
-              environmentVal + "/subjects/" + topicName + "-value/versions/" + schemaVersion;
-          Pair<String, RestTemplate> reqDetails =
-              clusterApiUtils.getRequestDetails(suffixUrl, protocol);
-
-          Map<String, String> params = new HashMap<>();
-          HttpEntity<Object> request = createSchemaRegistryRequest(clusterIdentification);
-
-          ResponseEntity<Map<String, Object>> responseNew =
-              reqDetails
-                  .getRight()
-                  .exchange(
-                      reqDetails.getLeft(), HttpMethod.GET, request, GET_SCHEMA_TYPEREF, params);
-          Map<String, Object> schemaResponse = responseNew.getBody();
-          if (schemaResponse != null) {
-            schemaResponse.put("compatibility", schemaCompatibility);
+          Map<String, Object> cachedVersion =
+              schemaVersions.getIfPresent(
+                  new SchemaVersionKey(environmentVal, topicName, schemaVersion));
+          if (cachedVersion != null) {
+            allSchemaObjects.put(
+                schemaVersion, getSchemaObject(cachedVersion, schemaCompatibility));
+          } else {
+            missingVersions.put(
+                schemaVersion,
+                CompletableFuture.supplyAsync(
+                    () ->
+                        getSchemaVersion(
+                            environmentVal,
+                            topicName,
+                            schemaVersion,
+                            protocol,
+                            clusterIdentification),
+                    schemaVersionsExecutor));
           }
-
-          log.info(Objects.requireNonNull(responseNew.getBody()).toString());
-          allSchemaObjects.put(schemaVersion, schemaResponse);
+        }
+        log.debug(
+            "Schema versions of {} cached {} fetched {}",
+            topicName,
+            allSchemaObjects.size(),
+            missingVersions.size());
+
+        for (Map.Entry<Integer, CompletableFuture<Map<String, Object>>> missingVersion :
+            missingVersions.entrySet()) {
+          allSchemaObjects.put(
+              missingVersion.getKey(),
+              getSchemaObject(missingVersion.getValue().join(), schemaCompatibility));
         }
       }
 
@@ -184,6 +248,50 @@ public class SchemaService {
     }
   }
 
+  private Map<String, Object> getSchemaVersion(
+      String environmentVal,
+      String topicName,
+      Integer schemaVersion,
+      KafkaSupportedProtocol protocol,
+      String clusterIdentification) {
+    String suffixUrl =
+        environmentVal + "/subjects/" + topicName + "-value/versions/" + schemaVersion;
+    Pair<String, RestTemplate> reqDetails = clusterApiUtils.getRequestDetails(suffixUrl, protocol);
+
+    Map<String, String> params = new HashMap<>();
+    HttpEntity<Object> request = createSchemaRegistryRequest(clusterIdentification);
+
+    ResponseEntity<Map<String, Object>> responseNew =
+        reqDetails
+            .getRight()
+            .exchange(reqDetails.getLeft(), HttpMethod.GET, request, GET_SCHEMA_TYPEREF, params);
+    Map<String, Object> schemaResponse =
+        new HashMap<>(Objects.requireNonNull(responseNew.getBody()));
+
+    // versions registered with the same id share one copy of the schema
+    if (schemaResponse.get(SCHEMA_ID_KEY) instanceof Number schemaId
+        && schemaResponse.get(SCHEMA_KEY) instanceof String schema) {
+      try {
+        schemaResponse.put(
+            SCHEMA_KEY,
+            schemas.get(new SchemaIdKey(environmentVal, schemaId.intValue()), () -> schema));
+      } catch (ExecutionException e) {
+        log.error("Error in caching schema ", e);
+      }
+      schemaVersions.put(
+          new SchemaVersionKey(environmentVal, topicName, schemaVersion),
+          Collections.unmodifiableMap(schemaResponse));
+    }
+    return schemaResponse;
+  }
+
+  private static Map<String, Object> getSchemaObject(
+      Map<String, Object> schemaVersion, String schemaCompatibility) {
+    Map<String, Object> schemaObject = new HashMap<>(schemaVersion);
+    schemaObject.put("compatibility", schemaCompatibility);
+    return schemaObject;
+  }
+
   private List<Integer> getSchemaVersions(
       String environmentVal,
       String topicName,
@@ -336,4 +444,8 @@ public class SchemaService {
       return ClusterStatus.OFFLINE;
     }
   }
+
+  private record SchemaVersionKey(String schemaRegistry, String topicName, int version) {}
+
+  private record SchemaIdKey(String schemaRegistry, int id) {}
 }
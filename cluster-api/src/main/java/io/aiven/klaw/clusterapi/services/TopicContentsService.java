@@ -1,34 +1,98 @@
 package io.aiven.klaw.clusterapi.services;
 
+import io.aiven.klaw.clusterapi.models.TopicContentEvent;
 import io.aiven.klaw.clusterapi.utils.ClusterApiUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
-import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+/**
+ * Reads topic contents with consumers which are not part of a consumer group. Partitions are
+ * assigned and positioned directly, so there is no rebalance and no offsets are committed. Idle
+ * consumers are pooled per cluster and reused by the next read.
+ */
 @Slf4j
 @Service
 public class TopicContentsService {
 
+  public static final String OFFSET_ID = "OFFSET_ID";
+
   final ClusterApiUtils clusterApiUtils;
 
-  @Value("${klaw.topiccontents.consumergroup.id:notdefined}")
-  private String kwGenericConsumerGroupId;
+  @Value("${klaw.topiccontents.read.timeout.ms:5000}")
+  private long readTimeoutMs = 5000;
+
+  @Value("${klaw.topiccontents.consumer.poll.interval.ms:200}")
+  private long pollIntervalMs = 200;
+
+  @Value("${klaw.topiccontents.max.bytes:1048576}")
+  private long defaultMaxBytes = 1048576;
+
+  @Value("${klaw.topiccontents.stream.max.value.length:10000}")
+  private int maxStreamValueLength = 10000;
+
+  // every stream holds a thread and a consumer until it ends, further streams are rejected
+  @Value("${klaw.topiccontents.stream.max.concurrent:8}")
+  private int maxConcurrentStreams = 8;
+
+  @Value("${klaw.topiccontents.consumer.pool.max.idle:4}")
+  private int maxIdleConsumers = 4;
+
+  @Value("${klaw.topiccontents.consumer.pool.idle.timeout.ms:300000}")
+  private long idleConsumerTimeoutMs = 300000;
+
+  // bootstrapServers-protocol -> idle consumers, most recently used first
+  private final Map<String, Deque<PooledConsumer>> idleConsumers = new ConcurrentHashMap<>();
 
-  @Value("${klaw.topiccontents.consumer.poll.interval.ms:2000}")
-  private long defaultPollInterval;
+  private final AtomicInteger consumerCounter = new AtomicInteger();
+
+  private ExecutorService streamExecutor;
 
   public TopicContentsService(ClusterApiUtils clusterApiUtils) {
     this.clusterApiUtils = clusterApiUtils;
   }
 
+  @PostConstruct
+  public void initStreamExecutor() {
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            maxConcurrentStreams,
+            maxConcurrentStreams,
+            60,
+            TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            new CustomizableThreadFactory("klaw-topic-contents-stream-"),
+            new ThreadPoolExecutor.AbortPolicy());
+    executor.allowCoreThreadTimeOut(true);
+    streamExecutor = executor;
+  }
+
   public Map<Long, String> readEvents(
       String bootStrapServers,
       String protocol,
@@ -47,51 +111,260 @@ public class TopicContentsService {
         topicName,
         offsetPosition,
         readMessagesType);
+    return readEvents(
+        bootStrapServers,
+        protocol,
+        topicName,
+        offsetPosition,
+        readMessagesType,
+        null,
+        null,
+        null,
+        defaultMaxBytes);
+  }
 
+  /**
+   * Reads at most numOfEvents records, and stops as soon as they are read or the end of the
+   * partitions is reached.
+   *
+   * @param partitionId partition to read, all partitions if null
+   * @param startOffset first offset to read, if null the last numOfEvents records of every
+   *     partition are read for OFFSET_ID, else from the beginning
+   * @param endOffset last offset to read, the current end of the partitions if null
+   * @param maxBytes reading stops once the keys and values read exceed this size, the configured
+   *     klaw.topiccontents.max.bytes if null
+   */
+  public Map<Long, String> readEvents(
+      String bootStrapServers,
+      String protocol,
+      String topicName,
+      int numOfEvents,
+      String readMessagesType,
+      Integer partitionId,
+      Long startOffset,
+      Long endOffset,
+      Long maxBytes) {
     Map<Long, String> eventMap = new TreeMap<>();
-    KafkaConsumer<String, String> consumer;
-
-    if (consumerGroupId.equals("notdefined")) {
-      consumer = getKafkaConsumer(kwGenericConsumerGroupId, bootStrapServers, protocol);
-    } else {
-      consumer = getKafkaConsumer(consumerGroupId, bootStrapServers, protocol);
+    try {
+      readRecords(
+          bootStrapServers,
+          protocol,
+          topicName,
+          numOfEvents,
+          readMessagesType,
+          partitionId,
+          startOffset,
+          endOffset,
+          maxBytes == null ? defaultMaxBytes : maxBytes,
+          record -> eventMap.put(record.offset(), record.value()));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
     }
+    return eventMap;
+  }
+
+  /**
+   * Sends the records to the emitter while they are read. Sending blocks while the client is not
+   * keeping up, which also holds back polling for more records.
+   *
+   * @throws RejectedExecutionException if the maximum number of streams are already running
+   */
+  public void streamEvents(
+      String bootStrapServers,
+      String protocol,
+      String topicName,
+      int numOfEvents,
+      Integer partitionId,
+      Long startOffset,
+      Long endOffset,
+      Long maxBytes,
+      SseEmitter emitter) {
+    streamExecutor.execute(
+        () -> {
+          try {
+            readRecords(
+                bootStrapServers,
+                protocol,
+                topicName,
+                numOfEvents,
+                OFFSET_ID,
+                partitionId,
+                startOffset,
+                endOffset,
+                maxBytes == null ? defaultMaxBytes : maxBytes,
+                record ->
+                    emitter.send(
+                        SseEmitter.event()
+                            .id(record.partition() + "-" + record.offset())
+                            .data(getTopicContentEvent(record), MediaType.APPLICATION_JSON)));
+            emitter.complete();
+          } catch (Exception e) {
+            log.error("Error streaming topic contents of {} ", topicName, e);
+            emitter.completeWithError(e);
+          }
+        });
+  }
+
+  private TopicContentEvent getTopicContentEvent(ConsumerRecord<String, String> record) {
+    String value = record.value();
+    boolean valueTruncated = value != null && value.length() > maxStreamValueLength;
+    return TopicContentEvent.builder()
+        .partition(record.partition())
+        .offset(record.offset())
+        .timestamp(record.timestamp())
+        .key(record.key())
+        .value(valueTruncated ? value.substring(0, maxStreamValueLength) : value)
+        .valueTruncated(valueTruncated)
+        .build();
+  }
 
-    consumer.subscribe(Collections.singleton(topicName));
-    consumer.poll(Duration.ofMillis(defaultPollInterval));
-    Set<TopicPartition> assignment = consumer.assignment();
-
-    consumer.seekToBeginning(assignment);
-    Map<TopicPartition, Long> endOffsets = consumer.endOffsets(assignment);
-    long newOffset;
-    if (readMessagesType.equals("OFFSET_ID")) {
-      for (TopicPartition tp : assignment) {
-        long beginningOffset = consumer.position(tp);
-        long endOffset = endOffsets.get(tp);
-        newOffset = endOffset - offsetPosition;
-        if (newOffset < beginningOffset) {
-          newOffset = beginningOffset;
+  private void readRecords(
+      String bootStrapServers,
+      String protocol,
+      String topicName,
+      int numOfEvents,
+      String readMessagesType,
+      Integer partitionId,
+      Long startOffset,
+      Long endOffset,
+      long maxBytes,
+      RecordHandler recordHandler)
+      throws IOException {
+    int readRecords = 0;
+    String poolKey = bootStrapServers + "-" + protocol;
+    Consumer<String, String> consumer = borrowConsumer(poolKey, bootStrapServers, protocol);
+    try {
+      List<TopicPartition> partitions = new ArrayList<>();
+      for (PartitionInfo partitionInfo :
+          consumer.partitionsFor(topicName, Duration.ofMillis(readTimeoutMs))) {
+        if (partitionId == null || partitionId == partitionInfo.partition()) {
+          partitions.add(new TopicPartition(topicName, partitionInfo.partition()));
+        }
+      }
+
+      Map<TopicPartition, Long> beginningOffsets = consumer.beginningOffsets(partitions);
+      Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+      // partition -> offset after the last record to read
+      Map<TopicPartition, Long> stopOffsets = new HashMap<>();
+      Map<TopicPartition, Long> seekOffsets = new HashMap<>();
+      for (TopicPartition tp : partitions) {
+        long beginningOffset = beginningOffsets.get(tp);
+        long stopOffset =
+            endOffset == null ? endOffsets.get(tp) : Math.min(endOffset + 1, endOffsets.get(tp));
+        long seekOffset;
+        if (startOffset != null) {
+          seekOffset = Math.max(startOffset, beginningOffset);
+        } else if (OFFSET_ID.equals(readMessagesType)) {
+          seekOffset = Math.max(stopOffset - numOfEvents, beginningOffset);
+        } else {
+          seekOffset = beginningOffset;
         }
+        if (seekOffset < stopOffset) {
+          stopOffsets.put(tp, stopOffset);
+          seekOffsets.put(tp, seekOffset);
+        }
+      }
 
-        consumer.seek(tp, newOffset);
+      consumer.assign(stopOffsets.keySet());
+      seekOffsets.forEach(consumer::seek);
+
+      long readBytes = 0;
+      long deadline = System.currentTimeMillis() + readTimeoutMs;
+      while (!stopOffsets.isEmpty()
+          && readRecords < numOfEvents
+          && readBytes < maxBytes
+          && System.currentTimeMillis() < deadline) {
+        for (ConsumerRecord<String, String> record :
+            consumer.poll(Duration.ofMillis(pollIntervalMs))) {
+          TopicPartition tp = new TopicPartition(record.topic(), record.partition());
+          Long stopOffset = stopOffsets.get(tp);
+          if (stopOffset == null
+              || record.offset() >= stopOffset
+              || readRecords >= numOfEvents
+              || readBytes >= maxBytes) {
+            continue;
+          }
+          recordHandler.onRecord(record);
+          readRecords++;
+          readBytes += Math.max(0, record.serializedKeySize());
+          readBytes += Math.max(0, record.serializedValueSize());
+          if (record.offset() + 1 >= stopOffset) {
+            stopOffsets.remove(tp);
+            consumer.pause(Collections.singleton(tp));
+          }
+        }
       }
+
+    } catch (RuntimeException e) {
+      // the state of the consumer is unknown, it is not reused
+      closeConsumer(consumer);
+      throw e;
+    } catch (IOException e) {
+      // the client went away, the consumer itself can be reused
+      consumer.assign(Collections.emptyList());
+      returnConsumer(poolKey, consumer);
+      throw e;
     }
+    consumer.assign(Collections.emptyList());
+    returnConsumer(poolKey, consumer);
+  }
 
-    int i = 0;
-    int numOfEventsToRead = 5;
-    do {
-      ConsumerRecords<String, String> consumerRecords = consumer.poll(Duration.ofMillis(500));
-      consumerRecords.forEach(record -> eventMap.put(record.offset(), record.value()));
-      i++;
-    } while (i != numOfEventsToRead);
+  private Consumer<String, String> borrowConsumer(
+      String poolKey, String bootstrapServers, String protocol) {
+    Deque<PooledConsumer> pooledConsumers = idleConsumers.get(poolKey);
+    PooledConsumer pooledConsumer = pooledConsumers == null ? null : pooledConsumers.pollFirst();
+    if (pooledConsumer != null) {
+      return pooledConsumer.consumer();
+    }
+    return createConsumer(bootstrapServers, protocol);
+  }
 
-    consumer.commitAsync();
-    consumer.close();
-    return eventMap;
+  private void returnConsumer(String poolKey, Consumer<String, String> consumer) {
+    Deque<PooledConsumer> pooledConsumers =
+        idleConsumers.computeIfAbsent(poolKey, key -> new ConcurrentLinkedDeque<>());
+    if (pooledConsumers.size() < maxIdleConsumers) {
+      pooledConsumers.offerFirst(new PooledConsumer(consumer, System.currentTimeMillis()));
+    } else {
+      closeConsumer(consumer);
+    }
+  }
+
+  @Scheduled(
+      fixedRateString = "${klaw.topiccontents.consumer.pool.idle.timeout.ms:300000}",
+      initialDelayString = "${klaw.topiccontents.consumer.pool.idle.timeout.ms:300000}")
+  public void closeIdleConsumers() {
+    long idleSince = System.currentTimeMillis() - idleConsumerTimeoutMs;
+    idleConsumers.values().forEach(pooledConsumers -> closeConsumers(pooledConsumers, idleSince));
+  }
+
+  @PreDestroy
+  public void closeConsumers() {
+    streamExecutor.shutdownNow();
+    idleConsumers
+        .values()
+        .forEach(pooledConsumers -> closeConsumers(pooledConsumers, Long.MAX_VALUE));
   }
 
-  public KafkaConsumer<String, String> getKafkaConsumer(
-      String groupId, String bootstrapServers, String protocol) {
+  private void closeConsumers(Deque<PooledConsumer> pooledConsumers, long idleSince) {
+    // least recently used consumers are at the end
+    PooledConsumer pooledConsumer;
+    while ((pooledConsumer = pooledConsumers.peekLast()) != null
+        && pooledConsumer.lastUsedTime() < idleSince) {
+      if (pooledConsumers.removeLastOccurrence(pooledConsumer)) {
+        closeConsumer(pooledConsumer.consumer());
+      }
+    }
+  }
+
+  private void closeConsumer(Consumer<String, String> consumer) {
+    try {
+      consumer.close(Duration.ofMillis(readTimeoutMs));
+    } catch (Exception e) {
+      log.error("Error closing topic contents consumer ", e);
+    }
+  }
+
+  Consumer<String, String> createConsumer(String bootstrapServers, String protocol) {
     Properties props = new Properties();
 
     if (protocol.equals("SSL")) {
@@ -100,10 +373,18 @@ public class TopicContentsService {
     }
     props.put(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
     props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
-    props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-    props.put(ConsumerConfig.CLIENT_ID_CONFIG, "KLAW_TMP_GROUP_CLIENT" + groupId);
+    props.put(
+        ConsumerConfig.CLIENT_ID_CONFIG,
+        "KLAW_TOPIC_CONTENTS_CLIENT" + consumerCounter.incrementAndGet());
     props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
     props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
     return new KafkaConsumer<>(props);
   }
+
+  @FunctionalInterface
+  private interface RecordHandler {
+    void onRecord(ConsumerRecord<String, String> record) throws IOException;
+  }
+
+  private record PooledConsumer(Consumer<String, String> consumer, long lastUsedTime) {}
 }
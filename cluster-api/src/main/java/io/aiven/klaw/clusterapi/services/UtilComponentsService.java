@@ -4,7 +4,6 @@ import io.aiven.klaw.clusterapi.models.enums.ClusterStatus;
 import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
 import io.aiven.klaw.clusterapi.utils.ClusterApiUtils;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.kafka.clients.admin.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
@@ -76,8 +75,7 @@ public class UtilComponentsService {
         if (confluentCloudApiService.listTopics(environment, protocol, clusterName).size() >= 0)
           return ClusterStatus.ONLINE;
       } else {
-        AdminClient client = clusterApiUtils.getAdminClient(environment, protocol, clusterName);
-        if (client != null) {
+        if (clusterApiUtils.isAdminClientHealthy(environment, protocol, clusterName)) {
           return ClusterStatus.ONLINE;
         }
       }
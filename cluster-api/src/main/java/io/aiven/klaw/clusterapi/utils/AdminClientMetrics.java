@@ -0,0 +1,67 @@
+package io.aiven.klaw.clusterapi.utils;
+
+import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Per cluster counters of the pooled admin clients, published to the meter registry. */
+public class AdminClientMetrics {
+
+  private final Counter created;
+  private final Counter evicted;
+  private final Counter healthCheckFailures;
+  private final AtomicInteger healthy = new AtomicInteger(1);
+  private final AtomicLong lastHealthCheckMillis = new AtomicLong();
+
+  public AdminClientMetrics(
+      MeterRegistry meterRegistry, KafkaSupportedProtocol protocol, String clusterIdentification) {
+    Tags tags = Tags.of("cluster", clusterIdentification, "protocol", protocol.name());
+    created = meterRegistry.counter("klaw.adminclient.created", tags);
+    evicted = meterRegistry.counter("klaw.adminclient.evicted", tags);
+    healthCheckFailures = meterRegistry.counter("klaw.adminclient.healthcheck.failures", tags);
+    Gauge.builder("klaw.adminclient.healthy", healthy, AtomicInteger::get)
+        .tags(tags)
+        .register(meterRegistry);
+  }
+
+  void recordCreation() {
+    created.increment();
+    healthy.set(1);
+  }
+
+  void recordEviction() {
+    evicted.increment();
+  }
+
+  void recordHealthCheck(boolean success) {
+    lastHealthCheckMillis.set(System.currentTimeMillis());
+    healthy.set(success ? 1 : 0);
+    if (!success) {
+      healthCheckFailures.increment();
+    }
+  }
+
+  public long getCreatedCount() {
+    return (long) created.count();
+  }
+
+  public long getEvictedCount() {
+    return (long) evicted.count();
+  }
+
+  public long getHealthCheckFailureCount() {
+    return (long) healthCheckFailures.count();
+  }
+
+  public boolean isHealthy() {
+    return healthy.get() == 1;
+  }
+
+  public long getLastHealthCheckMillis() {
+    return lastHealthCheckMillis.get();
+  }
+}
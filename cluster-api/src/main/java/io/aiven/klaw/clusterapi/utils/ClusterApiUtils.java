@@ -7,27 +7,37 @@ import com.google.common.base.Strings;
 import io.aiven.klaw.clusterapi.config.SslContextConfig;
 import io.aiven.klaw.clusterapi.models.enums.KafkaClustersType;
 import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.HashMap;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.kafka.clients.CommonClientConfigs;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.DescribeClusterOptions;
 import org.apache.kafka.common.config.SaslConfigs;
 import org.apache.kafka.common.config.SslConfigs;
 import org.apache.tomcat.util.codec.binary.Base64;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
 import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 @Service
 @Slf4j
+@EnableScheduling
 public class ClusterApiUtils {
 
   private static final String PLAIN_REST_TEMPLATE = "PlainRestTemplate";
@@ -42,39 +52,56 @@ public class ClusterApiUtils {
   public static final String KAFKA_SR_CREDENTIALS_PROPERTY_SFX = ".klaw.schemaregistry.credentials";
   public static final String KAFKA_CONFLUENT_CLOUD_CREDENTIALS_PROPERTY_SFX =
       ".klaw.confluentcloud.credentials";
-  private static MessageDigest messageDigest;
-
-  static {
-    try {
-      messageDigest = MessageDigest.getInstance("SHA-256");
-    } catch (NoSuchAlgorithmException e) {
-      log.error("Error ", e);
-    }
-  }
+  // MessageDigest is stateful, each request thread gets its own instance
+  private static final ThreadLocal<MessageDigest> messageDigest =
+      ThreadLocal.withInitial(
+          () -> {
+            try {
+              return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+              log.error("Error ", e);
+              throw new IllegalStateException(e);
+            }
+          });
 
   private final Environment env;
   private final Map<String, AdminClient> adminClientsMap;
 
+  private final Map<String, AdminClientMetrics> adminClientMetricsMap = new ConcurrentHashMap<>();
+
+  private final MeterRegistry meterRegistry;
+
   private final Map<String, RestTemplate> restTemplateMap;
 
   private final AdminClientProperties adminClientProperties;
 
   @Autowired private SslContextConfig sslContextConfig;
 
+  @Value("${klaw.adminclient.healthcheck.timeout.ms:5000}")
+  private int healthCheckTimeoutMs = 5000;
+
   @Autowired
-  public ClusterApiUtils(Environment env, AdminClientProperties adminClientProperties) {
-    this(env, adminClientProperties, new HashMap<>(), new HashMap<>());
+  public ClusterApiUtils(
+      Environment env, AdminClientProperties adminClientProperties, MeterRegistry meterRegistry) {
+    this(
+        env,
+        adminClientProperties,
+        new ConcurrentHashMap<>(),
+        new ConcurrentHashMap<>(),
+        meterRegistry);
   }
 
   ClusterApiUtils(
       Environment env,
       AdminClientProperties adminClientProperties,
       Map<String, AdminClient> adminClientsMap,
-      Map<String, RestTemplate> restTemplateMap) {
+      Map<String, RestTemplate> restTemplateMap,
+      MeterRegistry meterRegistry) {
     this.env = env;
     this.adminClientsMap = adminClientsMap;
     this.adminClientProperties = adminClientProperties;
     this.restTemplateMap = restTemplateMap;
+    this.meterRegistry = meterRegistry;
   }
 
   //    public void removeSSLElementFromAdminClientMap(String protocol, String clusterName){
@@ -87,91 +114,24 @@ public class ClusterApiUtils {
   //    }
 
   private String getHash(String envHost) {
-    return new String(Base64.encodeBase64(messageDigest.digest(envHost.getBytes()), false));
+    return new String(Base64.encodeBase64(messageDigest.get().digest(envHost.getBytes()), false));
   }
 
   public AdminClient getAdminClient(
       String envHost, KafkaSupportedProtocol protocol, String clusterIdentification)
       throws Exception {
-    log.info(
+    log.debug(
         "Host : {} Protocol {} clusterIdentification {}", envHost, protocol, clusterIdentification);
 
-    AdminClient adminClient = null;
     String adminClientKey = protocol + clusterIdentification + getHash(envHost);
-
+    AdminClient adminClient;
     try {
-      switch (protocol) {
-        case PLAINTEXT:
-          if (!adminClientsMap.containsKey(adminClientKey)) {
-            adminClient = AdminClient.create(getPlainProperties(envHost));
-          } else {
-            adminClient = adminClientsMap.get(adminClientKey);
-          }
-          break;
-
-        case SSL:
-          if (!adminClientsMap.containsKey(adminClientKey)) {
-            adminClient = AdminClient.create(getSslProperties(envHost, clusterIdentification));
-          } else {
-            adminClient = adminClientsMap.get(adminClientKey);
-          }
-          break;
-
-        case SASL_PLAIN:
-          if (!adminClientsMap.containsKey(adminClientKey)) {
-            adminClient =
-                AdminClient.create(getSaslPlainProperties(envHost, clusterIdentification));
-          } else {
-            adminClient = adminClientsMap.get(adminClientKey);
-          }
-          break;
-
-        case SASL_SSL_PLAIN_MECHANISM:
-          if (!adminClientsMap.containsKey(adminClientKey)) {
-            adminClient =
-                AdminClient.create(
-                    getSaslSsl_PlainMechanismProperties(envHost, clusterIdentification));
-          } else {
-            adminClient = adminClientsMap.get(adminClientKey);
-          }
-
-          break;
-
-        case SASL_SSL_SCRAM_MECHANISM_256:
-          if (!adminClientsMap.containsKey(adminClientKey)) {
-            adminClient =
-                AdminClient.create(
-                    getSaslSsl_ScramMechanismProperties(envHost, clusterIdentification, SHA_256));
-          } else {
-            adminClient = adminClientsMap.get(adminClientKey);
-          }
-
-          break;
-
-        case SASL_SSL_SCRAM_MECHANISM_512:
-          if (!adminClientsMap.containsKey(adminClientKey)) {
-            adminClient =
-                AdminClient.create(
-                    getSaslSsl_ScramMechanismProperties(envHost, clusterIdentification, SHA_512));
-          } else {
-            adminClient = adminClientsMap.get(adminClientKey);
-          }
-
-          break;
-
-        case SASL_SSL_GSSAPI_MECHANISM:
-          if (!adminClientsMap.containsKey(adminClientKey)) {
-            adminClient =
-                AdminClient.create(
-                    getSaslSsl_GSSAPIMechanismProperties(envHost, clusterIdentification));
-          } else {
-            adminClient = adminClientsMap.get(adminClientKey);
-          }
-          break;
-      }
+      adminClient =
+          adminClientsMap.computeIfAbsent(
+              adminClientKey,
+              key -> createAdminClient(key, envHost, protocol, clusterIdentification));
     } catch (Exception exception) {
       log.error("Unable to create Admin client ", exception);
-      exception.printStackTrace();
       throw new Exception("Cannot connect to cluster. Please contact Administrator.");
     }
 
@@ -179,21 +139,122 @@ public class ClusterApiUtils {
       log.error("Cannot create Admin Client {} {}", envHost, protocol);
       throw new Exception("Cannot connect to cluster. Please contact Administrator.");
     }
+    return adminClient;
+  }
+
+  /**
+   * Explicit liveness check of a cluster, used by the cluster status page. Regular requests do not
+   * probe the cluster, the pooled clients are verified in the background by {@link
+   * #checkAdminClientsHealth()}.
+   */
+  public boolean isAdminClientHealthy(
+      String envHost, KafkaSupportedProtocol protocol, String clusterIdentification)
+      throws Exception {
+    String adminClientKey = protocol + clusterIdentification + getHash(envHost);
+    AdminClient adminClient = getAdminClient(envHost, protocol, clusterIdentification);
+    boolean healthy = probeAdminClient(adminClient);
+    recordHealthCheck(adminClientKey, healthy);
+    if (!healthy) {
+      evictAdminClient(adminClientKey, adminClient);
+    }
+    return healthy;
+  }
+
+  @Scheduled(
+      fixedRateString = "${klaw.adminclient.healthcheck.interval.ms:60000}",
+      initialDelayString = "${klaw.adminclient.healthcheck.interval.ms:60000}")
+  public void checkAdminClientsHealth() {
+    adminClientsMap.forEach(
+        (adminClientKey, adminClient) -> {
+          boolean healthy = probeAdminClient(adminClient);
+          recordHealthCheck(adminClientKey, healthy);
+          if (!healthy) {
+            log.warn("Admin client {} failed health check, evicting it from pool", adminClientKey);
+            evictAdminClient(adminClientKey, adminClient);
+          }
+        });
+  }
 
+  private boolean probeAdminClient(AdminClient adminClient) {
     try {
-      adminClient.listTopics().names().get();
-      if (!adminClientsMap.containsKey(adminClientKey)) {
-        adminClientsMap.put(adminClientKey, adminClient);
-      }
-      return adminClient;
+      adminClient
+          .describeCluster(new DescribeClusterOptions().timeoutMs(healthCheckTimeoutMs))
+          .clusterId()
+          .get(healthCheckTimeoutMs, TimeUnit.MILLISECONDS);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
     } catch (Exception e) {
-      adminClientsMap.remove(adminClientKey);
-      adminClient.close();
-      log.error("Cannot create Admin Client {} {} {}", envHost, protocol, clusterIdentification, e);
-      throw new Exception("Cannot connect to cluster. Please contact Administrator.");
+      log.error("Admin client health check failed ", e);
+      return false;
+    }
+  }
+
+  private void evictAdminClient(String adminClientKey, AdminClient adminClient) {
+    // remove only if the pool still holds this instance, a concurrent request may have rebuilt it
+    if (adminClientsMap.remove(adminClientKey, adminClient)) {
+      AdminClientMetrics adminClientMetrics = adminClientMetricsMap.get(adminClientKey);
+      if (adminClientMetrics != null) {
+        adminClientMetrics.recordEviction();
+      }
+      try {
+        adminClient.close(Duration.ofMillis(healthCheckTimeoutMs));
+      } catch (Exception e) {
+        log.error("Error closing admin client {}", adminClientKey, e);
+      }
     }
   }
 
+  private AdminClient createAdminClient(
+      String adminClientKey,
+      String envHost,
+      KafkaSupportedProtocol protocol,
+      String clusterIdentification) {
+    log.info(
+        "Creating Admin client Host : {} Protocol {} clusterIdentification {}",
+        envHost,
+        protocol,
+        clusterIdentification);
+    Properties properties =
+        switch (protocol) {
+          case PLAINTEXT -> getPlainProperties(envHost);
+          case SSL -> getSslProperties(envHost, clusterIdentification);
+          case SASL_PLAIN -> getSaslPlainProperties(envHost, clusterIdentification);
+          case SASL_SSL_PLAIN_MECHANISM -> getSaslSsl_PlainMechanismProperties(
+              envHost, clusterIdentification);
+          case SASL_SSL_SCRAM_MECHANISM_256 -> getSaslSsl_ScramMechanismProperties(
+              envHost, clusterIdentification, SHA_256);
+          case SASL_SSL_SCRAM_MECHANISM_512 -> getSaslSsl_ScramMechanismProperties(
+              envHost, clusterIdentification, SHA_512);
+          case SASL_SSL_GSSAPI_MECHANISM -> getSaslSsl_GSSAPIMechanismProperties(
+              envHost, clusterIdentification);
+        };
+    AdminClient adminClient = AdminClient.create(properties);
+    adminClientMetricsMap
+        .computeIfAbsent(
+            adminClientKey,
+            key -> new AdminClientMetrics(meterRegistry, protocol, clusterIdentification))
+        .recordCreation();
+    return adminClient;
+  }
+
+  private void recordHealthCheck(String adminClientKey, boolean healthy) {
+    AdminClientMetrics adminClientMetrics = adminClientMetricsMap.get(adminClientKey);
+    if (adminClientMetrics != null) {
+      adminClientMetrics.recordHealthCheck(healthy);
+    }
+  }
+
+  public Map<String, AdminClientMetrics> getAdminClientMetrics() {
+    return Collections.unmodifiableMap(adminClientMetricsMap);
+  }
+
+  @PreDestroy
+  public void closeAdminClients() {
+    adminClientsMap.forEach(this::evictAdminClient);
+  }
+
   public Properties getPlainProperties(String environment) {
     Properties props = new Properties();
 
@@ -439,10 +500,7 @@ public class ClusterApiUtils {
 
     if (PLAINTEXT == protocol) {
       connectorsUrl = HTTP_PREFIX + suffixUrl;
-      if (!restTemplateMap.containsKey(PLAIN_REST_TEMPLATE)) {
-        restTemplateMap.put(PLAIN_REST_TEMPLATE, new RestTemplate());
-      }
-      return Pair.of(connectorsUrl, restTemplateMap.get(PLAIN_REST_TEMPLATE));
+      return Pair.of(connectorsUrl, getPlainRestTemplate());
     } else if (SSL == protocol) {
       connectorsUrl = HTTPS_PREFIX.concat(suffixUrl);
       if (!restTemplateMap.containsKey(SSL_REST_TEMPLATE)) {
@@ -451,7 +509,13 @@ public class ClusterApiUtils {
       }
       return Pair.of(connectorsUrl, restTemplateMap.get(SSL_REST_TEMPLATE));
     }
-    return Pair.of(connectorsUrl, new RestTemplate());
+    return Pair.of(connectorsUrl, getPlainRestTemplate());
+  }
+
+  private RestTemplate getPlainRestTemplate() {
+    return restTemplateMap.computeIfAbsent(
+        PLAIN_REST_TEMPLATE,
+        k -> new RestTemplate(sslContextConfig.getPlainClientHttpRequestFactory()));
   }
 
   public HttpHeaders createHeaders(
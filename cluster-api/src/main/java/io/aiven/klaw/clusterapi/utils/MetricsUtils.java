@@ -1,6 +1,9 @@
 package io.aiven.klaw.clusterapi.utils;
 
-import java.util.HashMap;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.management.remote.JMXConnector;
 import javax.management.remote.JMXConnectorFactory;
 import javax.management.remote.JMXServiceURL;
@@ -11,41 +14,61 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class MetricsUtils {
 
-  private final HashMap<String, JMXConnector> metricsClientsMap = new HashMap<>();
+  // one connection per jmx url, reused by every scrape until it breaks
+  private final Map<String, JMXConnector> metricsClientsMap = new ConcurrentHashMap<>();
 
   public JMXConnector getJmxConnector(String jmxUrl) throws Exception {
+    JMXConnector jmxConnector = metricsClientsMap.get(jmxUrl);
+    if (jmxConnector != null) {
+      try {
+        jmxConnector.getConnectionId();
+        return jmxConnector;
+      } catch (IOException e) {
+        log.warn("JMX connection {} is broken, reconnecting", jmxUrl);
+        invalidateJmxConnector(jmxUrl, jmxConnector);
+      }
+    }
 
-    JMXConnector jmxConnector;
-
+    // connected outside of the map, a slow host does not block scrapes of other urls
+    JMXConnector newConnector;
     try {
-      if (!metricsClientsMap.containsKey(jmxUrl)) {
-        JMXServiceURL url;
-        log.info("Creating JMX connection {}", jmxUrl);
-        url = new JMXServiceURL(jmxUrl);
-        jmxConnector = JMXConnectorFactory.connect(url, null);
-      } else {
-        jmxConnector = metricsClientsMap.get(jmxUrl);
-      }
-    } catch (Exception exception) {
-      log.error("Unable to create JMX Connector " + exception.getMessage(), exception);
+      newConnector = connect(jmxUrl);
+    } catch (IOException exception) {
+      log.error("Unable to create JMX Connector {}", jmxUrl, exception);
       throw new Exception("Cannot connect to JMX Host. Please contact Administrator.");
     }
+    JMXConnector existingConnector = metricsClientsMap.putIfAbsent(jmxUrl, newConnector);
+    if (existingConnector != null) {
+      // another scrape connected first, its connection is shared
+      closeQuietly(jmxUrl, newConnector);
+      return existingConnector;
+    }
+    return newConnector;
+  }
 
-    if (jmxConnector == null) {
-      log.error("Cannot create JMX Connector  {}", jmxUrl);
-      throw new Exception("Cannot connect to JMX host. Please contact Administrator.");
+  /** Drops a connection which failed while in use, the next call connects again. */
+  public void invalidateJmxConnector(String jmxUrl, JMXConnector jmxConnector) {
+    if (jmxConnector != null && metricsClientsMap.remove(jmxUrl, jmxConnector)) {
+      closeQuietly(jmxUrl, jmxConnector);
     }
+  }
+
+  JMXConnector connect(String jmxUrl) throws IOException {
+    log.info("Creating JMX connection {}", jmxUrl);
+    return JMXConnectorFactory.connect(new JMXServiceURL(jmxUrl), null);
+  }
 
+  @PreDestroy
+  public void closeJmxConnectors() {
+    metricsClientsMap.forEach(this::closeQuietly);
+    metricsClientsMap.clear();
+  }
+
+  private void closeQuietly(String jmxUrl, JMXConnector jmxConnector) {
     try {
-      if (!metricsClientsMap.containsKey(jmxUrl)) {
-        metricsClientsMap.put(jmxUrl, jmxConnector);
-      }
-      return jmxConnector;
-    } catch (Exception e) {
-      metricsClientsMap.remove(jmxUrl);
       jmxConnector.close();
-      log.error("Cannot create JMX Connector {}", jmxUrl, e);
-      throw new Exception("Cannot connect to JMX host. Please contact Administrator.");
+    } catch (IOException e) {
+      log.debug("Error closing JMX connection {}", jmxUrl, e);
     }
   }
 }
@@ -123,6 +123,20 @@ public class AuthenticationIntegrationIT {
         .getResponse();
   }
 
+  @Test
+  @Order(5)
+  public void getApiStatus_ReusedToken() throws Exception {
+    String token = generateToken(KWCLUSTERAPIUSER, clusterAccessSecret, 3L);
+    for (int i = 0; i < 2; i++) {
+      mvc.perform(
+              MockMvcRequestBuilders.get("/topics/getApiStatus")
+                  .contentType(MediaType.APPLICATION_JSON)
+                  .header(AUTHORIZATION, BEARER_PREFIX + token)
+                  .accept(MediaType.APPLICATION_JSON))
+          .andExpect(status().isOk());
+    }
+  }
+
   private String generateToken(
       String clusterApiUser, String clusterAccessSecret, long expirationTime) {
     Key hmacKey =
@@ -3,7 +3,10 @@ package io.aiven.klaw.clusterapi.controller;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -13,6 +16,7 @@ import io.aiven.klaw.clusterapi.UtilMethods;
 import io.aiven.klaw.clusterapi.models.ApiResponse;
 import io.aiven.klaw.clusterapi.models.ClusterAclRequest;
 import io.aiven.klaw.clusterapi.models.ClusterSchemaRequest;
+import io.aiven.klaw.clusterapi.models.ClusterTopic;
 import io.aiven.klaw.clusterapi.models.ClusterTopicRequest;
 import io.aiven.klaw.clusterapi.models.enums.AclType;
 import io.aiven.klaw.clusterapi.models.enums.AclsNativeType;
@@ -28,7 +32,9 @@ import io.aiven.klaw.clusterapi.services.SchemaService;
 import io.aiven.klaw.clusterapi.services.UtilComponentsService;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -36,12 +42,15 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 @ExtendWith(SpringExtension.class)
 public class ClusterApiControllerTest {
 
+  private static final String COLUMNS_JSON = "application/vnd.klaw.columns+json";
+
   @MockBean private UtilComponentsService utilComponentsService;
   @MockBean private ApacheKafkaAclService apacheKafkaAclService;
   @MockBean private ApacheKafkaTopicService apacheKafkaTopicService;
@@ -137,6 +146,76 @@ public class ClusterApiControllerTest {
         .andExpect(jsonPath("$", hasSize(1)));
   }
 
+  @Test
+  public void getTopicsStream() throws Exception {
+    String clusterName = "testCluster";
+    String bootstrapServers = "localhost:9092";
+
+    when(apacheKafkaTopicService.loadTopics(
+            eq(bootstrapServers), eq(KafkaSupportedProtocol.PLAINTEXT), eq(clusterName), any()))
+        .thenAnswer(
+            invocation -> {
+              Consumer<ClusterTopic> topicConsumer = invocation.getArgument(3);
+              topicConsumer.accept(new ClusterTopic("testtopic", 2, 1));
+              return List.of("testtopic2");
+            });
+
+    String urlTemplate =
+        String.join(
+            "/",
+            "/topics",
+            "getTopicsStream",
+            bootstrapServers,
+            KafkaSupportedProtocol.PLAINTEXT.getValue(),
+            clusterName,
+            "topicsNativeType",
+            AclsNativeType.NATIVE.value);
+    MvcResult mvcResult =
+        mvc.perform(get(urlTemplate)).andExpect(request().asyncStarted()).andReturn();
+    mvc.perform(asyncDispatch(mvcResult))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.topics", hasSize(1)))
+        .andExpect(jsonPath("$.topics[0].partitions").value(2))
+        .andExpect(jsonPath("$.failedTopics[0]").value("testtopic2"));
+  }
+
+  @Test
+  public void getTopicsStreamAsColumns() throws Exception {
+    String clusterName = "testCluster";
+    String bootstrapServers = "localhost:9092";
+
+    when(apacheKafkaTopicService.loadTopics(
+            eq(bootstrapServers), eq(KafkaSupportedProtocol.PLAINTEXT), eq(clusterName), any()))
+        .thenAnswer(
+            invocation -> {
+              Consumer<ClusterTopic> topicConsumer = invocation.getArgument(3);
+              topicConsumer.accept(new ClusterTopic("testtopic", 2, 1));
+              return List.of();
+            });
+
+    String urlTemplate =
+        String.join(
+            "/",
+            "/topics",
+            "getTopicsStream",
+            bootstrapServers,
+            KafkaSupportedProtocol.PLAINTEXT.getValue(),
+            clusterName,
+            "topicsNativeType",
+            AclsNativeType.NATIVE.value);
+    MvcResult mvcResult =
+        mvc.perform(get(urlTemplate).header("Accept", COLUMNS_JSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    mvc.perform(asyncDispatch(mvcResult))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(COLUMNS_JSON))
+        .andExpect(jsonPath("$.columns[0]").value("topicName"))
+        .andExpect(jsonPath("$.topics[0][0]").value("testtopic"))
+        .andExpect(jsonPath("$.topics[0][1]").value(2))
+        .andExpect(jsonPath("$.topics[0][2]").value(1));
+  }
+
   @Test
   public void getAcls() throws Exception {
     String clusterName = "testCluster";
@@ -146,7 +225,13 @@ public class ClusterApiControllerTest {
     String serviceName = "serviceName";
 
     when(apacheKafkaAclService.loadAcls(
-            bootstrapServers, KafkaSupportedProtocol.PLAINTEXT, clusterName))
+            bootstrapServers,
+            KafkaSupportedProtocol.PLAINTEXT,
+            clusterName,
+            null,
+            null,
+            null,
+            null))
         .thenReturn(utilMethods.getAcls());
 
     String urlTemplate =
@@ -164,6 +249,12 @@ public class ClusterApiControllerTest {
         .andExpect(status().isOk())
         .andExpect(content().contentType(MediaType.APPLICATION_JSON))
         .andExpect(jsonPath("$", hasSize(2)));
+    mvc.perform(get(urlTemplate).header("Accept", COLUMNS_JSON))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(COLUMNS_JSON))
+        .andExpect(jsonPath("$.columns", hasSize(6)))
+        .andExpect(jsonPath("$.columns[0]").value("host"))
+        .andExpect(jsonPath("$.rows", hasSize(2)));
   }
 
   @Test
@@ -203,6 +294,32 @@ public class ClusterApiControllerTest {
         .andExpect(content().string(containsString(ApiResultStatus.SUCCESS.value)));
   }
 
+  @Test
+  public void executeTopicRequests() throws Exception {
+    ClusterTopicRequest nativeTopicReq = utilMethods.getTopicRequest();
+    ClusterTopicRequest confluentCloudTopicReq = utilMethods.getConfluentCloudTopicRequest();
+    String jsonReq =
+        new ObjectMapper()
+            .writer()
+            .writeValueAsString(List.of(confluentCloudTopicReq, nativeTopicReq));
+
+    when(confluentCloudApiService.createTopic(any(ClusterTopicRequest.class)))
+        .thenReturn(ApiResponse.builder().result(ApiResultStatus.SUCCESS.value).build());
+    when(apacheKafkaTopicService.executeTopicRequests(anyList()))
+        .thenReturn(List.of(ApiResponse.builder().result("failure").data("testtopic").build()));
+
+    mvc.perform(
+            post("/topics/executeTopicRequests")
+                .content(jsonReq)
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding(StandardCharsets.UTF_8))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$", hasSize(2)))
+        .andExpect(jsonPath("$[0].result").value(ApiResultStatus.SUCCESS.value))
+        .andExpect(jsonPath("$[1].result").value("failure"));
+  }
+
   @Test
   public void createAclsProducer() throws Exception {
     ClusterAclRequest clusterAclRequest = utilMethods.getAclRequest(AclType.PRODUCER.value);
@@ -240,6 +357,28 @@ public class ClusterApiControllerTest {
         .andExpect(content().string(containsString(ApiResultStatus.SUCCESS.value)));
   }
 
+  @Test
+  public void updateAcls() throws Exception {
+    List<ClusterAclRequest> clusterAclRequests =
+        List.of(
+            utilMethods.getAclRequest(AclType.PRODUCER.value),
+            utilMethods.getAclRequest(AclType.CONSUMER.value));
+    String jsonReq = new ObjectMapper().writer().writeValueAsString(clusterAclRequests);
+
+    when(apacheKafkaAclService.updateAcls(anyList()))
+        .thenReturn(List.of(ApiResultStatus.SUCCESS.value, ApiResultStatus.FAILURE.value));
+
+    mvc.perform(
+            post("/topics/updateAcls")
+                .content(jsonReq)
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding(StandardCharsets.UTF_8))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.result").value(ApiResultStatus.FAILURE.value))
+        .andExpect(jsonPath("$.data", hasSize(2)))
+        .andExpect(jsonPath("$.data[0]").value(ApiResultStatus.SUCCESS.value));
+  }
+
   @Test
   public void createAclsConsumer() throws Exception {
     ClusterAclRequest clusterAclRequest = utilMethods.getAclRequest(AclType.CONSUMER.value);
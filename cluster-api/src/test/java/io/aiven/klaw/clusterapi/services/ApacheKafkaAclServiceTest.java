@@ -0,0 +1,231 @@
+package io.aiven.klaw.clusterapi.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.aiven.klaw.clusterapi.models.ClusterAclRequest;
+import io.aiven.klaw.clusterapi.models.enums.AclIPPrincipleType;
+import io.aiven.klaw.clusterapi.models.enums.AclResourceNameMatch;
+import io.aiven.klaw.clusterapi.models.enums.AclType;
+import io.aiven.klaw.clusterapi.models.enums.AclsNativeType;
+import io.aiven.klaw.clusterapi.models.enums.ApiResultStatus;
+import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
+import io.aiven.klaw.clusterapi.models.enums.RequestOperationType;
+import io.aiven.klaw.clusterapi.utils.ClusterApiUtils;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.CreateAclsResult;
+import org.apache.kafka.clients.admin.DeleteAclsResult;
+import org.apache.kafka.clients.admin.DescribeAclsResult;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.acl.AccessControlEntry;
+import org.apache.kafka.common.acl.AclBinding;
+import org.apache.kafka.common.acl.AclBindingFilter;
+import org.apache.kafka.common.acl.AclOperation;
+import org.apache.kafka.common.acl.AclPermissionType;
+import org.apache.kafka.common.errors.ClusterAuthorizationException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
+import org.apache.kafka.common.resource.PatternType;
+import org.apache.kafka.common.resource.ResourcePattern;
+import org.apache.kafka.common.resource.ResourceType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+class ApacheKafkaAclServiceTest {
+
+  private static final String IP = "11.12.33.122";
+
+  @Mock private ClusterApiUtils clusterApiUtils;
+
+  @Mock private AdminClient adminClient;
+
+  private ApacheKafkaAclService apacheKafkaAclService;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    apacheKafkaAclService = new ApacheKafkaAclService(clusterApiUtils);
+    apacheKafkaAclService.init();
+    when(clusterApiUtils.getAdminClient("localhost", KafkaSupportedProtocol.PLAINTEXT, "cluster"))
+        .thenReturn(adminClient);
+  }
+
+  @Test
+  public void missingBindingsOfAllRequestsAreCreatedTogether() {
+    mockExistingAcls(
+        getAclBinding(ResourceType.TOPIC, "topic1", AclOperation.WRITE),
+        getAclBinding(ResourceType.TOPIC, "topic1", AclOperation.DESCRIBE));
+    ArgumentCaptor<Collection<AclBinding>> createdCaptor = mockCreateAcls(null);
+
+    List<String> results =
+        apacheKafkaAclService.updateAcls(
+            List.of(
+                getAclRequest(AclType.PRODUCER, "topic1", RequestOperationType.CREATE),
+                getAclRequest(AclType.PRODUCER, "topic2", RequestOperationType.CREATE),
+                getAclRequest(AclType.CONSUMER, "topic3", RequestOperationType.CREATE)));
+
+    assertThat(results)
+        .containsExactly(
+            "Acl already exists. success",
+            ApiResultStatus.SUCCESS.value,
+            ApiResultStatus.SUCCESS.value);
+    assertThat(createdCaptor.getValue())
+        .containsExactlyInAnyOrder(
+            getAclBinding(ResourceType.TOPIC, "topic2", AclOperation.WRITE),
+            getAclBinding(ResourceType.TOPIC, "topic2", AclOperation.DESCRIBE),
+            getAclBinding(ResourceType.TOPIC, "topic3", AclOperation.READ),
+            getAclBinding(ResourceType.TOPIC, "topic3", AclOperation.DESCRIBE),
+            getAclBinding(ResourceType.GROUP, "group1", AclOperation.READ));
+    verify(adminClient, times(1)).describeAcls(any());
+    verify(adminClient, times(1)).createAcls(anyCollection());
+    verify(adminClient, never()).deleteAcls(anyCollection());
+  }
+
+  @Test
+  public void existingBindingsAreDeletedAndFailuresReportedPerRequest() {
+    AclBinding topic1Write = getAclBinding(ResourceType.TOPIC, "topic1", AclOperation.WRITE);
+    mockExistingAcls(
+        topic1Write, getAclBinding(ResourceType.TOPIC, "topic1", AclOperation.DESCRIBE));
+    mockCreateAcls(getAclBinding(ResourceType.TOPIC, "topic2", AclOperation.WRITE));
+    KafkaFutureImpl<DeleteAclsResult.FilterResults> deleted = new KafkaFutureImpl<>();
+    deleted.complete(null);
+    DeleteAclsResult deleteAclsResult = mock(DeleteAclsResult.class);
+    Map<AclBindingFilter, KafkaFuture<DeleteAclsResult.FilterResults>> deleteResults =
+        new HashMap<>();
+    deleteResults.put(topic1Write.toFilter(), deleted);
+    deleteResults.put(
+        getAclBinding(ResourceType.TOPIC, "topic1", AclOperation.DESCRIBE).toFilter(), deleted);
+    when(deleteAclsResult.values()).thenReturn(deleteResults);
+    when(adminClient.deleteAcls(anyCollection())).thenReturn(deleteAclsResult);
+
+    List<String> results =
+        apacheKafkaAclService.updateAcls(
+            List.of(
+                getAclRequest(AclType.PRODUCER, "topic1", RequestOperationType.DELETE),
+                getAclRequest(AclType.PRODUCER, "topic2", RequestOperationType.CREATE)));
+
+    assertThat(results)
+        .containsExactly(ApiResultStatus.SUCCESS.value, ApiResultStatus.FAILURE.value);
+  }
+
+  @Test
+  public void aclsAreListedFromSnapshotUntilAnAclIsUpdated() throws Exception {
+    mockExistingAcls(
+        getAclBinding(ResourceType.TOPIC, "topic1", AclOperation.WRITE),
+        getAclBinding(ResourceType.TOPIC, "othertopic", AclOperation.READ),
+        getAclBinding(ResourceType.GROUP, "group1", AclOperation.READ));
+    mockCreateAcls(null);
+
+    assertThat(
+            apacheKafkaAclService.loadAcls(
+                "localhost", KafkaSupportedProtocol.PLAINTEXT, "cluster"))
+        .hasSize(3);
+    assertThat(
+            apacheKafkaAclService.loadAcls(
+                "localhost",
+                KafkaSupportedProtocol.PLAINTEXT,
+                "cluster",
+                ResourceType.TOPIC,
+                "topic",
+                AclResourceNameMatch.CONTAINS,
+                null))
+        .hasSize(2);
+    verify(adminClient, times(1)).describeAcls(any());
+
+    apacheKafkaAclService.updateAcls(
+        List.of(getAclRequest(AclType.PRODUCER, "topic2", RequestOperationType.CREATE)));
+    apacheKafkaAclService.loadAcls("localhost", KafkaSupportedProtocol.PLAINTEXT, "cluster");
+    verify(adminClient, times(3)).describeAcls(AclBindingFilter.ANY);
+  }
+
+  @Test
+  public void exactNameIsFilteredByBrokerWithoutSnapshot() throws Exception {
+    DescribeAclsResult describeAclsResult = mock(DescribeAclsResult.class);
+    when(describeAclsResult.values())
+        .thenReturn(
+            KafkaFuture.completedFuture(
+                List.of(getAclBinding(ResourceType.TOPIC, "topic1", AclOperation.WRITE))));
+    ArgumentCaptor<AclBindingFilter> filterCaptor = ArgumentCaptor.forClass(AclBindingFilter.class);
+    when(adminClient.describeAcls(filterCaptor.capture())).thenReturn(describeAclsResult);
+
+    assertThat(
+            apacheKafkaAclService.loadAcls(
+                "localhost",
+                KafkaSupportedProtocol.PLAINTEXT,
+                "cluster",
+                ResourceType.TOPIC,
+                "topic1",
+                AclResourceNameMatch.EXACT,
+                null))
+        .hasSize(1);
+    assertThat(filterCaptor.getValue().patternFilter().resourceType())
+        .isEqualTo(ResourceType.TOPIC);
+    assertThat(filterCaptor.getValue().patternFilter().name()).isEqualTo("topic1");
+  }
+
+  private void mockExistingAcls(AclBinding... aclBindings) {
+    DescribeAclsResult describeAclsResult = mock(DescribeAclsResult.class);
+    when(describeAclsResult.values()).thenReturn(KafkaFuture.completedFuture(List.of(aclBindings)));
+    when(adminClient.describeAcls(AclBindingFilter.ANY)).thenReturn(describeAclsResult);
+  }
+
+  @SuppressWarnings("unchecked")
+  private ArgumentCaptor<Collection<AclBinding>> mockCreateAcls(AclBinding failingAclBinding) {
+    ArgumentCaptor<Collection<AclBinding>> createdCaptor =
+        ArgumentCaptor.forClass(Collection.class);
+    when(adminClient.createAcls(createdCaptor.capture()))
+        .thenAnswer(
+            invocation -> {
+              Map<AclBinding, KafkaFuture<Void>> createResults = new HashMap<>();
+              for (AclBinding aclBinding : (Collection<AclBinding>) invocation.getArgument(0)) {
+                KafkaFutureImpl<Void> created = new KafkaFutureImpl<>();
+                if (aclBinding.equals(failingAclBinding)) {
+                  created.completeExceptionally(new ClusterAuthorizationException("denied"));
+                } else {
+                  created.complete(null);
+                }
+                createResults.put(aclBinding, created);
+              }
+              CreateAclsResult createAclsResult = mock(CreateAclsResult.class);
+              when(createAclsResult.values()).thenReturn(createResults);
+              return createAclsResult;
+            });
+    return createdCaptor;
+  }
+
+  private static AclBinding getAclBinding(
+      ResourceType resourceType, String name, AclOperation operation) {
+    return new AclBinding(
+        new ResourcePattern(resourceType, name, PatternType.LITERAL),
+        new AccessControlEntry("User:*", IP, operation, AclPermissionType.ALLOW));
+  }
+
+  private static ClusterAclRequest getAclRequest(
+      AclType aclType, String topicName, RequestOperationType requestOperationType) {
+    return ClusterAclRequest.builder()
+        .env("localhost")
+        .protocol(KafkaSupportedProtocol.PLAINTEXT)
+        .clusterName("cluster")
+        .topicName(topicName)
+        .consumerGroup("group1")
+        .aclType(aclType.value)
+        .aclIp(IP)
+        .requestOperationType(requestOperationType)
+        .aclNativeType(AclsNativeType.NATIVE.name())
+        .aclIpPrincipleType(AclIPPrincipleType.IP_ADDRESS.name())
+        .build();
+  }
+}
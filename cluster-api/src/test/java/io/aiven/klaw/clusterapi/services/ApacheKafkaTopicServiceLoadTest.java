@@ -0,0 +1,148 @@
+package io.aiven.klaw.clusterapi.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.aiven.klaw.clusterapi.models.ClusterTopicRequest;
+import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
+import io.aiven.klaw.clusterapi.utils.ClusterApiUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.CreateTopicsResult;
+import org.apache.kafka.common.KafkaFuture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Simulates slow brokers to verify that topic writes on independent clusters run in parallel, while
+ * writes to the same topic of a cluster stay ordered.
+ */
+public class ApacheKafkaTopicServiceLoadTest {
+
+  private static final long BROKER_LATENCY_MS = 20;
+  private static final int REQUESTS = 8;
+  private static final String TOPIC_NAME = "testtopic";
+
+  private ClusterApiUtils clusterApiUtils;
+  private ApacheKafkaTopicService apacheKafkaTopicService;
+  private ExecutorService executorService;
+
+  @BeforeEach
+  public void setUp() {
+    clusterApiUtils = mock(ClusterApiUtils.class);
+    apacheKafkaTopicService = new ApacheKafkaTopicService(clusterApiUtils);
+    executorService = Executors.newFixedThreadPool(REQUESTS);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void writesOfSameTopicOnOneClusterAreOrdered() throws Exception {
+    AtomicInteger concurrentWrites = new AtomicInteger();
+    AtomicInteger maxConcurrentWrites = new AtomicInteger();
+    mockAdminClient(
+        0,
+        () -> {
+          maxConcurrentWrites.accumulateAndGet(concurrentWrites.incrementAndGet(), Math::max);
+          Thread.sleep(BROKER_LATENCY_MS);
+          concurrentWrites.decrementAndGet();
+        });
+
+    createTopics(1);
+
+    // One cluster and one topic: every write waits for the previous one.
+    assertThat(maxConcurrentWrites.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void writesOnIndependentClustersOverlap() throws Exception {
+    // a write only returns early once another write is in flight, queued writes wait for nothing
+    CountDownLatch twoWritesStarted = new CountDownLatch(2);
+    AtomicInteger overlappingWrites = new AtomicInteger();
+    for (int i = 0; i < REQUESTS; i++) {
+      mockAdminClient(
+          i,
+          () -> {
+            twoWritesStarted.countDown();
+            if (twoWritesStarted.await(10, TimeUnit.SECONDS)) {
+              overlappingWrites.incrementAndGet();
+            }
+          });
+    }
+
+    createTopics(REQUESTS);
+
+    // Independent clusters: writes overlap instead of queueing behind each other.
+    assertThat(overlappingWrites.get()).isEqualTo(REQUESTS);
+  }
+
+  private void createTopics(int numberOfClusters) throws Exception {
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < REQUESTS; i++) {
+      ClusterTopicRequest clusterTopicRequest =
+          ClusterTopicRequest.builder()
+              .env("localhost:9092")
+              .protocol(KafkaSupportedProtocol.PLAINTEXT)
+              .clusterName(clusterName(i % numberOfClusters))
+              .topicName(TOPIC_NAME)
+              .partitions(1)
+              .replicationFactor((short) 1)
+              .build();
+      futures.add(
+          executorService.submit(
+              () -> {
+                apacheKafkaTopicService.createTopic(clusterTopicRequest);
+                return null;
+              }));
+    }
+    for (Future<?> future : futures) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void mockAdminClient(int cluster, BrokerWrite brokerWrite) throws Exception {
+    AdminClient adminClient = mock(AdminClient.class);
+    CreateTopicsResult createTopicsResult = mock(CreateTopicsResult.class);
+    Map<String, KafkaFuture<Void>> values = mock(Map.class);
+    KafkaFuture<Void> kafkaFuture = mock(KafkaFuture.class);
+
+    when(adminClient.createTopics(any())).thenReturn(createTopicsResult);
+    when(createTopicsResult.values()).thenReturn(values);
+    when(values.get(TOPIC_NAME)).thenReturn(kafkaFuture);
+    when(kafkaFuture.get(anyLong(), any(TimeUnit.class)))
+        .thenAnswer(
+            invocation -> {
+              brokerWrite.run();
+              return null;
+            });
+    when(clusterApiUtils.getAdminClient(
+            anyString(), any(KafkaSupportedProtocol.class), eq(clusterName(cluster))))
+        .thenReturn(adminClient);
+  }
+
+  private static String clusterName(int index) {
+    return "CLUSTER" + index;
+  }
+
+  private interface BrokerWrite {
+    void run() throws Exception;
+  }
+}
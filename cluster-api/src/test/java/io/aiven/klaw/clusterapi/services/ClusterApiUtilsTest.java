@@ -7,6 +7,7 @@ import io.aiven.klaw.clusterapi.config.SslContextConfig;
 import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
 import io.aiven.klaw.clusterapi.utils.AdminClientProperties;
 import io.aiven.klaw.clusterapi.utils.ClusterApiUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,7 +32,7 @@ public class ClusterApiUtilsTest {
 
   @BeforeEach
   public void setUp() {
-    clusterApiUtils = new ClusterApiUtils(env, adminClientProperties);
+    clusterApiUtils = new ClusterApiUtils(env, adminClientProperties, new SimpleMeterRegistry());
     ReflectionTestUtils.setField(clusterApiUtils, "sslContextConfig", sslContextConfig);
   }
 
@@ -66,10 +67,19 @@ public class ClusterApiUtilsTest {
   @Test
   public void getSchemaRegistryRequestDetailsPlain() {
     String suffixUrl = "localhost:8081/subjects";
+    when(sslContextConfig.getPlainClientHttpRequestFactory())
+        .thenReturn(httpComponentsClientHttpRequestFactory);
     Pair<String, RestTemplate> templatePair =
         clusterApiUtils.getRequestDetails(suffixUrl, KafkaSupportedProtocol.PLAINTEXT);
 
     assertThat(templatePair.getLeft()).isEqualTo(ClusterApiUtils.HTTP_PREFIX + suffixUrl);
+    assertThat(templatePair.getRight().getRequestFactory())
+        .isEqualTo(httpComponentsClientHttpRequestFactory);
+    assertThat(
+            clusterApiUtils
+                .getRequestDetails(suffixUrl, KafkaSupportedProtocol.PLAINTEXT)
+                .getRight())
+        .isSameAs(templatePair.getRight());
   }
 
   @Test
@@ -98,6 +108,8 @@ public class ClusterApiUtilsTest {
   public void getConnectRequestDetailsPlain() {
     String clusterIdentification = "CLID1";
     String suffixUrl = "localhost:8081/subjects";
+    when(sslContextConfig.getPlainClientHttpRequestFactory())
+        .thenReturn(httpComponentsClientHttpRequestFactory);
     Pair<String, RestTemplate> templatePair =
         clusterApiUtils.getRequestDetails(suffixUrl, KafkaSupportedProtocol.PLAINTEXT);
 
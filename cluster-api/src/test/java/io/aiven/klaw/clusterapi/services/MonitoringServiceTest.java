@@ -0,0 +1,203 @@
+package io.aiven.klaw.clusterapi.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.aiven.klaw.clusterapi.models.ConsumerGroupLags;
+import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
+import io.aiven.klaw.clusterapi.utils.ClusterApiUtils;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.DescribeTopicsResult;
+import org.apache.kafka.clients.admin.ListConsumerGroupOffsetsResult;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.apache.kafka.common.errors.GroupAuthorizationException;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+class MonitoringServiceTest {
+
+  private static final String TOPIC = "testtopic";
+  private static final String CONSUMER_GROUP = "testgroup";
+  private static final String DENIED_CONSUMER_GROUP = "deniedgroup";
+  private static final String SLOW_TOPIC = "slowtopic";
+
+  @Mock private ClusterApiUtils clusterApiUtils;
+
+  @Mock private AdminClient adminClient;
+
+  private MonitoringService monitoringService;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    monitoringService = new MonitoringService(clusterApiUtils);
+    monitoringService.init();
+    when(clusterApiUtils.getAdminClient(
+            "localhost:9092", KafkaSupportedProtocol.PLAINTEXT, "cluster"))
+        .thenReturn(adminClient);
+    mockOffsets();
+  }
+
+  @Test
+  public void consumerLagIsLatestMinusCommittedOffset() throws Exception {
+    List<Map<String, String>> lag =
+        monitoringService.getConsumerGroupDetails(
+            CONSUMER_GROUP, TOPIC, "localhost:9092", KafkaSupportedProtocol.PLAINTEXT, "cluster");
+
+    assertThat(lag)
+        .containsExactlyInAnyOrder(
+            Map.of("topicPartitionId", "0", "currentOffset", "40", "endOffset", "100", "lag", "60"),
+            // nothing committed, the group would start from the earliest offset
+            Map.of("topicPartitionId", "1", "currentOffset", "10", "endOffset", "50", "lag", "40"));
+  }
+
+  @Test
+  public void consumerLagIsReusedFromCache() throws Exception {
+    monitoringService.getConsumerGroupDetails(
+        CONSUMER_GROUP, TOPIC, "localhost:9092", KafkaSupportedProtocol.PLAINTEXT, "cluster");
+    List<Map<String, String>> lag =
+        monitoringService.getConsumerGroupDetails(
+            CONSUMER_GROUP, TOPIC, "localhost:9092", KafkaSupportedProtocol.PLAINTEXT, "cluster");
+
+    assertThat(lag).hasSize(2);
+    verify(adminClient, times(1)).listConsumerGroupOffsets(anyMap());
+    verify(adminClient, times(2)).listOffsets(anyMap());
+  }
+
+  @Test
+  public void consumerLagOfUnknownTopicIsEmpty() throws Exception {
+    ConsumerGroupLags lags =
+        monitoringService.getConsumerGroupLags(
+            "localhost:9092",
+            KafkaSupportedProtocol.PLAINTEXT,
+            "cluster",
+            Map.of(CONSUMER_GROUP, Set.of("unknowntopic")));
+
+    assertThat(lags.getLags().get(CONSUMER_GROUP).get("unknowntopic")).isEmpty();
+  }
+
+  @Test
+  public void consumerLagOfTimedOutTopicIsEmptyAndOtherTopicsAreListed() throws Exception {
+    ConsumerGroupLags lags =
+        monitoringService.getConsumerGroupLags(
+            "localhost:9092",
+            KafkaSupportedProtocol.PLAINTEXT,
+            "cluster",
+            Map.of(CONSUMER_GROUP, Set.of(TOPIC, SLOW_TOPIC)));
+
+    assertThat(lags.getLags().get(CONSUMER_GROUP).get(SLOW_TOPIC)).isEmpty();
+    assertThat(lags.getLags().get(CONSUMER_GROUP).get(TOPIC)).hasSize(2);
+  }
+
+  @Test
+  public void failingConsumerGroupIsReportedAndOtherGroupsAreListed() throws Exception {
+    ConsumerGroupLags lags =
+        monitoringService.getConsumerGroupLags(
+            "localhost:9092",
+            KafkaSupportedProtocol.PLAINTEXT,
+            "cluster",
+            Map.of(CONSUMER_GROUP, Set.of(TOPIC), DENIED_CONSUMER_GROUP, Set.of(TOPIC)));
+
+    assertThat(lags.getLags().get(CONSUMER_GROUP).get(TOPIC)).hasSize(2);
+    assertThat(lags.getLags()).doesNotContainKey(DENIED_CONSUMER_GROUP);
+    assertThat(lags.getFailedConsumerGroups()).containsOnlyKeys(DENIED_CONSUMER_GROUP);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void mockOffsets() throws Exception {
+    Node node = new Node(0, "localhost", 9092);
+    TopicPartitionInfo partitionInfo0 =
+        new TopicPartitionInfo(0, node, List.of(node), List.of(node));
+    TopicPartitionInfo partitionInfo1 =
+        new TopicPartitionInfo(1, node, List.of(node), List.of(node));
+    TopicPartition partition0 = new TopicPartition(TOPIC, 0);
+
+    when(adminClient.describeTopics(any(Collection.class)))
+        .thenAnswer(
+            invocation -> {
+              Collection<String> topicNames = invocation.getArgument(0);
+              DescribeTopicsResult describeTopicsResult = mock(DescribeTopicsResult.class);
+              Map<String, KafkaFuture<TopicDescription>> topicDescriptions = new HashMap<>();
+              for (String topicName : topicNames) {
+                if (TOPIC.equals(topicName)) {
+                  topicDescriptions.put(
+                      topicName,
+                      KafkaFuture.completedFuture(
+                          new TopicDescription(
+                              TOPIC, false, List.of(partitionInfo0, partitionInfo1))));
+                } else {
+                  KafkaFuture<TopicDescription> failed = mock(KafkaFuture.class);
+                  if (SLOW_TOPIC.equals(topicName)) {
+                    when(failed.get(any(Long.class), any())).thenThrow(new TimeoutException());
+                  } else {
+                    when(failed.get(any(Long.class), any()))
+                        .thenThrow(
+                            new ExecutionException(
+                                new UnknownTopicOrPartitionException("unknown")));
+                  }
+                  topicDescriptions.put(topicName, failed);
+                }
+              }
+              when(describeTopicsResult.topicNameValues()).thenReturn(topicDescriptions);
+              return describeTopicsResult;
+            });
+
+    ListConsumerGroupOffsetsResult consumerGroupOffsetsResult =
+        mock(ListConsumerGroupOffsetsResult.class);
+    when(consumerGroupOffsetsResult.partitionsToOffsetAndMetadata(CONSUMER_GROUP))
+        .thenReturn(KafkaFuture.completedFuture(Map.of(partition0, new OffsetAndMetadata(40))));
+    KafkaFuture<Map<TopicPartition, OffsetAndMetadata>> deniedOffsets = mock(KafkaFuture.class);
+    when(deniedOffsets.get(any(Long.class), any()))
+        .thenThrow(new ExecutionException(new GroupAuthorizationException("denied")));
+    when(consumerGroupOffsetsResult.partitionsToOffsetAndMetadata(DENIED_CONSUMER_GROUP))
+        .thenReturn(deniedOffsets);
+    when(adminClient.listConsumerGroupOffsets(anyMap())).thenReturn(consumerGroupOffsetsResult);
+
+    when(adminClient.listOffsets(anyMap()))
+        .thenAnswer(
+            invocation -> {
+              Map<TopicPartition, OffsetSpec> offsetSpecs = invocation.getArgument(0);
+              boolean earliest =
+                  offsetSpecs.values().stream()
+                      .anyMatch(offsetSpec -> offsetSpec instanceof OffsetSpec.EarliestSpec);
+              Map<TopicPartition, KafkaFuture<ListOffsetsResult.ListOffsetsResultInfo>> offsets =
+                  new HashMap<>();
+              offsetSpecs
+                  .keySet()
+                  .forEach(
+                      topicPartition ->
+                          offsets.put(
+                              topicPartition,
+                              KafkaFuture.completedFuture(
+                                  new ListOffsetsResult.ListOffsetsResultInfo(
+                                      earliest ? 10 : topicPartition.partition() == 0 ? 100 : 50,
+                                      0,
+                                      Optional.empty()))));
+              return new ListOffsetsResult(offsets);
+            });
+  }
+}
@@ -11,6 +11,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
 import io.aiven.klaw.clusterapi.utils.ClusterApiUtils;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import org.apache.commons.lang3.tuple.Pair;
 import org.assertj.core.util.Lists;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,6 +21,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
@@ -36,7 +39,8 @@ class SchemaServiceTest {
   public void setUp() {
     restTemplate = new RestTemplate();
     schemaService = new SchemaService(getAdminClient);
-    mockRestServiceServer = MockRestServiceServer.bindTo(restTemplate).build();
+    mockRestServiceServer =
+        MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
   }
 
   // TODO need to add proper return value
@@ -83,4 +87,86 @@ class SchemaServiceTest {
     assertThat(schemaService.getSchema("env", KafkaSupportedProtocol.PLAINTEXT, "CLID1", "topic"))
         .isNotEmpty();
   }
+
+  @Test
+  public void getSchema_fetchesEachVersionOnce() throws JsonProcessingException {
+    expectSchemaVersions(2, Lists.list(1, 2));
+    expectSchemaCompatibility(2);
+    expectSchemaVersion(1, 11);
+    expectSchemaVersion(2, 12);
+
+    assertThat(schemaService.getSchema("env", KafkaSupportedProtocol.PLAINTEXT, "CLID1", "topic"))
+        .containsOnlyKeys(1, 2);
+    Map<Integer, Map<String, Object>> schemas =
+        schemaService.getSchema("env", KafkaSupportedProtocol.PLAINTEXT, "CLID1", "topic");
+
+    // the second call only revalidates the versions list and the compatibility
+    mockRestServiceServer.verify();
+    assertThat(schemas).containsOnlyKeys(1, 2);
+    assertThat(schemas.get(2))
+        .containsEntry("id", 12)
+        .containsEntry("schema", "{\"type\":\"string\"}")
+        .containsEntry("compatibility", "BACKWARD");
+  }
+
+  @Test
+  public void getSchema_latestOnly() throws JsonProcessingException {
+    expectSchemaVersions(1, Lists.list(1, 2, 3));
+    expectSchemaCompatibility(1);
+    expectSchemaVersion(3, 13);
+
+    Map<Integer, Map<String, Object>> schemas =
+        schemaService.getSchema("env", KafkaSupportedProtocol.PLAINTEXT, "CLID1", "topic", true);
+
+    mockRestServiceServer.verify();
+    assertThat(schemas).containsOnlyKeys(3);
+    assertThat(schemas.get(3)).containsEntry("version", 3);
+  }
+
+  private void expectSchemaVersions(int times, List<Integer> versions)
+      throws JsonProcessingException {
+    String getSchemaVersionsUrl = "env/subjects/topic-value/versions";
+    when(getAdminClient.getRequestDetails(
+            eq(getSchemaVersionsUrl), eq(KafkaSupportedProtocol.PLAINTEXT)))
+        .thenReturn(Pair.of(getSchemaVersionsUrl, restTemplate));
+    this.mockRestServiceServer
+        .expect(ExpectedCount.times(times), requestTo("/" + getSchemaVersionsUrl))
+        .andRespond(
+            withSuccess(objectMapper.writeValueAsString(versions), MediaType.APPLICATION_JSON));
+  }
+
+  private void expectSchemaCompatibility(int times) throws JsonProcessingException {
+    String getSchemaCompatibilityUrl = "env/config/topic-value";
+    when(getAdminClient.getRequestDetails(
+            eq(getSchemaCompatibilityUrl), eq(KafkaSupportedProtocol.PLAINTEXT)))
+        .thenReturn(Pair.of(getSchemaCompatibilityUrl, restTemplate));
+    this.mockRestServiceServer
+        .expect(ExpectedCount.times(times), requestTo("/" + getSchemaCompatibilityUrl))
+        .andRespond(
+            withSuccess(
+                objectMapper.writeValueAsString(
+                    Collections.singletonMap("compatibilityLevel", "BACKWARD")),
+                MediaType.APPLICATION_JSON));
+  }
+
+  private void expectSchemaVersion(int version, int id) throws JsonProcessingException {
+    String getSchemaUrl = "env/subjects/topic-value/versions/" + version;
+    when(getAdminClient.getRequestDetails(eq(getSchemaUrl), eq(KafkaSupportedProtocol.PLAINTEXT)))
+        .thenReturn(Pair.of(getSchemaUrl, restTemplate));
+    this.mockRestServiceServer
+        .expect(ExpectedCount.once(), requestTo("/" + getSchemaUrl))
+        .andRespond(
+            withSuccess(
+                objectMapper.writeValueAsString(
+                    Map.of(
+                        "subject",
+                        "topic-value",
+                        "version",
+                        version,
+                        "id",
+                        id,
+                        "schema",
+                        "{\"type\":\"string\"}")),
+                MediaType.APPLICATION_JSON));
+  }
 }
@@ -0,0 +1,227 @@
+package io.aiven.klaw.clusterapi.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.aiven.klaw.clusterapi.models.TopicContentEvent;
+import io.aiven.klaw.clusterapi.utils.ClusterApiUtils;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class TopicContentsServiceTest {
+
+  private static final String TOPIC = "testtopic";
+
+  private final List<MockConsumer<String, String>> createdConsumers = new ArrayList<>();
+
+  private TopicContentsService topicContentsService;
+
+  @BeforeEach
+  public void setUp() {
+    topicContentsService =
+        new TopicContentsService(Mockito.mock(ClusterApiUtils.class)) {
+          @Override
+          Consumer<String, String> createConsumer(String bootstrapServers, String protocol) {
+            MockConsumer<String, String> consumer = getMockConsumer();
+            createdConsumers.add(consumer);
+            return consumer;
+          }
+        };
+    topicContentsService.initStreamExecutor();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    topicContentsService.closeConsumers();
+  }
+
+  @Test
+  public void readEventsReadsLastRecordsOfPartitions() {
+    Map<Long, String> events =
+        topicContentsService.readEvents(
+            "localhost:9092", "PLAINTEXT", "cluster", "notdefined", TOPIC, 3, "OFFSET_ID");
+
+    assertThat(events).containsOnlyKeys(7L, 8L, 9L);
+  }
+
+  @Test
+  public void readEventsReusesPooledConsumer() {
+    topicContentsService.readEvents(
+        "localhost:9092", "PLAINTEXT", "cluster", "notdefined", TOPIC, 3, "OFFSET_ID");
+    // records read by the first request have to be offered again for the second one
+    addRecords(createdConsumers.get(0));
+    topicContentsService.readEvents(
+        "localhost:9092", "PLAINTEXT", "cluster", "notdefined", TOPIC, 3, "OFFSET_ID");
+
+    assertThat(createdConsumers).hasSize(1);
+    assertThat(createdConsumers.get(0).closed()).isFalse();
+    assertThat(createdConsumers.get(0).assignment()).isEmpty();
+  }
+
+  @Test
+  public void readEventsOfPartitionAndOffsetRange() {
+    Map<Long, String> events =
+        topicContentsService.readEvents(
+            "localhost:9092", "PLAINTEXT", TOPIC, 100, "OFFSET_ID", 0, 2L, 5L, Long.MAX_VALUE);
+
+    assertThat(events).containsOnlyKeys(2L, 3L, 4L, 5L);
+  }
+
+  @Test
+  public void readEventsStopsAtMaxBytes() {
+    // every record has a 7 byte value
+    Map<Long, String> events =
+        topicContentsService.readEvents(
+            "localhost:9092", "PLAINTEXT", TOPIC, 100, "OFFSET_ID", 0, 0L, null, 14L);
+
+    assertThat(events).containsOnlyKeys(0L, 1L);
+  }
+
+  @Test
+  public void readEventsStopsAtConfiguredMaxBytesByDefault() {
+    ReflectionTestUtils.setField(topicContentsService, "defaultMaxBytes", 14L);
+    Map<Long, String> events =
+        topicContentsService.readEvents(
+            "localhost:9092", "PLAINTEXT", TOPIC, 100, "OFFSET_ID", 0, 0L, null, null);
+
+    assertThat(events).containsOnlyKeys(0L, 1L);
+  }
+
+  @Test
+  public void streamEventsSendsRecordsAsEvents() throws InterruptedException {
+    ReflectionTestUtils.setField(topicContentsService, "maxStreamValueLength", 4);
+    List<TopicContentEvent> sentEvents = new CopyOnWriteArrayList<>();
+    CountDownLatch completed = new CountDownLatch(1);
+    SseEmitter emitter =
+        new SseEmitter() {
+          @Override
+          public void send(SseEventBuilder builder) {
+            builder.build().stream()
+                .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                .filter(TopicContentEvent.class::isInstance)
+                .forEach(data -> sentEvents.add((TopicContentEvent) data));
+          }
+
+          @Override
+          public void complete() {
+            completed.countDown();
+          }
+        };
+
+    topicContentsService.streamEvents(
+        "localhost:9092", "PLAINTEXT", TOPIC, 2, null, null, null, Long.MAX_VALUE, emitter);
+
+    assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(sentEvents).extracting(TopicContentEvent::getOffset).containsExactly(8L, 9L);
+    assertThat(sentEvents)
+        .allSatisfy(
+            event -> {
+              assertThat(event.getValue()).isEqualTo("reco");
+              assertThat(event.isValueTruncated()).isTrue();
+            });
+  }
+
+  @Test
+  public void streamsBeyondMaximumAreRejected() throws InterruptedException {
+    ReflectionTestUtils.setField(topicContentsService, "maxConcurrentStreams", 1);
+    topicContentsService.initStreamExecutor();
+    CountDownLatch sending = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    SseEmitter slowEmitter =
+        new SseEmitter() {
+          @Override
+          public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+              release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+              throw new IOException(e);
+            }
+          }
+        };
+
+    topicContentsService.streamEvents(
+        "localhost:9092", "PLAINTEXT", TOPIC, 2, null, null, null, Long.MAX_VALUE, slowEmitter);
+    assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+    assertThatThrownBy(
+            () ->
+                topicContentsService.streamEvents(
+                    "localhost:9092",
+                    "PLAINTEXT",
+                    TOPIC,
+                    2,
+                    null,
+                    null,
+                    null,
+                    Long.MAX_VALUE,
+                    new SseEmitter()))
+        .isInstanceOf(RejectedExecutionException.class);
+    release.countDown();
+  }
+
+  private static MockConsumer<String, String> getMockConsumer() {
+    MockConsumer<String, String> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+    TopicPartition tp = new TopicPartition(TOPIC, 0);
+    consumer.updatePartitions(
+        TOPIC, List.of(new PartitionInfo(TOPIC, 0, Node.noNode(), new Node[0], new Node[0])));
+    consumer.updateBeginningOffsets(Map.of(tp, 0L));
+    consumer.updateEndOffsets(Map.of(tp, 10L));
+    addRecords(consumer);
+    return consumer;
+  }
+
+  private static void addRecords(MockConsumer<String, String> consumer) {
+    // offered before every poll, MockConsumer only hands out records of assigned partitions
+    consumer.schedulePollTask(
+        () -> {
+          Map<TopicPartition, Long> positions = new HashMap<>();
+          for (TopicPartition tp : consumer.assignment()) {
+            positions.put(tp, consumer.position(tp));
+          }
+          positions.forEach(
+              (tp, position) -> {
+                for (long offset = position; offset < 10; offset++) {
+                  String value = "record" + offset % 10;
+                  consumer.addRecord(
+                      new ConsumerRecord<>(
+                          TOPIC,
+                          tp.partition(),
+                          offset,
+                          0L,
+                          TimestampType.CREATE_TIME,
+                          -1,
+                          value.length(),
+                          null,
+                          value,
+                          new RecordHeaders(),
+                          Optional.empty()));
+                }
+              });
+        });
+  }
+}
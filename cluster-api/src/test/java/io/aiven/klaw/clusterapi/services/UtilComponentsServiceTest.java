@@ -3,17 +3,22 @@ package io.aiven.klaw.clusterapi.services;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.aiven.klaw.clusterapi.UtilMethods;
 import io.aiven.klaw.clusterapi.models.ApiResponse;
 import io.aiven.klaw.clusterapi.models.ClusterAclRequest;
 import io.aiven.klaw.clusterapi.models.ClusterSchemaRequest;
+import io.aiven.klaw.clusterapi.models.ClusterTopic;
 import io.aiven.klaw.clusterapi.models.ClusterTopicRequest;
 import io.aiven.klaw.clusterapi.models.enums.AclType;
 import io.aiven.klaw.clusterapi.models.enums.ApiResultStatus;
 import io.aiven.klaw.clusterapi.models.enums.ClusterStatus;
 import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
+import io.aiven.klaw.clusterapi.models.enums.RequestOperationType;
 import io.aiven.klaw.clusterapi.utils.ClusterApiUtils;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -21,14 +26,19 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.CreateAclsResult;
+import org.apache.kafka.clients.admin.CreatePartitionsResult;
 import org.apache.kafka.clients.admin.CreateTopicsResult;
+import org.apache.kafka.clients.admin.DeleteTopicsResult;
 import org.apache.kafka.clients.admin.DescribeAclsResult;
 import org.apache.kafka.clients.admin.DescribeTopicsResult;
 import org.apache.kafka.clients.admin.ListTopicsResult;
@@ -41,6 +51,9 @@ import org.apache.kafka.common.acl.AclBinding;
 import org.apache.kafka.common.acl.AclBindingFilter;
 import org.apache.kafka.common.acl.AclOperation;
 import org.apache.kafka.common.acl.AclPermissionType;
+import org.apache.kafka.common.errors.TopicAuthorizationException;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -68,8 +81,6 @@ public class UtilComponentsServiceTest {
 
   @Mock private KafkaFuture<Set<String>> kafkaFuture;
 
-  @Mock private KafkaFuture<Map<String, TopicDescription>> kafkaFutureTopicdesc;
-
   @Mock private KafkaFuture<Collection<AclBinding>> kafkaFutureCollection;
 
   @Mock private DescribeTopicsResult describeTopicsResult;
@@ -80,6 +91,8 @@ public class UtilComponentsServiceTest {
 
   @Mock private CreateTopicsResult createTopicsResult;
 
+  @Mock private DeleteTopicsResult deleteTopicsResult;
+
   @Mock private CreateAclsResult createAclsResult;
 
   @Mock private Map<String, KafkaFuture<Void>> futureTocpiCreateResult;
@@ -105,6 +118,7 @@ public class UtilComponentsServiceTest {
     confluentCloudApiService = new ConfluentCloudApiService(env, clusterApiUtils);
     utilComponentsService = new UtilComponentsService(env, clusterApiUtils);
     apacheKafkaAclService = new ApacheKafkaAclService(clusterApiUtils);
+    apacheKafkaAclService.init();
     apacheKafkaTopicService = new ApacheKafkaTopicService(clusterApiUtils);
     schemaService = new SchemaService(clusterApiUtils);
     utilMethods = new UtilMethods();
@@ -113,8 +127,9 @@ public class UtilComponentsServiceTest {
   // If no cluster type is defined, return
   @Test
   public void getStatusOnline() throws Exception {
-    when(clusterApiUtils.getAdminClient(any(), eq(KafkaSupportedProtocol.PLAINTEXT), anyString()))
-        .thenReturn(adminClient);
+    when(clusterApiUtils.isAdminClientHealthy(
+            any(), eq(KafkaSupportedProtocol.PLAINTEXT), anyString()))
+        .thenReturn(true);
     ClusterStatus result =
         utilComponentsService.getStatus(
             "localhost", KafkaSupportedProtocol.PLAINTEXT, "", "kafka", "Apache Kafka");
@@ -188,7 +203,7 @@ public class UtilComponentsServiceTest {
 
   @Test
   public void loadTopics() throws Exception {
-    Set<String> list = new HashSet<>();
+    Set<String> list = new HashSet<>(List.of("testtopic1", "testtopic2", "_schemas"));
     when(clusterApiUtils.getAdminClient(
             anyString(), eq(KafkaSupportedProtocol.PLAINTEXT), anyString()))
         .thenReturn(adminClient);
@@ -198,8 +213,12 @@ public class UtilComponentsServiceTest {
 
     // Mockito seems to have trouble with stubbing default methods.
     when(adminClient.describeTopics(anyCollection())).thenReturn(describeTopicsResult);
-    when(describeTopicsResult.all()).thenReturn(kafkaFutureTopicdesc);
-    when(kafkaFutureTopicdesc.get(anyLong(), any(TimeUnit.class))).thenReturn(getTopicDescs());
+    Map<String, KafkaFuture<TopicDescription>> topicDescs = new HashMap<>();
+    getTopicDescs()
+        .forEach(
+            (topicName, topicDesc) ->
+                topicDescs.put(topicName, KafkaFuture.completedFuture(topicDesc)));
+    when(describeTopicsResult.topicNameValues()).thenReturn(topicDescs);
 
     Set<Map<String, String>> result =
         apacheKafkaTopicService.loadTopics("localhost", KafkaSupportedProtocol.PLAINTEXT, "");
@@ -219,6 +238,45 @@ public class UtilComponentsServiceTest {
     assertThat(hashMap1).isEqualTo(new ArrayList<>(result).get(1));
   }
 
+  @Test
+  public void loadTopicsReportsTopicsWhichCouldNotBeDescribed() throws Exception {
+    KafkaFutureImpl<TopicDescription> deletedTopic = new KafkaFutureImpl<>();
+    deletedTopic.completeExceptionally(new UnknownTopicOrPartitionException("deleted"));
+    KafkaFutureImpl<TopicDescription> deniedTopic = new KafkaFutureImpl<>();
+    deniedTopic.completeExceptionally(new TopicAuthorizationException("denied"));
+    KafkaFuture<TopicDescription> slowTopic = mock(KafkaFuture.class);
+    when(slowTopic.get(anyLong(), any(TimeUnit.class))).thenThrow(new TimeoutException());
+    when(clusterApiUtils.getAdminClient(
+            anyString(), eq(KafkaSupportedProtocol.PLAINTEXT), anyString()))
+        .thenReturn(adminClient);
+    when(adminClient.listTopics(any())).thenReturn(listTopicsResult);
+    when(listTopicsResult.names()).thenReturn(kafkaFuture);
+    when(kafkaFuture.get())
+        .thenReturn(
+            new LinkedHashSet<>(List.of("testtopic1", "testtopic2", "testtopic3", "testtopic4")));
+    when(adminClient.describeTopics(anyCollection())).thenReturn(describeTopicsResult);
+    Map<String, KafkaFuture<TopicDescription>> topicDescs = new LinkedHashMap<>();
+    topicDescs.put("testtopic1", KafkaFuture.completedFuture(getTopicDescs().get("testtopic1")));
+    topicDescs.put("testtopic2", deletedTopic);
+    topicDescs.put("testtopic3", deniedTopic);
+    topicDescs.put("testtopic4", slowTopic);
+    when(describeTopicsResult.topicNameValues()).thenReturn(topicDescs);
+
+    List<ClusterTopic> topics = new ArrayList<>();
+    List<String> failedTopics =
+        apacheKafkaTopicService.loadTopics(
+            "localhost", KafkaSupportedProtocol.PLAINTEXT, "", topics::add);
+
+    // a topic deleted after it was listed is left out, the other topics of its chunk are kept
+    assertThat(topics).extracting(ClusterTopic::getTopicName).containsExactly("testtopic1");
+    assertThat(failedTopics).containsExactly("testtopic3", "testtopic4");
+    assertThatThrownBy(
+            () ->
+                apacheKafkaTopicService.loadTopics(
+                    "localhost", KafkaSupportedProtocol.PLAINTEXT, ""))
+        .hasMessage("Could not describe 2 topics.");
+  }
+
   @Test
   public void createTopicSuccess() throws Exception {
     ClusterTopicRequest clusterTopicRequest =
@@ -241,6 +299,97 @@ public class UtilComponentsServiceTest {
     assertThat(result.getResult()).isEqualTo(ApiResultStatus.SUCCESS.value);
   }
 
+  @Test
+  public void executeTopicRequestsBatchesPerCluster() throws Exception {
+    ClusterTopicRequest createRequest =
+        ClusterTopicRequest.builder()
+            .env("localhost")
+            .protocol(KafkaSupportedProtocol.PLAINTEXT)
+            .topicName("testtopic1")
+            .partitions(1)
+            .replicationFactor(Short.parseShort("1"))
+            .clusterName("")
+            .requestOperationType(RequestOperationType.CREATE)
+            .build();
+    ClusterTopicRequest createRequest2 = createRequest.toBuilder().topicName("testtopic2").build();
+    ClusterTopicRequest deleteRequest =
+        createRequest.toBuilder()
+            .topicName("testtopic3")
+            .requestOperationType(RequestOperationType.DELETE)
+            .build();
+
+    when(clusterApiUtils.getAdminClient(any(), eq(KafkaSupportedProtocol.PLAINTEXT), anyString()))
+        .thenReturn(adminClient);
+    when(adminClient.createTopics(any())).thenReturn(createTopicsResult);
+    when(createTopicsResult.values())
+        .thenReturn(Map.of("testtopic1", kFutureVoid, "testtopic2", kFutureVoid));
+    when(adminClient.deleteTopics(anyCollection())).thenReturn(deleteTopicsResult);
+    when(deleteTopicsResult.topicNameValues()).thenReturn(Map.of("testtopic3", kFutureVoid));
+
+    List<ApiResponse> results =
+        apacheKafkaTopicService.executeTopicRequests(
+            List.of(createRequest, deleteRequest, createRequest2));
+
+    assertThat(results)
+        .extracting(ApiResponse::getResult)
+        .containsExactly(
+            ApiResultStatus.SUCCESS.value,
+            ApiResultStatus.SUCCESS.value,
+            ApiResultStatus.SUCCESS.value);
+    assertThat(results)
+        .extracting(ApiResponse::getData)
+        .containsExactly("testtopic1", "testtopic3", "testtopic2");
+    verify(adminClient, times(1)).createTopics(any());
+    verify(adminClient, times(1)).deleteTopics(anyCollection());
+    verify(clusterApiUtils, times(1))
+        .getAdminClient(any(), eq(KafkaSupportedProtocol.PLAINTEXT), anyString());
+  }
+
+  @Test
+  public void executeTopicRequestsReportsUnknownTopicOfBatchedUpdates() throws Exception {
+    ClusterTopicRequest updateRequest =
+        ClusterTopicRequest.builder()
+            .env("localhost")
+            .protocol(KafkaSupportedProtocol.PLAINTEXT)
+            .topicName("testtopic1")
+            .partitions(2)
+            .replicationFactor(Short.parseShort("1"))
+            .clusterName("")
+            .requestOperationType(RequestOperationType.UPDATE)
+            .build();
+    ClusterTopicRequest unknownTopicRequest =
+        updateRequest.toBuilder().topicName("unknowntopic").build();
+    KafkaFutureImpl<TopicDescription> unknownTopic = new KafkaFutureImpl<>();
+    unknownTopic.completeExceptionally(new UnknownTopicOrPartitionException("unknown"));
+    CreatePartitionsResult createPartitionsResult = mock(CreatePartitionsResult.class);
+
+    when(clusterApiUtils.getAdminClient(any(), eq(KafkaSupportedProtocol.PLAINTEXT), anyString()))
+        .thenReturn(adminClient);
+    when(adminClient.describeTopics(anyCollection())).thenReturn(describeTopicsResult);
+    when(describeTopicsResult.topicNameValues())
+        .thenReturn(
+            Map.of(
+                "testtopic1",
+                KafkaFuture.completedFuture(
+                    new TopicDescription(
+                        "testtopic1",
+                        false,
+                        List.of(new TopicPartitionInfo(0, null, List.of(), List.of())))),
+                "unknowntopic",
+                unknownTopic));
+    when(adminClient.createPartitions(any())).thenReturn(createPartitionsResult);
+    when(createPartitionsResult.values()).thenReturn(Map.of("testtopic1", kFutureVoid));
+
+    List<ApiResponse> results =
+        apacheKafkaTopicService.executeTopicRequests(List.of(unknownTopicRequest, updateRequest));
+
+    assertThat(results)
+        .extracting(ApiResponse::getData)
+        .containsExactly("unknowntopic", "testtopic1");
+    assertThat(results.get(0).getResult()).contains("UnknownTopicOrPartitionException");
+    assertThat(results.get(1).getResult()).isEqualTo(ApiResultStatus.SUCCESS.value);
+  }
+
   // TODO review test configuration, since an NPE is thrown, which is most likely not intended here.
   @Test
   public void createTopicFailure1() throws Exception {
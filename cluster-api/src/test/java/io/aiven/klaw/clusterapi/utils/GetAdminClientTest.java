@@ -2,16 +2,26 @@ package io.aiven.klaw.clusterapi.utils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.aiven.klaw.clusterapi.models.enums.KafkaSupportedProtocol;
-import java.util.HashMap;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.DescribeClusterOptions;
+import org.apache.kafka.clients.admin.DescribeClusterResult;
 import org.apache.kafka.clients.admin.ListTopicsResult;
 import org.apache.kafka.common.KafkaFuture;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,15 +46,23 @@ public class GetAdminClientTest {
   ClusterApiUtils getAdminClient;
   @Mock private ListTopicsResult listTopicsResult;
   @Mock private KafkaFuture<Set<String>> kafkaFuture;
-  @Mock private HashMap<String, AdminClient> adminClientsMap;
+  @Mock private DescribeClusterResult describeClusterResult;
+  @Mock private KafkaFuture<String> clusterIdFuture;
+
+  private Map<String, AdminClient> adminClientsMap;
 
   @Mock private Map<String, RestTemplate> restTemplateMap;
   @Mock private AdminClientProperties adminClientProperties;
 
+  private SimpleMeterRegistry meterRegistry;
+
   @BeforeEach
   public void setUp() {
+    adminClientsMap = new ConcurrentHashMap<>();
+    meterRegistry = new SimpleMeterRegistry();
     getAdminClient =
-        new ClusterApiUtils(env, adminClientProperties, adminClientsMap, restTemplateMap);
+        new ClusterApiUtils(
+            env, adminClientProperties, adminClientsMap, restTemplateMap, meterRegistry);
     when(adminClientProperties.getRetriesConfig()).thenReturn("3");
     when(adminClientProperties.getRequestTimeOutMs()).thenReturn("15000");
     when(adminClientProperties.getRetryBackOffMsConfig()).thenReturn("15000");
@@ -56,14 +74,69 @@ public class GetAdminClientTest {
       mocked.when(() -> AdminClient.create(any(Properties.class))).thenReturn(adminClient);
       // Commented out to avoid UnnecessaryStubbingException
       // when(env.getProperty(any())).thenReturn("null");
-      when(adminClient.listTopics()).thenReturn(listTopicsResult);
-      when(listTopicsResult.names()).thenReturn(kafkaFuture);
-      Set<String> setStr = new HashSet<>();
-      when(kafkaFuture.get()).thenReturn(setStr);
 
       AdminClient result =
           getAdminClient.getAdminClient(LOCALHOST_9092, KafkaSupportedProtocol.PLAINTEXT, "");
       assertThat(result).isNotNull();
+      verify(adminClient, never()).listTopics();
+    }
+  }
+
+  @Test
+  public void getAdminClientReusesPooledClient() throws Exception {
+    try (MockedStatic<AdminClient> mocked = mockStatic(AdminClient.class)) {
+      mocked.when(() -> AdminClient.create(any(Properties.class))).thenReturn(adminClient);
+
+      AdminClient first =
+          getAdminClient.getAdminClient(LOCALHOST_9092, KafkaSupportedProtocol.PLAINTEXT, "1");
+      AdminClient second =
+          getAdminClient.getAdminClient(LOCALHOST_9092, KafkaSupportedProtocol.PLAINTEXT, "1");
+
+      assertThat(second).isSameAs(first);
+      mocked.verify(() -> AdminClient.create(any(Properties.class)), times(1));
+      assertThat(
+              meterRegistry.get("klaw.adminclient.created").tag("cluster", "1").counter().count())
+          .isEqualTo(1.0);
+    }
+  }
+
+  @Test
+  public void checkAdminClientsHealthEvictsFailedClient() throws Exception {
+    try (MockedStatic<AdminClient> mocked = mockStatic(AdminClient.class)) {
+      mocked.when(() -> AdminClient.create(any(Properties.class))).thenReturn(adminClient);
+      when(adminClient.describeCluster(any(DescribeClusterOptions.class)))
+          .thenReturn(describeClusterResult);
+      when(describeClusterResult.clusterId()).thenReturn(clusterIdFuture);
+      when(clusterIdFuture.get(anyLong(), any(TimeUnit.class)))
+          .thenThrow(new TimeoutException("timed out"));
+
+      getAdminClient.getAdminClient(LOCALHOST_9092, KafkaSupportedProtocol.PLAINTEXT, "1");
+      getAdminClient.checkAdminClientsHealth();
+
+      assertThat(adminClientsMap).isEmpty();
+      verify(adminClient).close(any(Duration.class));
+      AdminClientMetrics adminClientMetrics =
+          getAdminClient.getAdminClientMetrics().values().iterator().next();
+      assertThat(adminClientMetrics.isHealthy()).isFalse();
+      assertThat(adminClientMetrics.getEvictedCount()).isEqualTo(1);
+      assertThat(adminClientMetrics.getHealthCheckFailureCount()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  public void checkAdminClientsHealthKeepsHealthyClient() throws Exception {
+    try (MockedStatic<AdminClient> mocked = mockStatic(AdminClient.class)) {
+      mocked.when(() -> AdminClient.create(any(Properties.class))).thenReturn(adminClient);
+      when(adminClient.describeCluster(any(DescribeClusterOptions.class)))
+          .thenReturn(describeClusterResult);
+      when(describeClusterResult.clusterId()).thenReturn(clusterIdFuture);
+      when(clusterIdFuture.get(anyLong(), any(TimeUnit.class))).thenReturn("clusterId");
+
+      getAdminClient.getAdminClient(LOCALHOST_9092, KafkaSupportedProtocol.PLAINTEXT, "1");
+      getAdminClient.checkAdminClientsHealth();
+
+      assertThat(adminClientsMap).hasSize(1);
+      verify(adminClient, never()).close(any(Duration.class));
     }
   }
 
@@ -0,0 +1,64 @@
+package io.aiven.klaw.clusterapi.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.management.remote.JMXConnector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class MetricsUtilsTest {
+
+  private static final String JMX_URL = "service:jmx:rmi:///jndi/rmi://localhost:9999/jmxrmi";
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  @AfterEach
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void concurrentConnectsShareOneConnectionAndCloseTheOther() throws Exception {
+    List<JMXConnector> createdConnectors = new CopyOnWriteArrayList<>();
+    CyclicBarrier bothConnecting = new CyclicBarrier(2);
+    MetricsUtils metricsUtils =
+        new MetricsUtils() {
+          @Override
+          JMXConnector connect(String jmxUrl) throws IOException {
+            try {
+              bothConnecting.await(5, TimeUnit.SECONDS);
+            } catch (Exception e) {
+              throw new IOException(e);
+            }
+            JMXConnector connector = mock(JMXConnector.class);
+            createdConnectors.add(connector);
+            return connector;
+          }
+        };
+
+    Future<JMXConnector> first = executor.submit(() -> metricsUtils.getJmxConnector(JMX_URL));
+    Future<JMXConnector> second = executor.submit(() -> metricsUtils.getJmxConnector(JMX_URL));
+    JMXConnector connector = first.get(5, TimeUnit.SECONDS);
+
+    assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(connector);
+    assertThat(createdConnectors).hasSize(2).contains(connector);
+    for (JMXConnector createdConnector : createdConnectors) {
+      if (createdConnector == connector) {
+        verify(createdConnector, never()).close();
+      } else {
+        verify(createdConnector).close();
+      }
+    }
+  }
+}
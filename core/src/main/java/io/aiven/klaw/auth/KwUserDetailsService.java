@@ -0,0 +1,98 @@
+package io.aiven.klaw.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.aiven.klaw.config.ManageDatabase;
+import io.aiven.klaw.dao.UserInfo;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.jasypt.util.text.BasicTextEncryptor;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Users of db authentication, loaded from the database when they log in. The encoded credentials
+ * are kept in a bounded cache, so that the password of a user is only decrypted and encoded again
+ * after the cache is cleared on a user change, on this or another instance, or the cache entry
+ * expires.
+ */
+@Slf4j
+public class KwUserDetailsService implements UserDetailsService {
+
+  private static final int USER_DETAILS_CACHE_SIZE = 10000;
+
+  // users without password can only log in with sso or ad
+  private static final String UNUSABLE_PWD = "gfGF%64GFDd766hfgfHFD$%#453";
+
+  private final ManageDatabase manageDatabase;
+
+  private final String encryptorSecretKey;
+
+  private final PasswordEncoder encoder =
+      PasswordEncoderFactories.createDelegatingPasswordEncoder();
+
+  // username -> user with encoded password and role
+  private final Cache<String, UserDetails> userDetails;
+
+  public KwUserDetailsService(
+      ManageDatabase manageDatabase, String encryptorSecretKey, long userDetailsCacheTtlMs) {
+    this.manageDatabase = manageDatabase;
+    this.encryptorSecretKey = encryptorSecretKey;
+    this.userDetails =
+        Caffeine.newBuilder()
+            .maximumSize(USER_DETAILS_CACHE_SIZE)
+            .expireAfterWrite(Duration.ofMillis(userDetailsCacheTtlMs))
+            .build();
+  }
+
+  @Override
+  public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    UserDetails user = userDetails.get(username, this::loadUser);
+    if (user == null) {
+      throw new UsernameNotFoundException(username);
+    }
+    // credentials of the returned user are erased after the authentication, the cached one is kept
+    return User.withUserDetails(user).build();
+  }
+
+  /** Drops all cached credentials, on user changes made on this or another instance. */
+  public void evictAllUsers() {
+    userDetails.invalidateAll();
+  }
+
+  private UserDetails loadUser(String username) {
+    UserInfo userInfo = manageDatabase.getHandleDbRequests().getUsersInfo(username);
+    if (userInfo == null) {
+      return null;
+    }
+    try {
+      String secPwd = userInfo.getPwd();
+      if (secPwd != null && secPwd.equals("")) {
+        secPwd = UNUSABLE_PWD;
+      } else {
+        secPwd = decodePwd(secPwd);
+      }
+      return User.withUsername(userInfo.getUsername())
+          .password(encoder.encode(secPwd))
+          .authorities(userInfo.getRole())
+          .build();
+    } catch (Exception e) {
+      log.error("Error : User not loaded {}. Check password.", username, e);
+      return null;
+    }
+  }
+
+  private String decodePwd(String pwd) {
+    if (pwd != null) {
+      BasicTextEncryptor textEncryptor = new BasicTextEncryptor();
+      textEncryptor.setPasswordCharArray(encryptorSecretKey.toCharArray());
+
+      return textEncryptor.decrypt(pwd);
+    }
+    return "";
+  }
+}
@@ -264,8 +264,8 @@ public class ManageDatabase implements ApplicationContextAware, InitializingBean
     }
   }
 
-  public List<UserInfo> selectAllUsersInfo() {
-    return handleDbRequests.selectAllUsersAllTenants();
+  public long countAllUsers() {
+    return handleDbRequests.countAllUsersAllTenants();
   }
 
   public List<Env> getKafkaEnvListAllTenants(int tenantId) {
@@ -1,17 +1,12 @@
 package io.aiven.klaw.config;
 
 import static io.aiven.klaw.model.enums.AuthenticationType.ACTIVE_DIRECTORY;
-import static io.aiven.klaw.model.enums.AuthenticationType.DATABASE;
 
 import io.aiven.klaw.auth.KwAuthenticationFailureHandler;
 import io.aiven.klaw.auth.KwAuthenticationSuccessHandler;
-import io.aiven.klaw.dao.UserInfo;
+import io.aiven.klaw.auth.KwUserDetailsService;
 import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Properties;
 import lombok.extern.slf4j.Slf4j;
-import org.jasypt.util.text.BasicTextEncryptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -24,10 +19,7 @@ import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.factory.PasswordEncoderFactories;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.ldap.authentication.ad.ActiveDirectoryLdapAuthenticationProvider;
-import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
 @EnableWebSecurity
@@ -62,11 +54,11 @@ public class SecurityConfigNoSSO {
   @Value("${klaw.coral.enabled:false}")
   private boolean coralEnabled;
 
-  @Autowired LdapTemplate ldapTemplate;
+  // users of db authentication are loaded on login, user changes on any server evict them
+  @Value("${klaw.users.credentials.cache.ttl.ms:600000}")
+  private long userDetailsCacheTtlMs = 600000;
 
-  private void shutdownApp() {
-    // TODO
-  }
+  @Autowired LdapTemplate ldapTemplate;
 
   @Bean
   public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -127,59 +119,19 @@ public class SecurityConfigNoSSO {
 
   @ConditionalOnProperty(name = "klaw.login.authentication.type", havingValue = "db")
   @Bean
-  public InMemoryUserDetailsManager inMemoryUserDetailsManager() throws Exception {
-    final Properties globalUsers = new Properties();
-    if (authenticationType != null && authenticationType.equals(DATABASE.value)) {
-      log.info("Db authentication configured.");
-      log.debug("Loading all users !!");
-      List<UserInfo> users;
-      try {
-        users = manageTopics.selectAllUsersInfo();
-      } catch (Exception e) {
-        log.error("Please check if tables are created.", e);
-        shutdownApp();
-        throw new Exception("Please check if tables are created.");
-      }
-
-      if (users.size() == 0) {
-        shutdownApp();
-        throw new Exception("Please check if insert scripts are executed.");
-      }
-
-      Iterator<UserInfo> iter = users.iterator();
-      PasswordEncoder encoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
-      loadAllUsers(globalUsers, iter, encoder);
-    }
-    return new InMemoryUserDetailsManager(globalUsers);
-  }
-
-  private void loadAllUsers(
-      Properties globalUsers, Iterator<UserInfo> iter, PasswordEncoder encoder) {
-    UserInfo userInfo;
-    while (iter.hasNext()) {
-      userInfo = iter.next();
-      try {
-        String secPwd = userInfo.getPwd();
-        if (secPwd != null && secPwd.equals("")) {
-          secPwd = "gfGF%64GFDd766hfgfHFD$%#453";
-        } else {
-          secPwd = decodePwd(secPwd);
-        }
-        globalUsers.put(
-            userInfo.getUsername(), encoder.encode(secPwd) + "," + userInfo.getRole() + ",enabled");
-      } catch (Exception e) {
-        log.error("Error : User not loaded {}. Check password.", userInfo.getUsername(), e);
-      }
+  public KwUserDetailsService kwUserDetailsService() throws Exception {
+    log.info("Db authentication configured.");
+    long usersCount;
+    try {
+      usersCount = manageTopics.countAllUsers();
+    } catch (Exception e) {
+      log.error("Please check if tables are created.", e);
+      throw new Exception("Please check if tables are created.");
     }
-  }
-
-  private String decodePwd(String pwd) {
-    if (pwd != null) {
-      BasicTextEncryptor textEncryptor = new BasicTextEncryptor();
-      textEncryptor.setPasswordCharArray(encryptorSecretKey.toCharArray());
 
-      return textEncryptor.decrypt(pwd);
+    if (usersCount == 0) {
+      throw new Exception("Please check if insert scripts are executed.");
     }
-    return "";
+    return new KwUserDetailsService(manageTopics, encryptorSecretKey, userDetailsCacheTtlMs);
   }
 }
@@ -4,6 +4,7 @@ import io.aiven.klaw.error.KlawException;
 import io.aiven.klaw.model.AclRequestsModel;
 import io.aiven.klaw.model.ApiResponse;
 import io.aiven.klaw.model.TopicOverview;
+import io.aiven.klaw.model.cluster.ConsumerGroupLags;
 import io.aiven.klaw.model.enums.AclType;
 import io.aiven.klaw.service.AclControllerService;
 import io.aiven.klaw.service.TopicOverviewService;
@@ -149,6 +150,17 @@ public class AclController {
         aclControllerService.getConsumerOffsets(envId, consumerGroupId, topicName), HttpStatus.OK);
   }
 
+  // consumer offsets of all consumer groups subscribed to the topic, in one call to the cluster
+  @RequestMapping(
+      value = "/getConsumerGroupLags",
+      method = RequestMethod.GET,
+      produces = {MediaType.APPLICATION_JSON_VALUE})
+  public ResponseEntity<ConsumerGroupLags> getConsumerGroupLags(
+      @RequestParam("env") String envId, @RequestParam("topicName") String topicName) {
+    return new ResponseEntity<>(
+        aclControllerService.getConsumerGroupLags(envId, topicName), HttpStatus.OK);
+  }
+
   // Aiven api call - get ServiceAccountDetails for a subscription
   @RequestMapping(
       value = "/getAivenServiceAccount",
@@ -8,6 +8,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -20,7 +21,8 @@ public class MetricsController {
       value = "/getBrokerTopMetrics",
       method = RequestMethod.GET,
       produces = {MediaType.APPLICATION_JSON_VALUE})
-  public ResponseEntity<JmxOverview> getBrokerTopMetrics() {
-    return new ResponseEntity<>(metricsControllerService.getBrokerTopMetrics(), HttpStatus.OK);
+  public ResponseEntity<JmxOverview> getBrokerTopMetrics(@RequestParam("env") String envId) {
+    return new ResponseEntity<>(
+        metricsControllerService.getBrokerTopMetrics(envId), HttpStatus.OK);
   }
 }
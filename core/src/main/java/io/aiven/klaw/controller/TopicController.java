@@ -23,6 +23,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/")
@@ -149,6 +150,15 @@ public class TopicController {
         topicControllerService.approveTopicRequests(topicId), HttpStatus.OK);
   }
 
+  @PostMapping(
+      value = "/execTopicRequestsBulk",
+      produces = {MediaType.APPLICATION_JSON_VALUE})
+  public ResponseEntity<ApiResponse> approveTopicRequests(
+      @RequestParam("topicIds") List<String> topicIds) throws KlawException {
+    return new ResponseEntity<>(
+        topicControllerService.approveTopicRequests(topicIds), HttpStatus.OK);
+  }
+
   @PostMapping(
       value = "/execTopicRequestsDecline",
       produces = {MediaType.APPLICATION_JSON_VALUE})
@@ -223,6 +233,27 @@ public class TopicController {
         HttpStatus.OK);
   }
 
+  // topic events as server-sent events, streamed from the kafka cluster while they are read
+  @RequestMapping(
+      value = "/getTopicEventsStream",
+      method = RequestMethod.GET,
+      produces = {MediaType.TEXT_EVENT_STREAM_VALUE})
+  public ResponseEntity<StreamingResponseBody> getTopicEventsStream(
+      @RequestParam("envId") String envId,
+      @RequestParam("topicName") String topicName,
+      @RequestParam(value = "offsetId") String offsetId,
+      @RequestParam(value = "partitionId", required = false) Integer partitionId,
+      @RequestParam(value = "startOffset", required = false) Long startOffset,
+      @RequestParam(value = "endOffset", required = false) Long endOffset,
+      @RequestParam(value = "maxBytes", required = false) Long maxBytes)
+      throws KlawException {
+    return ResponseEntity.ok()
+        .contentType(MediaType.TEXT_EVENT_STREAM)
+        .body(
+            topicControllerService.getTopicEventsStream(
+                envId, topicName, offsetId, partitionId, startOffset, endOffset, maxBytes));
+  }
+
   @RequestMapping(
       value = "/getAdvancedTopicConfigs",
       method = RequestMethod.GET,
@@ -77,7 +77,8 @@ public class TopicSyncController {
       @RequestParam(value = "showAllTopics", defaultValue = "false", required = false)
           String showAllTopics,
       @RequestParam(value = "isBulkOption", defaultValue = "false", required = false)
-          String isBulkOption)
+          String isBulkOption,
+      @RequestParam(value = "refresh", defaultValue = "false", required = false) String refresh)
       throws Exception {
     if (Boolean.parseBoolean(showAllTopics))
       return new ResponseEntity<>(
@@ -87,7 +88,8 @@ public class TopicSyncController {
               currentPage,
               topicNameSearch,
               showAllTopics,
-              Boolean.parseBoolean(isBulkOption)),
+              Boolean.parseBoolean(isBulkOption),
+              Boolean.parseBoolean(refresh)),
           HttpStatus.OK);
     else
       return new ResponseEntity<>(
@@ -97,7 +99,8 @@ public class TopicSyncController {
               currentPage,
               topicNameSearch,
               showAllTopics,
-              Boolean.parseBoolean(isBulkOption)),
+              Boolean.parseBoolean(isBulkOption),
+              Boolean.parseBoolean(refresh)),
           HttpStatus.OK);
   }
 }
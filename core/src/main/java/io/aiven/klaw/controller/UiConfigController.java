@@ -53,8 +53,12 @@ public class UiConfigController {
   public ResponseEntity<List<ActivityLog>> showActivityLog(
       @RequestParam(value = "env", defaultValue = "") String env,
       @RequestParam("pageNo") String pageNo,
-      @RequestParam(value = "currentPage", defaultValue = "") String currentPage) {
+      @RequestParam(value = "currentPage", defaultValue = "") String currentPage,
+      @RequestParam(value = "afterActivityTime", required = false) Long afterActivityTime,
+      @RequestParam(value = "afterReqNo", required = false) Integer afterReqNo) {
     return new ResponseEntity<>(
-        uiConfigControllerService.showActivityLog(env, pageNo, currentPage), HttpStatus.OK);
+        uiConfigControllerService.showActivityLog(
+            env, pageNo, currentPage, afterActivityTime, afterReqNo),
+        HttpStatus.OK);
   }
 }
@@ -59,4 +59,12 @@ public class KwClusters implements Serializable {
 
   @Column(name = "kafkaflavor")
   private String kafkaFlavor;
+
+  // comma separated host:port or jmx service urls of the brokers
+  @Column(name = "jmxurls")
+  private String jmxUrls;
+
+  // semicolon separated object names or patterns, the default metrics if empty
+  @Column(name = "jmxmetrics")
+  private String jmxMetrics;
 }
@@ -0,0 +1,83 @@
+package io.aiven.klaw.dao;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.io.Serializable;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Aggregate of the samples of a series which fall into one bucket of a resolution. Samples are
+ * merged into the minute, hour and day buckets when they are written.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@IdClass(KwMetricsPointID.class)
+@Table(name = "kwmetricspoints")
+public class KwMetricsPoint implements Serializable, Persistable<KwMetricsPointID> {
+
+  @Id
+  @Column(name = "seriesid")
+  private Integer seriesId;
+
+  // bucket length in seconds
+  @Id
+  @Column(name = "resolution")
+  private Integer resolution;
+
+  // start of the bucket, epoch millis
+  @Id
+  @Column(name = "buckettime")
+  private Long bucketTime;
+
+  @Column(name = "samples")
+  private Integer samples;
+
+  @Column(name = "samplesum")
+  private Double sampleSum;
+
+  @Column(name = "samplemin")
+  private Double sampleMin;
+
+  @Column(name = "samplemax")
+  private Double sampleMax;
+
+  // points created from a sample are inserted without a lookup
+  @Transient private boolean newPoint;
+
+  public KwMetricsPoint(KwMetricsPointID pointID, double value) {
+    this.seriesId = pointID.getSeriesId();
+    this.resolution = pointID.getResolution();
+    this.bucketTime = pointID.getBucketTime();
+    this.samples = 1;
+    this.sampleSum = value;
+    this.sampleMin = value;
+    this.sampleMax = value;
+    this.newPoint = true;
+  }
+
+  public void addSample(double value) {
+    samples++;
+    sampleSum += value;
+    sampleMin = Math.min(sampleMin, value);
+    sampleMax = Math.max(sampleMax, value);
+  }
+
+  @Override
+  public KwMetricsPointID getId() {
+    return new KwMetricsPointID(seriesId, resolution, bucketTime);
+  }
+
+  @Override
+  public boolean isNew() {
+    return newPoint;
+  }
+}
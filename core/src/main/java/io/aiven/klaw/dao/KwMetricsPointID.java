@@ -0,0 +1,26 @@
+package io.aiven.klaw.dao;
+
+import java.io.Serializable;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+public class KwMetricsPointID implements Serializable {
+
+  private Integer seriesId;
+
+  private Integer resolution;
+
+  private Long bucketTime;
+
+  public KwMetricsPointID() {}
+
+  public KwMetricsPointID(Integer seriesId, Integer resolution, Long bucketTime) {
+    this.seriesId = seriesId;
+    this.resolution = resolution;
+    this.bucketTime = bucketTime;
+  }
+}
@@ -6,28 +6,25 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import java.io.Serializable;
 import lombok.AllArgsConstructor;
-import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import lombok.ToString;
 
-@ToString
+/** One metric of one env, its points refer to it by id instead of repeating the names. */
 @Getter
 @Setter
 @Entity
-@Table(name = "kwkafkametrics")
-@Builder
 @AllArgsConstructor
 @NoArgsConstructor
-public class KwMetrics implements Serializable {
+@Table(name = "kwmetricsseries")
+public class KwMetricsSeries implements Serializable {
 
   @Id
-  @Column(name = "metricsid")
-  private Integer metricsId;
+  @Column(name = "seriesid")
+  private Integer seriesId;
 
-  @Column(name = "metricstime")
-  private String metricsTime;
+  @Column(name = "tenantid")
+  private Integer tenantId;
 
   @Column(name = "env")
   private String env;
@@ -37,7 +34,4 @@ public class KwMetrics implements Serializable {
 
   @Column(name = "metricsname")
   private String metricsName;
-
-  @Column(name = "metricsattributes")
-  private String metricsAttributes;
 }
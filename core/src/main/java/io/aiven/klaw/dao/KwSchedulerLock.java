@@ -0,0 +1,32 @@
+package io.aiven.klaw.dao;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "kwschedulerlocks")
+public class KwSchedulerLock implements Serializable {
+
+  @Id
+  @Column(name = "lockname")
+  private String lockName;
+
+  // klaw instance holding the lock
+  @Column(name = "lockedby")
+  private String lockedBy;
+
+  // epoch millis, the lock is free after this time
+  @Column(name = "lockeduntil")
+  private Long lockedUntil;
+}
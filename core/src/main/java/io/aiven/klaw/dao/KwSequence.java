@@ -0,0 +1,34 @@
+package io.aiven.klaw.dao;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@IdClass(KwSequenceID.class)
+@Table(name = "kwsequences")
+public class KwSequence implements Serializable {
+
+  @Id
+  @Column(name = "seqname")
+  private String sequenceName;
+
+  @Id
+  @Column(name = "tenantid")
+  private Integer tenantId;
+
+  // first id which is not reserved by any klaw instance
+  @Column(name = "nextid")
+  private Integer nextId;
+}
@@ -0,0 +1,23 @@
+package io.aiven.klaw.dao;
+
+import java.io.Serializable;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+public class KwSequenceID implements Serializable {
+
+  private String sequenceName;
+
+  private Integer tenantId;
+
+  public KwSequenceID() {}
+
+  public KwSequenceID(String sequenceName, Integer tenantId) {
+    this.sequenceName = sequenceName;
+    this.tenantId = tenantId;
+  }
+}
@@ -0,0 +1,39 @@
+package io.aiven.klaw.dao;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@IdClass(KwTopicDriftID.class)
+@Table(name = "kwtopicsdrift")
+public class KwTopicDrift implements Serializable {
+
+  @Id
+  @Column(name = "tenantid")
+  private Integer tenantId;
+
+  @Id
+  @Column(name = "env")
+  private String env;
+
+  @Id
+  @Column(name = "topicname")
+  private String topicName;
+
+  // ADDED: only on the cluster, DELETED: only in klaw
+  @Id
+  @Column(name = "drifttype")
+  private String driftType;
+}
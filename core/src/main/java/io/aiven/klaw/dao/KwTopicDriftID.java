@@ -0,0 +1,29 @@
+package io.aiven.klaw.dao;
+
+import java.io.Serializable;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+public class KwTopicDriftID implements Serializable {
+
+  private Integer tenantId;
+
+  private String env;
+
+  private String topicName;
+
+  private String driftType;
+
+  public KwTopicDriftID() {}
+
+  public KwTopicDriftID(Integer tenantId, String env, String topicName, String driftType) {
+    this.tenantId = tenantId;
+    this.env = env;
+    this.topicName = topicName;
+    this.driftType = driftType;
+  }
+}
@@ -0,0 +1,49 @@
+package io.aiven.klaw.dao;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * State of the topic reconciliation of an environment. Syncing topics increments the sync version
+ * of the tenant, the drift is stale until a run reconciles that version.
+ */
+@Getter
+@Setter
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@IdClass(KwTopicReconID.class)
+@Table(name = "kwtopicsrecon")
+public class KwTopicRecon implements Serializable {
+
+  @Id
+  @Column(name = "tenantid")
+  private Integer tenantId;
+
+  @Id
+  @Column(name = "env")
+  private String env;
+
+  @Column(name = "syncversion")
+  private Integer syncVersion;
+
+  // sync version the last run started from
+  @Column(name = "reconciledversion")
+  private Integer reconciledVersion;
+
+  // epoch millis of the last run, also identifies the run which stored the snapshot
+  @Column(name = "lastruntime")
+  private Long lastRunTime;
+
+  public boolean isStale() {
+    return !syncVersion.equals(reconciledVersion);
+  }
+}
@@ -0,0 +1,84 @@
+package io.aiven.klaw.dao;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.io.Serializable;
+import java.util.Objects;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A topic of an environment as seen by the previous reconciliation run, on the cluster and/or in
+ * klaw. The next run only recomputes the drift of topics which differ from it.
+ */
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@IdClass(KwTopicSnapshotID.class)
+@Table(name = "kwtopicssnapshot")
+public class KwTopicSnapshot implements Serializable, Persistable<KwTopicSnapshotID> {
+
+  @Id
+  @Column(name = "tenantid")
+  private Integer tenantId;
+
+  @Id
+  @Column(name = "env")
+  private String env;
+
+  @Id
+  @Column(name = "topicname")
+  private String topicName;
+
+  // null if the topic is not on the cluster
+  @Column(name = "partitions")
+  private Integer partitions;
+
+  @Column(name = "replicationfactor")
+  private Integer replicationFactor;
+
+  // null if the topic is not in klaw
+  @Column(name = "teamid")
+  private Integer teamId;
+
+  // rows which are not stored yet are inserted without a lookup
+  @Transient private boolean newSnapshot;
+
+  public KwTopicSnapshot(Integer tenantId, String env, String topicName) {
+    this.tenantId = tenantId;
+    this.env = env;
+    this.topicName = topicName;
+  }
+
+  public boolean isOnCluster() {
+    return partitions != null;
+  }
+
+  public boolean isInKlaw() {
+    return teamId != null;
+  }
+
+  public boolean isSameTopic(KwTopicSnapshot topicSnapshot) {
+    return topicSnapshot != null
+        && Objects.equals(partitions, topicSnapshot.partitions)
+        && Objects.equals(replicationFactor, topicSnapshot.replicationFactor)
+        && Objects.equals(teamId, topicSnapshot.teamId);
+  }
+
+  @Override
+  public KwTopicSnapshotID getId() {
+    return new KwTopicSnapshotID(tenantId, env, topicName);
+  }
+
+  @Override
+  public boolean isNew() {
+    return newSnapshot;
+  }
+}
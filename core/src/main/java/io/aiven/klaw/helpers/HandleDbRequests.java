@@ -7,10 +7,12 @@ import io.aiven.klaw.dao.Env;
 import io.aiven.klaw.dao.KafkaConnectorRequest;
 import io.aiven.klaw.dao.KwClusters;
 import io.aiven.klaw.dao.KwKafkaConnector;
-import io.aiven.klaw.dao.KwMetrics;
 import io.aiven.klaw.dao.KwProperties;
 import io.aiven.klaw.dao.KwRolesPermissions;
 import io.aiven.klaw.dao.KwTenants;
+import io.aiven.klaw.dao.KwTopicDrift;
+import io.aiven.klaw.dao.KwTopicRecon;
+import io.aiven.klaw.dao.KwTopicSnapshot;
 import io.aiven.klaw.dao.ProductDetails;
 import io.aiven.klaw.dao.RegisterUserInfo;
 import io.aiven.klaw.dao.SchemaRequest;
@@ -18,9 +20,13 @@ import io.aiven.klaw.dao.Team;
 import io.aiven.klaw.dao.Topic;
 import io.aiven.klaw.dao.TopicRequest;
 import io.aiven.klaw.dao.UserInfo;
+import io.aiven.klaw.model.MetricsSample;
 import io.aiven.klaw.model.enums.AclType;
 import io.aiven.klaw.model.enums.KafkaClustersType;
+import io.aiven.klaw.model.enums.MetricsResolution;
 import io.aiven.klaw.model.enums.RequestMode;
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -59,7 +65,7 @@ public interface HandleDbRequests {
 
   String updatePermissions(List<KwRolesPermissions> permissions, String addDelete);
 
-  String insertMetrics(KwMetrics kwMetrics);
+  String insertMetricsSamples(int tenantId, long sampleTime, List<MetricsSample> samples);
 
   /*--------------------Select */
 
@@ -107,6 +113,17 @@ public interface HandleDbRequests {
 
   List<Topic> getSyncTopics(String env, Integer teamId, int tenantId);
 
+  long countSyncTopicNames(
+      Collection<String> envs, Integer teamId, String topicNameSearch, int tenantId);
+
+  List<Topic> getSyncTopicsPage(
+      Collection<String> envs,
+      Integer teamId,
+      String topicNameSearch,
+      int tenantId,
+      int pageNo,
+      int pageSize);
+
   List<KwKafkaConnector> getSyncConnectors(String envId, Integer teamId, int tenantId);
 
   List<Topic> getTopics(String topicName, int tenantId);
@@ -178,6 +195,8 @@ public interface HandleDbRequests {
 
   List<UserInfo> selectAllUsersAllTenants();
 
+  long countAllUsersAllTenants();
+
   List<UserInfo> selectAllUsersInfoForTeam(Integer teamId, int tenantId);
 
   List<RegisterUserInfo> selectAllRegisterUsersInfoForTenant(int tenantId);
@@ -212,7 +231,17 @@ public interface HandleDbRequests {
 
   Env selectEnvDetails(String env, int tenantId);
 
-  List<ActivityLog> selectActivityLog(String user, String env, boolean allReqs, int tenantId);
+  long countActivityLog(String user, String env, boolean allReqs, int tenantId);
+
+  List<ActivityLog> selectActivityLogPage(
+      String user,
+      String env,
+      boolean allReqs,
+      int tenantId,
+      int pageNo,
+      int pageSize,
+      Timestamp afterActivityTime,
+      Integer afterReqNo);
 
   Map<Integer, Map<String, Map<String, String>>> selectAllKwProperties();
 
@@ -224,10 +253,6 @@ public interface HandleDbRequests {
 
   String insertProductDetails(ProductDetails productDetails);
 
-  Integer getNextTopicRequestId(String idType, int tenantId);
-
-  Integer getNextConnectorRequestId(String idType, int tenantId);
-
   List<KwTenants> getTenants();
 
   Optional<KwTenants> getMyTenants(int tenantId);
@@ -264,7 +289,20 @@ public interface HandleDbRequests {
 
   List<Map<String, String>> selectAllTopicsForTeamGroupByEnv(Integer teamId, int tenantId);
 
-  List<Map<String, String>> selectAllMetrics(String metricsType, String metricsName, String env);
+  List<Map<String, String>> selectMetricsPoints(
+      String metricsType,
+      String metricsName,
+      String env,
+      int tenantId,
+      long fromTime,
+      long toTime,
+      int maxPoints);
+
+  List<KwTopicDrift> getReportedTopicDrift(int tenantId, String env);
+
+  List<KwTopicRecon> getTopicRecons(int tenantId);
+
+  List<KwTopicSnapshot> getTopicSnapshot(int tenantId, String env);
 
   /*--------------------Update */
   String updateTopicDocumentation(Topic topic);
@@ -301,6 +339,22 @@ public interface HandleDbRequests {
 
   String updateKwProperty(KwProperties kwProperties, int tenantId);
 
+  void updateReportedTopicDrift(int tenantId, String env, List<KwTopicDrift> topicDrift);
+
+  boolean acquireSchedulerLock(String lockName, String owner, long leaseMs);
+
+  void addTopicRecon(KwTopicRecon kwTopicRecon);
+
+  void updateTopicsSynced(int tenantId);
+
+  void updateTopicSnapshot(
+      int tenantId,
+      String env,
+      List<KwTopicSnapshot> changedTopics,
+      List<KwTopicSnapshot> removedTopics,
+      int reconciledVersion,
+      long lastRunTime);
+
   /*--------------------Delete */
   String deleteConnectorRequest(int topicId, int tenantId);
 
@@ -342,6 +396,8 @@ public interface HandleDbRequests {
 
   String deleteTenant(int tenantId);
 
+  int deleteMetricsPoints(MetricsResolution resolution, long olderThanTime);
+
   String setTenantActivestatus(int tenantId, boolean status);
 
   String updateTenant(int tenantId, String organizationName);
@@ -2,6 +2,7 @@ package io.aiven.klaw.helpers.db.rdbms;
 
 import io.aiven.klaw.dao.*;
 import io.aiven.klaw.model.enums.ApiResultStatus;
+import io.aiven.klaw.model.enums.MetricsResolution;
 import io.aiven.klaw.repository.*;
 import java.util.List;
 import java.util.Optional;
@@ -61,6 +62,9 @@ public class DeleteDataJdbc {
   @Autowired(required = false)
   private TenantRepo tenantRepo;
 
+  @Autowired(required = false)
+  private KwMetricsPointRepo metricsPointRepo;
+
   public DeleteDataJdbc() {}
 
   public DeleteDataJdbc(
@@ -323,4 +327,8 @@ public class DeleteDataJdbc {
 
     return ApiResultStatus.SUCCESS.value;
   }
+
+  public int deleteMetricsPoints(MetricsResolution resolution, long olderThanTime) {
+    return metricsPointRepo.deleteOlderPoints(resolution.seconds, olderThanTime);
+  }
 }
@@ -7,10 +7,12 @@ import io.aiven.klaw.dao.Env;
 import io.aiven.klaw.dao.KafkaConnectorRequest;
 import io.aiven.klaw.dao.KwClusters;
 import io.aiven.klaw.dao.KwKafkaConnector;
-import io.aiven.klaw.dao.KwMetrics;
 import io.aiven.klaw.dao.KwProperties;
 import io.aiven.klaw.dao.KwRolesPermissions;
 import io.aiven.klaw.dao.KwTenants;
+import io.aiven.klaw.dao.KwTopicDrift;
+import io.aiven.klaw.dao.KwTopicRecon;
+import io.aiven.klaw.dao.KwTopicSnapshot;
 import io.aiven.klaw.dao.ProductDetails;
 import io.aiven.klaw.dao.RegisterUserInfo;
 import io.aiven.klaw.dao.SchemaRequest;
@@ -19,10 +21,14 @@ import io.aiven.klaw.dao.Topic;
 import io.aiven.klaw.dao.TopicRequest;
 import io.aiven.klaw.dao.UserInfo;
 import io.aiven.klaw.helpers.HandleDbRequests;
+import io.aiven.klaw.model.MetricsSample;
 import io.aiven.klaw.model.enums.AclType;
 import io.aiven.klaw.model.enums.KafkaClustersType;
+import io.aiven.klaw.model.enums.MetricsResolution;
 import io.aiven.klaw.model.enums.RequestMode;
 import io.aiven.klaw.model.enums.RequestStatus;
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -47,6 +53,8 @@ public class HandleDbRequestsJdbc implements HandleDbRequests {
 
   @Autowired DeleteDataJdbc jdbcDeleteHelper;
 
+  @Autowired KwSchedulerLocks schedulerLocks;
+
   /*--------------------Insert */
 
   public Map<String, String> requestForTopic(TopicRequest topicRequest) {
@@ -115,8 +123,8 @@ public class HandleDbRequestsJdbc implements HandleDbRequests {
   }
 
   @Override
-  public String insertMetrics(KwMetrics kwMetrics) {
-    return jdbcInsertHelper.insertMetrics(kwMetrics);
+  public String insertMetricsSamples(int tenantId, long sampleTime, List<MetricsSample> samples) {
+    return jdbcInsertHelper.insertMetricsSamples(tenantId, sampleTime, samples);
   }
 
   /*--------------------Select */
@@ -218,6 +226,24 @@ public class HandleDbRequestsJdbc implements HandleDbRequests {
     return jdbcSelectHelper.selectSyncTopics(env, teamId, tenantId);
   }
 
+  @Override
+  public long countSyncTopicNames(
+      Collection<String> envs, Integer teamId, String topicNameSearch, int tenantId) {
+    return jdbcSelectHelper.countSyncTopicNames(envs, teamId, topicNameSearch, tenantId);
+  }
+
+  @Override
+  public List<Topic> getSyncTopicsPage(
+      Collection<String> envs,
+      Integer teamId,
+      String topicNameSearch,
+      int tenantId,
+      int pageNo,
+      int pageSize) {
+    return jdbcSelectHelper.selectSyncTopicsPage(
+        envs, teamId, topicNameSearch, tenantId, pageNo, pageSize);
+  }
+
   @Override
   public List<KwKafkaConnector> getSyncConnectors(String envId, Integer teamId, int tenantId) {
     return jdbcSelectHelper.selectSyncConnectors(envId, teamId, tenantId);
@@ -379,6 +405,11 @@ public class HandleDbRequestsJdbc implements HandleDbRequests {
     return jdbcSelectHelper.selectAllUsersAllTenants();
   }
 
+  @Override
+  public long countAllUsersAllTenants() {
+    return jdbcSelectHelper.countAllUsersAllTenants();
+  }
+
   @Override
   public List<UserInfo> selectAllUsersInfoForTeam(Integer teamId, int tenantId) {
     return jdbcSelectHelper.selectAllUsersInfoForTeam(teamId, tenantId);
@@ -462,9 +493,22 @@ public class HandleDbRequestsJdbc implements HandleDbRequests {
     return jdbcSelectHelper.selectEnvDetails(env, tenantId);
   }
 
-  public List<ActivityLog> selectActivityLog(
-      String user, String env, boolean allReqs, int tenantId) {
-    return jdbcSelectHelper.selectActivityLog(user, env, allReqs, tenantId);
+  public long countActivityLog(String user, String env, boolean allReqs, int tenantId) {
+    return jdbcSelectHelper.countActivityLog(user, env, allReqs, tenantId);
+  }
+
+  @Override
+  public List<ActivityLog> selectActivityLogPage(
+      String user,
+      String env,
+      boolean allReqs,
+      int tenantId,
+      int pageNo,
+      int pageSize,
+      Timestamp afterActivityTime,
+      Integer afterReqNo) {
+    return jdbcSelectHelper.selectActivityLogPage(
+        user, env, allReqs, tenantId, pageNo, pageSize, afterActivityTime, afterReqNo);
   }
 
   @Override
@@ -492,16 +536,6 @@ public class HandleDbRequestsJdbc implements HandleDbRequests {
     return jdbcInsertHelper.insertProductDetails(productDetails);
   }
 
-  @Override
-  public Integer getNextTopicRequestId(String idType, int tenantId) {
-    return jdbcSelectHelper.getNextTopicRequestId(idType, tenantId);
-  }
-
-  @Override
-  public Integer getNextConnectorRequestId(String idType, int tenantId) {
-    return jdbcSelectHelper.getNextConnectorRequestId(idType, tenantId);
-  }
-
   @Override
   public List<KwTenants> getTenants() {
     return jdbcSelectHelper.getTenants();
@@ -597,9 +631,31 @@ public class HandleDbRequestsJdbc implements HandleDbRequests {
   }
 
   @Override
-  public List<Map<String, String>> selectAllMetrics(
-      String metricsType, String metricsName, String env) {
-    return jdbcSelectHelper.selectAllMetrics(metricsType, metricsName, env);
+  public List<Map<String, String>> selectMetricsPoints(
+      String metricsType,
+      String metricsName,
+      String env,
+      int tenantId,
+      long fromTime,
+      long toTime,
+      int maxPoints) {
+    return jdbcSelectHelper.selectMetricsPoints(
+        metricsType, metricsName, env, tenantId, fromTime, toTime, maxPoints);
+  }
+
+  @Override
+  public List<KwTopicDrift> getReportedTopicDrift(int tenantId, String env) {
+    return jdbcSelectHelper.selectReportedTopicDrift(tenantId, env);
+  }
+
+  @Override
+  public List<KwTopicRecon> getTopicRecons(int tenantId) {
+    return jdbcSelectHelper.selectTopicRecons(tenantId);
+  }
+
+  @Override
+  public List<KwTopicSnapshot> getTopicSnapshot(int tenantId, String env) {
+    return jdbcSelectHelper.selectTopicSnapshot(tenantId, env);
   }
 
   /*--------------------Update */
@@ -685,6 +741,38 @@ public class HandleDbRequestsJdbc implements HandleDbRequests {
     return jdbcUpdateHelper.updateKwProperty(kwProperties, tenantId);
   }
 
+  @Override
+  public void updateReportedTopicDrift(int tenantId, String env, List<KwTopicDrift> topicDrift) {
+    jdbcUpdateHelper.updateReportedTopicDrift(tenantId, env, topicDrift);
+  }
+
+  @Override
+  public boolean acquireSchedulerLock(String lockName, String owner, long leaseMs) {
+    return schedulerLocks.tryLock(lockName, owner, leaseMs);
+  }
+
+  @Override
+  public void addTopicRecon(KwTopicRecon kwTopicRecon) {
+    jdbcUpdateHelper.insertTopicRecon(kwTopicRecon);
+  }
+
+  @Override
+  public void updateTopicsSynced(int tenantId) {
+    jdbcUpdateHelper.updateTopicsSynced(tenantId);
+  }
+
+  @Override
+  public void updateTopicSnapshot(
+      int tenantId,
+      String env,
+      List<KwTopicSnapshot> changedTopics,
+      List<KwTopicSnapshot> removedTopics,
+      int reconciledVersion,
+      long lastRunTime) {
+    jdbcUpdateHelper.updateTopicSnapshot(
+        tenantId, env, changedTopics, removedTopics, reconciledVersion, lastRunTime);
+  }
+
   /*--------------------Delete */
   @Override
   public String deleteConnectorRequest(int connectorId, int tenantId) {
@@ -786,6 +874,11 @@ public class HandleDbRequestsJdbc implements HandleDbRequests {
     return jdbcDeleteHelper.deleteTenant(tenantId);
   }
 
+  @Override
+  public int deleteMetricsPoints(MetricsResolution resolution, long olderThanTime) {
+    return jdbcDeleteHelper.deleteMetricsPoints(resolution, olderThanTime);
+  }
+
   @Override
   public String setTenantActivestatus(int tenantId, boolean status) {
     return jdbcUpdateHelper.setTenantActivestatus(tenantId, status);
@@ -1,14 +1,20 @@
 package io.aiven.klaw.helpers.db.rdbms;
 
 import io.aiven.klaw.dao.*;
+import io.aiven.klaw.model.MetricsSample;
 import io.aiven.klaw.model.enums.ApiResultStatus;
+import io.aiven.klaw.model.enums.MetricsResolution;
 import io.aiven.klaw.repository.*;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -17,6 +23,9 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class InsertDataJdbc {
 
+  // series ids are unique over all tenants, they are reserved from one sequence
+  private static final int METRICS_SERIES_SEQUENCE_TENANT_ID = 0;
+
   @Autowired(required = false)
   private UserInfoRepo userInfoRepo;
 
@@ -72,13 +81,18 @@ public class InsertDataJdbc {
   private KwRolesPermsRepo kwRolesPermsRepo;
 
   @Autowired(required = false)
-  private KwMetricsRepo metricsRepo;
+  private KwMetricsSeriesRepo metricsSeriesRepo;
+
+  @Autowired(required = false)
+  private KwMetricsPointRepo metricsPointRepo;
 
   @Autowired private SelectDataJdbc jdbcSelectHelper;
 
+  @Autowired private KwIdGenerator kwIdGenerator;
+
   public InsertDataJdbc() {}
 
-  public synchronized Map<String, String> insertIntoRequestTopic(TopicRequest topicRequest) {
+  public Map<String, String> insertIntoRequestTopic(TopicRequest topicRequest) {
     log.debug("insertIntoRequestTopic {}", topicRequest);
 
     Map<String, String> hashMap = new HashMap<>();
@@ -113,8 +127,7 @@ public class InsertDataJdbc {
     return hashMap;
   }
 
-  public synchronized Map<String, String> insertIntoRequestConnector(
-      KafkaConnectorRequest connectorRequest) {
+  public Map<String, String> insertIntoRequestConnector(KafkaConnectorRequest connectorRequest) {
     log.debug("insertIntoRequestConnector {}", connectorRequest);
 
     Map<String, String> hashMap = new HashMap<>();
@@ -150,17 +163,15 @@ public class InsertDataJdbc {
     return hashMap;
   }
 
-  public synchronized String insertIntoTopicSOT(List<Topic> topics, boolean isSyncTopics) {
+  public String insertIntoTopicSOT(List<Topic> topics, boolean isSyncTopics) {
 
     topics.forEach(
         topic -> {
           log.debug("insertIntoTopicSOT {}", topic.getTopicname());
           if (!topic.isExistingTopic()) {
-            TopicID topicID = new TopicID();
-            topicID.setTenantId(topic.getTenantId());
-            topicID.setTopicid(topic.getTopicid());
-
-            if (topicRepo.existsById(topicID)) {
+            if (topic.getTopicid() == null) {
+              topic.setTopicid(getNextTopicRequestId("TOPIC_ID", topic.getTenantId()));
+            } else if (topicRepo.existsById(new TopicID(topic.getTopicid(), topic.getTenantId()))) {
               topic.setTopicid(getNextTopicRequestId("TOPIC_ID", topic.getTenantId()));
             }
           }
@@ -170,7 +181,7 @@ public class InsertDataJdbc {
     return ApiResultStatus.SUCCESS.value;
   }
 
-  public synchronized String insertIntoConnectorSOT(
+  public String insertIntoConnectorSOT(
       List<KwKafkaConnector> kafkaConnectors, boolean isSyncTopics) {
 
     kafkaConnectors.forEach(
@@ -181,7 +192,8 @@ public class InsertDataJdbc {
             kwKafkaConnectorID.setConnectorId(connector.getConnectorId());
             kwKafkaConnectorID.setTenantId(connector.getTenantId());
 
-            if (kafkaConnectorRepo.existsById(kwKafkaConnectorID)) {
+            if (connector.getConnectorId() == null
+                || kafkaConnectorRepo.existsById(kwKafkaConnectorID)) {
               connector.setConnectorId(
                   getNextConnectorRequestId("CONNECTOR_ID", connector.getTenantId()));
             }
@@ -199,7 +211,7 @@ public class InsertDataJdbc {
     return ApiResultStatus.SUCCESS.value;
   }
 
-  synchronized Map<String, String> insertIntoRequestAcl(AclRequests aclReq) {
+  Map<String, String> insertIntoRequestAcl(AclRequests aclReq) {
     log.debug("insertIntoRequestAcl {}", aclReq.getTopicname());
     Map<String, String> hashMap = new HashMap<>();
     Integer aclId = getNextAclRequestId(aclReq.getTenantId());
@@ -242,7 +254,7 @@ public class InsertDataJdbc {
     return hashMap;
   }
 
-  public synchronized String insertIntoAclsSOT(List<Acl> acls, boolean isSyncAcls) {
+  public String insertIntoAclsSOT(List<Acl> acls, boolean isSyncAcls) {
 
     acls.forEach(
         acl -> {
@@ -255,7 +267,7 @@ public class InsertDataJdbc {
     return ApiResultStatus.SUCCESS.value;
   }
 
-  public synchronized String insertIntoRequestSchema(SchemaRequest schemaRequest) {
+  public String insertIntoRequestSchema(SchemaRequest schemaRequest) {
     log.debug("insertIntoRequestSchema {}", schemaRequest.getTopicname());
 
     schemaRequest.setReq_no(getNextSchemaRequestId("SCHEMA_REQ_ID", schemaRequest.getTenantId()));
@@ -286,7 +298,7 @@ public class InsertDataJdbc {
     return ApiResultStatus.SUCCESS.value;
   }
 
-  public synchronized String insertIntoMessageSchemaSOT(List<MessageSchema> schemas) {
+  public String insertIntoMessageSchemaSOT(List<MessageSchema> schemas) {
 
     for (MessageSchema mSchema : schemas) {
       log.debug("insertIntoMessageSchemaSOT {}", mSchema.getTopicname());
@@ -388,70 +400,50 @@ public class InsertDataJdbc {
   }
 
   public Integer getNextAclRequestId(int tenantId) {
-    Integer aclReqId = aclRequestsRepo.getNextAclRequestId(tenantId);
-    if (aclReqId == null) {
-      return 1001;
-    } else {
-      return aclReqId + 1;
-    }
+    return kwIdGenerator.nextId(
+        "ACL_REQ_ID", tenantId, () -> aclRequestsRepo.getNextAclRequestId(tenantId));
   }
 
   public Integer getNextAclId(int tenantId) {
-    Integer aclId = aclRepo.getNextAclId(tenantId);
-    if (aclId == null) {
-      return 1001;
-    } else {
-      return aclId + 1;
-    }
+    return kwIdGenerator.nextId("ACL_ID", tenantId, () -> aclRepo.getNextAclId(tenantId));
   }
 
-  public synchronized Integer getNextActivityLogRequestId(int tenantId) {
-    Integer activityLogId = activityLogRepo.getNextActivityLogRequestId(tenantId);
-
-    if (activityLogId == null) {
-      return 1001;
-    } else {
-      return activityLogId + 1;
-    }
+  public Integer getNextActivityLogRequestId(int tenantId) {
+    return kwIdGenerator.nextId(
+        "ACTIVITY_LOG_ID", tenantId, () -> activityLogRepo.getNextActivityLogRequestId(tenantId));
   }
 
   public Integer getNextTopicRequestId(String idType, int tenantId) {
-    Integer topicId = null;
     if ("TOPIC_REQ_ID".equals(idType)) {
-      topicId = topicRequestsRepo.getNextTopicRequestId(tenantId);
+      return kwIdGenerator.nextId(
+          idType, tenantId, () -> topicRequestsRepo.getNextTopicRequestId(tenantId));
     } else if ("TOPIC_ID".equals(idType)) {
-      topicId = topicRepo.getNextTopicRequestId(tenantId);
+      return kwIdGenerator.nextId(
+          idType, tenantId, () -> topicRepo.getNextTopicRequestId(tenantId));
     }
-
-    return topicId == null ? 1001 : topicId + 1;
+    return KwIdGenerator.INITIAL_ID;
   }
 
   public Integer getNextConnectorRequestId(String idType, int tenantId) {
-    Integer topicId;
-    if (idType.equals("CONNECTOR_REQ_ID")) {
-      topicId = kafkaConnectorRequestsRepo.getNextConnectorRequestId(tenantId);
-    } else if (idType.equals("CONNECTOR_ID")) {
-      topicId = kafkaConnectorRepo.getNextConnectorRequestId(tenantId);
-    } else {
-      topicId = null;
-    }
-
-    if (topicId == null) {
-      return 1001;
-    } else {
-      return topicId + 1;
+    if ("CONNECTOR_REQ_ID".equals(idType)) {
+      return kwIdGenerator.nextId(
+          idType, tenantId, () -> kafkaConnectorRequestsRepo.getNextConnectorRequestId(tenantId));
+    } else if ("CONNECTOR_ID".equals(idType)) {
+      return kwIdGenerator.nextId(
+          idType, tenantId, () -> kafkaConnectorRepo.getNextConnectorRequestId(tenantId));
     }
+    return KwIdGenerator.INITIAL_ID;
   }
 
   public Integer getNextSchemaRequestId(String idType, int tenantId) {
-    Integer schemaReqId = null;
     if ("SCHEMA_REQ_ID".equals(idType)) {
-      schemaReqId = schemaRequestRepo.getNextSchemaRequestId(tenantId);
+      return kwIdGenerator.nextId(
+          idType, tenantId, () -> schemaRequestRepo.getNextSchemaRequestId(tenantId));
     } else if ("SCHEMA_ID".equals(idType)) {
-      schemaReqId = messageSchemaRepo.getNextSchemaId(tenantId);
+      return kwIdGenerator.nextId(
+          idType, tenantId, () -> messageSchemaRepo.getNextSchemaId(tenantId));
     }
-
-    return schemaReqId == null ? 1001 : schemaReqId + 1;
+    return KwIdGenerator.INITIAL_ID;
   }
 
   public String addNewTenant(KwTenants kwTenants) {
@@ -471,20 +463,72 @@ public class InsertDataJdbc {
     return ApiResultStatus.SUCCESS.value;
   }
 
-  public String insertMetrics(KwMetrics kwMetrics) {
-    Integer metricsId = metricsRepo.getNextId();
-    if (metricsId == null) {
-      metricsId = 1001;
-    } else {
-      metricsId += 1;
+  /**
+   * Merges the samples into the minute, hour and day points of their series. Series are created for
+   * metrics seen for the first time.
+   */
+  public synchronized String insertMetricsSamples(
+      int tenantId, long sampleTime, List<MetricsSample> samples) {
+    Map<String, Integer> seriesIds = new HashMap<>();
+    for (KwMetricsSeries series : metricsSeriesRepo.findAllByTenantId(tenantId)) {
+      seriesIds.put(
+          seriesKey(series.getEnv(), series.getMetricsType(), series.getMetricsName()),
+          series.getSeriesId());
     }
 
-    kwMetrics.setMetricsId(metricsId);
+    Map<KwMetricsPointID, Double> pointValues = new LinkedHashMap<>();
+    List<KwMetricsSeries> newSeries = new ArrayList<>();
+    for (MetricsSample sample : samples) {
+      Integer seriesId =
+          seriesIds.computeIfAbsent(
+              seriesKey(sample.getEnv(), sample.getMetricsType(), sample.getMetricsName()),
+              key -> {
+                int id =
+                    kwIdGenerator.nextId(
+                        "METRICS_SERIES_ID",
+                        METRICS_SERIES_SEQUENCE_TENANT_ID,
+                        () -> metricsSeriesRepo.getMaxSeriesId());
+                newSeries.add(
+                    new KwMetricsSeries(
+                        id,
+                        tenantId,
+                        sample.getEnv(),
+                        sample.getMetricsType(),
+                        sample.getMetricsName()));
+                return id;
+              });
+      for (MetricsResolution resolution : MetricsResolution.values()) {
+        pointValues.put(
+            new KwMetricsPointID(seriesId, resolution.seconds, resolution.bucketStart(sampleTime)),
+            sample.getValue());
+      }
+    }
+    metricsSeriesRepo.saveAll(newSeries);
 
-    metricsRepo.save(kwMetrics);
+    // existing buckets of all samples in one query, they are updated in place and the new ones
+    // are inserted without a lookup per point
+    Set<KwMetricsPointID> existingPoints = new HashSet<>();
+    for (KwMetricsPoint point : metricsPointRepo.findAllById(pointValues.keySet())) {
+      existingPoints.add(point.getId());
+    }
+    List<KwMetricsPoint> newPoints = new ArrayList<>();
+    pointValues.forEach(
+        (pointID, value) -> {
+          if (existingPoints.contains(pointID)) {
+            metricsPointRepo.addSample(
+                pointID.getSeriesId(), pointID.getResolution(), pointID.getBucketTime(), value);
+          } else {
+            newPoints.add(new KwMetricsPoint(pointID, value));
+          }
+        });
+    metricsPointRepo.saveAll(newPoints);
     return ApiResultStatus.SUCCESS.value;
   }
 
+  private static String seriesKey(String env, String metricsType, String metricsName) {
+    return env + "|" + metricsType + "|" + metricsName;
+  }
+
   public String insertDefaultKwProperties(List<KwProperties> kwPropertiesList) {
     kwPropertiesRepo.saveAll(kwPropertiesList);
     return ApiResultStatus.SUCCESS.value;
@@ -0,0 +1,118 @@
+package io.aiven.klaw.helpers.db.rdbms;
+
+import io.aiven.klaw.dao.KwSequence;
+import io.aiven.klaw.dao.KwSequenceID;
+import io.aiven.klaw.repository.KwSequenceRepo;
+import jakarta.annotation.PostConstruct;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hands out ids per tenant and sequence from blocks reserved in the kwsequences table. A block is
+ * reserved in its own transaction with the sequence row locked, so klaw instances sharing a
+ * database never hand out the same id. A sequence starts after the highest id already in use.
+ */
+@Component
+@Slf4j
+public class KwIdGenerator {
+
+  public static final int INITIAL_ID = 1001;
+
+  private static final int MAX_RESERVE_ATTEMPTS = 3;
+
+  @Autowired(required = false)
+  private KwSequenceRepo kwSequenceRepo;
+
+  @Autowired(required = false)
+  private PlatformTransactionManager transactionManager;
+
+  @Value("${klaw.db.id.block.size:50}")
+  private int blockSize = 50;
+
+  private TransactionTemplate transactionTemplate;
+
+  private final Map<KwSequenceID, IdBlock> idBlocks = new ConcurrentHashMap<>();
+
+  public KwIdGenerator() {}
+
+  KwIdGenerator(
+      KwSequenceRepo kwSequenceRepo, PlatformTransactionManager transactionManager, int blockSize) {
+    this.kwSequenceRepo = kwSequenceRepo;
+    this.transactionManager = transactionManager;
+    this.blockSize = blockSize;
+    init();
+  }
+
+  @PostConstruct
+  public void init() {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  /**
+   * @param maxId highest id in use, read once when the sequence does not exist yet
+   */
+  public int nextId(String sequenceName, int tenantId, Supplier<Integer> maxId) {
+    IdBlock idBlock =
+        idBlocks.computeIfAbsent(
+            new KwSequenceID(sequenceName, tenantId), sequenceID -> new IdBlock());
+    synchronized (idBlock) {
+      if (idBlock.nextId >= idBlock.endId) {
+        idBlock.nextId = reserveBlock(sequenceName, tenantId, maxId);
+        idBlock.endId = idBlock.nextId + blockSize;
+      }
+      return idBlock.nextId++;
+    }
+  }
+
+  private int reserveBlock(String sequenceName, int tenantId, Supplier<Integer> maxId) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        Integer blockStart =
+            transactionTemplate.execute(
+                status -> {
+                  Optional<KwSequence> sequence =
+                      kwSequenceRepo.findForUpdate(sequenceName, tenantId);
+                  KwSequence kwSequence;
+                  if (sequence.isPresent()) {
+                    kwSequence = sequence.get();
+                  } else {
+                    Integer maxIdInUse = maxId.get();
+                    kwSequence =
+                        new KwSequence(
+                            sequenceName,
+                            tenantId,
+                            maxIdInUse == null ? INITIAL_ID : maxIdInUse + 1);
+                  }
+                  int start = kwSequence.getNextId();
+                  kwSequence.setNextId(start + blockSize);
+                  kwSequenceRepo.save(kwSequence);
+                  return start;
+                });
+        log.debug("Reserved ids {} {} from {}", sequenceName, tenantId, blockStart);
+        return blockStart;
+      } catch (DataIntegrityViolationException e) {
+        // the sequence was created by another instance at the same time
+        if (attempt >= MAX_RESERVE_ATTEMPTS) {
+          throw e;
+        }
+      }
+    }
+  }
+
+  private static final class IdBlock {
+    private int nextId;
+
+    private int endId;
+  }
+}
@@ -0,0 +1,82 @@
+package io.aiven.klaw.helpers.db.rdbms;
+
+import io.aiven.klaw.dao.KwSchedulerLock;
+import io.aiven.klaw.repository.KwSchedulerLockRepo;
+import jakarta.annotation.PostConstruct;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Leases of scheduled jobs in the kwschedulerlocks table, so that a job runs on one of the klaw
+ * instances sharing a database. A lease is taken in its own transaction with the lock row locked,
+ * and is free again once it expires, e.g. when the instance holding it stopped.
+ */
+@Component
+@Slf4j
+public class KwSchedulerLocks {
+
+  @Autowired(required = false)
+  private KwSchedulerLockRepo kwSchedulerLockRepo;
+
+  @Autowired(required = false)
+  private PlatformTransactionManager transactionManager;
+
+  private TransactionTemplate transactionTemplate;
+
+  public KwSchedulerLocks() {}
+
+  KwSchedulerLocks(
+      KwSchedulerLockRepo kwSchedulerLockRepo, PlatformTransactionManager transactionManager) {
+    this.kwSchedulerLockRepo = kwSchedulerLockRepo;
+    this.transactionManager = transactionManager;
+    init();
+  }
+
+  @PostConstruct
+  public void init() {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  /**
+   * Takes or renews the lease of the lock for leaseMs.
+   *
+   * @return false if another instance holds an unexpired lease
+   */
+  public boolean tryLock(String lockName, String owner, long leaseMs) {
+    try {
+      Boolean locked =
+          transactionTemplate.execute(
+              status -> {
+                long currentTime = System.currentTimeMillis();
+                Optional<KwSchedulerLock> lock = kwSchedulerLockRepo.findForUpdate(lockName);
+                KwSchedulerLock kwSchedulerLock;
+                if (lock.isPresent()) {
+                  kwSchedulerLock = lock.get();
+                  if (!owner.equals(kwSchedulerLock.getLockedBy())
+                      && kwSchedulerLock.getLockedUntil() > currentTime) {
+                    return false;
+                  }
+                } else {
+                  kwSchedulerLock = new KwSchedulerLock();
+                  kwSchedulerLock.setLockName(lockName);
+                }
+                kwSchedulerLock.setLockedBy(owner);
+                kwSchedulerLock.setLockedUntil(currentTime + leaseMs);
+                kwSchedulerLockRepo.save(kwSchedulerLock);
+                return true;
+              });
+      return Boolean.TRUE.equals(locked);
+    } catch (DataIntegrityViolationException e) {
+      // the lock was created by another instance at the same time
+      log.debug("Lock {} taken by another instance", lockName);
+      return false;
+    }
+  }
+}
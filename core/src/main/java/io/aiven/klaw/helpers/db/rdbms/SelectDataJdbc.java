@@ -5,6 +5,7 @@ import io.aiven.klaw.dao.*;
 import io.aiven.klaw.model.enums.AclPatternType;
 import io.aiven.klaw.model.enums.AclType;
 import io.aiven.klaw.model.enums.KafkaClustersType;
+import io.aiven.klaw.model.enums.MetricsResolution;
 import io.aiven.klaw.model.enums.RequestMode;
 import io.aiven.klaw.model.enums.RequestOperationType;
 import io.aiven.klaw.model.enums.RequestStatus;
@@ -15,9 +16,13 @@ import io.aiven.klaw.repository.EnvRepo;
 import io.aiven.klaw.repository.KwClusterRepo;
 import io.aiven.klaw.repository.KwKafkaConnectorRepo;
 import io.aiven.klaw.repository.KwKafkaConnectorRequestsRepo;
-import io.aiven.klaw.repository.KwMetricsRepo;
+import io.aiven.klaw.repository.KwMetricsPointRepo;
+import io.aiven.klaw.repository.KwMetricsSeriesRepo;
 import io.aiven.klaw.repository.KwPropertiesRepo;
 import io.aiven.klaw.repository.KwRolesPermsRepo;
+import io.aiven.klaw.repository.KwTopicDriftRepo;
+import io.aiven.klaw.repository.KwTopicReconRepo;
+import io.aiven.klaw.repository.KwTopicSnapshotRepo;
 import io.aiven.klaw.repository.MessageSchemaRepo;
 import io.aiven.klaw.repository.ProductDetailsRepo;
 import io.aiven.klaw.repository.RegisterInfoRepo;
@@ -27,11 +32,14 @@ import io.aiven.klaw.repository.TenantRepo;
 import io.aiven.klaw.repository.TopicRepo;
 import io.aiven.klaw.repository.TopicRequestsRepo;
 import io.aiven.klaw.repository.UserInfoRepo;
+import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -41,6 +49,7 @@ import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Example;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -101,11 +110,23 @@ public class SelectDataJdbc {
   private KwClusterRepo kwClusterRepo;
 
   @Autowired(required = false)
-  private KwMetricsRepo kwMetricsRepo;
+  private KwMetricsSeriesRepo kwMetricsSeriesRepo;
+
+  @Autowired(required = false)
+  private KwMetricsPointRepo kwMetricsPointRepo;
 
   @Autowired(required = false)
   private ProductDetailsRepo productDetailsRepo;
 
+  @Autowired(required = false)
+  private KwTopicDriftRepo kwTopicDriftRepo;
+
+  @Autowired(required = false)
+  private KwTopicReconRepo kwTopicReconRepo;
+
+  @Autowired(required = false)
+  private KwTopicSnapshotRepo kwTopicSnapshotRepo;
+
   public List<AclRequests> selectAclRequests(
       boolean allReqs,
       String requestor,
@@ -373,6 +394,77 @@ public class SelectDataJdbc {
     }
   }
 
+  public long countSyncTopicNames(
+      Collection<String> envs, Integer teamId, String topicNameSearch, int tenantId) {
+    if (envs.isEmpty()) {
+      return 0;
+    }
+    return topicRepo.countTopicNames(
+        tenantId, envs, getSyncTopicsTeamId(teamId), getTopicNameSearchPattern(topicNameSearch));
+  }
+
+  /**
+   * One page of topic names in the given envs, ordered by name, matching the search on the topic
+   * name or documentation. Each topic of the page is returned once, its environmentsList holding
+   * all the given envs it exists in.
+   */
+  public List<Topic> selectSyncTopicsPage(
+      Collection<String> envs,
+      Integer teamId,
+      String topicNameSearch,
+      int tenantId,
+      int pageNo,
+      int pageSize) {
+    log.debug("selectSyncTopicsPage {} {}", teamId, pageNo);
+    if (envs.isEmpty()) {
+      return new ArrayList<>();
+    }
+    Integer syncTopicsTeamId = getSyncTopicsTeamId(teamId);
+    List<String> topicNames =
+        topicRepo.findTopicNamesPage(
+            tenantId,
+            envs,
+            syncTopicsTeamId,
+            getTopicNameSearchPattern(topicNameSearch),
+            PageRequest.of(pageNo - 1, pageSize));
+    if (topicNames.isEmpty()) {
+      return new ArrayList<>();
+    }
+
+    Map<String, Topic> topicsByName = new LinkedHashMap<>();
+    topicNames.forEach(topicName -> topicsByName.put(topicName, null));
+    for (Topic topic :
+        topicRepo.findTopicsOfTopicNames(tenantId, topicNames, envs, syncTopicsTeamId)) {
+      Topic groupedTopic = topicsByName.get(topic.getTopicname());
+      if (groupedTopic == null) {
+        groupedTopic = topic;
+        groupedTopic.setEnvironmentsList(new ArrayList<>());
+        topicsByName.put(topic.getTopicname(), groupedTopic);
+      }
+      groupedTopic.getEnvironmentsList().add(topic.getEnvironment());
+    }
+    return topicsByName.values().stream().filter(Objects::nonNull).collect(Collectors.toList());
+  }
+
+  // null for all teams, like selectSyncTopics
+  private Integer getSyncTopicsTeamId(Integer teamId) {
+    return teamId == null || teamId.equals(1) ? null : teamId;
+  }
+
+  private String getTopicNameSearchPattern(String topicNameSearch) {
+    if (topicNameSearch == null || topicNameSearch.isBlank()) {
+      return null;
+    }
+    return "%"
+        + topicNameSearch
+            .trim()
+            .toLowerCase()
+            .replace("!", "!!")
+            .replace("%", "!%")
+            .replace("_", "!_")
+        + "%";
+  }
+
   public Map<String, String> getDashboardStats(Integer teamId, int tenantId) {
     Map<String, String> dashboardMap = new HashMap<>();
     int countProducers = 0, countConsumers = 0;
@@ -835,25 +927,42 @@ public class SelectDataJdbc {
     return userRec.orElse(null);
   }
 
-  public List<ActivityLog> selectActivityLog(
-      String username, String env, boolean allReqs, int tenantId) {
-    log.debug("selectActivityLog {}", username);
+  public long countActivityLog(String username, String env, boolean allReqs, int tenantId) {
+    return activityLogRepo.countActivityLog(
+        tenantId, getActivityLogEnv(env), getActivityLogTeamId(username, allReqs));
+  }
+
+  /**
+   * One page of the activity log, newest first. When the last row of the previous page is given the
+   * page is read after that row instead of skipping the rows of all earlier pages.
+   */
+  public List<ActivityLog> selectActivityLogPage(
+      String username,
+      String env,
+      boolean allReqs,
+      int tenantId,
+      int pageNo,
+      int pageSize,
+      Timestamp afterActivityTime,
+      Integer afterReqNo) {
+    log.debug("selectActivityLogPage {} {}", username, pageNo);
+    String activityLogEnv = getActivityLogEnv(env);
+    Integer teamId = getActivityLogTeamId(username, allReqs);
     List<ActivityLog> activityList;
 
-    if (allReqs) {
-      if (env == null || env.isBlank()) {
-        activityList = Lists.newArrayList(activityLogRepo.findAllByTenantId(tenantId));
-      } else {
-        activityList = activityLogRepo.findAllByEnvAndTenantId(env, tenantId);
-      }
+    if (afterActivityTime != null && afterReqNo != null) {
+      activityList =
+          activityLogRepo.findActivityLogPageAfter(
+              tenantId,
+              activityLogEnv,
+              teamId,
+              afterActivityTime,
+              afterReqNo,
+              PageRequest.of(0, pageSize));
     } else {
-      final UserInfo userInfo = selectUserInfo(username);
-      if (env == null || env.isBlank()) {
-        activityList = activityLogRepo.findAllByTeamIdAndTenantId(userInfo.getTeamId(), tenantId);
-      } else {
-        activityList =
-            activityLogRepo.findAllByEnvAndTeamIdAndTenantId(env, userInfo.getTeamId(), tenantId);
-      }
+      activityList =
+          activityLogRepo.findActivityLogPage(
+              tenantId, activityLogEnv, teamId, PageRequest.of(pageNo - 1, pageSize));
     }
 
     for (ActivityLog row : activityList) {
@@ -864,6 +973,15 @@ public class SelectDataJdbc {
     return activityList;
   }
 
+  private String getActivityLogEnv(String env) {
+    return env == null || env.isBlank() ? null : env;
+  }
+
+  // null for all teams
+  private Integer getActivityLogTeamId(String username, boolean allReqs) {
+    return allReqs ? null : selectUserInfo(username).getTeamId();
+  }
+
   public List<Team> selectTeamsOfUsers(String username, int tenantId) {
     log.debug("selectTeamsOfUsers {}", username);
     List<Team> allTeams = selectAllTeams(tenantId);
@@ -1174,24 +1292,57 @@ public class SelectDataJdbc {
     return totalTopicCount;
   }
 
-  public List<Map<String, String>> selectAllMetrics(
-      String metricsType, String metricsName, String env) {
-    List<Map<String, String>> metricsCount = new ArrayList<>();
+  /**
+   * Points of one metric in the time range, in the finest resolution which has at most maxPoints
+   * points for the range.
+   *
+   * @return datetime (bucket start millis), samples, min, max and avg of each point, oldest first
+   */
+  public List<Map<String, String>> selectMetricsPoints(
+      String metricsType,
+      String metricsName,
+      String env,
+      int tenantId,
+      long fromTime,
+      long toTime,
+      int maxPoints) {
+    List<Map<String, String>> metricsPoints = new ArrayList<>();
     try {
-      List<Object[]> metrics =
-          kwMetricsRepo.findAllByEnvAndMetricsTypeAndMetricsName(env, metricsType, metricsName);
-
-      Map<String, String> hashMap;
-      for (Object[] kwMetrics : metrics) {
-        hashMap = new HashMap<>();
-        hashMap.put("datetime", (String) kwMetrics[0]);
-        hashMap.put("messagescount", (String) kwMetrics[1]);
-        metricsCount.add(hashMap);
+      MetricsResolution resolution = MetricsResolution.forRange(fromTime, toTime, maxPoints);
+      for (KwMetricsSeries series :
+          kwMetricsSeriesRepo.findAllByTenantIdAndEnvAndMetricsTypeAndMetricsName(
+              tenantId, env, metricsType, metricsName)) {
+        for (KwMetricsPoint point :
+            kwMetricsPointRepo.findAllBySeriesIdAndResolutionAndBucketTimeBetweenOrderByBucketTime(
+                series.getSeriesId(),
+                resolution.seconds,
+                resolution.bucketStart(fromTime),
+                toTime)) {
+          Map<String, String> hashMap = new HashMap<>();
+          hashMap.put("datetime", "" + point.getBucketTime());
+          hashMap.put("samples", "" + point.getSamples());
+          hashMap.put("min", "" + Math.round(point.getSampleMin()));
+          hashMap.put("max", "" + Math.round(point.getSampleMax()));
+          hashMap.put("avg", "" + Math.round(point.getSampleSum() / point.getSamples()));
+          metricsPoints.add(hashMap);
+        }
       }
     } catch (Exception e) {
-      log.error("Error from selectAllMetrics ", e);
+      log.error("Error from selectMetricsPoints ", e);
     }
-    return metricsCount;
+    return metricsPoints;
+  }
+
+  public List<KwTopicDrift> selectReportedTopicDrift(int tenantId, String env) {
+    return kwTopicDriftRepo.findAllByTenantIdAndEnv(tenantId, env);
+  }
+
+  public List<KwTopicRecon> selectTopicRecons(int tenantId) {
+    return kwTopicReconRepo.findAllByTenantId(tenantId);
+  }
+
+  public List<KwTopicSnapshot> selectTopicSnapshot(int tenantId, String env) {
+    return kwTopicSnapshotRepo.findAllByTenantIdAndEnv(tenantId, env);
   }
 
   public Map<Integer, Map<String, Map<String, String>>> selectAllKwProperties() {
@@ -1223,33 +1374,6 @@ public class SelectDataJdbc {
     return kwPropertiesRepo.findAllByTenantId(tenantId);
   }
 
-  public Integer getNextTopicRequestId(String idType, int tenantId) {
-    Integer topicId;
-    if (idType.equals("TOPIC_REQ_ID")) {
-      topicId = topicRequestsRepo.getNextTopicRequestId(tenantId);
-    } else if (idType.equals("TOPIC_ID")) {
-      topicId = topicRepo.getNextTopicRequestId(tenantId);
-    } else {
-      topicId = null;
-    }
-
-    if (topicId == null) {
-      return 1001;
-    } else {
-      return topicId + 1;
-    }
-  }
-
-  public Integer getNextConnectorRequestId(String idType, int tenantId) {
-    Integer connectorId = null;
-    if ("CONNECTOR_REQ_ID".equals(idType)) {
-      connectorId = kafkaConnectorRequestsRepo.getNextConnectorRequestId(tenantId);
-    } else if ("CONNECTOR_ID".equals(idType)) {
-      connectorId = kafkaConnectorRepo.getNextConnectorRequestId(tenantId);
-    }
-    return (connectorId == null) ? 1001 : connectorId + 1;
-  }
-
   public List<KwTenants> getTenants() {
     return Lists.newArrayList(tenantRepo.findAll());
   }
@@ -1363,6 +1487,10 @@ public class SelectDataJdbc {
     return Lists.newArrayList(userInfoRepo.findAll());
   }
 
+  public long countAllUsersAllTenants() {
+    return userInfoRepo.count();
+  }
+
   public Optional<ProductDetails> selectProductDetails(String name) {
     return productDetailsRepo.findById(name);
   }
@@ -10,6 +10,10 @@ import io.aiven.klaw.dao.KwKafkaConnectorID;
 import io.aiven.klaw.dao.KwProperties;
 import io.aiven.klaw.dao.KwRolesPermissions;
 import io.aiven.klaw.dao.KwTenants;
+import io.aiven.klaw.dao.KwTopicDrift;
+import io.aiven.klaw.dao.KwTopicDriftID;
+import io.aiven.klaw.dao.KwTopicRecon;
+import io.aiven.klaw.dao.KwTopicSnapshot;
 import io.aiven.klaw.dao.MessageSchema;
 import io.aiven.klaw.dao.RegisterUserInfo;
 import io.aiven.klaw.dao.SchemaRequest;
@@ -28,6 +32,9 @@ import io.aiven.klaw.repository.KwKafkaConnectorRepo;
 import io.aiven.klaw.repository.KwKafkaConnectorRequestsRepo;
 import io.aiven.klaw.repository.KwPropertiesRepo;
 import io.aiven.klaw.repository.KwRolesPermsRepo;
+import io.aiven.klaw.repository.KwTopicDriftRepo;
+import io.aiven.klaw.repository.KwTopicReconRepo;
+import io.aiven.klaw.repository.KwTopicSnapshotRepo;
 import io.aiven.klaw.repository.RegisterInfoRepo;
 import io.aiven.klaw.repository.SchemaRequestRepo;
 import io.aiven.klaw.repository.TeamRepo;
@@ -37,8 +44,10 @@ import io.aiven.klaw.repository.TopicRequestsRepo;
 import io.aiven.klaw.repository.UserInfoRepo;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -89,6 +98,15 @@ public class UpdateDataJdbc {
   @Autowired(required = false)
   private TenantRepo tenantRepo;
 
+  @Autowired(required = false)
+  private KwTopicDriftRepo kwTopicDriftRepo;
+
+  @Autowired(required = false)
+  private KwTopicReconRepo kwTopicReconRepo;
+
+  @Autowired(required = false)
+  private KwTopicSnapshotRepo kwTopicSnapshotRepo;
+
   public UpdateDataJdbc(
       TopicRequestsRepo topicRequestsRepo,
       AclRequestsRepo aclRequestsRepo,
@@ -481,4 +499,59 @@ public class UpdateDataJdbc {
     }
     return ApiResultStatus.SUCCESS.value;
   }
+
+  /** Replaces the reported drift of the environment, only the changed rows are written. */
+  public void updateReportedTopicDrift(int tenantId, String env, List<KwTopicDrift> topicDrift) {
+    Set<KwTopicDriftID> driftIds = new HashSet<>();
+    for (KwTopicDrift kwTopicDrift : topicDrift) {
+      driftIds.add(getTopicDriftId(kwTopicDrift));
+    }
+    Set<KwTopicDriftID> reportedDriftIds = new HashSet<>();
+    List<KwTopicDrift> resolvedDrift = new ArrayList<>();
+    for (KwTopicDrift kwTopicDrift : kwTopicDriftRepo.findAllByTenantIdAndEnv(tenantId, env)) {
+      KwTopicDriftID driftId = getTopicDriftId(kwTopicDrift);
+      reportedDriftIds.add(driftId);
+      if (!driftIds.contains(driftId)) {
+        resolvedDrift.add(kwTopicDrift);
+      }
+    }
+    kwTopicDriftRepo.deleteAll(resolvedDrift);
+    kwTopicDriftRepo.saveAll(
+        topicDrift.stream()
+            .filter(kwTopicDrift -> !reportedDriftIds.contains(getTopicDriftId(kwTopicDrift)))
+            .toList());
+  }
+
+  public void insertTopicRecon(KwTopicRecon kwTopicRecon) {
+    kwTopicReconRepo.save(kwTopicRecon);
+  }
+
+  public void updateTopicsSynced(int tenantId) {
+    kwTopicReconRepo.incrementSyncVersion(tenantId);
+  }
+
+  /**
+   * Writes the topics which changed since the previous reconciliation run, and then the version
+   * the run reconciled. A run which fails in between leaves the previous run time, so the next
+   * run reloads the partially written snapshot and diffs against it.
+   */
+  public void updateTopicSnapshot(
+      int tenantId,
+      String env,
+      List<KwTopicSnapshot> changedTopics,
+      List<KwTopicSnapshot> removedTopics,
+      int reconciledVersion,
+      long lastRunTime) {
+    kwTopicSnapshotRepo.deleteAll(removedTopics);
+    kwTopicSnapshotRepo.saveAll(changedTopics);
+    kwTopicReconRepo.updateReconciledVersion(tenantId, env, reconciledVersion, lastRunTime);
+  }
+
+  private static KwTopicDriftID getTopicDriftId(KwTopicDrift kwTopicDrift) {
+    return new KwTopicDriftID(
+        kwTopicDrift.getTenantId(),
+        kwTopicDrift.getEnv(),
+        kwTopicDrift.getTopicName(),
+        kwTopicDrift.getDriftType());
+  }
 }
@@ -40,6 +40,10 @@ public class KwClustersModel implements Serializable {
 
   private String publicKey;
 
+  private String jmxUrls;
+
+  private String jmxMetrics;
+
   private boolean showDeleteCluster;
 
   private String clusterStatus;
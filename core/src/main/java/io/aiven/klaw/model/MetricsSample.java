@@ -0,0 +1,19 @@
+package io.aiven.klaw.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class MetricsSample {
+
+  private String env;
+
+  private String metricsType;
+
+  private String metricsName;
+
+  private double value;
+}
@@ -0,0 +1,14 @@
+package io.aiven.klaw.model.cluster;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.io.Serializable;
+import java.util.List;
+import lombok.Builder;
+
+@Builder
+public class ClusterMetricsRequest implements Serializable {
+
+  @JsonProperty private List<String> jmxUrls;
+
+  @JsonProperty private List<String> objectNames;
+}
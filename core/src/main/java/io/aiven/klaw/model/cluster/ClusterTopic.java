@@ -0,0 +1,21 @@
+package io.aiven.klaw.model.cluster;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Topic on a cluster, as listed by cluster api. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterTopic {
+
+  @JsonProperty private String topicName;
+
+  @JsonProperty private int partitions;
+
+  @JsonProperty private int replicationFactor;
+}
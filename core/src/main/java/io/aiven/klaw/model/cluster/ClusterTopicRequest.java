@@ -3,6 +3,7 @@ package io.aiven.klaw.model.cluster;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.aiven.klaw.model.KafkaSupportedProtocol;
 import io.aiven.klaw.model.enums.AclsNativeType;
+import io.aiven.klaw.model.enums.RequestOperationType;
 import java.io.Serializable;
 import java.util.Map;
 import lombok.Builder;
@@ -25,4 +26,7 @@ public class ClusterTopicRequest implements Serializable {
   @JsonProperty private Map<String, String> advancedTopicConfiguration;
 
   @JsonProperty private AclsNativeType aclsNativeType;
+
+  // only evaluated by the bulk topic endpoint of cluster api
+  @JsonProperty private RequestOperationType requestOperationType;
 }
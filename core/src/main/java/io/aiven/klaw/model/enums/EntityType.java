@@ -10,7 +10,8 @@ public enum EntityType {
   CLUSTER,
   TENANT,
   ROLES_PERMISSIONS,
-  PROPERTIES;
+  PROPERTIES,
+  USERS;
 
   @Nullable
   public static EntityType of(@Nullable String value) {
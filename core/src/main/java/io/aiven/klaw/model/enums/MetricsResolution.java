@@ -0,0 +1,31 @@
+package io.aiven.klaw.model.enums;
+
+import java.util.concurrent.TimeUnit;
+
+/** Bucket lengths of the metrics points, every sample is counted in each of them. */
+public enum MetricsResolution {
+  MINUTE(TimeUnit.MINUTES.toSeconds(1)),
+  HOUR(TimeUnit.HOURS.toSeconds(1)),
+  DAY(TimeUnit.DAYS.toSeconds(1));
+
+  public final int seconds;
+
+  MetricsResolution(long seconds) {
+    this.seconds = (int) seconds;
+  }
+
+  public long bucketStart(long timeMillis) {
+    long bucketMillis = seconds * 1000L;
+    return timeMillis - Math.floorMod(timeMillis, bucketMillis);
+  }
+
+  /** Finest resolution which returns at most maxPoints points for the range. */
+  public static MetricsResolution forRange(long fromMillis, long toMillis, int maxPoints) {
+    for (MetricsResolution resolution : values()) {
+      if ((toMillis - fromMillis) / (resolution.seconds * 1000L) <= maxPoints) {
+        return resolution;
+      }
+    }
+    return DAY;
+  }
+}
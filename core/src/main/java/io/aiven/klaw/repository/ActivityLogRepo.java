@@ -2,8 +2,10 @@ package io.aiven.klaw.repository;
 
 import io.aiven.klaw.dao.ActivityLog;
 import io.aiven.klaw.dao.ActivityLogID;
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
@@ -40,4 +42,37 @@ public interface ActivityLogRepo extends CrudRepository<ActivityLog, ActivityLog
   Integer getNextActivityLogRequestId(@Param("tenantId") Integer tenantId);
 
   List<ActivityLog> findAllByTenantId(int tenantId);
+
+  // env and teamId are optional filters, newest first on the (tenantid, activitytime, kwreqno)
+  // index
+  @Query(
+      "select a from ActivityLog a where a.tenantId = :tenantId"
+          + " and (:env is null or a.env = :env) and (:teamId is null or a.teamId = :teamId)"
+          + " order by a.activityTime desc, a.req_no desc")
+  List<ActivityLog> findActivityLogPage(
+      @Param("tenantId") int tenantId,
+      @Param("env") String env,
+      @Param("teamId") Integer teamId,
+      Pageable pageable);
+
+  // page after the given row of the previous page, without skipping over the earlier pages
+  @Query(
+      "select a from ActivityLog a where a.tenantId = :tenantId"
+          + " and (:env is null or a.env = :env) and (:teamId is null or a.teamId = :teamId)"
+          + " and (a.activityTime < :activityTime"
+          + " or (a.activityTime = :activityTime and a.req_no < :reqNo))"
+          + " order by a.activityTime desc, a.req_no desc")
+  List<ActivityLog> findActivityLogPageAfter(
+      @Param("tenantId") int tenantId,
+      @Param("env") String env,
+      @Param("teamId") Integer teamId,
+      @Param("activityTime") Timestamp activityTime,
+      @Param("reqNo") Integer reqNo,
+      Pageable pageable);
+
+  @Query(
+      "select count(a) from ActivityLog a where a.tenantId = :tenantId"
+          + " and (:env is null or a.env = :env) and (:teamId is null or a.teamId = :teamId)")
+  long countActivityLog(
+      @Param("tenantId") int tenantId, @Param("env") String env, @Param("teamId") Integer teamId);
 }
@@ -0,0 +1,38 @@
+package io.aiven.klaw.repository;
+
+import io.aiven.klaw.dao.KwMetricsPoint;
+import io.aiven.klaw.dao.KwMetricsPointID;
+import java.util.List;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface KwMetricsPointRepo extends CrudRepository<KwMetricsPoint, KwMetricsPointID> {
+
+  List<KwMetricsPoint> findAllBySeriesIdAndResolutionAndBucketTimeBetweenOrderByBucketTime(
+      Integer seriesId, Integer resolution, Long fromBucketTime, Long toBucketTime);
+
+  // merges a sample into a stored point in place, concurrent samples are not lost
+  @Transactional
+  @Modifying
+  @Query(
+      "update KwMetricsPoint p set p.samples = p.samples + 1, p.sampleSum = p.sampleSum + :value,"
+          + " p.sampleMin = case when p.sampleMin < :value then p.sampleMin else :value end,"
+          + " p.sampleMax = case when p.sampleMax > :value then p.sampleMax else :value end"
+          + " where p.seriesId = :seriesId and p.resolution = :resolution"
+          + " and p.bucketTime = :bucketTime")
+  int addSample(
+      @Param("seriesId") Integer seriesId,
+      @Param("resolution") Integer resolution,
+      @Param("bucketTime") Long bucketTime,
+      @Param("value") Double value);
+
+  @Transactional
+  @Modifying
+  @Query(
+      "delete from KwMetricsPoint p where p.resolution = :resolution and p.bucketTime < :bucketTime")
+  int deleteOlderPoints(
+      @Param("resolution") Integer resolution, @Param("bucketTime") Long bucketTime);
+}
@@ -0,0 +1,17 @@
+package io.aiven.klaw.repository;
+
+import io.aiven.klaw.dao.KwMetricsSeries;
+import java.util.List;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+public interface KwMetricsSeriesRepo extends CrudRepository<KwMetricsSeries, Integer> {
+
+  List<KwMetricsSeries> findAllByTenantId(Integer tenantId);
+
+  List<KwMetricsSeries> findAllByTenantIdAndEnvAndMetricsTypeAndMetricsName(
+      Integer tenantId, String env, String metricsType, String metricsName);
+
+  @Query(value = "select max(seriesid) from kwmetricsseries", nativeQuery = true)
+  Integer getMaxSeriesId();
+}
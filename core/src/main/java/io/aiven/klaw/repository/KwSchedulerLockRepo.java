@@ -0,0 +1,18 @@
+package io.aiven.klaw.repository;
+
+import io.aiven.klaw.dao.KwSchedulerLock;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface KwSchedulerLockRepo extends CrudRepository<KwSchedulerLock, String> {
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select l from KwSchedulerLock l where l.lockName = :lockName")
+  Optional<KwSchedulerLock> findForUpdate(@Param("lockName") String lockName);
+}
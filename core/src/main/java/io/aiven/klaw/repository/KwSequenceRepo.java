@@ -0,0 +1,21 @@
+package io.aiven.klaw.repository;
+
+import io.aiven.klaw.dao.KwSequence;
+import io.aiven.klaw.dao.KwSequenceID;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface KwSequenceRepo extends CrudRepository<KwSequence, KwSequenceID> {
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query(
+      "select s from KwSequence s where s.sequenceName = :sequenceName and s.tenantId = :tenantId")
+  Optional<KwSequence> findForUpdate(
+      @Param("sequenceName") String sequenceName, @Param("tenantId") Integer tenantId);
+}
@@ -0,0 +1,13 @@
+package io.aiven.klaw.repository;
+
+import io.aiven.klaw.dao.KwTopicDrift;
+import io.aiven.klaw.dao.KwTopicDriftID;
+import java.util.List;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface KwTopicDriftRepo extends CrudRepository<KwTopicDrift, KwTopicDriftID> {
+
+  List<KwTopicDrift> findAllByTenantIdAndEnv(Integer tenantId, String env);
+}
@@ -0,0 +1,35 @@
+package io.aiven.klaw.repository;
+
+import io.aiven.klaw.dao.KwTopicRecon;
+import io.aiven.klaw.dao.KwTopicReconID;
+import java.util.List;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface KwTopicReconRepo extends CrudRepository<KwTopicRecon, KwTopicReconID> {
+
+  List<KwTopicRecon> findAllByTenantId(Integer tenantId);
+
+  @Transactional
+  @Modifying
+  @Query(
+      "update KwTopicRecon r set r.syncVersion = r.syncVersion + 1 where r.tenantId = :tenantId")
+  int incrementSyncVersion(@Param("tenantId") Integer tenantId);
+
+  // only the columns of the run are written, a concurrent sync version increment is kept
+  @Transactional
+  @Modifying
+  @Query(
+      "update KwTopicRecon r set r.reconciledVersion = :reconciledVersion,"
+          + " r.lastRunTime = :lastRunTime where r.tenantId = :tenantId and r.env = :env")
+  int updateReconciledVersion(
+      @Param("tenantId") Integer tenantId,
+      @Param("env") String env,
+      @Param("reconciledVersion") Integer reconciledVersion,
+      @Param("lastRunTime") Long lastRunTime);
+}
@@ -0,0 +1,13 @@
+package io.aiven.klaw.repository;
+
+import io.aiven.klaw.dao.KwTopicSnapshot;
+import io.aiven.klaw.dao.KwTopicSnapshotID;
+import java.util.List;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface KwTopicSnapshotRepo extends CrudRepository<KwTopicSnapshot, KwTopicSnapshotID> {
+
+  List<KwTopicSnapshot> findAllByTenantIdAndEnv(Integer tenantId, String env);
+}
@@ -2,8 +2,10 @@ package io.aiven.klaw.repository;
 
 import io.aiven.klaw.dao.Topic;
 import io.aiven.klaw.dao.TopicID;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
@@ -87,4 +89,41 @@ public interface TopicRepo extends CrudRepository<Topic, TopicID> {
 
   @Query(value = "select max(topicid) from kwtopics where tenantid = :tenantId", nativeQuery = true)
   Integer getNextTopicRequestId(@Param("tenantId") Integer tenantId);
+
+  // topic browse: teamId and search (lower case like pattern, escaped with !) are optional
+  // filters, on the (tenantid, topicname, env) index
+  @Query(
+      "select count(distinct t.topicname) from Topic t where t.tenantId = :tenantId"
+          + " and t.environment in :envs and (:teamId is null or t.teamId = :teamId)"
+          + " and (:search is null or lower(t.topicname) like :search escape '!'"
+          + " or lower(t.documentation) like :search escape '!')")
+  long countTopicNames(
+      @Param("tenantId") int tenantId,
+      @Param("envs") Collection<String> envs,
+      @Param("teamId") Integer teamId,
+      @Param("search") String search);
+
+  @Query(
+      "select distinct t.topicname from Topic t where t.tenantId = :tenantId"
+          + " and t.environment in :envs and (:teamId is null or t.teamId = :teamId)"
+          + " and (:search is null or lower(t.topicname) like :search escape '!'"
+          + " or lower(t.documentation) like :search escape '!')"
+          + " order by t.topicname")
+  List<String> findTopicNamesPage(
+      @Param("tenantId") int tenantId,
+      @Param("envs") Collection<String> envs,
+      @Param("teamId") Integer teamId,
+      @Param("search") String search,
+      Pageable pageable);
+
+  // rows of the topics of one page, in every env of the page
+  @Query(
+      "select t from Topic t where t.tenantId = :tenantId and t.topicname in :topicNames"
+          + " and t.environment in :envs and (:teamId is null or t.teamId = :teamId)"
+          + " order by t.topicname, t.topicid")
+  List<Topic> findTopicsOfTopicNames(
+      @Param("tenantId") int tenantId,
+      @Param("topicNames") Collection<String> topicNames,
+      @Param("envs") Collection<String> envs,
+      @Param("teamId") Integer teamId);
 }
@@ -19,6 +19,7 @@ import io.aiven.klaw.error.KlawException;
 import io.aiven.klaw.helpers.HandleDbRequests;
 import io.aiven.klaw.model.AclRequestsModel;
 import io.aiven.klaw.model.ApiResponse;
+import io.aiven.klaw.model.cluster.ConsumerGroupLags;
 import io.aiven.klaw.model.enums.AclIPPrincipleType;
 import io.aiven.klaw.model.enums.AclPatternType;
 import io.aiven.klaw.model.enums.AclType;
@@ -678,25 +679,59 @@ public class AclControllerService {
 
   public List<Map<String, String>> getConsumerOffsets(
       String envId, String consumerGroupId, String topicName) {
-    List<Map<String, String>> consumerOffsetInfoList = new ArrayList<>();
     int tenantId = commonUtilsService.getTenantId(getCurrentUserName());
+    return getConsumerGroupLags(envId, Map.of(consumerGroupId, List.of(topicName)), tenantId)
+        .getLags()
+        .getOrDefault(consumerGroupId, Collections.emptyMap())
+        .getOrDefault(topicName, new ArrayList<>());
+  }
+
+  /**
+   * Lags of all consumer groups subscribed to the topic in the environment, listed by cluster api
+   * in one request instead of one request per group.
+   */
+  public ConsumerGroupLags getConsumerGroupLags(String envId, String topicName) {
+    int tenantId = commonUtilsService.getTenantId(getCurrentUserName());
+    Map<String, List<String>> topicsByConsumerGroup =
+        manageDatabase.getHandleDbRequests().getSyncAcls(envId, topicName, tenantId).stream()
+            .filter(acl -> AclType.CONSUMER.value.equals(acl.getTopictype()))
+            .map(Acl::getConsumergroup)
+            .filter(consumerGroup -> consumerGroup != null && !consumerGroup.isEmpty())
+            .distinct()
+            .collect(Collectors.toMap(consumerGroup -> consumerGroup, key -> List.of(topicName)));
+    if (topicsByConsumerGroup.isEmpty()) {
+      return new ConsumerGroupLags();
+    }
+    return getConsumerGroupLags(envId, topicsByConsumerGroup, tenantId);
+  }
+
+  private ConsumerGroupLags getConsumerGroupLags(
+      String envId, Map<String, List<String>> topicsByConsumerGroup, int tenantId) {
     try {
       KwClusters kwClusters =
           manageDatabase
               .getClusters(KafkaClustersType.KAFKA, tenantId)
               .get(getEnvDetails(envId, tenantId).getClusterId());
-      consumerOffsetInfoList =
-          clusterApiService.getConsumerOffsets(
+      ConsumerGroupLags consumerGroupLags =
+          clusterApiService.getConsumerGroupLags(
               kwClusters.getBootstrapServers(),
               kwClusters.getProtocol(),
               kwClusters.getClusterName() + kwClusters.getClusterId(),
-              topicName,
-              consumerGroupId,
+              topicsByConsumerGroup,
               tenantId);
+      consumerGroupLags
+          .getFailedConsumerGroups()
+          .forEach(
+              (consumerGroup, error) ->
+                  log.error(
+                      "Ignoring error while retrieving consumer offsets of {} {} ",
+                      consumerGroup,
+                      error));
+      return consumerGroupLags;
     } catch (Exception e) {
       log.error("Ignoring error while retrieving consumer offsets {} ", e.toString());
     }
-    return consumerOffsetInfoList;
+    return new ConsumerGroupLags();
   }
 
   private Object getPrincipal() {
@@ -16,6 +16,7 @@ import io.aiven.klaw.model.SyncAclUpdates;
 import io.aiven.klaw.model.SyncBackAcls;
 import io.aiven.klaw.model.enums.AclPatternType;
 import io.aiven.klaw.model.enums.AclPermissionType;
+import io.aiven.klaw.model.enums.AclResourceNameMatch;
 import io.aiven.klaw.model.enums.AclType;
 import io.aiven.klaw.model.enums.ApiResultStatus;
 import io.aiven.klaw.model.enums.KafkaClustersType;
@@ -24,10 +25,12 @@ import io.aiven.klaw.model.enums.PermissionType;
 import io.aiven.klaw.model.enums.RequestOperationType;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -227,34 +230,34 @@ public class AclSyncControllerService {
       Env envSelected,
       KafkaSupportedProtocol protocol,
       String clusterName,
+      String kafkaFlavor,
       String topicNameSearch,
       int tenantId)
       throws KlawException {
     List<Map<String, String>> aclList;
-    aclList = clusterApiService.getAcls(bootstrapHost, envSelected, protocol, tenantId);
-    return updateConsumerGroups(groupAcls(aclList, topicNameSearch, true), aclList);
-  }
-
-  private List<Map<String, String>> updateConsumerGroups(
-      List<Map<String, String>> groupedList, List<Map<String, String>> clusterAclList) {
-    List<Map<String, String>> updateList = new ArrayList<>(groupedList);
-
-    for (Map<String, String> hMapGroupItem : groupedList) {
-      for (Map<String, String> hMapItem : clusterAclList) {
-        if (AclPermissionType.READ.value.equals(hMapGroupItem.get("operation"))
-            && AclPermissionType.READ.value.equals(hMapItem.get("operation"))
-            && "GROUP".equals(hMapItem.get("resourceType"))) {
-          if (Objects.equals(hMapItem.get("host"), hMapGroupItem.get("host"))
-              && Objects.equals(hMapItem.get("principle"), hMapGroupItem.get("principle"))) {
-            Map<String, String> hashMap = new HashMap<>(hMapGroupItem);
-            hashMap.put("consumerGroup", hMapItem.get("resourceName"));
-            updateList.add(hashMap);
-            break;
-          }
-        }
-      }
+    if (topicNameSearch != null
+        && !topicNameSearch.isEmpty()
+        && !KafkaFlavors.AIVEN_FOR_APACHE_KAFKA.value.equals(kafkaFlavor)
+        && !KafkaFlavors.CONFLUENT_CLOUD.value.equals(kafkaFlavor)) {
+      // native clusters list only the acls of the searched topics, and the group acls to find
+      // their consumer groups
+      aclList =
+          new ArrayList<>(
+              clusterApiService.getAcls(
+                  bootstrapHost,
+                  envSelected,
+                  protocol,
+                  "TOPIC",
+                  topicNameSearch,
+                  AclResourceNameMatch.CONTAINS,
+                  tenantId));
+      aclList.addAll(
+          clusterApiService.getAcls(
+              bootstrapHost, envSelected, protocol, "GROUP", null, null, tenantId));
+    } else {
+      aclList = clusterApiService.getAcls(bootstrapHost, envSelected, protocol, tenantId);
     }
-    return updateList;
+    return AclSyncIndex.withConsumerGroups(groupAcls(aclList, topicNameSearch, true), aclList);
   }
 
   private List<Map<String, String>> groupAcls(
@@ -332,6 +335,7 @@ public class AclSyncControllerService {
             envSelected,
             kwClusters.getProtocol(),
             kwClusters.getClusterName(),
+            kwClusters.getKafkaFlavor(),
             topicNameSearch,
             tenantId);
 
@@ -381,11 +385,15 @@ public class AclSyncControllerService {
 
     List<AclInfo> aclList = new ArrayList<>();
     AclInfo mp;
+    // envs are looked up once, not for every acl
+    Map<String, String> envNames = new HashMap<>();
 
     for (Acl aclSotItem : aclsFromSOT) {
       mp = new AclInfo();
       mp.setEnvironment(aclSotItem.getEnvironment());
-      mp.setEnvironmentName(getEnvDetails(aclSotItem.getEnvironment(), tenantId).getName());
+      mp.setEnvironmentName(
+          envNames.computeIfAbsent(
+              aclSotItem.getEnvironment(), envId -> getEnvDetails(envId, tenantId).getName()));
       mp.setTopicname(aclSotItem.getTopicname());
       mp.setAcl_ip(aclSotItem.getAclip());
       mp.setAcl_ssl(aclSotItem.getAclssl());
@@ -416,6 +424,8 @@ public class AclSyncControllerService {
     List<AclInfo> aclListMap = new ArrayList<>();
     List<String> teamList = new ArrayList<>();
     teamList = tenantFiltering(teamList);
+    Set<String> teamSet = new HashSet<>(teamList);
+    AclSyncIndex aclSyncIndex = AclSyncIndex.of(aclsFromSOT, kafkaFlavor);
 
     for (Map<String, String> aclListItem : aclList) {
       AclInfo mp = new AclInfo();
@@ -443,33 +453,15 @@ public class AclSyncControllerService {
       mp.setAcl_ip(aclListItem.get("host"));
       mp.setAcl_ssl(aclListItem.get("principle"));
 
-      for (Acl aclSotItem : aclsFromSOT) {
-        String acl_ssl = aclSotItem.getAclssl();
-        String acl_host = aclSotItem.getAclip();
-
-        if (acl_ssl == null || acl_ssl.equals("")) {
-          acl_ssl = "User:*";
-        } else {
-          if (!KafkaFlavors.AIVEN_FOR_APACHE_KAFKA.value.equals(kafkaFlavor)
-              && !"User:*".equals(acl_ssl)
-              && !acl_ssl.startsWith("User:")) {
-            acl_ssl = "User:" + acl_ssl;
-          }
-        }
-
-        if (acl_host == null || acl_host.equals("")) {
-          acl_host = "*";
-        }
-
-        if (aclSotItem.getTopicname() != null
-            && Objects.equals(aclListItem.get("resourceName"), aclSotItem.getTopicname())
-            && Objects.equals(aclListItem.get("host"), acl_host)
-            && Objects.equals(aclListItem.get("principle"), acl_ssl)
-            && Objects.equals(aclSotItem.getTopictype(), mp.getTopictype())) {
-          mp.setTeamname(manageDatabase.getTeamNameFromTeamId(tenantId, aclSotItem.getTeamId()));
-          mp.setReq_no(aclSotItem.getReq_no() + "");
-          break;
-        }
+      Acl aclSotItem =
+          aclSyncIndex.getMatchedAcl(
+              aclListItem.get("resourceName"),
+              aclListItem.get("principle"),
+              aclListItem.get("host"),
+              mp.getTopictype());
+      if (aclSotItem != null) {
+        mp.setTeamname(manageDatabase.getTeamNameFromTeamId(tenantId, aclSotItem.getTeamId()));
+        mp.setReq_no(aclSotItem.getReq_no() + "");
       }
 
       if (mp.getTeamname() == null) {
@@ -481,7 +473,7 @@ public class AclSyncControllerService {
           aclListMap.add(mp);
         }
       } else {
-        if (teamList.contains(mp.getTeamname())) aclListMap.add(mp);
+        if (teamSet.contains(mp.getTeamname())) aclListMap.add(mp);
         else if ("Unknown".equals(mp.getTeamname()) || "".equals(mp.getTeamname())) {
           aclListMap.add(mp);
         }
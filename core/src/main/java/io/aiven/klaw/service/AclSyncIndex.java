@@ -0,0 +1,97 @@
+package io.aiven.klaw.service;
+
+import io.aiven.klaw.dao.Acl;
+import io.aiven.klaw.model.enums.AclPermissionType;
+import io.aiven.klaw.model.enums.KafkaFlavors;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexes for the reconciliation of the acls on a cluster with the acls known in Klaw. Cluster acls
+ * are indexed by (principal, host, resource type) and Klaw acls by resource name, principal, host
+ * and acl type, so that every cluster acl is matched with a single lookup instead of searching the
+ * other list.
+ */
+final class AclSyncIndex {
+
+  static final String GROUP_RESOURCE_TYPE = "GROUP";
+
+  // klaw acl -> first klaw acl with the same topic name, principal, host and acl type
+  private final Map<SotAclKey, Acl> aclsFromSOT = new HashMap<>();
+
+  private AclSyncIndex() {}
+
+  /**
+   * @param kafkaFlavor principals of klaw acls are prefixed with "User:" on all flavors but Aiven,
+   *     as on the cluster
+   */
+  static AclSyncIndex of(List<Acl> aclsFromSOT, String kafkaFlavor) {
+    AclSyncIndex aclSyncIndex = new AclSyncIndex();
+    boolean userPrefix = !KafkaFlavors.AIVEN_FOR_APACHE_KAFKA.value.equals(kafkaFlavor);
+    for (Acl acl : aclsFromSOT) {
+      if (acl.getTopicname() == null) {
+        continue;
+      }
+      String principal = acl.getAclssl();
+      if (principal == null || principal.equals("")) {
+        principal = "User:*";
+      } else if (userPrefix && !principal.startsWith("User:")) {
+        principal = "User:" + principal;
+      }
+      String host = acl.getAclip();
+      if (host == null || host.equals("")) {
+        host = "*";
+      }
+      // first acl wins, as with a linear search of the list
+      aclSyncIndex.aclsFromSOT.putIfAbsent(
+          new SotAclKey(acl.getTopicname(), principal, host, acl.getTopictype()), acl);
+    }
+    return aclSyncIndex;
+  }
+
+  /** Klaw acl of the given cluster acl, or null if the acl only exists on the cluster. */
+  Acl getMatchedAcl(String resourceName, String principal, String host, String aclType) {
+    return aclsFromSOT.get(new SotAclKey(resourceName, principal, host, aclType));
+  }
+
+  /**
+   * Adds a copy with the consumer group to the topic acls for every topic READ acl of which the
+   * principal and host also have a GROUP READ acl on the cluster. The first group acl of the
+   * cluster wins.
+   */
+  static List<Map<String, String>> withConsumerGroups(
+      List<Map<String, String>> topicAcls, List<Map<String, String>> clusterAcls) {
+    Map<ClusterAclKey, String> consumerGroups = new HashMap<>();
+    for (Map<String, String> clusterAcl : clusterAcls) {
+      if (AclPermissionType.READ.value.equals(clusterAcl.get("operation"))) {
+        consumerGroups.putIfAbsent(
+            new ClusterAclKey(
+                clusterAcl.get("principle"),
+                clusterAcl.get("host"),
+                clusterAcl.get("resourceType")),
+            clusterAcl.get("resourceName"));
+      }
+    }
+
+    List<Map<String, String>> updateList = new ArrayList<>(topicAcls);
+    for (Map<String, String> topicAcl : topicAcls) {
+      if (!AclPermissionType.READ.value.equals(topicAcl.get("operation"))) {
+        continue;
+      }
+      ClusterAclKey groupAclKey =
+          new ClusterAclKey(topicAcl.get("principle"), topicAcl.get("host"), GROUP_RESOURCE_TYPE);
+      if (consumerGroups.containsKey(groupAclKey)) {
+        Map<String, String> hashMap = new HashMap<>(topicAcl);
+        hashMap.put("consumerGroup", consumerGroups.get(groupAclKey));
+        updateList.add(hashMap);
+      }
+    }
+    return updateList;
+  }
+
+  private record ClusterAclKey(String principal, String host, String resourceType) {}
+
+  private record SotAclKey(String resourceName, String principal, String host, String aclType) {}
+}
@@ -38,6 +38,7 @@ public abstract class BaseOverviewService {
   @Autowired protected ManageDatabase manageDatabase;
   @Autowired protected ClusterApiService clusterApiService;
   @Autowired protected CommonUtilsService commonUtilsService;
+  @Autowired protected EnvFanOutService envFanOutService;
   protected final MailUtils mailService;
 
   public BaseOverviewService(MailUtils mailService) {
@@ -2,21 +2,29 @@ package io.aiven.klaw.service;
 
 import static io.aiven.klaw.helpers.KwConstants.*;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.aiven.klaw.config.ManageDatabase;
+import io.aiven.klaw.config.PoolingHttpClientConnectionManagerMetricsBinder;
 import io.aiven.klaw.dao.AclRequests;
 import io.aiven.klaw.dao.Env;
 import io.aiven.klaw.dao.KwClusters;
 import io.aiven.klaw.dao.SchemaRequest;
+import io.aiven.klaw.dao.TopicRequest;
 import io.aiven.klaw.error.KlawException;
 import io.aiven.klaw.model.ApiResponse;
 import io.aiven.klaw.model.KafkaSupportedProtocol;
 import io.aiven.klaw.model.cluster.ClusterAclRequest;
 import io.aiven.klaw.model.cluster.ClusterConnectorRequest;
+import io.aiven.klaw.model.cluster.ClusterMetricsRequest;
 import io.aiven.klaw.model.cluster.ClusterSchemaRequest;
+import io.aiven.klaw.model.cluster.ClusterTopic;
 import io.aiven.klaw.model.cluster.ClusterTopicRequest;
+import io.aiven.klaw.model.cluster.ConsumerGroupLags;
 import io.aiven.klaw.model.enums.AclPatternType;
+import io.aiven.klaw.model.enums.AclResourceNameMatch;
 import io.aiven.klaw.model.enums.AclType;
 import io.aiven.klaw.model.enums.AclsNativeType;
 import io.aiven.klaw.model.enums.ApiResultStatus;
@@ -26,11 +34,13 @@ import io.aiven.klaw.model.enums.KafkaFlavors;
 import io.aiven.klaw.model.enums.RequestOperationType;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.security.Key;
 import java.security.KeyManagementException;
 import java.security.KeyStore;
@@ -39,8 +49,8 @@ import java.security.NoSuchAlgorithmException;
 import java.security.UnrecoverableKeyException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
@@ -48,24 +58,28 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import javax.crypto.spec.SecretKeySpec;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
-import org.apache.hc.client5.http.io.HttpClientConnectionManager;
 import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
 import org.apache.hc.client5.http.socket.PlainConnectionSocketFactory;
 import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
 import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
-import org.apache.hc.core5.http.config.Registry;
 import org.apache.hc.core5.http.config.RegistryBuilder;
 import org.apache.hc.core5.ssl.SSLContextBuilder;
 import org.apache.hc.core5.ssl.TrustStrategy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
@@ -79,6 +93,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.ResourceUtils;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
 
 @Service
@@ -87,6 +102,16 @@ public class ClusterApiService {
 
   private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
   private static final String URL_DELIMITER = "/";
+  private static final Duration TOKEN_VALIDITY = Duration.ofMinutes(3);
+  private static final Duration TOKEN_REFRESH_MARGIN = Duration.ofSeconds(30);
+  private static final int STREAM_BUFFER_SIZE = 8192;
+  private static final String JMX_SERVICE_URL_PREFIX = "service:jmx:";
+  private static final TypeReference<List<String>> STRINGS_TYPE_REF = new TypeReference<>() {};
+  private static final TypeReference<List<Map<String, String>>> ACLS_TYPE_REF =
+      new TypeReference<>() {};
+  // the columns encoding is preferred, cluster api answers in plain json if it does not support it
+  private static final List<MediaType> ACCEPT_COLUMNS_JSON =
+      List.of(MediaType.parseMediaType(COLUMNS_JSON_VALUE), MediaType.APPLICATION_JSON);
 
   @Autowired private ManageDatabase manageDatabase;
 
@@ -105,7 +130,24 @@ public class ClusterApiService {
   @Value("${klaw.clusterapi.access.base64.secret:#{''}}")
   private String clusterApiAccessBase64Secret;
 
+  @Value("${klaw.clusterapi.http.max.connections:50}")
+  private int maxConnections = 50;
+
+  @Value("${klaw.clusterapi.http.max.connections.per.route:20}")
+  private int maxConnectionsPerRoute = 20;
+
+  @Value("${klaw.clusterapi.http.connect.timeout.ms:5000}")
+  private long connectTimeoutMs = 5000;
+
+  @Value("${klaw.clusterapi.http.read.timeout.ms:120000}")
+  private long readTimeoutMs = 120000;
+
+  @Autowired(required = false)
+  private MeterRegistry meterRegistry;
+
   private static String clusterConnUrl;
+  private Key hmacKey;
+  private volatile ServiceToken serviceToken;
   protected static HttpComponentsClientHttpRequestFactory requestFactory;
   RestTemplate httpRestTemplate, httpsRestTemplate;
 
@@ -121,7 +163,8 @@ public class ClusterApiService {
       return this.httpsRestTemplate;
     } else {
       if (this.httpRestTemplate == null) {
-        this.httpRestTemplate = new RestTemplate();
+        this.httpRestTemplate =
+            requestFactory == null ? new RestTemplate() : new RestTemplate(requestFactory);
       }
       return this.httpRestTemplate;
     }
@@ -190,38 +233,38 @@ public class ClusterApiService {
     }
   }
 
-  public List<Map<String, String>> getConsumerOffsets(
+  // lags of all consumer groups and their topics are listed by cluster api in one request
+  public ConsumerGroupLags getConsumerGroupLags(
       String bootstrapHost,
       KafkaSupportedProtocol protocol,
       String clusterIdentification,
-      String topic,
-      String consumerGroupId,
+      Map<String, List<String>> topicsByConsumerGroup,
       int tenantId)
       throws KlawException {
-    log.info("getConsumerOffsets {} {} {} {}", bootstrapHost, protocol, topic, consumerGroupId);
+    log.info(
+        "getConsumerGroupLags {} {} {}", bootstrapHost, protocol, topicsByConsumerGroup.keySet());
     getClusterApiProperties(tenantId);
-    List<Map<String, String>> offsetsMap;
     try {
-      String url = URI_GET_CONSUMER_OFFSETS;
-      url =
+      String url =
           clusterConnUrl
-              + url
+              + URI_GET_CONSUMER_GROUP_LAGS
               + bootstrapHost
               + URL_DELIMITER
-              + String.join(
-                  URL_DELIMITER, protocol.getName(), clusterIdentification, consumerGroupId, topic);
+              + String.join(URL_DELIMITER, protocol.getName(), clusterIdentification);
 
-      ResponseEntity<List<Map<String, String>>> resultBody =
+      HttpHeaders headers = createHeaders(clusterApiUser);
+      headers.setContentType(MediaType.APPLICATION_JSON);
+      HttpEntity<Map<String, List<String>>> request =
+          new HttpEntity<>(topicsByConsumerGroup, headers);
+      ResponseEntity<ConsumerGroupLags> resultBody =
           getRestTemplate()
-              .exchange(
-                  url, HttpMethod.GET, getHttpEntity(), new ParameterizedTypeReference<>() {});
+              .exchange(url, HttpMethod.POST, request, new ParameterizedTypeReference<>() {});
 
-      offsetsMap = new ArrayList<>(Objects.requireNonNull(resultBody.getBody()));
+      return Objects.requireNonNull(resultBody.getBody());
     } catch (Exception e) {
-      log.error("Error from getConsumerOffsets ", e);
+      log.error("Error from getConsumerGroupLags ", e);
       throw new KlawException("Could not get consumer offsets");
     }
-    return offsetsMap;
   }
 
   public Map<String, String> getTopicEvents(
@@ -265,15 +308,113 @@ public class ClusterApiService {
     return eventsMap;
   }
 
+  /**
+   * Copies the server-sent events of cluster api to the outputStream as they arrive. Partition,
+   * offsets and max bytes are optional, see the stream endpoint of cluster api.
+   */
+  public void streamTopicEvents(
+      String bootstrapHost,
+      KafkaSupportedProtocol protocol,
+      String clusterIdentification,
+      String topic,
+      String offsetId,
+      Integer partitionId,
+      Long startOffset,
+      Long endOffset,
+      Long maxBytes,
+      OutputStream outputStream,
+      int tenantId)
+      throws KlawException {
+    log.info(
+        "streamTopicEvents {} {} {} {} {} {} {}",
+        bootstrapHost,
+        protocol,
+        topic,
+        offsetId,
+        partitionId,
+        startOffset,
+        endOffset);
+    getClusterApiProperties(tenantId);
+    try {
+      Map<String, Object> uriVariables = new HashMap<>();
+      if (partitionId != null) {
+        uriVariables.put("partitionId", partitionId);
+      }
+      if (startOffset != null) {
+        uriVariables.put("startOffset", startOffset);
+      }
+      if (endOffset != null) {
+        uriVariables.put("endOffset", endOffset);
+      }
+      if (maxBytes != null) {
+        uriVariables.put("maxBytes", maxBytes);
+      }
+      String url =
+          clusterConnUrl
+              + URI_STREAM_TOPIC_CONTENTS
+              + bootstrapHost
+              + URL_DELIMITER
+              + String.join(
+                  URL_DELIMITER, protocol.getName(), clusterIdentification, topic, offsetId)
+              + getUriVariablesQuery(uriVariables);
+
+      HttpHeaders headers = createHeaders(clusterApiUser);
+      headers.setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+      getRestTemplate()
+          .execute(
+              url,
+              HttpMethod.GET,
+              request -> request.getHeaders().addAll(headers),
+              response -> copyStream(response.getBody(), outputStream),
+              uriVariables);
+    } catch (HttpServerErrorException.ServiceUnavailable e) {
+      log.warn("Cluster api is streaming too many topics, rejected {} ", topic);
+      throw new KlawException("Too many topic event streams are open. Please try again later.");
+    } catch (Exception e) {
+      log.error("Error from streamTopicEvents {} ", topic, e);
+      throw new KlawException("Could not get events for Topic " + topic);
+    }
+  }
+
+  private static Void copyStream(InputStream inputStream, OutputStream outputStream)
+      throws IOException {
+    byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+    int read;
+    while ((read = inputStream.read(buffer)) != -1) {
+      outputStream.write(buffer, 0, read);
+      // events are passed on as soon as they are read, not when the buffer is full
+      outputStream.flush();
+    }
+    return null;
+  }
+
   public List<Map<String, String>> getAcls(
       String bootstrapHost, Env envSelected, KafkaSupportedProtocol protocol, int tenantId)
       throws KlawException {
-    log.info("getAcls {} {} {}", bootstrapHost, protocol, tenantId);
+    return getAcls(bootstrapHost, envSelected, protocol, null, null, null, tenantId);
+  }
+
+  /**
+   * Acls of the cluster of one resource type and resource name. Only native clusters are filtered
+   * by the cluster api, other clusters return all acls, so the results are to be filtered again.
+   */
+  public List<Map<String, String>> getAcls(
+      String bootstrapHost,
+      Env envSelected,
+      KafkaSupportedProtocol protocol,
+      String resourceType,
+      String resourceName,
+      AclResourceNameMatch resourceNameMatch,
+      int tenantId)
+      throws KlawException {
+    log.info(
+        "getAcls {} {} {} {} {}", bootstrapHost, protocol, resourceType, resourceName, tenantId);
     getClusterApiProperties(tenantId);
 
     List<Map<String, String>> aclListOriginal;
     try {
       String uriGetAcls = URI_GET_ACLS;
+      Map<String, String> uriVariables = new HashMap<>();
       KwClusters kwClusters =
           manageDatabase
               .getClusters(KafkaClustersType.KAFKA, tenantId)
@@ -321,13 +462,21 @@ public class ClusterApiService {
                     kwClusters.getClusterName() + kwClusters.getClusterId(),
                     "na",
                     "na");
+        uri += getAclsFilterQuery(resourceType, resourceName, resourceNameMatch, uriVariables);
       }
 
-      ResponseEntity<Set<Map<String, String>>> resultBody =
+      HttpHeaders headers = createHeaders(clusterApiUser);
+      aclListOriginal =
           getRestTemplate()
-              .exchange(
-                  uri, HttpMethod.GET, getHttpEntity(), new ParameterizedTypeReference<>() {});
-      aclListOriginal = new ArrayList<>(Objects.requireNonNull(resultBody.getBody()));
+              .execute(
+                  uri,
+                  HttpMethod.GET,
+                  request -> {
+                    request.getHeaders().addAll(headers);
+                    request.getHeaders().setAccept(ACCEPT_COLUMNS_JSON);
+                  },
+                  response -> readAclsStream(response.getBody()),
+                  uriVariables);
     } catch (Exception e) {
       log.error("Error from getAcls", e);
       throw new KlawException("Could not load topics/acls. Please contact Administrator.");
@@ -335,16 +484,128 @@ public class ClusterApiService {
     return aclListOriginal;
   }
 
-  public List<Map<String, String>> getAllTopics(
+  /*
+  Acls are a plain list of acls, or in the columns encoding {"columns":[...],"rows":[[...],...]}
+  arrays of the values of the fields listed in "columns" before the rows.
+   */
+  private static List<Map<String, String>> readAclsStream(InputStream inputStream)
+      throws IOException {
+    try (JsonParser jsonParser = OBJECT_MAPPER.getFactory().createParser(inputStream)) {
+      JsonToken token = jsonParser.nextToken();
+      if (token == JsonToken.START_ARRAY) {
+        return jsonParser.readValueAs(ACLS_TYPE_REF);
+      } else if (token != JsonToken.START_OBJECT) {
+        throw new IOException("Unexpected acls response.");
+      }
+      List<String> columns = null;
+      List<Map<String, String>> acls = null;
+      while (jsonParser.nextToken() == JsonToken.FIELD_NAME) {
+        String fieldName = jsonParser.getCurrentName();
+        token = jsonParser.nextToken();
+        if ("columns".equals(fieldName)) {
+          columns = jsonParser.readValueAs(STRINGS_TYPE_REF);
+        } else if ("rows".equals(fieldName) && token == JsonToken.START_ARRAY) {
+          acls = new ArrayList<>();
+          while (jsonParser.nextToken() == JsonToken.START_ARRAY) {
+            acls.add(readAclColumns(jsonParser, columns));
+          }
+        } else {
+          jsonParser.skipChildren();
+        }
+      }
+      if (acls == null) {
+        throw new IOException("Unexpected acls response.");
+      }
+      return acls;
+    }
+  }
+
+  private static Map<String, String> readAclColumns(JsonParser jsonParser, List<String> columns)
+      throws IOException {
+    if (columns == null) {
+      throw new IOException("Unexpected acls response, columns are missing.");
+    }
+    Map<String, String> acl = new HashMap<>();
+    for (String column : columns) {
+      JsonToken token = jsonParser.nextToken();
+      if (token == JsonToken.START_ARRAY || token == JsonToken.START_OBJECT) {
+        jsonParser.skipChildren();
+      } else if (token != JsonToken.VALUE_NULL) {
+        acl.put(column, jsonParser.getValueAsString());
+      }
+    }
+    if (jsonParser.nextToken() != JsonToken.END_ARRAY) {
+      throw new IOException("Unexpected acls response.");
+    }
+    return acl;
+  }
+
+  private static String getAclsFilterQuery(
+      String resourceType,
+      String resourceName,
+      AclResourceNameMatch resourceNameMatch,
+      Map<String, String> uriVariables) {
+    // values are uri variables, so that they are encoded by the rest template
+    if (resourceType != null) {
+      uriVariables.put("resourceType", resourceType);
+    }
+    if (resourceName != null) {
+      uriVariables.put("resourceName", resourceName);
+    }
+    if (resourceNameMatch != null) {
+      uriVariables.put("resourceNameMatch", resourceNameMatch.name());
+    }
+    return getUriVariablesQuery(uriVariables);
+  }
+
+  // query of all uri variables, the rest template encodes their values
+  private static String getUriVariablesQuery(Map<String, ?> uriVariables) {
+    return uriVariables.keySet().stream()
+        .sorted()
+        .map(name -> name + "={" + name + "}")
+        .collect(Collectors.joining("&", uriVariables.isEmpty() ? "" : "?", ""));
+  }
+
+  public List<ClusterTopic> getAllTopics(
       String bootstrapHost,
       KafkaSupportedProtocol protocol,
       String clusterIdentification,
       String kafkaFlavors,
       int tenantId)
       throws Exception {
+    List<ClusterTopic> topicsList = new ArrayList<>();
+    List<String> failedTopics =
+        getAllTopics(
+            bootstrapHost,
+            protocol,
+            clusterIdentification,
+            kafkaFlavors,
+            tenantId,
+            topicsList::add);
+    if (!failedTopics.isEmpty()) {
+      // an incomplete list would make the missing topics look deleted on the cluster
+      throw new KlawException(
+          "Could not load " + failedTopics.size() + " topics. Please contact Administrator.");
+    }
+    return topicsList;
+  }
+
+  /**
+   * Streams the topics of a cluster, passing every topic to the consumer while the response is
+   * still being read.
+   *
+   * @return names of the topics cluster api could not describe
+   */
+  public List<String> getAllTopics(
+      String bootstrapHost,
+      KafkaSupportedProtocol protocol,
+      String clusterIdentification,
+      String kafkaFlavors,
+      int tenantId,
+      Consumer<ClusterTopic> topicConsumer)
+      throws Exception {
     log.info("getAllTopics {} {}", bootstrapHost, protocol);
     getClusterApiProperties(tenantId);
-    List<Map<String, String>> topicsList;
     String aclsNativeType = AclsNativeType.NATIVE.value;
     if (KafkaFlavors.CONFLUENT_CLOUD.value.equals(kafkaFlavors)) {
       aclsNativeType = AclsNativeType.CONFLUENT_CLOUD.value;
@@ -352,7 +613,7 @@ public class ClusterApiService {
     try {
       String uriGetTopicsFull =
           clusterConnUrl
-              + URI_GET_TOPICS
+              + URI_GET_TOPICS_STREAM
               + bootstrapHost
               + URL_DELIMITER
               + String.join(
@@ -362,18 +623,78 @@ public class ClusterApiService {
                   "topicsNativeType",
                   aclsNativeType);
 
-      HttpEntity<String> entity = getHttpEntity();
-      ResponseEntity<Set<Map<String, String>>> s =
-          getRestTemplate()
-              .exchange(
-                  uriGetTopicsFull, HttpMethod.GET, entity, new ParameterizedTypeReference<>() {});
-      topicsList = new ArrayList<>(Objects.requireNonNull(s.getBody()));
+      HttpHeaders headers = createHeaders(clusterApiUser);
+      return getRestTemplate()
+          .execute(
+              uriGetTopicsFull,
+              HttpMethod.GET,
+              request -> {
+                request.getHeaders().addAll(headers);
+                request.getHeaders().setAccept(ACCEPT_COLUMNS_JSON);
+              },
+              response -> readTopicsStream(response.getBody(), topicConsumer));
     } catch (Exception e) {
       log.error("Error from getAllTopics", e);
       throw new KlawException("Could not load topics. Please contact Administrator.");
     }
+  }
 
-    return topicsList;
+  /*
+  Topics are objects, or in the columns encoding arrays of the values of the fields listed in
+  "columns" before the topics.
+   */
+  private static List<String> readTopicsStream(
+      InputStream inputStream, Consumer<ClusterTopic> topicConsumer) throws IOException {
+    List<String> failedTopics = new ArrayList<>();
+    List<String> columns = null;
+    try (JsonParser jsonParser = OBJECT_MAPPER.getFactory().createParser(inputStream)) {
+      if (jsonParser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("Unexpected topics response.");
+      }
+      while (jsonParser.nextToken() == JsonToken.FIELD_NAME) {
+        String fieldName = jsonParser.getCurrentName();
+        jsonParser.nextToken();
+        if ("columns".equals(fieldName)) {
+          columns = jsonParser.readValueAs(STRINGS_TYPE_REF);
+        } else if ("topics".equals(fieldName)) {
+          JsonToken token;
+          while ((token = jsonParser.nextToken()) == JsonToken.START_OBJECT
+              || token == JsonToken.START_ARRAY) {
+            if (token == JsonToken.START_ARRAY) {
+              topicConsumer.accept(readTopicColumns(jsonParser, columns));
+            } else {
+              topicConsumer.accept(jsonParser.readValueAs(ClusterTopic.class));
+            }
+          }
+        } else if ("failedTopics".equals(fieldName)) {
+          failedTopics.addAll(jsonParser.readValueAs(STRINGS_TYPE_REF));
+        } else {
+          jsonParser.skipChildren();
+        }
+      }
+    }
+    return failedTopics;
+  }
+
+  private static ClusterTopic readTopicColumns(JsonParser jsonParser, List<String> columns)
+      throws IOException {
+    if (columns == null) {
+      throw new IOException("Unexpected topics response, columns are missing.");
+    }
+    ClusterTopic clusterTopic = new ClusterTopic();
+    for (String column : columns) {
+      jsonParser.nextToken();
+      switch (column) {
+        case "topicName" -> clusterTopic.setTopicName(jsonParser.getText());
+        case "partitions" -> clusterTopic.setPartitions(jsonParser.getValueAsInt());
+        case "replicationFactor" -> clusterTopic.setReplicationFactor(jsonParser.getValueAsInt());
+        default -> jsonParser.skipChildren();
+      }
+    }
+    if (jsonParser.nextToken() != JsonToken.END_ARRAY) {
+      throw new IOException("Unexpected topics response.");
+    }
+    return clusterTopic;
   }
 
   public String approveConnectorRequests(
@@ -442,42 +763,22 @@ public class ClusterApiService {
     log.info("approveTopicRequests {} {}", topicName, topicEnvId);
     getClusterApiProperties(tenantId);
     ResponseEntity<ApiResponse> response;
-    ClusterTopicRequest clusterTopicRequest;
     try {
-      Env envSelected = manageDatabase.getHandleDbRequests().selectEnvDetails(topicEnvId, tenantId);
-      KwClusters kwClusters =
-          manageDatabase
-              .getClusters(KafkaClustersType.KAFKA, tenantId)
-              .get(envSelected.getClusterId());
-      clusterTopicRequest =
-          ClusterTopicRequest.builder()
-              .env(kwClusters.getBootstrapServers())
-              .protocol(kwClusters.getProtocol())
-              .clusterName(kwClusters.getClusterName() + kwClusters.getClusterId())
-              .topicName(topicName)
-              .aclsNativeType(
-                  (Objects.equals(kwClusters.getKafkaFlavor(), KafkaFlavors.CONFLUENT_CLOUD.value))
-                      ? AclsNativeType.CONFLUENT_CLOUD
-                      : AclsNativeType.NATIVE)
-              .build();
+      ClusterTopicRequest clusterTopicRequest =
+          getClusterTopicRequest(
+              topicName,
+              topicRequestType,
+              topicPartitions,
+              replicationFactor,
+              getKafkaCluster(topicEnvId, tenantId),
+              advancedTopicConfiguration);
 
       String uri;
       if (RequestOperationType.CREATE.value.equals(topicRequestType)
           || RequestOperationType.PROMOTE.value.equals(topicRequestType)) {
         uri = clusterConnUrl + URI_CREATE_TOPICS;
-        clusterTopicRequest =
-            clusterTopicRequest.toBuilder()
-                .partitions(topicPartitions)
-                .replicationFactor(Short.parseShort(replicationFactor))
-                .advancedTopicConfiguration(advancedTopicConfiguration)
-                .build();
       } else if (RequestOperationType.UPDATE.value.equals(topicRequestType)) {
         uri = clusterConnUrl + URI_UPDATE_TOPICS;
-        clusterTopicRequest =
-            clusterTopicRequest.toBuilder()
-                .partitions(topicPartitions)
-                .replicationFactor(Short.parseShort(replicationFactor))
-                .build();
       } else {
         uri = clusterConnUrl + URI_DELETE_TOPICS;
       }
@@ -493,6 +794,99 @@ public class ClusterApiService {
     return response;
   }
 
+  /**
+   * Sends all topic requests in one call to cluster api, which batches them per cluster. The
+   * returned results are in the order of the topic requests.
+   */
+  public List<ApiResponse> approveTopicRequests(
+      List<TopicRequest> topicRequests,
+      List<Map<String, String>> advancedTopicConfigurations,
+      int tenantId)
+      throws KlawException {
+    log.info("approveTopicRequests bulk {} requests", topicRequests.size());
+    getClusterApiProperties(tenantId);
+    try {
+      Map<String, KwClusters> clustersPerEnv = new HashMap<>();
+      List<ClusterTopicRequest> clusterTopicRequests = new ArrayList<>();
+      for (int i = 0; i < topicRequests.size(); i++) {
+        TopicRequest topicRequest = topicRequests.get(i);
+        KwClusters kwClusters =
+            clustersPerEnv.computeIfAbsent(
+                topicRequest.getEnvironment(), envId -> getKafkaCluster(envId, tenantId));
+        clusterTopicRequests.add(
+            getClusterTopicRequest(
+                topicRequest.getTopicname(),
+                topicRequest.getTopictype(),
+                topicRequest.getTopicpartitions(),
+                topicRequest.getReplicationfactor(),
+                kwClusters,
+                advancedTopicConfigurations.get(i)));
+      }
+
+      HttpHeaders headers = createHeaders(clusterApiUser);
+      headers.setContentType(MediaType.APPLICATION_JSON);
+      HttpEntity<List<ClusterTopicRequest>> request =
+          new HttpEntity<>(clusterTopicRequests, headers);
+      ResponseEntity<List<ApiResponse>> response =
+          getRestTemplate()
+              .exchange(
+                  clusterConnUrl + URI_EXECUTE_TOPIC_REQUESTS,
+                  HttpMethod.POST,
+                  request,
+                  new ParameterizedTypeReference<>() {});
+      return Objects.requireNonNull(response.getBody());
+    } catch (Exception e) {
+      log.error("Error from approveTopicRequests bulk", e);
+      throw new KlawException("Could not approve topic requests. Please contact Administrator.");
+    }
+  }
+
+  private KwClusters getKafkaCluster(String envId, int tenantId) {
+    Env envSelected = manageDatabase.getHandleDbRequests().selectEnvDetails(envId, tenantId);
+    return manageDatabase
+        .getClusters(KafkaClustersType.KAFKA, tenantId)
+        .get(envSelected.getClusterId());
+  }
+
+  private static ClusterTopicRequest getClusterTopicRequest(
+      String topicName,
+      String topicRequestType,
+      int topicPartitions,
+      String replicationFactor,
+      KwClusters kwClusters,
+      Map<String, String> advancedTopicConfiguration) {
+    ClusterTopicRequest clusterTopicRequest =
+        ClusterTopicRequest.builder()
+            .env(kwClusters.getBootstrapServers())
+            .protocol(kwClusters.getProtocol())
+            .clusterName(kwClusters.getClusterName() + kwClusters.getClusterId())
+            .topicName(topicName)
+            .aclsNativeType(
+                (Objects.equals(kwClusters.getKafkaFlavor(), KafkaFlavors.CONFLUENT_CLOUD.value))
+                    ? AclsNativeType.CONFLUENT_CLOUD
+                    : AclsNativeType.NATIVE)
+            .build();
+
+    if (RequestOperationType.CREATE.value.equals(topicRequestType)
+        || RequestOperationType.PROMOTE.value.equals(topicRequestType)) {
+      return clusterTopicRequest.toBuilder()
+          .partitions(topicPartitions)
+          .replicationFactor(Short.parseShort(replicationFactor))
+          .advancedTopicConfiguration(advancedTopicConfiguration)
+          .requestOperationType(RequestOperationType.CREATE)
+          .build();
+    } else if (RequestOperationType.UPDATE.value.equals(topicRequestType)) {
+      return clusterTopicRequest.toBuilder()
+          .partitions(topicPartitions)
+          .replicationFactor(Short.parseShort(replicationFactor))
+          .requestOperationType(RequestOperationType.UPDATE)
+          .build();
+    }
+    return clusterTopicRequest.toBuilder()
+        .requestOperationType(RequestOperationType.DELETE)
+        .build();
+  }
+
   public ResponseEntity<ApiResponse> approveAclRequests(AclRequests aclReq, int tenantId)
       throws KlawException {
     log.info("approveAclRequests {}", aclReq);
@@ -789,10 +1183,19 @@ public class ClusterApiService {
     }
   }
 
-  public Map<String, String> retrieveMetrics(String jmxUrl, String objectName)
+  /**
+   * Reads the metrics of one broker of the cluster. Only the jmx urls configured for the cluster
+   * are read, cluster api connects to any url it is given.
+   */
+  public Map<String, String> retrieveMetrics(
+      KwClusters kwClusters, String jmxUrl, String objectName, int tenantId)
       throws KlawException {
     log.info("retrieveMetrics {} {}", jmxUrl, objectName);
-    getClusterApiProperties(101);
+    if (!getJmxServiceUrls(kwClusters).contains(jmxUrl)) {
+      log.error("Jmx url {} is not configured for cluster {}", jmxUrl, kwClusters.getClusterId());
+      throw new KlawException("Jmx url is not configured for the cluster.");
+    }
+    getClusterApiProperties(tenantId);
     try {
       MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
       params.add("jmxUrl", jmxUrl);
@@ -817,9 +1220,63 @@ public class ClusterApiService {
     }
   }
 
-  // to connect to cluster api if https
+  /** Jmx service urls of the brokers of the cluster, host:port entries are rmi urls. */
+  static List<String> getJmxServiceUrls(KwClusters kwClusters) {
+    List<String> jmxUrls = new ArrayList<>();
+    if (kwClusters == null || kwClusters.getJmxUrls() == null) {
+      return jmxUrls;
+    }
+    for (String jmxUrl : kwClusters.getJmxUrls().split(",")) {
+      if (StringUtils.isNotBlank(jmxUrl)) {
+        jmxUrl = jmxUrl.trim();
+        jmxUrls.add(
+            jmxUrl.startsWith(JMX_SERVICE_URL_PREFIX)
+                ? jmxUrl
+                : JMX_SERVICE_URL_PREFIX + "rmi:///jndi/rmi://" + jmxUrl + "/jmxrmi");
+      }
+    }
+    return jmxUrls;
+  }
+
+  /**
+   * Reads the metrics of all brokers of a cluster in one call to cluster api.
+   *
+   * @return jmx url -> object name -> attribute -> value, brokers which could not be read are
+   *     missing
+   */
+  public Map<String, Map<String, Map<String, String>>> retrieveClusterMetrics(
+      List<String> jmxUrls, List<String> objectNames, int tenantId) throws KlawException {
+    log.debug("retrieveClusterMetrics {} {}", jmxUrls, objectNames);
+    getClusterApiProperties(tenantId);
+    try {
+      ClusterMetricsRequest clusterMetricsRequest =
+          ClusterMetricsRequest.builder().jmxUrls(jmxUrls).objectNames(objectNames).build();
+
+      HttpHeaders headers = createHeaders(clusterApiUser);
+      headers.setContentType(MediaType.APPLICATION_JSON);
+      HttpEntity<ClusterMetricsRequest> entity = new HttpEntity<>(clusterMetricsRequest, headers);
+
+      ResponseEntity<Map<String, Map<String, Map<String, String>>>> s =
+          getRestTemplate()
+              .exchange(
+                  clusterConnUrl + URI_GET_CLUSTER_METRICS,
+                  HttpMethod.POST,
+                  entity,
+                  new ParameterizedTypeReference<>() {});
+
+      return Objects.requireNonNull(s.getBody());
+    } catch (Exception e) {
+      log.error("Error from retrieveClusterMetrics {} ", jmxUrls, e);
+      throw new KlawException("Could not get metrics.");
+    }
+  }
+
+  // pooled keep-alive connections to cluster api, over https if a key store is configured
   @PostConstruct
   private void setKwSSLContext() {
+    RegistryBuilder<ConnectionSocketFactory> registryBuilder =
+        RegistryBuilder.<ConnectionSocketFactory>create()
+            .register("http", PlainConnectionSocketFactory.getSocketFactory());
     if (keyStore != null && !keyStore.equals("null")) {
       TrustStrategy acceptingTrustStrategy = (X509Certificate[] chain, String authType) -> true;
       SSLContextBuilder builder = new SSLContextBuilder();
@@ -829,17 +1286,7 @@ public class ClusterApiService {
             .loadTrustMaterial(acceptingTrustStrategy);
         SSLConnectionSocketFactory sslsf =
             new SSLConnectionSocketFactory(builder.build(), NoopHostnameVerifier.INSTANCE);
-        Registry<ConnectionSocketFactory> registry =
-            RegistryBuilder.<ConnectionSocketFactory>create()
-                .register("http", new PlainConnectionSocketFactory())
-                .register("https", sslsf)
-                .build();
-        HttpClientConnectionManager poolingConnManager =
-            new PoolingHttpClientConnectionManager(registry);
-        CloseableHttpClient httpClient =
-            HttpClients.custom().setConnectionManager(poolingConnManager).build();
-        requestFactory = new HttpComponentsClientHttpRequestFactory();
-        requestFactory.setHttpClient(httpClient);
+        registryBuilder.register("https", sslsf);
       } catch (NoSuchAlgorithmException
           | KeyStoreException
           | CertificateException
@@ -849,7 +1296,36 @@ public class ClusterApiService {
         log.error("Exception: ", e);
         throw new RuntimeException(e);
       }
+    } else {
+      registryBuilder.register("https", SSLConnectionSocketFactory.getSocketFactory());
+    }
+
+    PoolingHttpClientConnectionManager poolingConnManager =
+        new PoolingHttpClientConnectionManager(registryBuilder.build());
+    poolingConnManager.setMaxTotal(maxConnections);
+    poolingConnManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+    poolingConnManager.setDefaultConnectionConfig(
+        ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+            .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+            .build());
+    if (meterRegistry != null) {
+      new PoolingHttpClientConnectionManagerMetricsBinder(poolingConnManager, "clusterapi")
+          .bindTo(meterRegistry);
     }
+
+    CloseableHttpClient httpClient =
+        HttpClients.custom()
+            .setConnectionManager(poolingConnManager)
+            .setDefaultRequestConfig(
+                RequestConfig.custom()
+                    .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                    .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                    .build())
+            .evictIdleConnections(TimeValue.ofSeconds(30))
+            .build();
+    requestFactory = new HttpComponentsClientHttpRequestFactory();
+    requestFactory.setHttpClient(httpClient);
   }
 
   protected KeyStore getStore(String secret, String storeLoc)
@@ -879,20 +1355,34 @@ public class ClusterApiService {
       throw new KlawException(errorTxt);
     }
 
-    Key hmacKey =
-        new SecretKeySpec(
-            Base64.decodeBase64(clusterApiAccessBase64Secret),
-            SignatureAlgorithm.HS256.getJcaName());
     Instant now = Instant.now();
+    ServiceToken serviceToken = this.serviceToken;
+    if (serviceToken != null
+        && serviceToken.username().equals(username)
+        && now.isBefore(serviceToken.refreshAt())) {
+      return serviceToken.token();
+    }
 
-    return Jwts.builder()
-        .claim("name", username)
-        .setSubject(username)
-        .setId(UUID.randomUUID().toString())
-        .setIssuedAt(Date.from(now))
-        .setExpiration(Date.from(now.plus(3L, ChronoUnit.MINUTES))) // expiry in 3 minutes
-        .signWith(hmacKey)
-        .compact();
+    if (hmacKey == null) {
+      hmacKey =
+          new SecretKeySpec(
+              Base64.decodeBase64(clusterApiAccessBase64Secret),
+              SignatureAlgorithm.HS256.getJcaName());
+    }
+
+    Instant expiry = now.plus(TOKEN_VALIDITY); // expiry in 3 minutes
+    String token =
+        Jwts.builder()
+            .claim("name", username)
+            .setSubject(username)
+            .setId(UUID.randomUUID().toString())
+            .setIssuedAt(Date.from(now))
+            .setExpiration(Date.from(expiry))
+            .signWith(hmacKey)
+            .compact();
+    // reused until shortly before expiry, so it is still valid when cluster api verifies it
+    this.serviceToken = new ServiceToken(username, token, expiry.minus(TOKEN_REFRESH_MARGIN));
+    return token;
   }
 
   private HttpEntity<String> getHttpEntity() throws KlawException {
@@ -902,4 +1392,6 @@ public class ClusterApiService {
     headers.add("Accept", MediaType.APPLICATION_JSON_VALUE);
     return new HttpEntity<>(headers);
   }
+
+  private record ServiceToken(String username, String token, Instant refreshAt) {}
 }
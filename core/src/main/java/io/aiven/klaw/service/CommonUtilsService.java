@@ -1,5 +1,8 @@
 package io.aiven.klaw.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.aiven.klaw.auth.KwUserDetailsService;
 import io.aiven.klaw.config.ManageDatabase;
 import io.aiven.klaw.dao.Topic;
 import io.aiven.klaw.dao.UserInfo;
@@ -11,6 +14,7 @@ import io.aiven.klaw.model.charts.Title;
 import io.aiven.klaw.model.enums.EntityType;
 import io.aiven.klaw.model.enums.MetadataOperationType;
 import io.aiven.klaw.model.enums.PermissionType;
+import jakarta.annotation.PostConstruct;
 import java.io.*;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
@@ -19,6 +23,7 @@ import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.sql.Timestamp;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -30,7 +35,6 @@ import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.*;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.security.core.Authentication;
@@ -40,6 +44,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @Service
@@ -66,6 +72,17 @@ public class CommonUtilsService {
 
   @Autowired ManageDatabase manageDatabase;
 
+  @Autowired(required = false)
+  private KwUserDetailsService kwUserDetailsService;
+
+  private static final String USER_CONTEXT_ATTRIBUTE = "klaw.usercontext.";
+
+  @Value("${klaw.users.context.cache.ttl.ms:600000}")
+  private long userContextCacheTtlMs = 600000;
+
+  // username -> user context, shared by the requests of the user
+  private Cache<String, UserContext> userContexts;
+
   private static HttpComponentsClientHttpRequestFactory requestFactory =
       ClusterApiService.requestFactory;
 
@@ -75,6 +92,15 @@ public class CommonUtilsService {
   @Value("${server.servlet.context-path:}")
   private String kwContextPath;
 
+  @PostConstruct
+  public void configureUserContextCache() {
+    userContexts =
+        Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(Duration.ofMillis(userContextCacheTtlMs))
+            .build();
+  }
+
   private RestTemplate getRestTemplate() {
     if (uiApiServers.toLowerCase().startsWith("https")) return new RestTemplate(requestFactory);
     else return new RestTemplate();
@@ -89,9 +115,9 @@ public class CommonUtilsService {
       if (principal instanceof DefaultOAuth2User) {
         DefaultOAuth2User defaultOAuth2User = (DefaultOAuth2User) principal;
         String userName = extractUserNameFromOAuthUser(defaultOAuth2User);
-        return manageDatabase.getHandleDbRequests().getUsersInfo(userName).getRole();
+        return getUserContext(userName).role();
       } else if (principal instanceof String) {
-        return manageDatabase.getHandleDbRequests().getUsersInfo((String) principal).getRole();
+        return getUserContext((String) principal).role();
       } else if (principal instanceof UserDetails) {
         Object[] authorities = ((UserDetails) principal).getAuthorities().toArray();
         if (authorities.length > 0) {
@@ -104,9 +130,9 @@ public class CommonUtilsService {
         return "";
       }
     } else {
-      UserInfo userInfo = manageDatabase.getHandleDbRequests().getUsersInfo(getUserName(principal));
-      if (userInfo != null) {
-        return userInfo.getRole();
+      UserContext userContext = getUserContext(getUserName(principal));
+      if (userContext != null) {
+        return userContext.role();
       } else {
         return null;
       }
@@ -136,9 +162,16 @@ public class CommonUtilsService {
 
   public boolean isNotAuthorizedUser(Object principal, PermissionType permissionType) {
     try {
+      UserContext userContext = getUserContext(getUserName(principal));
+      // with AD authorization the role is the authority granted to the principal
+      String role =
+          enableUserAuthorizationFromAD && principal instanceof UserDetails
+              ? getAuthority(principal)
+              : userContext.role();
+      // permissions are read live, so that revoked permissions apply to the next check
       return !manageDatabase
-          .getRolesPermissionsPerTenant(getTenantId(getUserName(principal)))
-          .get(getAuthority(principal))
+          .getRolesPermissionsPerTenant(userContext.tenantId())
+          .get(role)
           .contains(permissionType.name());
     } catch (Exception e) {
       log.debug(
@@ -341,11 +374,23 @@ public class CommonUtilsService {
     } else if (entityType == EntityType.PROPERTIES) {
       manageDatabase.loadKwPropsPerOneTenant(null, kwMetadataUpdates.getTenantId());
     }
+
+    if (entityType == EntityType.USERS
+        || entityType == EntityType.ROLES_PERMISSIONS
+        || (entityType == EntityType.TENANT && operationType == MetadataOperationType.DELETE)) {
+      invalidateUserContexts(kwMetadataUpdates.getTenantId());
+    }
+    // deleted users and changed passwords must not log in with cached credentials
+    if (kwUserDetailsService != null
+        && (entityType == EntityType.USERS
+            || (entityType == EntityType.TENANT
+                && operationType == MetadataOperationType.DELETE))) {
+      kwUserDetailsService.evictAllUsers();
+    }
   }
 
-  @Cacheable(cacheNames = "tenantsusernames", key = "#userId")
   public int getTenantId(String userId) {
-    return manageDatabase.getHandleDbRequests().getUsersInfo(userId).getTenantId();
+    return getUserContext(userId).tenantId();
   }
 
   public String getLoginUrl() {
@@ -435,9 +480,49 @@ public class CommonUtilsService {
   }
 
   public Integer getTeamId(String userName) {
-    return manageDatabase.getHandleDbRequests().getUsersInfo(userName).getTeamId();
+    return getUserContext(userName).teamId();
+  }
+
+  /**
+   * The user with its tenant, team and role, resolved once per http request. Outside of the
+   * request the users are kept in a cache, which is invalidated when users of their tenant are
+   * updated. The permissions of the role are not part of it, they are read live.
+   *
+   * @return null if the user does not exist
+   */
+  UserContext getUserContext(String userName) {
+    RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+    String attributeName = USER_CONTEXT_ATTRIBUTE + userName;
+    if (requestAttributes != null) {
+      Object userContext =
+          requestAttributes.getAttribute(attributeName, RequestAttributes.SCOPE_REQUEST);
+      if (userContext != null) {
+        return (UserContext) userContext;
+      }
+    }
+
+    UserContext userContext = userContexts.get(userName, this::loadUserContext);
+    if (userContext != null && requestAttributes != null) {
+      requestAttributes.setAttribute(attributeName, userContext, RequestAttributes.SCOPE_REQUEST);
+    }
+    return userContext;
   }
 
+  private UserContext loadUserContext(String userName) {
+    UserInfo userInfo = manageDatabase.getHandleDbRequests().getUsersInfo(userName);
+    if (userInfo == null) {
+      return null;
+    }
+    return new UserContext(
+        userName, userInfo.getTenantId(), userInfo.getTeamId(), userInfo.getRole());
+  }
+
+  private void invalidateUserContexts(int tenantId) {
+    userContexts.asMap().values().removeIf(userContext -> userContext.tenantId() == tenantId);
+  }
+
+  record UserContext(String userName, int tenantId, Integer teamId, String role) {}
+
   public boolean verifyIfTeamExists(int tenantId, String teamName) {
     return manageDatabase.getTeamIdFromTeamName(tenantId, teamName) != null;
   }
@@ -0,0 +1,100 @@
+package io.aiven.klaw.service;
+
+import io.aiven.klaw.dao.Env;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs the same query against several environments at the same time, so that a view over all
+ * environments waits for the slowest environment instead of the sum of all of them. Environments
+ * which fail or do not answer within klaw.envs.fanout.timeout.ms are left out of the results.
+ */
+@Service
+@Slf4j
+public class EnvFanOutService {
+
+  @Value("${klaw.envs.fanout.parallelism:16}")
+  private int fanOutParallelism = 16;
+
+  @Value("${klaw.envs.fanout.queue.size:256}")
+  private int fanOutQueueSize = 256;
+
+  @Value("${klaw.envs.fanout.timeout.ms:10000}")
+  private long fanOutTimeoutMs = 10000;
+
+  private ThreadPoolExecutor fanOutExecutor;
+
+  @FunctionalInterface
+  public interface EnvQuery<T> {
+    T query(Env env) throws Exception;
+  }
+
+  @PostConstruct
+  public void init() {
+    int parallelism = Math.max(1, fanOutParallelism);
+    fanOutExecutor =
+        new ThreadPoolExecutor(
+            parallelism,
+            parallelism,
+            60,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(Math.max(1, fanOutQueueSize)),
+            new CustomizableThreadFactory("klaw-envs-fanout-"),
+            // when the pool is saturated the request thread queries the env itself
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    fanOutExecutor.allowCoreThreadTimeOut(true);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (fanOutExecutor != null) {
+      fanOutExecutor.shutdownNow();
+    }
+  }
+
+  /**
+   * @return results by env id, in the order of the given envs. Envs for which the query failed,
+   *     timed out or returned null are not included.
+   */
+  public <T> Map<String, T> queryEnvs(List<Env> envs, EnvQuery<T> envQuery) {
+    Map<String, Future<T>> futures = new LinkedHashMap<>();
+    for (Env env : envs) {
+      futures.put(env.getId(), fanOutExecutor.submit(() -> envQuery.query(env)));
+    }
+
+    Map<String, T> results = new LinkedHashMap<>();
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(fanOutTimeoutMs);
+    for (Map.Entry<String, Future<T>> future : futures.entrySet()) {
+      try {
+        T result =
+            future.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        if (result != null) {
+          results.put(future.getKey(), result);
+        }
+      } catch (TimeoutException e) {
+        future.getValue().cancel(true);
+        log.warn("Query of env {} timed out after {} ms", future.getKey(), fanOutTimeoutMs);
+      } catch (ExecutionException e) {
+        log.error("Query of env {} failed ", future.getKey(), e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        futures.values().forEach(pendingFuture -> pendingFuture.cancel(true));
+        break;
+      }
+    }
+    return results;
+  }
+}
@@ -96,8 +96,6 @@ public class KafkaConnectSyncControllerService {
 
     StringBuilder erroredTopicsExist = new StringBuilder();
     boolean topicsDontExistInMainCluster = false;
-    int topicId =
-        manageDatabase.getHandleDbRequests().getNextConnectorRequestId("CONNECTOR_ID", tenantId);
 
     List<Integer> updatedSyncTopicsDelete = new ArrayList<>();
     updatedSyncTopics = handleConnectorDeletes(updatedSyncTopics, updatedSyncTopicsDelete);
@@ -148,8 +146,6 @@ public class KafkaConnectSyncControllerService {
         if (existingTopics == null) {
           t = new KwKafkaConnector();
 
-          topicId = topicId + 1;
-          t.setConnectorId(topicId);
           t.setConnectorName(topicUpdate.getConnectorName());
           t.setConnectorConfig(connectorConfig);
           t.setEnvironment(topicUpdate.getEnvSelected());
@@ -200,8 +196,6 @@ public class KafkaConnectSyncControllerService {
           }
           if (!envFound && !topicAdded) {
             t = new KwKafkaConnector();
-            topicId = topicId + 1;
-            t.setConnectorId(topicId);
             t.setConnectorName(topicUpdate.getConnectorName());
             t.setConnectorConfig(connectorConfig);
             t.setEnvironment(topicUpdate.getEnvSelected());
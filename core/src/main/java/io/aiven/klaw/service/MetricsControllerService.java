@@ -1,12 +1,20 @@
 package io.aiven.klaw.service;
 
 import io.aiven.klaw.config.ManageDatabase;
-import io.aiven.klaw.dao.KwMetrics;
+import io.aiven.klaw.dao.Env;
+import io.aiven.klaw.dao.KwClusters;
 import io.aiven.klaw.error.KlawException;
+import io.aiven.klaw.model.MetricsSample;
 import io.aiven.klaw.model.charts.ChartsJsOverview;
 import io.aiven.klaw.model.charts.JmxOverview;
+import io.aiven.klaw.model.enums.KafkaClustersType;
+import io.aiven.klaw.model.enums.MetricsResolution;
+import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -30,6 +38,23 @@ public class MetricsControllerService {
 
   @Autowired private CommonUtilsService commonUtilsService;
 
+  @Autowired private EnvFanOutService envFanOutService;
+
+  // semicolon separated, scraped from clusters which do not list their own metrics
+  @Value(
+      "${klaw.monitoring.metrics.objectnames:kafka.server:type=BrokerTopicMetrics,name=MessagesInPerSec}")
+  private String defaultJmxMetrics = "kafka.server:type=BrokerTopicMetrics,name=MessagesInPerSec";
+
+  // points of each resolution are kept for this many days
+  @Value("${klaw.monitoring.metrics.retention.minute.days:2}")
+  private int minuteRetentionDays = 2;
+
+  @Value("${klaw.monitoring.metrics.retention.hour.days:90}")
+  private int hourRetentionDays = 90;
+
+  @Value("${klaw.monitoring.metrics.retention.day.days:730}")
+  private int dayRetentionDays = 730;
+
   private String getUserName() {
     return mailService.getUserName(getPrincipal());
   }
@@ -44,72 +69,150 @@ public class MetricsControllerService {
     }
 
     log.info("Scheduled job : Collect metrics");
+    for (Integer tenantId : manageDatabase.getTenantMap().keySet()) {
+      collectMetrics(tenantId);
+    }
+  }
 
-    String metricsType = "kafka.server:type=BrokerTopicMetrics";
-    String metricsName = "name=MessagesInPerSec";
-    String metricsObjectName = metricsType + "," + metricsName;
-    String jmxUrl = "service:jmx:rmi:///jndi/rmi://localhost:9996/jmxrmi";
+  /**
+   * Scrapes every kafka cluster of the tenant with jmx urls configured, all clusters at the same
+   * time, and stores one sample per env and MBean. Counters of the brokers of a cluster are summed.
+   */
+  void collectMetrics(int tenantId) {
+    Map<Integer, KwClusters> clusters =
+        manageDatabase.getClusters(KafkaClustersType.KAFKA, tenantId);
+    // a cluster backing several envs is scraped once for all of them
+    Map<Integer, List<Env>> envsByCluster = new LinkedHashMap<>();
+    for (Env env : manageDatabase.getKafkaEnvList(tenantId)) {
+      KwClusters kwClusters = clusters.get(env.getClusterId());
+      if (kwClusters != null && StringUtils.isNotBlank(kwClusters.getJmxUrls())) {
+        envsByCluster.computeIfAbsent(env.getClusterId(), clusterId -> new ArrayList<>()).add(env);
+      }
+    }
+    if (envsByCluster.isEmpty()) {
+      return;
+    }
 
-    try {
-      Map<String, String> metrics = clusterApiService.retrieveMetrics(jmxUrl, metricsObjectName);
-      KwMetrics kwMetrics =
-          KwMetrics.builder()
-              .metricsTime(new Date().getTime() + "")
-              .metricsType(metricsType)
-              .metricsName(metricsName)
-              .metricsAttributes(metrics.get("Count"))
-              .env("1")
-              .build();
-      manageDatabase.getHandleDbRequests().insertMetrics(kwMetrics);
-    } catch (KlawException e) {
-      log.error("Error from  retrieveMetrics {}", jmxUrl, e);
+    List<Env> scrapedEnvs = envsByCluster.values().stream().map(envs -> envs.get(0)).toList();
+    Map<String, Map<String, BigDecimal>> metricsByEnv =
+        envFanOutService.queryEnvs(
+            scrapedEnvs, env -> scrapeCluster(clusters.get(env.getClusterId()), tenantId));
+
+    long sampleTime = System.currentTimeMillis();
+    List<MetricsSample> samples = new ArrayList<>();
+    for (Env scrapedEnv : scrapedEnvs) {
+      Map<String, BigDecimal> clusterMetrics = metricsByEnv.get(scrapedEnv.getId());
+      if (clusterMetrics == null) {
+        continue;
+      }
+      for (Env env : envsByCluster.get(scrapedEnv.getClusterId())) {
+        clusterMetrics.forEach(
+            (objectName, value) -> {
+              // kafka.server:type=BrokerTopicMetrics | name=MessagesInPerSec
+              int typeEnd = objectName.indexOf(',');
+              samples.add(
+                  new MetricsSample(
+                      env.getId(),
+                      typeEnd < 0 ? objectName : objectName.substring(0, typeEnd),
+                      typeEnd < 0 ? "" : objectName.substring(typeEnd + 1),
+                      value.doubleValue()));
+            });
+      }
+    }
+
+    if (!samples.isEmpty()) {
+      manageDatabase.getHandleDbRequests().insertMetricsSamples(tenantId, sampleTime, samples);
     }
   }
 
-  public JmxOverview getBrokerTopMetrics() {
-    int tenantId = commonUtilsService.getTenantId(getUserName());
-    JmxOverview jmxOverview = new JmxOverview();
-    //        String teamName = manageDatabase.getHandleDbRequests()
-    //                .getUsersInfo(getUserDetails().getUsername()).getTeam();
+  // default 1 hour
+  @Scheduled(
+      fixedRateString = "${klaw.monitoring.metrics.retention.interval.ms:3600000}",
+      initialDelay = 60000)
+  private void purgeMetricsScheduler() {
+    if ("false".equals(enableMetrics)) {
+      return;
+    }
+
+    purgeMetrics(System.currentTimeMillis());
+  }
+
+  void purgeMetrics(long now) {
+    Map<MetricsResolution, Integer> retentionDays =
+        Map.of(
+            MetricsResolution.MINUTE, minuteRetentionDays,
+            MetricsResolution.HOUR, hourRetentionDays,
+            MetricsResolution.DAY, dayRetentionDays);
+    retentionDays.forEach(
+        (resolution, days) -> {
+          int deleted =
+              manageDatabase
+                  .getHandleDbRequests()
+                  .deleteMetricsPoints(resolution, now - TimeUnit.DAYS.toMillis(days));
+          log.debug("Deleted {} metrics points of resolution {}", deleted, resolution);
+        });
+  }
 
-    jmxOverview.setBrokerTopMetricsOverview(getBrokerTopMetricsOverview());
+  // object name -> Count (or Value of gauges) summed over the brokers
+  private Map<String, BigDecimal> scrapeCluster(KwClusters kwClusters, int tenantId)
+      throws KlawException {
+    List<String> jmxUrls = ClusterApiService.getJmxServiceUrls(kwClusters);
+    String jmxMetrics =
+        StringUtils.isNotBlank(kwClusters.getJmxMetrics())
+            ? kwClusters.getJmxMetrics()
+            : defaultJmxMetrics;
+    List<String> objectNames =
+        Arrays.stream(jmxMetrics.split(";")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+
+    Map<String, BigDecimal> clusterMetrics = new HashMap<>();
+    clusterApiService
+        .retrieveClusterMetrics(jmxUrls, objectNames, tenantId)
+        .values()
+        .forEach(
+            brokerMetrics ->
+                brokerMetrics.forEach(
+                    (objectName, attributes) -> {
+                      String value = attributes.getOrDefault("Count", attributes.get("Value"));
+                      if (value != null && NumberUtils.isCreatable(value)) {
+                        clusterMetrics.merge(objectName, new BigDecimal(value), BigDecimal::add);
+                      }
+                    }));
+    return clusterMetrics;
+  }
+
+  public JmxOverview getBrokerTopMetrics(String envId) {
+    JmxOverview jmxOverview = new JmxOverview();
+    jmxOverview.setBrokerTopMetricsOverview(getBrokerTopMetricsOverview(envId));
 
     return jmxOverview;
   }
 
-  private ChartsJsOverview getBrokerTopMetricsOverview() {
+  private ChartsJsOverview getBrokerTopMetricsOverview(String envId) {
     int numberOfDays = 30;
     List<Map<String, String>> metricsCountList;
     String title = "Messages Per Sec";
+    int tenantId = commonUtilsService.getTenantId(getUserName());
 
-    //        if(teamName != null) {
-    //            activityCountList = manageDatabase.getHandleDbRequests()
-    //                    .selectActivityLogByTeam(teamName, numberOfDays);
-    //            title = title + " (" + teamName + ")";
-    //        }
-    //        else {
-    // tenant filtering
-    //            List<String> allowedEnvIdList = getEnvsFromUserId(getUserName());
     try {
+      long now = System.currentTimeMillis();
       metricsCountList =
           manageDatabase
               .getHandleDbRequests()
-              .selectAllMetrics(
-                  "kafka.server:type=BrokerTopicMetrics", "name=MessagesInPerSec", "1");
+              .selectMetricsPoints(
+                  "kafka.server:type=BrokerTopicMetrics",
+                  "name=MessagesInPerSec",
+                  envId,
+                  tenantId,
+                  now - TimeUnit.DAYS.toMillis(numberOfDays),
+                  now,
+                  numberOfDays);
     } catch (Exception e) {
       log.error("No environments/clusters found.", e);
       metricsCountList = new ArrayList<>();
     }
-    //        }
 
     return commonUtilsService.getChartsJsOverview(
-        metricsCountList,
-        title,
-        "messagescount",
-        "datetime",
-        "DateTime",
-        "Messages",
-        commonUtilsService.getTenantId(getUserName()));
+        metricsCountList, title, "max", "datetime", "DateTime", "Messages", tenantId);
   }
 
   private Object getPrincipal() {
@@ -53,22 +53,29 @@ public class SchemaOverviewService extends BaseOverviewService {
       Map<String, Object> hashMapSchemaObj;
       String schemaOfObj;
 
+      // all schema registries are queried at the same time
+      Map<String, SortedMap<Integer, Map<String, Object>>> schemaObjectsByEnv =
+          envFanOutService.queryEnvs(
+              schemaEnvs,
+              schemaEnv -> {
+                KwClusters kwClusters =
+                    manageDatabase
+                        .getClusters(KafkaClustersType.SCHEMA_REGISTRY, tenantId)
+                        .get(schemaEnv.getClusterId());
+                return clusterApiService.getAvroSchema(
+                    kwClusters.getBootstrapServers(),
+                    kwClusters.getProtocol(),
+                    kwClusters.getClusterName() + kwClusters.getClusterId(),
+                    topicNameSearch,
+                    tenantId);
+              });
+
       for (Env schemaEnv : schemaEnvs) {
         try {
           log.debug("UpdateAvroSchema - Process env {}", schemaEnv);
           Map<String, String> schemaMap = new HashMap<>();
-          KwClusters kwClusters =
-              manageDatabase
-                  .getClusters(KafkaClustersType.SCHEMA_REGISTRY, tenantId)
-                  .get(schemaEnv.getClusterId());
-
           SortedMap<Integer, Map<String, Object>> schemaObjects =
-              clusterApiService.getAvroSchema(
-                  kwClusters.getBootstrapServers(),
-                  kwClusters.getProtocol(),
-                  kwClusters.getClusterName() + kwClusters.getClusterId(),
-                  topicNameSearch,
-                  tenantId);
+              schemaObjectsByEnv.get(schemaEnv.getId());
           // If the schemaObject is null ie does not exist do not try to manipulate it.
           if (schemaObjects != null && !schemaObjects.isEmpty()) {
 
@@ -30,6 +30,7 @@ import io.aiven.klaw.model.enums.KafkaClustersType;
 import io.aiven.klaw.model.enums.PermissionType;
 import io.aiven.klaw.model.enums.RequestOperationType;
 import io.aiven.klaw.model.enums.RequestStatus;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -37,6 +38,7 @@ import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -51,6 +53,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Service
 @Slf4j
@@ -58,6 +61,7 @@ public class TopicControllerService {
 
   public static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
   public static final TypeReference<List<TopicHistory>> VALUE_TYPE_REF = new TypeReference<>() {};
+  private static final int TOPICS_PER_PAGE = 21;
   @Autowired private final ClusterApiService clusterApiService;
 
   @Autowired ManageDatabase manageDatabase;
@@ -68,6 +72,8 @@ public class TopicControllerService {
 
   @Autowired private RolesPermissionsControllerService rolesPermissionsControllerService;
 
+  @Autowired private TopicSyncControllerService topicSyncControllerService;
+
   private int topicCounter = 0;
 
   TopicControllerService(ClusterApiService clusterApiService, MailUtils mailService) {
@@ -619,35 +625,110 @@ public class TopicControllerService {
     String updateTopicReqStatus;
 
     if (RequestOperationType.CLAIM.value.equals(topicRequest.getTopictype())) {
-      List<Topic> allTopics = getTopicFromName(topicRequest.getTopicname(), tenantId);
-      for (Topic allTopic : allTopics) {
-        allTopic.setTeamId(topicRequest.getTeamId()); // for claim reqs, team stored in description
-        allTopic.setExistingTopic(true);
+      updateTopicReqStatus = approveClaimTopicRequest(userName, tenantId, topicRequest, dbHandle);
+    } else {
+      updateTopicReqStatus =
+          invokeClusterApiForTopicRequest(
+              userName, tenantId, topicRequest, dbHandle, getTopicConfig(topicRequest));
+    }
+
+    return ApiResponse.builder().result(updateTopicReqStatus).build();
+  }
+
+  /*
+  - Approves several topic requests at once. Claim requests are approved individually, all other
+    requests are sent to cluster api in a single call, which batches them per cluster.
+  - The result of each request is returned in data, keyed by topic id
+   */
+  public ApiResponse approveTopicRequests(List<String> topicIds) throws KlawException {
+    log.info("approveTopicRequests {}", topicIds);
+    if (commonUtilsService.isNotAuthorizedUser(getPrincipal(), PermissionType.APPROVE_TOPICS)) {
+      return ApiResponse.builder().result(ApiResultStatus.NOT_AUTHORIZED.value).build();
+    }
+
+    String userName = getUserName();
+    int tenantId = commonUtilsService.getTenantId(userName);
+    HandleDbRequests dbHandle = manageDatabase.getHandleDbRequests();
+    Map<String, String> results = new LinkedHashMap<>();
+    Map<String, TopicRequest> clusterTopicRequests = new LinkedHashMap<>();
+
+    for (String topicId : topicIds) {
+      int topicRequestId;
+      try {
+        topicRequestId = Integer.parseInt(topicId);
+      } catch (NumberFormatException e) {
+        results.put(topicId, "Invalid request id.");
+        continue;
+      }
+      TopicRequest topicRequest = dbHandle.selectTopicRequestsForTopic(topicRequestId, tenantId);
+      if (topicRequest == null) {
+        results.put(topicId, "This request does not exist anymore.");
+        continue;
       }
 
-      updateTopicReqStatus = dbHandle.addToSynctopics(allTopics);
-      if (ApiResultStatus.SUCCESS.value.equals(updateTopicReqStatus)) {
-        updateTopicReqStatus = dbHandle.updateTopicRequestStatus(topicRequest, userName);
+      ApiResponse validationResponse = validateTopicRequest(topicRequest, userName);
+      if (null != validationResponse.getResult()) {
+        results.put(topicId, validationResponse.getResult());
+      } else if (RequestOperationType.CLAIM.value.equals(topicRequest.getTopictype())) {
+        results.put(topicId, approveClaimTopicRequest(userName, tenantId, topicRequest, dbHandle));
+      } else {
+        // keeps the position of the topic id in the results
+        results.put(topicId, null);
+        clusterTopicRequests.put(topicId, topicRequest);
       }
-    } else {
-      Map<String, String> topicConfig = null;
-      try {
-        if (null != topicRequest.getJsonParams()) {
-          topicConfig =
-              OBJECT_MAPPER
-                  .readValue(topicRequest.getJsonParams(), TopicConfigurationRequest.class)
-                  .getAdvancedTopicConfiguration();
+    }
+
+    if (!clusterTopicRequests.isEmpty()) {
+      List<TopicRequest> topicRequests = new ArrayList<>(clusterTopicRequests.values());
+      List<ApiResponse> responses =
+          clusterApiService.approveTopicRequests(
+              topicRequests, topicRequests.stream().map(this::getTopicConfig).toList(), tenantId);
+
+      int i = 0;
+      for (Map.Entry<String, TopicRequest> entry : clusterTopicRequests.entrySet()) {
+        String result = responses.get(i++).getResult();
+        if (ApiResultStatus.SUCCESS.value.equals(result)) {
+          result = onTopicRequestApproved(userName, tenantId, entry.getValue(), dbHandle);
         }
-      } catch (JsonProcessingException e) {
-        // ignore this error while executing the req. should have been raised earlier in the
-        // process.
-        log.error("Error in parsing topic config ", e);
+        results.put(entry.getKey(), result);
       }
-      updateTopicReqStatus =
-          invokeClusterApiForTopicRequest(userName, tenantId, topicRequest, dbHandle, topicConfig);
     }
 
-    return ApiResponse.builder().result(updateTopicReqStatus).build();
+    boolean allApproved = results.values().stream().allMatch(ApiResultStatus.SUCCESS.value::equals);
+    return ApiResponse.builder()
+        .result(allApproved ? ApiResultStatus.SUCCESS.value : ApiResultStatus.FAILURE.value)
+        .data(results)
+        .build();
+  }
+
+  private String approveClaimTopicRequest(
+      String userName, int tenantId, TopicRequest topicRequest, HandleDbRequests dbHandle) {
+    List<Topic> allTopics = getTopicFromName(topicRequest.getTopicname(), tenantId);
+    for (Topic allTopic : allTopics) {
+      allTopic.setTeamId(topicRequest.getTeamId()); // for claim reqs, team stored in description
+      allTopic.setExistingTopic(true);
+    }
+
+    String updateTopicReqStatus = dbHandle.addToSynctopics(allTopics);
+    if (ApiResultStatus.SUCCESS.value.equals(updateTopicReqStatus)) {
+      updateTopicReqStatus = dbHandle.updateTopicRequestStatus(topicRequest, userName);
+    }
+    return updateTopicReqStatus;
+  }
+
+  private Map<String, String> getTopicConfig(TopicRequest topicRequest) {
+    try {
+      if (null != topicRequest.getJsonParams()) {
+        return OBJECT_MAPPER
+            .readValue(topicRequest.getJsonParams(), TopicConfigurationRequest.class)
+            .getAdvancedTopicConfiguration();
+      }
+    } catch (JsonProcessingException e) {
+      // ignore this error while executing the req. should have been raised earlier in the
+      // process.
+      log.error("Error in parsing topic config ", e);
+    }
+    return null;
   }
 
   private String invokeClusterApiForTopicRequest(
@@ -671,20 +752,28 @@ public class TopicControllerService {
     updateTopicReqStatus = Objects.requireNonNull(response.getBody()).getResult();
 
     if (ApiResultStatus.SUCCESS.value.equals(response.getBody().getResult())) {
-      setTopicHistory(topicRequest, userName, tenantId);
-      updateTopicReqStatus = dbHandle.updateTopicRequest(topicRequest, userName);
-      mailService.sendMail(
-          topicRequest.getTopicname(),
-          null,
-          "",
-          topicRequest.getRequestor(),
-          dbHandle,
-          TOPIC_REQUEST_APPROVED,
-          commonUtilsService.getLoginUrl());
+      updateTopicReqStatus = onTopicRequestApproved(userName, tenantId, topicRequest, dbHandle);
     }
     return updateTopicReqStatus;
   }
 
+  private String onTopicRequestApproved(
+      String userName, int tenantId, TopicRequest topicRequest, HandleDbRequests dbHandle) {
+    setTopicHistory(topicRequest, userName, tenantId);
+    String updateTopicReqStatus = dbHandle.updateTopicRequest(topicRequest, userName);
+    // the topic changed on the cluster, sync views list it again
+    topicSyncControllerService.invalidateSyncTopics(tenantId, topicRequest.getEnvironment());
+    mailService.sendMail(
+        topicRequest.getTopicname(),
+        null,
+        "",
+        topicRequest.getRequestor(),
+        dbHandle,
+        TOPIC_REQUEST_APPROVED,
+        commonUtilsService.getLoginUrl());
+    return updateTopicReqStatus;
+  }
+
   private ApiResponse validateTopicRequest(TopicRequest topicRequest, String userName) {
     if (Objects.equals(topicRequest.getRequestor(), userName)) {
       return ApiResponse.builder()
@@ -899,13 +988,6 @@ public class TopicControllerService {
     }
   }
 
-  static class TopicNameSyncComparator implements Comparator<Map<String, String>> {
-    @Override
-    public int compare(Map<String, String> topic1, Map<String, String> topic2) {
-      return topic1.get("topicName").compareTo(topic2.get("topicName"));
-    }
-  }
-
   public List<List<TopicInfo>> getTopics(
       String env,
       String pageNo,
@@ -954,33 +1036,68 @@ public class TopicControllerService {
     }
 
     HandleDbRequests handleDbRequests = manageDatabase.getHandleDbRequests();
+    List<Env> listAllEnvs = manageDatabase.getKafkaEnvList(tenantId);
+    String orderOfEnvs = mailService.getEnvProperty(tenantId, "ORDER_OF_ENVS");
 
-    // To get Producer or Consumer topics, first get all topics based on acls and then filter
-    List<Topic> producerConsumerTopics = new ArrayList<>();
     if ((AclType.PRODUCER.value.equals(topicType) || AclType.CONSUMER.value.equals(topicType))
         && teamName != null) {
-      producerConsumerTopics =
-          handleDbRequests.selectAllTopicsByTopictypeAndTeamname(
-              topicType, manageDatabase.getTeamIdFromTeamName(tenantId, teamName), tenantId);
+      return getProducerConsumerTopicsPaginated(
+          pageNo,
+          currentPage,
+          topicNameSearch,
+          teamName,
+          topicType,
+          tenantId,
+          listAllEnvs,
+          orderOfEnvs);
+    }
 
-      // tenant filtering, not really necessary though, as based on team is searched.
-      producerConsumerTopics =
-          commonUtilsService.getFilteredTopicsForTenant(producerConsumerTopics);
+    // env and team filters, search, grouping of the envs of a topic and paging are done by the
+    // database, only the topics of the requested page are loaded
+    Set<String> envs = commonUtilsService.getEnvsFromUserId(getUserName());
+    if (env != null && !"ALL".equals(env)) {
+      envs = envs.contains(env) ? Set.of(env) : Set.of();
+    }
+    Integer teamId = manageDatabase.getTeamIdFromTeamName(tenantId, teamName);
 
-      // select all topics and then filter
-      env = "ALL";
-      teamName = null;
+    int totalRecs =
+        (int) handleDbRequests.countSyncTopicNames(envs, teamId, topicNameSearch, tenantId);
+    if (totalRecs == 0) {
+      return null;
     }
+    int totalPages = totalRecs / TOPICS_PER_PAGE + (totalRecs % TOPICS_PER_PAGE > 0 ? 1 : 0);
+    pageNo = commonUtilsService.deriveCurrentPage(pageNo, currentPage, totalPages);
 
-    // Get Sync topics
-    List<Topic> topicsFromSOT =
-        handleDbRequests.getSyncTopics(
-            env, manageDatabase.getTeamIdFromTeamName(tenantId, teamName), tenantId);
-    topicsFromSOT = commonUtilsService.getFilteredTopicsForTenant(topicsFromSOT);
+    List<Topic> topicsPage =
+        handleDbRequests.getSyncTopicsPage(
+            envs, teamId, topicNameSearch, tenantId, Integer.parseInt(pageNo), TOPICS_PER_PAGE);
+    return getTopicInfoPage(
+        topicsPage, totalPages, pageNo, currentPage, listAllEnvs, orderOfEnvs, tenantId);
+  }
 
-    // tenant filtering
-    List<Env> listAllEnvs = manageDatabase.getKafkaEnvList(tenantId);
-    String orderOfEnvs = mailService.getEnvProperty(tenantId, "ORDER_OF_ENVS");
+  // topics the team produces to or consumes from, matched with the acls of the team
+  private List<TopicInfo> getProducerConsumerTopicsPaginated(
+      String pageNo,
+      String currentPage,
+      String topicNameSearch,
+      String teamName,
+      String topicType,
+      int tenantId,
+      List<Env> listAllEnvs,
+      String orderOfEnvs) {
+    HandleDbRequests handleDbRequests = manageDatabase.getHandleDbRequests();
+
+    // To get Producer or Consumer topics, first get all topics based on acls and then filter
+    List<Topic> producerConsumerTopics =
+        handleDbRequests.selectAllTopicsByTopictypeAndTeamname(
+            topicType, manageDatabase.getTeamIdFromTeamName(tenantId, teamName), tenantId);
+
+    // tenant filtering, not really necessary though, as based on team is searched.
+    producerConsumerTopics = commonUtilsService.getFilteredTopicsForTenant(producerConsumerTopics);
+
+    // select all topics and then filter
+    List<Topic> topicsFromSOT = handleDbRequests.getSyncTopics("ALL", null, tenantId);
+    topicsFromSOT = commonUtilsService.getFilteredTopicsForTenant(topicsFromSOT);
 
     topicsFromSOT = commonUtilsService.groupTopicsByEnv(topicsFromSOT);
     List<Topic> filterProducerConsumerList = new ArrayList<>();
@@ -1121,52 +1238,63 @@ public class TopicControllerService {
       String orderOfEnvs,
       int tenantId) {
     int totalRecs = topicsFromSOT.size();
-    int recsPerPage = 21;
+    if (totalRecs == 0) {
+      return null;
+    }
 
-    int totalPages = totalRecs / recsPerPage + (totalRecs % recsPerPage > 0 ? 1 : 0);
+    int totalPages = totalRecs / TOPICS_PER_PAGE + (totalRecs % TOPICS_PER_PAGE > 0 ? 1 : 0);
     pageNo = commonUtilsService.deriveCurrentPage(pageNo, currentPage, totalPages);
     int requestPageNo = Integer.parseInt(pageNo);
 
-    List<TopicInfo> topicsListMap = null;
-    if (totalRecs > 0) {
-      topicsListMap = new ArrayList<>();
-    }
+    int startVar = Math.max(0, (requestPageNo - 1) * TOPICS_PER_PAGE);
+    int lastVar = Math.max(startVar, Math.min(totalRecs, requestPageNo * TOPICS_PER_PAGE));
+
+    return getTopicInfoPage(
+        topicsFromSOT.subList(Math.min(startVar, lastVar), lastVar),
+        totalPages,
+        pageNo,
+        currentPage,
+        listAllEnvs,
+        orderOfEnvs,
+        tenantId);
+  }
 
-    int startVar = (requestPageNo - 1) * recsPerPage;
-    int lastVar = (requestPageNo) * (recsPerPage);
+  private List<TopicInfo> getTopicInfoPage(
+      List<Topic> topicsPage,
+      int totalPages,
+      String pageNo,
+      String currentPage,
+      List<Env> listAllEnvs,
+      String orderOfEnvs,
+      int tenantId) {
+    List<TopicInfo> topicsListMap = new ArrayList<>();
 
     List<String> numList = new ArrayList<>();
     commonUtilsService.getAllPagesList(pageNo, currentPage, totalPages, numList);
 
-    for (int i = 0; i < topicsFromSOT.size(); i++) {
-      int counterInc = counterIncrement();
-      if (i >= startVar && i < lastVar) {
-        TopicInfo mp = new TopicInfo();
-        mp.setSequence(counterInc + "");
-        Topic topicSOT = topicsFromSOT.get(i);
+    for (Topic topicSOT : topicsPage) {
+      TopicInfo mp = new TopicInfo();
+      mp.setSequence(counterIncrement() + "");
 
-        List<String> envList = topicSOT.getEnvironmentsList();
-        envList.sort(Comparator.comparingInt(orderOfEnvs::indexOf));
+      List<String> envList = topicSOT.getEnvironmentsList();
+      envList.sort(Comparator.comparingInt(orderOfEnvs::indexOf));
 
-        mp.setTopicid(topicSOT.getTopicid());
-        mp.setCluster(topicSOT.getEnvironment());
-        mp.setEnvironmentsList(getConvertedEnvs(listAllEnvs, envList));
-        mp.setTopicName(topicSOT.getTopicname());
-        mp.setTeamname(manageDatabase.getTeamNameFromTeamId(tenantId, topicSOT.getTeamId()));
+      mp.setTopicid(topicSOT.getTopicid());
+      mp.setCluster(topicSOT.getEnvironment());
+      mp.setEnvironmentsList(getConvertedEnvs(listAllEnvs, envList));
+      mp.setTopicName(topicSOT.getTopicname());
+      mp.setTeamname(manageDatabase.getTeamNameFromTeamId(tenantId, topicSOT.getTeamId()));
 
-        mp.setNoOfReplcias(topicSOT.getNoOfReplcias());
-        mp.setNoOfPartitions(topicSOT.getNoOfPartitions());
-        mp.setDescription(topicSOT.getDescription());
+      mp.setNoOfReplcias(topicSOT.getNoOfReplcias());
+      mp.setNoOfPartitions(topicSOT.getNoOfPartitions());
+      mp.setDescription(topicSOT.getDescription());
 
-        mp.setTotalNoPages(totalPages + "");
-        mp.setCurrentPage(pageNo);
+      mp.setTotalNoPages(totalPages + "");
+      mp.setCurrentPage(pageNo);
 
-        mp.setAllPageNos(numList);
+      mp.setAllPageNos(numList);
 
-        if (topicsListMap != null) {
-          topicsListMap.add(mp);
-        }
-      }
+      topicsListMap.add(mp);
     }
 
     return topicsListMap;
@@ -1235,6 +1363,45 @@ public class TopicControllerService {
     return topicEvents;
   }
 
+  // the cluster is looked up with the request's user, the events are streamed afterwards
+  public StreamingResponseBody getTopicEventsStream(
+      String envId,
+      String topicName,
+      String offsetId,
+      Integer partitionId,
+      Long startOffset,
+      Long endOffset,
+      Long maxBytes)
+      throws KlawException {
+    int tenantId = commonUtilsService.getTenantId(getUserName());
+    Env env = getEnvDetails(envId);
+    if (env == null) {
+      throw new KlawException("Environment not found.");
+    }
+    KwClusters kwClusters =
+        manageDatabase.getClusters(KafkaClustersType.KAFKA, tenantId).get(env.getClusterId());
+    return outputStream -> {
+      try {
+        clusterApiService.streamTopicEvents(
+            kwClusters.getBootstrapServers(),
+            kwClusters.getProtocol(),
+            kwClusters.getClusterName() + kwClusters.getClusterId(),
+            topicName,
+            offsetId,
+            partitionId,
+            startOffset,
+            endOffset,
+            maxBytes,
+            outputStream,
+            tenantId);
+      } catch (KlawException e) {
+        // the event stream has already started, the error is sent as the last event
+        outputStream.write(
+            ("event:error\ndata:" + e.getMessage() + "\n\n").getBytes(StandardCharsets.UTF_8));
+      }
+    };
+  }
+
   public List<TopicRequest> getExistingTopicRequests(
       TopicRequestModel topicRequestModel, int tenantId) {
     return manageDatabase
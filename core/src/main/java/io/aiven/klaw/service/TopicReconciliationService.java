@@ -0,0 +1,483 @@
+package io.aiven.klaw.service;
+
+import io.aiven.klaw.config.ManageDatabase;
+import io.aiven.klaw.dao.Env;
+import io.aiven.klaw.dao.KwClusters;
+import io.aiven.klaw.dao.KwTopicDrift;
+import io.aiven.klaw.dao.KwTopicRecon;
+import io.aiven.klaw.dao.KwTopicSnapshot;
+import io.aiven.klaw.dao.Topic;
+import io.aiven.klaw.error.KlawException;
+import io.aiven.klaw.helpers.HandleDbRequests;
+import io.aiven.klaw.model.TopicRequestModel;
+import io.aiven.klaw.model.cluster.ClusterTopic;
+import io.aiven.klaw.model.enums.KafkaClustersType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reconciles the topics of every kafka environment against klaw in the background. The topics of
+ * the previous run are stored per environment in kwtopicssnapshot, and the drift is only
+ * recomputed for topics which changed on the cluster or in klaw since then. Only those topics are
+ * written back. Kafka has no feed of topic changes, so every run still lists the topics of the
+ * cluster and of klaw. Reconciliation views read the latest drift instead of loading the cluster
+ * in the request.
+ *
+ * <p>Klaw instances sharing a database reconcile an environment on the instance holding its
+ * scheduler lock. Syncing topics increments the sync version of the tenant in kwtopicsrecon, which
+ * marks the drift stale on all instances. The drift mailed to the admins is kept in the database,
+ * so that drift is mailed once, also after a restart.
+ */
+@EnableScheduling
+@Service
+@Slf4j
+public class TopicReconciliationService {
+
+  static final String ADDED = "ADDED";
+
+  static final String DELETED = "DELETED";
+
+  @Autowired ManageDatabase manageDatabase;
+
+  @Autowired private ClusterApiService clusterApiService;
+
+  @Autowired private MailUtils mailService;
+
+  @Autowired private CommonUtilsService commonUtilsService;
+
+  @Value("${klaw.topics.recon.enabled:false}")
+  private boolean reconEnabled;
+
+  @Value("${klaw.topics.recon.interval.ms:3600000}")
+  private long reconIntervalMs = 3600000;
+
+  // comma separated env name=interval ms, overriding klaw.topics.recon.interval.ms
+  @Value("${klaw.topics.recon.env.interval.ms:}")
+  private String reconEnvIntervals = "";
+
+  @Value("${klaw.topics.recon.parallelism:4}")
+  private int reconParallelism = 4;
+
+  private final Map<String, Long> reconIntervalsByEnvName = new HashMap<>();
+
+  // owner of the scheduler locks taken by this instance
+  private final String instanceId = UUID.randomUUID().toString();
+
+  // tenantId-envId -> state of the last reconciliation
+  private final Map<String, TopicReconciliation> reconciliations = new ConcurrentHashMap<>();
+
+  private ExecutorService reconExecutor;
+
+  @PostConstruct
+  public void init() {
+    for (String envInterval : reconEnvIntervals.split(",")) {
+      String[] envIntervalParts = envInterval.split("=");
+      if (envIntervalParts.length == 2) {
+        reconIntervalsByEnvName.put(
+            envIntervalParts[0].trim(), Long.parseLong(envIntervalParts[1].trim()));
+      }
+    }
+    if (reconEnabled) {
+      reconExecutor =
+          Executors.newFixedThreadPool(
+              Math.max(1, reconParallelism), new CustomizableThreadFactory("klaw-topics-recon-"));
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (reconExecutor != null) {
+      reconExecutor.shutdownNow();
+    }
+  }
+
+  // checks every minute which environments are due, at most klaw.topics.recon.parallelism
+  // clusters are loaded at the same time
+  @Scheduled(
+      fixedRateString = "${klaw.topics.recon.scheduler.check.ms:60000}",
+      initialDelay = 60000)
+  public void scheduleReconciliation() {
+    if (!reconEnabled || reconExecutor == null) {
+      return;
+    }
+
+    long currentTime = System.currentTimeMillis();
+    for (Integer tenantId : manageDatabase.getTenantMap().keySet()) {
+      Map<String, KwTopicRecon> topicRecons = getTopicRecons(tenantId);
+      for (Env env : manageDatabase.getKafkaEnvListAllTenants(tenantId)) {
+        TopicReconciliation reconciliation =
+            reconciliations.computeIfAbsent(
+                getReconciliationKey(tenantId, env.getId()),
+                key -> new TopicReconciliation(tenantId, env.getId()));
+        long interval = reconIntervalsByEnvName.getOrDefault(env.getName(), reconIntervalMs);
+        KwTopicRecon topicRecon = topicRecons.get(env.getId());
+        if ((topicRecon == null
+                || topicRecon.isStale()
+                || currentTime - topicRecon.getLastRunTime() >= interval)
+            && reconciliation.running.compareAndSet(false, true)) {
+          try {
+            reconExecutor.execute(() -> runReconciliation(reconciliation, interval));
+          } catch (RejectedExecutionException e) {
+            reconciliation.running.set(false);
+            log.error("Reconciliation of env {} could not be scheduled", env.getId(), e);
+          }
+        }
+      }
+    }
+  }
+
+  private void runReconciliation(TopicReconciliation reconciliation, long interval) {
+    try {
+      // the lease is renewed by every run, another instance takes over once it expires
+      if (!manageDatabase
+          .getHandleDbRequests()
+          .acquireSchedulerLock(
+              getLockName(reconciliation.tenantId, reconciliation.envId), instanceId, interval)) {
+        log.debug(
+            "Reconciliation of tenant {} env {} runs on another instance",
+            reconciliation.tenantId,
+            reconciliation.envId);
+        return;
+      }
+      reconcileTopics(reconciliation.tenantId, reconciliation.envId);
+    } catch (Exception e) {
+      log.error(
+          "Reconciliation of topics failed, tenant {} env {}",
+          reconciliation.tenantId,
+          reconciliation.envId,
+          e);
+    } finally {
+      reconciliation.running.set(false);
+    }
+  }
+
+  /**
+   * Reconciles the topics of one environment, and mails the drift which was not reported yet.
+   *
+   * @return topics which drifted since the drift was last reported
+   */
+  public List<TopicRequestModel> reconcileTopics(int tenantId, String envId) throws Exception {
+    TopicReconciliation reconciliation =
+        reconciliations.computeIfAbsent(
+            getReconciliationKey(tenantId, envId), key -> new TopicReconciliation(tenantId, envId));
+    Env env =
+        manageDatabase.getKafkaEnvListAllTenants(tenantId).stream()
+            .filter(kafkaEnv -> Objects.equals(kafkaEnv.getId(), envId))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Unknown environment " + envId));
+    KwClusters kwClusters =
+        manageDatabase.getClusters(KafkaClustersType.KAFKA, tenantId).get(env.getClusterId());
+    HandleDbRequests handleDbRequests = manageDatabase.getHandleDbRequests();
+
+    KwTopicRecon topicRecon = getTopicRecons(tenantId).get(envId);
+    if (topicRecon == null) {
+      topicRecon = new KwTopicRecon(tenantId, envId, 0, -1, 0L);
+      handleDbRequests.addTopicRecon(topicRecon);
+    }
+    // the sync version is read before the topics of klaw, topics synced while the cluster is
+    // loaded are picked up by the next run
+    int syncVersion = topicRecon.getSyncVersion();
+    List<Topic> topicsFromSOT = handleDbRequests.getSyncTopics(envId, null, tenantId);
+    // the snapshot of the cluster topics is built while they are streamed
+    Map<String, KwTopicSnapshot> currentSnapshot = new HashMap<>();
+    List<String> failedTopics =
+        clusterApiService.getAllTopics(
+            kwClusters.getBootstrapServers(),
+            kwClusters.getProtocol(),
+            kwClusters.getClusterName() + kwClusters.getClusterId(),
+            kwClusters.getKafkaFlavor(),
+            tenantId,
+            clusterTopic -> reconciliation.addClusterTopic(currentSnapshot, clusterTopic));
+    if (!failedTopics.isEmpty()) {
+      // an incomplete snapshot would make the missing topics look deleted on the cluster
+      throw new KlawException(
+          "Could not load " + failedTopics.size() + " topics. Please contact Administrator.");
+    }
+
+    long lastRunTime = topicRecon.getLastRunTime();
+    reconciliation.apply(
+        currentSnapshot,
+        topicsFromSOT,
+        env.getName(),
+        syncVersion,
+        lastRunTime,
+        System.currentTimeMillis(),
+        manageDatabase);
+
+    List<TopicRequestModel> drift = reconciliation.driftList;
+    Set<String> reportedDrift =
+        handleDbRequests.getReportedTopicDrift(tenantId, envId).stream()
+            .map(kwTopicDrift -> kwTopicDrift.getDriftType() + "-" + kwTopicDrift.getTopicName())
+            .collect(Collectors.toSet());
+    List<TopicRequestModel> newDrift =
+        drift.stream()
+            .filter(
+                topicRequestModel ->
+                    !reportedDrift.contains(
+                        topicRequestModel.getRemarks() + "-" + topicRequestModel.getTopicname()))
+            .toList();
+
+    if (!newDrift.isEmpty()) {
+      sendReconMail(tenantId, newDrift);
+    }
+    // resolved drift is removed, so that it is mailed again if it comes back
+    if (!newDrift.isEmpty() || reportedDrift.size() != drift.size()) {
+      handleDbRequests.updateReportedTopicDrift(
+          tenantId,
+          envId,
+          drift.stream()
+              .map(
+                  topicRequestModel ->
+                      new KwTopicDrift(
+                          tenantId,
+                          envId,
+                          topicRequestModel.getTopicname(),
+                          topicRequestModel.getRemarks()))
+              .toList());
+    }
+    return newDrift;
+  }
+
+  private void sendReconMail(int tenantId, List<TopicRequestModel> newDrift) {
+    StringBuilder reconStr = new StringBuilder();
+    for (TopicRequestModel topicRequestModel : newDrift) {
+      reconStr
+          .append(topicRequestModel.getTopicname())
+          .append(topicRequestModel.getEnvironmentName())
+          .append(topicRequestModel.getRemarks())
+          .append("\n");
+    }
+    String tenantName = manageDatabase.getTenantMap().get(tenantId);
+    mailService.sendReconMailToAdmin(
+        "Reconciliation of Topics",
+        reconStr.toString(),
+        tenantName,
+        tenantId,
+        commonUtilsService.getLoginUrl());
+  }
+
+  /**
+   * Topics of the environment which are only on the cluster (ADDED) or only in klaw (DELETED), as
+   * of the last reconciliation. Empty if background reconciliation is disabled, has not run on this
+   * instance, another instance ran since or topics were synced since.
+   */
+  public Optional<List<TopicRequestModel>> getTopicDrift(int tenantId, String envId) {
+    if (!reconEnabled) {
+      return Optional.empty();
+    }
+    TopicReconciliation reconciliation = reconciliations.get(getReconciliationKey(tenantId, envId));
+    if (reconciliation == null || reconciliation.lastRunTime == 0) {
+      return Optional.empty();
+    }
+    KwTopicRecon topicRecon = getTopicRecons(tenantId).get(envId);
+    if (topicRecon == null
+        || topicRecon.isStale()
+        || topicRecon.getLastRunTime() != reconciliation.lastRunTime) {
+      return Optional.empty();
+    }
+    return Optional.of(reconciliation.driftList);
+  }
+
+  /**
+   * Topics of the tenant were synced, the drift is recomputed at the next check of the instance
+   * holding the scheduler lock. The lock itself is left to its owner.
+   */
+  public void invalidate(int tenantId) {
+    if (reconEnabled) {
+      manageDatabase.getHandleDbRequests().updateTopicsSynced(tenantId);
+    }
+  }
+
+  // env id -> reconciliation state of the tenant
+  private Map<String, KwTopicRecon> getTopicRecons(int tenantId) {
+    Map<String, KwTopicRecon> topicRecons = new HashMap<>();
+    for (KwTopicRecon topicRecon :
+        manageDatabase.getHandleDbRequests().getTopicRecons(tenantId)) {
+      topicRecons.put(topicRecon.getEnv(), topicRecon);
+    }
+    return topicRecons;
+  }
+
+  private static String getReconciliationKey(int tenantId, String envId) {
+    return tenantId + "-" + envId;
+  }
+
+  private static String getLockName(int tenantId, String envId) {
+    return "topics-recon-" + getReconciliationKey(tenantId, envId);
+  }
+
+  static final class TopicReconciliation {
+    private final int tenantId;
+
+    private final String envId;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    // run time of the snapshot held in memory, 0 until the first run of this instance
+    private volatile long lastRunTime;
+
+    // topics of the previous run by name, as stored in the database
+    private Map<String, KwTopicSnapshot> snapshot = Collections.emptyMap();
+
+    // drifted topics by name
+    private final Map<String, TopicRequestModel> addedTopics = new TreeMap<>();
+
+    private final Map<String, TopicRequestModel> deletedTopics = new TreeMap<>();
+
+    private volatile List<TopicRequestModel> driftList = Collections.emptyList();
+
+    TopicReconciliation(int tenantId, String envId) {
+      this.tenantId = tenantId;
+      this.envId = envId;
+    }
+
+    /**
+     * Updates the drift for the topics which changed since the previous run, and stores the
+     * changed topics. The previous run is read from the database unless this instance did it, the
+     * drift of the topics which drifted in it is then recomputed as well.
+     */
+    synchronized void apply(
+        Map<String, KwTopicSnapshot> currentSnapshot,
+        List<Topic> topicsFromSOT,
+        String envName,
+        int syncVersion,
+        long previousRunTime,
+        long runTime,
+        ManageDatabase manageDatabase) {
+      HandleDbRequests handleDbRequests = manageDatabase.getHandleDbRequests();
+      Set<String> changedTopics = new HashSet<>();
+      if (lastRunTime == 0 || lastRunTime != previousRunTime) {
+        snapshot = new HashMap<>();
+        for (KwTopicSnapshot topicSnapshot : handleDbRequests.getTopicSnapshot(tenantId, envId)) {
+          snapshot.put(topicSnapshot.getTopicName(), topicSnapshot);
+          if (topicSnapshot.isOnCluster() != topicSnapshot.isInKlaw()) {
+            changedTopics.add(topicSnapshot.getTopicName());
+          }
+        }
+        addedTopics.clear();
+        deletedTopics.clear();
+      }
+
+      Map<String, Topic> currentTopicsFromSOT = new HashMap<>();
+      for (Topic topic : topicsFromSOT) {
+        if (currentTopicsFromSOT.putIfAbsent(topic.getTopicname(), topic) == null) {
+          getTopicSnapshot(currentSnapshot, topic.getTopicname()).setTeamId(topic.getTeamId());
+        }
+      }
+
+      List<KwTopicSnapshot> changedSnapshot = new ArrayList<>();
+      for (KwTopicSnapshot topicSnapshot : currentSnapshot.values()) {
+        KwTopicSnapshot previous = snapshot.get(topicSnapshot.getTopicName());
+        if (!topicSnapshot.isSameTopic(previous)) {
+          topicSnapshot.setNewSnapshot(previous == null);
+          changedSnapshot.add(topicSnapshot);
+          changedTopics.add(topicSnapshot.getTopicName());
+        }
+      }
+      List<KwTopicSnapshot> removedSnapshot = new ArrayList<>();
+      for (KwTopicSnapshot previous : snapshot.values()) {
+        if (!currentSnapshot.containsKey(previous.getTopicName())) {
+          removedSnapshot.add(previous);
+          changedTopics.add(previous.getTopicName());
+        }
+      }
+
+      for (String topicName : changedTopics) {
+        KwTopicSnapshot topicSnapshot = currentSnapshot.get(topicName);
+        Topic topic = currentTopicsFromSOT.get(topicName);
+        addedTopics.remove(topicName);
+        deletedTopics.remove(topicName);
+
+        if (topicSnapshot == null) {
+          continue;
+        }
+        if (topicSnapshot.isOnCluster() && topic == null) {
+          addedTopics.put(topicName, getAddedTopic(topicSnapshot, envName));
+        } else if (!topicSnapshot.isOnCluster() && topic != null) {
+          String teamName = manageDatabase.getTeamNameFromTeamId(tenantId, topic.getTeamId());
+          // unknown team names are empty, topics of teams of other tenants
+          if (teamName != null && !teamName.isEmpty()) {
+            deletedTopics.put(topicName, getDeletedTopic(topic, teamName, envName));
+          }
+        }
+      }
+
+      handleDbRequests.updateTopicSnapshot(
+          tenantId, envId, changedSnapshot, removedSnapshot, syncVersion, runTime);
+      snapshot = currentSnapshot;
+      lastRunTime = runTime;
+      List<TopicRequestModel> drift = new ArrayList<>(addedTopics.values());
+      drift.addAll(deletedTopics.values());
+      driftList = Collections.unmodifiableList(drift);
+    }
+
+    void addClusterTopic(Map<String, KwTopicSnapshot> currentSnapshot, ClusterTopic clusterTopic) {
+      KwTopicSnapshot topicSnapshot =
+          getTopicSnapshot(currentSnapshot, clusterTopic.getTopicName());
+      topicSnapshot.setPartitions(clusterTopic.getPartitions());
+      topicSnapshot.setReplicationFactor(clusterTopic.getReplicationFactor());
+    }
+
+    private KwTopicSnapshot getTopicSnapshot(
+        Map<String, KwTopicSnapshot> currentSnapshot, String topicName) {
+      return currentSnapshot.computeIfAbsent(
+          topicName, name -> new KwTopicSnapshot(tenantId, envId, name));
+    }
+
+    private TopicRequestModel getAddedTopic(KwTopicSnapshot topicSnapshot, String envName) {
+      TopicRequestModel topicRequestModel = new TopicRequestModel();
+      topicRequestModel.setSequence(sequence.incrementAndGet() + "");
+      topicRequestModel.setTopicname(topicSnapshot.getTopicName());
+      topicRequestModel.setTopicpartitions(topicSnapshot.getPartitions());
+      topicRequestModel.setReplicationfactor(String.valueOf(topicSnapshot.getReplicationFactor()));
+      topicRequestModel.setTeamId(0);
+      topicRequestModel.setRemarks(ADDED);
+      topicRequestModel.setEnvironmentName(envName);
+      topicRequestModel.setTopicstatus("ON_CLUSTER");
+      return topicRequestModel;
+    }
+
+    private TopicRequestModel getDeletedTopic(Topic topic, String teamName, String envName) {
+      TopicRequestModel topicRequestModel = new TopicRequestModel();
+      topicRequestModel.setTopicname(topic.getTopicname());
+      topicRequestModel.setEnvironment(topic.getEnvironment());
+      topicRequestModel.setTopicpartitions(topic.getNoOfPartitions());
+      topicRequestModel.setReplicationfactor(topic.getNoOfReplcias());
+      topicRequestModel.setTeamId(topic.getTeamId());
+      topicRequestModel.setTeamname(teamName);
+      topicRequestModel.setPossibleTeams(List.of(teamName, "REMOVE FROM KLAW"));
+      topicRequestModel.setSequence("" + topic.getTopicid());
+      topicRequestModel.setRemarks(DELETED);
+      topicRequestModel.setEnvironmentName(envName);
+      topicRequestModel.setTopicstatus("ON_CLUSTER");
+      return topicRequestModel;
+    }
+  }
+}
@@ -2,6 +2,8 @@ package io.aiven.klaw.service;
 
 import static org.springframework.beans.BeanUtils.copyProperties;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.aiven.klaw.config.ManageDatabase;
 import io.aiven.klaw.dao.Env;
 import io.aiven.klaw.dao.KwClusters;
@@ -17,25 +19,34 @@ import io.aiven.klaw.model.SyncTopicUpdates;
 import io.aiven.klaw.model.SyncTopicsBulk;
 import io.aiven.klaw.model.TopicInfo;
 import io.aiven.klaw.model.TopicRequestModel;
+import io.aiven.klaw.model.cluster.ClusterTopic;
 import io.aiven.klaw.model.enums.AclType;
 import io.aiven.klaw.model.enums.ApiResultStatus;
 import io.aiven.klaw.model.enums.KafkaClustersType;
 import io.aiven.klaw.model.enums.PermissionType;
 import io.aiven.klaw.model.enums.RequestOperationType;
 import io.aiven.klaw.model.enums.RequestStatus;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -56,53 +67,46 @@ public class TopicSyncControllerService {
 
   @Autowired private RolesPermissionsControllerService rolesPermissionsControllerService;
 
+  @Autowired private TopicReconciliationService topicReconciliationService;
+
   private int topicCounter = 0;
 
-  // default at 7 am everyday
-  //    @Scheduled(cron = "${klaw.recontopics.fixedtime:0 7 * * ?}")
-  public void getReconTopicsScheduledAsync() {
-    CompletableFuture.runAsync(this::getReconTopicsScheduled);
-  }
+  @Value("${klaw.topics.sync.cache.ttl.ms:120000}")
+  private long syncCacheTtlMs = 120000;
 
-  public void getReconTopicsScheduled() {
-    Map<Integer, List<String>> envTenantMap = manageDatabase.getEnvsOfTenantsMap();
-    Map<Integer, String> tenantMap = manageDatabase.getTenantMap();
-    List<Integer> tenants = new ArrayList<>(envTenantMap.keySet());
-
-    for (Integer tenantId : tenants) {
-      List<String> envsStrList = envTenantMap.get(tenantId);
-      StringBuilder reconStr = new StringBuilder();
-      reconStr.append("Tenant : ").append(tenantMap.get(tenantId)).append("\n");
-
-      for (String envStr : envsStrList) {
-        reconStr = new StringBuilder();
-        try {
-          @SuppressWarnings("unchecked")
-          List<TopicRequestModel> results =
-              (List<TopicRequestModel>)
-                  getReconTopics(envStr, "-1", "", null, "false", false).get("resultSet");
-
-          for (TopicRequestModel topicRequestModel : results) {
-            reconStr
-                .append(topicRequestModel.getTopicname())
-                .append(topicRequestModel.getEnvironmentName())
-                .append(topicRequestModel.getRemarks())
-                .append("\n");
-          }
+  // tenantId-envId -> topics on the cluster, sorted by name
+  private Cache<String, List<ClusterTopic>> clusterTopicsCache;
 
-          if (!results.isEmpty()) {
-            mailService.sendReconMailToAdmin(
-                "Reconciliation of Topics",
-                reconStr.toString(),
-                tenantMap.get(tenantId),
-                tenantId,
-                commonUtilsService.getLoginUrl());
-          }
-        } catch (Exception e) {
-          log.error("Exception:", e);
-        }
-      }
-    }
+  // sync results before paging, so browsing pages does not recompute the diff
+  private Cache<SyncTopicsKey, List<TopicRequestModel>> syncTopicsCache;
+
+  private record SyncTopicsKey(
+      int tenantId,
+      String env,
+      String topicNameSearch,
+      boolean isReconciliation,
+      boolean isBulkOption) {}
+
+  @PostConstruct
+  public void configureSyncCaches() {
+    clusterTopicsCache =
+        Caffeine.newBuilder()
+            .maximumSize(50)
+            .expireAfterWrite(Duration.ofMillis(syncCacheTtlMs))
+            .build();
+    syncTopicsCache =
+        Caffeine.newBuilder()
+            .maximumSize(200)
+            .expireAfterWrite(Duration.ofMillis(syncCacheTtlMs))
+            .build();
+  }
+
+  /**
+   * Drops the cluster topics and sync results of the environment, e.g. after a topic request is
+   * approved on its cluster.
+   */
+  public void invalidateSyncTopics(int tenantId, String env) {
+    invalidateSyncTopicsCache(tenantId, env);
   }
 
   public Map<String, Object> getReconTopics(
@@ -113,33 +117,53 @@ public class TopicSyncControllerService {
       String showAllTopics,
       boolean isBulkOption)
       throws Exception {
+    return getReconTopics(
+        envId, pageNo, currentPage, topicNameSearch, showAllTopics, isBulkOption, false);
+  }
+
+  public Map<String, Object> getReconTopics(
+      String envId,
+      String pageNo,
+      String currentPage,
+      String topicNameSearch,
+      String showAllTopics,
+      boolean isBulkOption,
+      boolean refresh)
+      throws Exception {
     Map<String, Object> syncTopicsObjectMap = new HashMap<>();
+    int tenantId = commonUtilsService.getTenantId(getUserName());
+
+    // drift computed by the background reconciliation
+    Optional<List<TopicRequestModel>> topicDrift =
+        refresh ? Optional.empty() : topicReconciliationService.getTopicDrift(tenantId, envId);
+    if (topicDrift.isPresent()) {
+      if (commonUtilsService.isNotAuthorizedUser(getPrincipal(), PermissionType.SYNC_TOPICS)) {
+        return null;
+      }
+      List<TopicRequestModel> topicRequestModelList =
+          getTopicDrift(topicDrift.get(), topicNameSearch, isBulkOption);
+      syncTopicsObjectMap.put(
+          "resultSet",
+          getPagedTopicReqModels(pageNo, currentPage, topicRequestModelList, tenantId));
+      syncTopicsObjectMap.put("allTopicsCount", topicRequestModelList.size());
+      return syncTopicsObjectMap;
+    }
 
     @SuppressWarnings("unchecked")
     List<TopicRequestModel> topicRequestModelList =
         (List<TopicRequestModel>)
-            getSyncTopics(envId, pageNo, currentPage, topicNameSearch, showAllTopics, isBulkOption)
+            getSyncTopics(
+                    envId,
+                    pageNo,
+                    currentPage,
+                    topicNameSearch,
+                    showAllTopics,
+                    isBulkOption,
+                    refresh)
                 .get("resultSet");
 
-    topicRequestModelList =
-        topicRequestModelList.stream()
-            .filter(
-                topicRequestModel ->
-                    topicRequestModel != null
-                        && ("DELETED".equals(topicRequestModel.getRemarks())
-                            || topicRequestModel.getTeamname() == null
-                            || topicRequestModel.getTeamname().equals("")))
-            .collect(Collectors.toList());
-
     int allTopicsCount = topicRequestModelList.size();
 
-    topicRequestModelList.forEach(
-        topicReq -> {
-          topicReq.setEnvironmentName(getEnvDetails(envId).getName());
-          topicReq.setTopicstatus("ON_CLUSTER");
-        });
-    int tenantId = commonUtilsService.getTenantId(getUserName());
-
     if (!"-1".equals(pageNo)) { // scheduler call
       topicRequestModelList =
           getPagedTopicReqModels(pageNo, currentPage, topicRequestModelList, tenantId);
@@ -151,6 +175,28 @@ public class TopicSyncControllerService {
     return syncTopicsObjectMap;
   }
 
+  private List<TopicRequestModel> getTopicDrift(
+      List<TopicRequestModel> topicDrift, String topicNameSearch, boolean isBulkOption) {
+    String topicSearchFilter = topicNameSearch == null ? "" : topicNameSearch.trim();
+    List<String> teamList = tenantFilterTeams(new ArrayList<>());
+    List<TopicRequestModel> topicRequestModelList = new ArrayList<>();
+    for (TopicRequestModel topicRequestModel : topicDrift) {
+      boolean deleted = TopicReconciliationService.DELETED.equals(topicRequestModel.getRemarks());
+      if ((isBulkOption && deleted)
+          || !topicRequestModel.getTopicname().contains(topicSearchFilter)) {
+        continue;
+      }
+      if (!deleted) {
+        TopicRequestModel addedTopic = new TopicRequestModel();
+        copyProperties(topicRequestModel, addedTopic);
+        addedTopic.setPossibleTeams(teamList);
+        topicRequestModel = addedTopic;
+      }
+      topicRequestModelList.add(topicRequestModel);
+    }
+    return topicRequestModelList;
+  }
+
   public Map<String, Object> getSyncTopics(
       String env,
       String pageNo,
@@ -159,6 +205,24 @@ public class TopicSyncControllerService {
       String showAllTopics,
       boolean isBulkOption)
       throws Exception {
+    return getSyncTopics(
+        env, pageNo, currentPage, topicNameSearch, showAllTopics, isBulkOption, false);
+  }
+
+  /**
+   * The topics of the cluster and the diff against klaw are cached per tenant and environment for
+   * klaw.topics.sync.cache.ttl.ms, so paging through the results does not reload the cluster.
+   * refresh reloads both.
+   */
+  public Map<String, Object> getSyncTopics(
+      String env,
+      String pageNo,
+      String currentPage,
+      String topicNameSearch,
+      String showAllTopics,
+      boolean isBulkOption,
+      boolean refresh)
+      throws Exception {
     boolean isReconciliation = !Boolean.parseBoolean(showAllTopics);
     Map<String, Object> syncTopicsObjectMap = new HashMap<>();
     int tenantId = commonUtilsService.getTenantId(getUserName());
@@ -170,71 +234,126 @@ public class TopicSyncControllerService {
       }
     }
 
-    List<Map<String, String>> topicFilteredList = getTopicsFromKafkaCluster(env, topicNameSearch);
-    List<Map<String, String>> topicsList;
-
-    topicsList =
-        topicFilteredList.stream()
-            .sorted(new TopicControllerService.TopicNameSyncComparator())
-            .collect(Collectors.toList());
+    if (refresh) {
+      invalidateSyncTopicsCache(tenantId, env);
+    }
 
-    List<TopicRequestModel> deletedTopicsFromClusterList = new ArrayList<>();
-    List<Integer> sizeOfTopics = new ArrayList<>();
+    SyncTopicsKey syncTopicsKey =
+        new SyncTopicsKey(
+            tenantId,
+            env,
+            topicNameSearch == null ? "" : topicNameSearch.trim(),
+            isReconciliation,
+            isBulkOption);
+    List<TopicRequestModel> topicRequestModelList = syncTopicsCache.getIfPresent(syncTopicsKey);
+    if (topicRequestModelList == null) {
+      topicRequestModelList = getSyncTopicRequestModels(syncTopicsKey);
+      syncTopicsCache.put(syncTopicsKey, topicRequestModelList);
+    }
 
     if (isReconciliation) {
-      syncTopicsObjectMap.put(
-          "resultSet",
-          getSyncTopicListRecon(
-              topicsList, deletedTopicsFromClusterList, pageNo, env, isBulkOption, tenantId));
-      syncTopicsObjectMap.put("allTopicsCount", topicsList.size());
+      syncTopicsObjectMap.put("resultSet", topicRequestModelList);
     } else {
       syncTopicsObjectMap.put(
           "resultSet",
-          getSyncTopicList(
-              topicsList,
-              deletedTopicsFromClusterList,
-              pageNo,
-              currentPage,
-              env,
-              isBulkOption,
-              sizeOfTopics,
-              tenantId));
-      syncTopicsObjectMap.put("allTopicsCount", sizeOfTopics.get(0));
+          getPagedTopicReqModels(pageNo, currentPage, topicRequestModelList, tenantId));
     }
+    syncTopicsObjectMap.put("allTopicsCount", topicRequestModelList.size());
 
     return syncTopicsObjectMap;
   }
 
-  private List<TopicRequestModel> getSyncTopicList(
-      List<Map<String, String>> topicsList,
-      List<TopicRequestModel> deletedTopicsFromClusterList,
-      String pageNo,
-      String currentPage,
-      String env,
-      boolean isBulkOption,
-      List<Integer> sizeOfTopics,
-      int tenantId) {
+  private List<TopicRequestModel> getSyncTopicRequestModels(SyncTopicsKey syncTopicsKey)
+      throws Exception {
     // Get Sync topics
     List<Topic> topicsFromSOT =
-        manageDatabase.getHandleDbRequests().getSyncTopics(env, null, tenantId);
+        manageDatabase
+            .getHandleDbRequests()
+            .getSyncTopics(syncTopicsKey.env(), null, syncTopicsKey.tenantId());
 
     // tenant filtering
     topicsFromSOT = commonUtilsService.getFilteredTopicsForTenant(topicsFromSOT);
+    // the cluster topics are diffed while they are read
+    TopicSyncDiff topicSyncDiff = new TopicSyncDiff(topicsFromSOT);
+    List<ClusterTopic> topicsList =
+        getTopicsFromKafkaCluster(
+            syncTopicsKey.env(), syncTopicsKey.topicNameSearch(), topicSyncDiff::addClusterTopic);
+    List<TopicRequestModel> deletedTopicsFromClusterList = new ArrayList<>();
+
+    if (syncTopicsKey.isReconciliation()) {
+      List<TopicRequestModel> topicRequestModelList =
+          getSyncTopicListRecon(
+              topicsList,
+              topicSyncDiff,
+              deletedTopicsFromClusterList,
+              syncTopicsKey.isBulkOption(),
+              syncTopicsKey.tenantId());
+      String envName = getEnvDetails(syncTopicsKey.env()).getName();
+      topicRequestModelList =
+          topicRequestModelList.stream()
+              .filter(
+                  topicRequestModel ->
+                      "DELETED".equals(topicRequestModel.getRemarks())
+                          || topicRequestModel.getTeamname() == null
+                          || topicRequestModel.getTeamname().equals(""))
+              .collect(Collectors.toList());
+      topicRequestModelList.forEach(
+          topicReq -> {
+            topicReq.setEnvironmentName(envName);
+            topicReq.setTopicstatus("ON_CLUSTER");
+          });
+      return Collections.unmodifiableList(topicRequestModelList);
+    }
+
+    return Collections.unmodifiableList(
+        getSyncTopicList(
+            topicsList,
+            topicSyncDiff,
+            deletedTopicsFromClusterList,
+            syncTopicsKey.isBulkOption(),
+            syncTopicsKey.tenantId()));
+  }
+
+  // without env, all environments of the tenant are dropped
+  private void invalidateSyncTopicsCache(int tenantId, String env) {
+    topicReconciliationService.invalidate(tenantId);
+    if (env != null) {
+      clusterTopicsCache.invalidate(tenantId + "-" + env);
+    } else {
+      clusterTopicsCache.asMap().keySet().removeIf(key -> key.startsWith(tenantId + "-"));
+    }
+    syncTopicsCache
+        .asMap()
+        .keySet()
+        .removeIf(
+            syncTopicsKey ->
+                syncTopicsKey.tenantId() == tenantId
+                    && (env == null || env.equals(syncTopicsKey.env())));
+  }
+
+  private List<TopicRequestModel> getSyncTopicList(
+      List<ClusterTopic> topicsList,
+      TopicSyncDiff topicSyncDiff,
+      List<TopicRequestModel> deletedTopicsFromClusterList,
+      boolean isBulkOption,
+      int tenantId) {
     int counterInc;
     List<String> teamList = new ArrayList<>();
     teamList = tenantFilterTeams(teamList);
+    Set<String> teamSet = new HashSet<>(teamList);
 
     if (!isBulkOption) {
       updateClusterDeletedTopicsList(
-          topicsList, deletedTopicsFromClusterList, topicsFromSOT, teamList, tenantId);
+          topicSyncDiff.getDeleted(), deletedTopicsFromClusterList, teamSet, tenantId);
     }
 
     List<TopicRequest> topicsListMap = new ArrayList<>();
 
-    for (int i = 0; i < topicsList.size(); i++) {
+    for (ClusterTopic clusterTopic : topicsList) {
       counterInc = counterIncrement();
       TopicRequest mp = new TopicRequest();
-      if (createTopicRequest(topicsList, topicsFromSOT, teamList, i, counterInc, mp, tenantId)) {
+      if (createTopicRequest(
+          clusterTopic, topicSyncDiff, teamList, teamSet, counterInc, mp, tenantId)) {
         topicsListMap.add(mp);
       }
     }
@@ -243,10 +362,10 @@ public class TopicSyncControllerService {
         getTopicRequestModels(topicsListMap, false, tenantId);
     topicRequestModelList.addAll(deletedTopicsFromClusterList);
 
-    sizeOfTopics.add(topicRequestModelList.size());
-    return getPagedTopicReqModels(pageNo, currentPage, topicRequestModelList, tenantId);
+    return topicRequestModelList;
   }
 
+  // copies the rows of the requested page only, the full list may be cached
   private List<TopicRequestModel> getPagedTopicReqModels(
       String pageNo, String currentPage, List<TopicRequestModel> topicRequestModels, int tenantId) {
     List<TopicRequestModel> topicRequestModelList = new ArrayList<>();
@@ -254,62 +373,52 @@ public class TopicSyncControllerService {
     int totalRecs = topicRequestModels.size();
     int recsPerPage = 20;
 
-    int totalPages =
-        topicRequestModels.size() / recsPerPage
-            + (topicRequestModels.size() % recsPerPage > 0 ? 1 : 0);
+    int totalPages = totalRecs / recsPerPage + (totalRecs % recsPerPage > 0 ? 1 : 0);
 
     pageNo = commonUtilsService.deriveCurrentPage(pageNo, currentPage, totalPages);
     int requestPageNo = Integer.parseInt(pageNo);
-    int startVar = (requestPageNo - 1) * recsPerPage;
-    int lastVar = (requestPageNo) * (recsPerPage);
+    int startVar = Math.max((requestPageNo - 1) * recsPerPage, 0);
+    int lastVar = Math.min(requestPageNo * recsPerPage, totalRecs);
 
     List<String> numList = new ArrayList<>();
     commonUtilsService.getAllPagesList(pageNo, currentPage, totalPages, numList);
 
-    for (int i = 0; i < totalRecs; i++) {
-
-      if (i >= startVar && i < lastVar) {
-        TopicRequestModel mp = topicRequestModels.get(i);
+    for (int i = startVar; i < lastVar; i++) {
+      TopicRequestModel mp = new TopicRequestModel();
+      copyProperties(topicRequestModels.get(i), mp);
 
-        mp.setTotalNoPages(totalPages + "");
-        mp.setAllPageNos(numList);
-        mp.setCurrentPage(pageNo);
-        mp.setTeamname(manageDatabase.getTeamNameFromTeamId(tenantId, mp.getTeamId()));
-        topicRequestModelList.add(mp);
-      }
+      mp.setTotalNoPages(totalPages + "");
+      mp.setAllPageNos(numList);
+      mp.setCurrentPage(pageNo);
+      mp.setTeamname(manageDatabase.getTeamNameFromTeamId(tenantId, mp.getTeamId()));
+      topicRequestModelList.add(mp);
     }
     return topicRequestModelList;
   }
 
   private List<TopicRequestModel> getSyncTopicListRecon(
-      List<Map<String, String>> clusterTopicsList,
+      List<ClusterTopic> clusterTopicsList,
+      TopicSyncDiff topicSyncDiff,
       List<TopicRequestModel> deletedTopicsFromClusterList,
-      String pageNo,
-      String env,
       boolean isBulkOption,
       int tenantId) {
-    // Get Sync topics
-    List<Topic> topicsFromSOT =
-        manageDatabase.getHandleDbRequests().getSyncTopics(env, null, tenantId);
-
-    // tenant filtering
-    topicsFromSOT = commonUtilsService.getFilteredTopicsForTenant(topicsFromSOT);
     List<TopicRequest> topicsListMap = new ArrayList<>();
 
     List<String> teamList = new ArrayList<>();
     teamList = tenantFilterTeams(teamList);
+    Set<String> teamSet = new HashSet<>(teamList);
     int counterInc;
 
     if (!isBulkOption) {
       updateClusterDeletedTopicsList(
-          clusterTopicsList, deletedTopicsFromClusterList, topicsFromSOT, teamList, tenantId);
+          topicSyncDiff.getDeleted(), deletedTopicsFromClusterList, teamSet, tenantId);
     }
 
-    for (int i = 0; i < clusterTopicsList.size(); i++) {
+    for (ClusterTopic clusterTopic : clusterTopicsList) {
       counterInc = counterIncrement();
       TopicRequest mp = new TopicRequest();
       if (createTopicRequest(
-          clusterTopicsList, topicsFromSOT, teamList, i, counterInc, mp, tenantId)) {
+          clusterTopic, topicSyncDiff, teamList, teamSet, counterInc, mp, tenantId)) {
         if (mp.getTeamId().equals(0) || mp.getTeamId() == null) {
           topicsListMap.add(mp);
         }
@@ -383,34 +492,27 @@ public class TopicSyncControllerService {
   }
 
   private boolean createTopicRequest(
-      List<Map<String, String>> topicsList,
-      List<Topic> topicsFromSOT,
+      ClusterTopic clusterTopic,
+      TopicSyncDiff topicSyncDiff,
       List<String> teamList,
-      int i,
+      Set<String> teamSet,
       int counterInc,
       TopicRequest mp,
       int tenantId) {
-    Map<String, String> topicMap;
     mp.setSequence(counterInc + "");
 
-    topicMap = topicsList.get(i);
-    final String tmpTopicName = topicMap.get("topicName");
+    final String tmpTopicName = clusterTopic.getTopicName();
 
     mp.setTopicname(tmpTopicName);
-    mp.setTopicpartitions(Integer.parseInt(topicMap.get("partitions")));
-    mp.setReplicationfactor(topicMap.get("replicationFactor"));
+    mp.setTopicpartitions(clusterTopic.getPartitions());
+    mp.setReplicationfactor(String.valueOf(clusterTopic.getReplicationFactor()));
 
     String teamUpdated = null;
 
     try {
-      Optional<Topic> teamUpdatedFirst =
-          topicsFromSOT.stream()
-              .filter(a -> Objects.equals(a.getTopicname(), tmpTopicName))
-              .findFirst();
-
-      if (teamUpdatedFirst.isPresent()) {
-        teamUpdated =
-            manageDatabase.getTeamNameFromTeamId(tenantId, teamUpdatedFirst.get().getTeamId());
+      Topic teamUpdatedFirst = topicSyncDiff.getMatchedTopic(tmpTopicName);
+      if (teamUpdatedFirst != null) {
+        teamUpdated = manageDatabase.getTeamNameFromTeamId(tenantId, teamUpdatedFirst.getTeamId());
       }
     } catch (Exception e) {
       log.error("Error from getSyncTopicList ", e);
@@ -418,7 +520,7 @@ public class TopicSyncControllerService {
 
     if (teamUpdated != null && !teamUpdated.equals("undefined")) {
       mp.setPossibleTeams(teamList);
-      if (teamList.contains(teamUpdated)) {
+      if (teamSet.contains(teamUpdated)) {
         mp.setTeamId(manageDatabase.getTeamIdFromTeamName(tenantId, teamUpdated));
       } else {
         return false; // belongs to different tenant
@@ -433,50 +535,34 @@ public class TopicSyncControllerService {
   }
 
   private void updateClusterDeletedTopicsList(
-      List<Map<String, String>> clusterTopicsList,
+      List<Topic> deletedTopicsFromCluster,
       List<TopicRequestModel> deletedTopicsFromClusterList,
-      List<Topic> topicsFromSOT,
-      List<String> teamList,
+      Set<String> teamSet,
       int tenantId) {
     try {
-      List<String> clusterTopicStringList = new ArrayList<>();
-      clusterTopicsList.forEach(
-          hashMapTopicObj -> clusterTopicStringList.add(hashMapTopicObj.get("topicName")));
-
-      Map<String, TopicRequestModel> sotTopics = new HashMap<>();
+      for (Topic topicObj : deletedTopicsFromCluster) {
+        String teamName = manageDatabase.getTeamNameFromTeamId(tenantId, topicObj.getTeamId());
+        // tenant teams
+        if (!teamSet.contains(teamName)) {
+          continue;
+        }
 
-      List<String> sotTopicStringList = new ArrayList<>();
-      for (Topic topicObj : topicsFromSOT) {
         List<String> possibleTeams = new ArrayList<>();
-        possibleTeams.add(manageDatabase.getTeamNameFromTeamId(tenantId, topicObj.getTeamId()));
+        possibleTeams.add(teamName);
         possibleTeams.add("REMOVE FROM KLAW");
 
-        sotTopicStringList.add(topicObj.getTopicname());
         TopicRequestModel topicRequestModel = new TopicRequestModel();
         topicRequestModel.setTopicname(topicObj.getTopicname());
         topicRequestModel.setEnvironment(topicObj.getEnvironment());
         topicRequestModel.setTopicpartitions(topicObj.getNoOfPartitions());
         topicRequestModel.setReplicationfactor(topicObj.getNoOfReplcias());
         topicRequestModel.setTeamId(topicObj.getTeamId());
-        topicRequestModel.setTeamname(
-            manageDatabase.getTeamNameFromTeamId(tenantId, topicObj.getTeamId()));
+        topicRequestModel.setTeamname(teamName);
         topicRequestModel.setPossibleTeams(possibleTeams);
         topicRequestModel.setSequence("" + topicObj.getTopicid());
         topicRequestModel.setRemarks("DELETED");
-
-        // tenant teams
-        if (teamList.contains(
-            manageDatabase.getTeamNameFromTeamId(tenantId, topicObj.getTeamId()))) {
-          sotTopics.put(topicObj.getTopicname(), topicRequestModel);
-        }
+        deletedTopicsFromClusterList.add(topicRequestModel);
       }
-
-      List<String> deletedTopicsFromClusterListTmp =
-          sotTopicStringList.stream()
-              .filter(topicName -> !clusterTopicStringList.contains(topicName))
-              .collect(Collectors.toList());
-      deletedTopicsFromClusterListTmp.forEach(
-          topicName -> deletedTopicsFromClusterList.add(sotTopics.get(topicName)));
     } catch (Exception e) {
       log.error("Error from updateClusterDeletedTopicsList ", e);
     }
@@ -543,6 +629,7 @@ public class TopicSyncControllerService {
       }
     }
 
+    invalidateSyncTopicsCache(tenantId, syncBackTopics.getTargetEnv());
     return ApiResponse.builder().result(resultMap.get("result").get(0)).data(logArray).build();
   }
 
@@ -848,11 +935,11 @@ public class TopicSyncControllerService {
       }
     } else {
       try {
-        List<Map<String, String>> topicsMap =
+        List<ClusterTopic> clusterTopics =
             getTopicsFromKafkaCluster(
                 syncTopicsBulk.getSourceEnv(), syncTopicsBulk.getTopicSearchFilter());
-        for (Map<String, String> hashMap : topicsMap) {
-          invokeUpdateSyncAllTopics(syncTopicsBulk, logArray, hashMap);
+        for (ClusterTopic clusterTopic : clusterTopics) {
+          invokeUpdateSyncAllTopics(syncTopicsBulk, logArray, clusterTopic);
         }
       } catch (Exception e) {
         log.error("Could not retrieve topics ", e);
@@ -864,35 +951,50 @@ public class TopicSyncControllerService {
   }
 
   private void invokeUpdateSyncAllTopics(
-      SyncTopicsBulk syncTopicsBulk, List<String> logArray, Map<String, String> hashMap) {
+      SyncTopicsBulk syncTopicsBulk, List<String> logArray, ClusterTopic clusterTopic) {
     SyncTopicUpdates syncTopicUpdates;
     List<SyncTopicUpdates> updatedSyncTopicsList = new ArrayList<>();
 
     syncTopicUpdates = new SyncTopicUpdates();
     syncTopicUpdates.setTeamSelected(syncTopicsBulk.getSelectedTeam());
-    syncTopicUpdates.setTopicName(hashMap.get("topicName"));
+    syncTopicUpdates.setTopicName(clusterTopic.getTopicName());
     syncTopicUpdates.setEnvSelected(syncTopicsBulk.getSourceEnv());
-    syncTopicUpdates.setPartitions(Integer.parseInt(hashMap.get("partitions")));
-    syncTopicUpdates.setReplicationFactor(hashMap.get("replicationFactor"));
+    syncTopicUpdates.setPartitions(clusterTopic.getPartitions());
+    syncTopicUpdates.setReplicationFactor(String.valueOf(clusterTopic.getReplicationFactor()));
 
     updatedSyncTopicsList.add(syncTopicUpdates);
     try {
       logArray.add(
           "Topic status :"
-              + hashMap.get("topicName")
+              + clusterTopic.getTopicName()
               + " "
               + updateSyncTopics(updatedSyncTopicsList).getResult());
     } catch (Exception e) {
-      logArray.add("Topic update failed :" + hashMap.get("topicName") + " " + e.toString());
+      logArray.add("Topic update failed :" + clusterTopic.getTopicName() + " " + e.toString());
       log.error("Exception:", e);
     }
   }
 
-  private List<Map<String, String>> getTopicsFromKafkaCluster(String env, String topicNameSearch)
+  private List<ClusterTopic> getTopicsFromKafkaCluster(String env, String topicNameSearch)
       throws Exception {
+    return getTopicsFromKafkaCluster(env, topicNameSearch, clusterTopic -> {});
+  }
+
+  /**
+   * Topics of the cluster matching the search, sorted by name. Every matching topic is also passed
+   * to the consumer, while it is read from cluster api or from the cached topics of the cluster.
+   */
+  private List<ClusterTopic> getTopicsFromKafkaCluster(
+      String env, String topicNameSearch, Consumer<ClusterTopic> topicConsumer) throws Exception {
     if (topicNameSearch != null) {
       topicNameSearch = topicNameSearch.trim();
     }
+    // Filter topics on topic name for search
+    final String topicSearchFilter = topicNameSearch;
+    Predicate<ClusterTopic> topicFilter =
+        topicSearchFilter == null || topicSearchFilter.isEmpty()
+            ? clusterTopic -> true
+            : clusterTopic -> clusterTopic.getTopicName().contains(topicSearchFilter);
     int tenantId = commonUtilsService.getTenantId(getUserName());
     Env envSelected = getEnvDetails(env);
     KwClusters kwClusters =
@@ -900,27 +1002,41 @@ public class TopicSyncControllerService {
             .getClusters(KafkaClustersType.KAFKA, tenantId)
             .get(envSelected.getClusterId());
 
-    List<Map<String, String>> topicsList =
-        clusterApiService.getAllTopics(
-            kwClusters.getBootstrapServers(),
-            kwClusters.getProtocol(),
-            kwClusters.getClusterName() + kwClusters.getClusterId(),
-            kwClusters.getKafkaFlavor(),
-            tenantId);
+    String clusterTopicsKey = tenantId + "-" + env;
+    List<ClusterTopic> topicsList = clusterTopicsCache.getIfPresent(clusterTopicsKey);
+    if (topicsList == null) {
+      // sorted by name while the topics are streamed
+      Map<String, ClusterTopic> topicsByName = new TreeMap<>();
+      List<String> failedTopics =
+          clusterApiService.getAllTopics(
+              kwClusters.getBootstrapServers(),
+              kwClusters.getProtocol(),
+              kwClusters.getClusterName() + kwClusters.getClusterId(),
+              kwClusters.getKafkaFlavor(),
+              tenantId,
+              clusterTopic -> {
+                if (topicsByName.putIfAbsent(clusterTopic.getTopicName(), clusterTopic) == null
+                    && topicFilter.test(clusterTopic)) {
+                  topicConsumer.accept(clusterTopic);
+                }
+              });
+      if (!failedTopics.isEmpty()) {
+        // an incomplete list would make the missing topics look deleted on the cluster
+        throw new KlawException(
+            "Could not load " + failedTopics.size() + " topics. Please contact Administrator.");
+      }
+      topicsList = List.copyOf(topicsByName.values());
+      clusterTopicsCache.put(clusterTopicsKey, topicsList);
+    } else {
+      topicsList.stream().filter(topicFilter).forEach(topicConsumer);
+    }
 
     topicCounter = 0;
 
-    List<Map<String, String>> topicFilteredList = topicsList;
-    // Filter topics on topic name for search
-
-    if (topicNameSearch != null && topicNameSearch.length() > 0) {
-      final String topicSearchFilter = topicNameSearch;
-      topicFilteredList =
-          topicsList.stream()
-              .filter(topic -> topic.get("topicName").contains(topicSearchFilter))
-              .collect(Collectors.toList());
+    if (topicSearchFilter == null || topicSearchFilter.isEmpty()) {
+      return topicsList;
     }
-    return topicFilteredList;
+    return topicsList.stream().filter(topicFilter).collect(Collectors.toList());
   }
 
   private void invokeUpdateSync(
@@ -972,7 +1088,6 @@ public class TopicSyncControllerService {
 
     StringBuilder erroredTopicsExist = new StringBuilder();
     boolean topicsDontExistInMainCluster = false;
-    int topicId = manageDatabase.getHandleDbRequests().getNextTopicRequestId("TOPIC_ID", tenantId);
 
     // remove duplicates
     updatedSyncTopics =
@@ -985,6 +1100,9 @@ public class TopicSyncControllerService {
 
     List<Integer> updatedSyncTopicsDelete = new ArrayList<>();
     updatedSyncTopics = handleTopicDeletes(updatedSyncTopics, updatedSyncTopicsDelete, tenantId);
+    if (!updatedSyncTopicsDelete.isEmpty()) {
+      invalidateSyncTopicsCache(tenantId, null);
+    }
 
     if (updatedSyncTopics.size() > 0) {
       for (SyncTopicUpdates topicUpdate : updatedSyncTopics) {
@@ -1021,8 +1139,6 @@ public class TopicSyncControllerService {
         if (existingTopics == null) {
           t = new Topic();
 
-          topicId = topicId + 1;
-          t.setTopicid(topicId);
           t.setTopicname(topicUpdate.getTopicName());
           t.setNoOfPartitions(topicUpdate.getPartitions());
           t.setNoOfReplcias(topicUpdate.getReplicationFactor());
@@ -1072,8 +1188,6 @@ public class TopicSyncControllerService {
           }
           if (!envFound && !topicAdded) {
             t = new Topic();
-            topicId = topicId + 1;
-            t.setTopicid(topicId);
             t.setTopicname(topicUpdate.getTopicName());
             t.setNoOfPartitions(topicUpdate.getPartitions());
             t.setNoOfReplcias(topicUpdate.getReplicationFactor());
@@ -1120,9 +1234,9 @@ public class TopicSyncControllerService {
 
     if (listTopics.size() > 0) {
       try {
-        return ApiResponse.builder()
-            .result(manageDatabase.getHandleDbRequests().addToSynctopics(listTopics))
-            .build();
+        String result = manageDatabase.getHandleDbRequests().addToSynctopics(listTopics);
+        invalidateSyncTopicsCache(tenantId, null);
+        return ApiResponse.builder().result(result).build();
       } catch (Exception e) {
         log.error(e.getMessage());
         throw new KlawException(e.getMessage());
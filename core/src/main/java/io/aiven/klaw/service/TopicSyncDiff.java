@@ -0,0 +1,82 @@
+package io.aiven.klaw.service;
+
+import io.aiven.klaw.dao.Topic;
+import io.aiven.klaw.model.cluster.ClusterTopic;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Diff of the topics on a cluster against the topics known in Klaw for the same environment. Both
+ * sides are indexed by topic name, so the diff takes a single pass over each list instead of
+ * searching one list for every element of the other. The klaw topics are indexed up front, cluster
+ * topics are added one by one while they are streamed from cluster api.
+ */
+final class TopicSyncDiff {
+
+  private final List<Topic> topicsFromSOT;
+
+  // first topic of a name wins, as with a linear search of the list
+  private final Map<String, Topic> sotTopicsByName = new LinkedHashMap<>();
+
+  private final Set<String> clusterTopicNames = new HashSet<>();
+
+  // cluster topics which do not exist in klaw
+  private final List<ClusterTopic> added = new ArrayList<>();
+
+  // cluster topic name -> klaw topic
+  private final Map<String, Topic> matched = new HashMap<>();
+
+  TopicSyncDiff(List<Topic> topicsFromSOT) {
+    this.topicsFromSOT = topicsFromSOT;
+    for (Topic topic : topicsFromSOT) {
+      sotTopicsByName.putIfAbsent(topic.getTopicname(), topic);
+    }
+  }
+
+  static TopicSyncDiff diff(List<ClusterTopic> clusterTopics, List<Topic> topicsFromSOT) {
+    TopicSyncDiff topicSyncDiff = new TopicSyncDiff(topicsFromSOT);
+    clusterTopics.forEach(topicSyncDiff::addClusterTopic);
+    return topicSyncDiff;
+  }
+
+  void addClusterTopic(ClusterTopic clusterTopic) {
+    String topicName = clusterTopic.getTopicName();
+    clusterTopicNames.add(topicName);
+    Topic topic = sotTopicsByName.get(topicName);
+    if (topic == null) {
+      added.add(clusterTopic);
+    } else {
+      matched.put(topicName, topic);
+    }
+  }
+
+  List<ClusterTopic> getAdded() {
+    return Collections.unmodifiableList(added);
+  }
+
+  /** Klaw topic of the given cluster topic, or null if the topic only exists on the cluster. */
+  Topic getMatchedTopic(String topicName) {
+    return matched.get(topicName);
+  }
+
+  Map<String, Topic> getMatched() {
+    return Collections.unmodifiableMap(matched);
+  }
+
+  /** Klaw topics which are not among the cluster topics added so far. */
+  List<Topic> getDeleted() {
+    List<Topic> deleted = new ArrayList<>();
+    for (Topic topic : topicsFromSOT) {
+      if (!clusterTopicNames.contains(topic.getTopicname())) {
+        deleted.add(topic);
+      }
+    }
+    return Collections.unmodifiableList(deleted);
+  }
+}
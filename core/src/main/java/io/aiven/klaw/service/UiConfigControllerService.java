@@ -8,8 +8,8 @@ import io.aiven.klaw.dao.Env;
 import io.aiven.klaw.model.ApiResponse;
 import io.aiven.klaw.model.enums.ApiResultStatus;
 import io.aiven.klaw.model.enums.PermissionType;
+import java.sql.Timestamp;
 import java.util.*;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,6 +20,8 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class UiConfigControllerService {
 
+  private static final int ACTIVITY_LOG_PAGE_SIZE = 20;
+
   @Value("${klaw.login.authentication.type}")
   private String authenticationType;
 
@@ -44,65 +46,71 @@ public class UiConfigControllerService {
   }
 
   public List<ActivityLog> showActivityLog(String env, String pageNo, String currentPage) {
+    return showActivityLog(env, pageNo, currentPage, null, null);
+  }
+
+  /**
+   * @param afterActivityTime activity time (millis) of the last row of the current page
+   * @param afterReqNo request number of the last row of the current page. With afterActivityTime
+   *     the next page is read from that row on, instead of counting through all earlier rows.
+   */
+  public List<ActivityLog> showActivityLog(
+      String env, String pageNo, String currentPage, Long afterActivityTime, Integer afterReqNo) {
     log.debug("showActivityLog {} {}", env, pageNo);
     String userName = getUserName();
-    List<ActivityLog> origActivityList;
     int tenantId = commonUtilsService.getTenantId(getUserName());
-
-    if (commonUtilsService.isNotAuthorizedUser(getPrincipal(), PermissionType.ALL_TEAMS_REPORTS)) {
-      origActivityList =
-          manageDatabase
-              .getHandleDbRequests()
-              .selectActivityLog(userName, env, false, tenantId); // only your team reqs
-    } else {
-      origActivityList =
-          manageDatabase
-              .getHandleDbRequests()
-              .selectActivityLog(userName, env, true, tenantId); // all teams reqs
+    // all teams reqs, or only your team reqs
+    boolean allReqs =
+        !commonUtilsService.isNotAuthorizedUser(getPrincipal(), PermissionType.ALL_TEAMS_REPORTS);
+
+    List<ActivityLog> activityLogs = new ArrayList<>();
+    long totalRecs =
+        manageDatabase.getHandleDbRequests().countActivityLog(userName, env, allReqs, tenantId);
+    if (totalRecs == 0) {
+      return activityLogs;
     }
 
-    return getActivityLogsPaginated(pageNo, origActivityList, currentPage, tenantId);
+    int totalPages = (int) ((totalRecs + ACTIVITY_LOG_PAGE_SIZE - 1) / ACTIVITY_LOG_PAGE_SIZE);
+    pageNo = commonUtilsService.deriveCurrentPage(pageNo, currentPage, totalPages);
+    int requestPageNo = Integer.parseInt(pageNo);
+    List<String> numList = new ArrayList<>();
+    commonUtilsService.getAllPagesList(pageNo, currentPage, totalPages, numList);
+
+    boolean nextPage =
+        afterActivityTime != null
+            && afterReqNo != null
+            && requestPageNo == parsePageNo(currentPage) + 1;
+    activityLogs =
+        manageDatabase
+            .getHandleDbRequests()
+            .selectActivityLogPage(
+                userName,
+                env,
+                allReqs,
+                tenantId,
+                requestPageNo,
+                ACTIVITY_LOG_PAGE_SIZE,
+                nextPage ? new Timestamp(afterActivityTime) : null,
+                nextPage ? afterReqNo : null);
+
+    for (ActivityLog activityLog : activityLogs) {
+      activityLog.setEnvName(
+          getEnvName(activityLog.getEnv(), activityLog.getActivityName(), tenantId));
+      activityLog.setDetails(activityLog.getDetails().replaceAll("null", ""));
+      activityLog.setAllPageNos(numList);
+      activityLog.setTotalNoPages("" + totalPages);
+      activityLog.setCurrentPage(pageNo);
+      activityLog.setTeam(manageDatabase.getTeamNameFromTeamId(tenantId, activityLog.getTeamId()));
+    }
+    return activityLogs;
   }
 
-  private List<ActivityLog> getActivityLogsPaginated(
-      String pageNo, List<ActivityLog> origActivityList, String currentPage, int tenantId) {
-    List<ActivityLog> newList = new ArrayList<>();
-
-    if (origActivityList != null && origActivityList.size() > 0) {
-      int totalRecs = origActivityList.size();
-      int recsPerPage = 20;
-      int totalPages = totalRecs / recsPerPage + (totalRecs % recsPerPage > 0 ? 1 : 0);
-      List<String> numList = new ArrayList<>();
-
-      pageNo = commonUtilsService.deriveCurrentPage(pageNo, currentPage, totalPages);
-
-      int requestPageNo = Integer.parseInt(pageNo);
-      int startVar = (requestPageNo - 1) * recsPerPage;
-      int lastVar = (requestPageNo) * (recsPerPage);
-
-      commonUtilsService.getAllPagesList(pageNo, currentPage, totalPages, numList);
-
-      for (int i = 0; i < totalRecs; i++) {
-        ActivityLog activityLog = origActivityList.get(i);
-        if (i >= startVar && i < lastVar) {
-          activityLog.setEnvName(
-              getEnvName(activityLog.getEnv(), activityLog.getActivityName(), tenantId));
-          activityLog.setDetails(activityLog.getDetails().replaceAll("null", ""));
-          activityLog.setAllPageNos(numList);
-          activityLog.setTotalNoPages("" + totalPages);
-          activityLog.setCurrentPage(pageNo);
-          activityLog.setTeam(
-              manageDatabase.getTeamNameFromTeamId(tenantId, activityLog.getTeamId()));
-
-          newList.add(activityLog);
-        }
-      }
+  private static int parsePageNo(String page) {
+    try {
+      return Integer.parseInt(page);
+    } catch (NumberFormatException e) {
+      return -1;
     }
-    newList =
-        newList.stream()
-            .sorted(Collections.reverseOrder(Comparator.comparing(ActivityLog::getActivityTime)))
-            .collect(Collectors.toList());
-    return newList;
   }
 
   public String getEnvName(String envId, String activityName, int tenantId) {
@@ -41,11 +41,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.json.GsonJsonParser;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.factory.PasswordEncoderFactories;
-import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -73,9 +68,6 @@ public class UsersTeamsControllerService {
 
   @Autowired ManageDatabase manageDatabase;
 
-  @Autowired(required = false)
-  private InMemoryUserDetailsManager inMemoryUserDetailsManager;
-
   // pattern for simple username/mailid
   private static final Pattern saasPattern = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
 
@@ -148,21 +140,7 @@ public class UsersTeamsControllerService {
     }
 
     try {
-      PasswordEncoder encoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
       if (DATABASE.value.equals(authenticationType)) {
-        if (inMemoryUserDetailsManager.userExists(newUser.getUsername())) {
-          inMemoryUserDetailsManager.updateUser(
-              User.withUsername(newUser.getUsername())
-                  .password(encoder.encode(newUser.getUserPassword()))
-                  .roles(newUser.getRole())
-                  .build());
-        } else {
-          inMemoryUserDetailsManager.createUser(
-              User.withUsername(newUser.getUsername())
-                  .password(encoder.encode(newUser.getUserPassword()))
-                  .roles(newUser.getRole())
-                  .build());
-        }
         newUser.setUserPassword(encodePwd(newUser.getUserPassword()));
       }
 
@@ -174,7 +152,9 @@ public class UsersTeamsControllerService {
       userInfo.setTeamId(manageDatabase.getTeamIdFromTeamName(tenantId, newUser.getTeam()));
       userInfo.setTenantId(tenantId);
 
-      return ApiResponse.builder().result(dbHandle.updateUser(userInfo)).build();
+      String result = dbHandle.updateUser(userInfo);
+      commonUtilsService.updateMetadata(tenantId, EntityType.USERS, MetadataOperationType.UPDATE);
+      return ApiResponse.builder().result(result).build();
     } catch (Exception e) {
       log.error("Error from updateUser ", e);
       throw new KlawException(e.getMessage());
@@ -230,13 +210,10 @@ public class UsersTeamsControllerService {
     } else {
       userMap.put("userFound", "true");
       String newGeneratedPwd = generateRandomWord(15);
-      PasswordEncoder encoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
-
-      UserDetails updatePwdUserDetails = inMemoryUserDetailsManager.loadUserByUsername(username);
-      inMemoryUserDetailsManager.updatePassword(
-          updatePwdUserDetails, encoder.encode(newGeneratedPwd));
       String pwdUpdated = dbHandle.updatePassword(username, encodePwd(newGeneratedPwd));
       if (ApiResultStatus.SUCCESS.value.equals(pwdUpdated)) {
+        commonUtilsService.updateMetadata(
+            userInfoModel.getTenantId(), EntityType.USERS, MetadataOperationType.UPDATE);
         userMap.put("passwordSent", "true");
         mailService.sendMailResetPwd(
             username,
@@ -389,10 +366,9 @@ public class UsersTeamsControllerService {
     }
 
     UserInfo existingUserInfo = manageDatabase.getHandleDbRequests().getUsersInfo(userId);
+    int tenantId = commonUtilsService.getTenantId(getUserName());
     List<String> permissions =
-        manageDatabase
-            .getRolesPermissionsPerTenant(commonUtilsService.getTenantId(getUserName()))
-            .get(existingUserInfo.getRole());
+        manageDatabase.getRolesPermissionsPerTenant(tenantId).get(existingUserInfo.getRole());
     if (permissions != null
         && permissions.contains(PermissionType.FULL_ACCESS_USERS_TEAMS_ROLES.name())) {
       return ApiResponse.builder()
@@ -406,10 +382,9 @@ public class UsersTeamsControllerService {
     }
 
     try {
-      inMemoryUserDetailsManager.deleteUser(userId);
-      return ApiResponse.builder()
-          .result(manageDatabase.getHandleDbRequests().deleteUserRequest(userId))
-          .build();
+      String result = manageDatabase.getHandleDbRequests().deleteUserRequest(userId);
+      commonUtilsService.updateMetadata(tenantId, EntityType.USERS, MetadataOperationType.DELETE);
+      return ApiResponse.builder().result(result).build();
     } catch (Exception e) {
       log.error("Exception:", e);
       throw new KlawException(e.getMessage());
@@ -464,14 +439,7 @@ public class UsersTeamsControllerService {
     }
 
     try {
-      PasswordEncoder encoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
-
       if (DATABASE.value.equals(authenticationType)) {
-        inMemoryUserDetailsManager.createUser(
-            User.withUsername(newUser.getUsername())
-                .password(encoder.encode(newUser.getUserPassword()))
-                .roles(newUser.getRole())
-                .build());
         newUser.setUserPassword(encodePwd(newUser.getUserPassword()));
       }
 
@@ -481,7 +449,8 @@ public class UsersTeamsControllerService {
       userInfo.setPwd(newUser.getUserPassword());
       String result = dbHandle.addNewUser(userInfo);
 
-      if (isExternal) {
+      // an existing user must not be mailed a password that was never stored
+      if (isExternal && ApiResultStatus.SUCCESS.value.equals(result)) {
         if ("".equals(newUser.getUserPassword())) {
           mailService.sendMail(
               newUser.getUsername(),
@@ -498,18 +467,8 @@ public class UsersTeamsControllerService {
       }
       return ApiResponse.builder().result(result).build();
     } catch (Exception e) {
-      try {
-        if (inMemoryUserDetailsManager != null)
-          inMemoryUserDetailsManager.deleteUser(newUser.getUsername());
-      } catch (Exception e1) {
-        log.error("Try deleting user");
-      }
-      if (e.getMessage().contains("should not exist")) {
-        return ApiResponse.builder().result("Failure. User already exists.").build();
-      } else {
-        log.error("Error ", e);
-        throw new KlawException("Unable to create the user.");
-      }
+      log.error("Error ", e);
+      throw new KlawException("Unable to create the user.");
     }
   }
 
@@ -592,17 +551,13 @@ public class UsersTeamsControllerService {
     String pwdChange = (String) pwdMap.get("pwd");
 
     try {
-      PasswordEncoder encoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
-
-      UserDetails updatePwdUserDetails = inMemoryUserDetailsManager.loadUserByUsername(userDetails);
-      inMemoryUserDetailsManager.updatePassword(updatePwdUserDetails, encoder.encode(pwdChange));
-
-      return ApiResponse.builder()
-          .result(
-              manageDatabase
-                  .getHandleDbRequests()
-                  .updatePassword(userDetails, encodePwd(pwdChange)))
-          .build();
+      String result =
+          manageDatabase.getHandleDbRequests().updatePassword(userDetails, encodePwd(pwdChange));
+      commonUtilsService.updateMetadata(
+          commonUtilsService.getTenantId(userDetails),
+          EntityType.USERS,
+          MetadataOperationType.UPDATE);
+      return ApiResponse.builder().result(result).build();
     } catch (Exception e) {
       log.error("Exception:", e);
       throw new KlawException(e.getMessage());
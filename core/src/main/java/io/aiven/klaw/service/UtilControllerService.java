@@ -475,10 +475,8 @@ public class UtilControllerService {
           && SUPERADMIN
               .name()
               .equals(
-                  manageDatabase
-                      .getHandleDbRequests()
-                      .getUsersInfo(userName)
-                      .getRole())) { // allow adding tenants only to "default"
+                  commonUtilsService.getAuthority(
+                      userName))) { // allow adding tenants only to "default"
         addDeleteEditTenants = ApiResultStatus.AUTHORIZED.value;
       } else {
         addDeleteEditTenants = "NotAuthorized";
@@ -721,36 +721,25 @@ app.controller("browseAclsCtrl", function($scope, $http, $location, $window) {
                 );
         }
 
+        // lags of all consumer groups of the topic are fetched together and reused for a short time
+        $scope.consumerGroupLags = {};
+
         $scope.getOffsetValues = function(environment, topicName, consumergroup){
+            var lagsKey = environment + "/" + topicName;
+            var cachedLags = $scope.consumerGroupLags[lagsKey];
+            if(cachedLags && Date.now() - cachedLags.fetchedAt < 10000
+                    && (cachedLags.output.lags[consumergroup] || cachedLags.output.failedConsumerGroups[consumergroup])){
+                $scope.showOffsetValues(cachedLags.output, topicName, consumergroup);
+                return;
+            }
             $http({
                 method: "GET",
-                url: "getConsumerOffsets",
+                url: "getConsumerGroupLags",
                 headers : { 'Content-Type' : 'application/json' },
-                params: {'env' : environment, 'topicName' : topicName, 'consumerGroupId' : consumergroup},
+                params: {'env' : environment, 'topicName' : topicName},
             }).success(function(output) {
-                $scope.consumeroffsetInfo = output;
-                var result = "";
-                var i;
-                for (i = 0; i < output.length; i++) {
-                  result += "Partition "+output[i].topicPartitionId + " | ";
-                  result += "CurrentOffset "+output[i].currentOffset + " | ";
-                  result += "EndOffset "+output[i].endOffset + " | ";
-                  result += "Lag "+output[i].lag + "\n\n";
-                }
-
-                if(output.length == 0)
-                {
-                    swal({
-                        title: "Group Id: " + consumergroup,
-                        text: "No offsets information found."
-                    });
-                }else{
-                swal({
-                        title: "Group Id: " + consumergroup,
-                        text: result
-                    });
-                }
-
+                $scope.consumerGroupLags[lagsKey] = {'output' : output, 'fetchedAt' : Date.now()};
+                $scope.showOffsetValues(output, topicName, consumergroup);
             }).error(
                 function(error)
                 {
@@ -759,6 +748,33 @@ app.controller("browseAclsCtrl", function($scope, $http, $location, $window) {
             );
         }
 
+        $scope.showOffsetValues = function(consumerGroupLags, topicName, consumergroup){
+            var groupLags = consumerGroupLags.lags[consumergroup];
+            var output = (groupLags && groupLags[topicName]) ? groupLags[topicName] : [];
+            $scope.consumeroffsetInfo = output;
+            var result = "";
+            var i;
+            for (i = 0; i < output.length; i++) {
+              result += "Partition "+output[i].topicPartitionId + " | ";
+              result += "CurrentOffset "+output[i].currentOffset + " | ";
+              result += "EndOffset "+output[i].endOffset + " | ";
+              result += "Lag "+output[i].lag + "\n\n";
+            }
+
+            if(output.length == 0)
+            {
+                swal({
+                    title: "Group Id: " + consumergroup,
+                    text: "No offsets information found."
+                });
+            }else{
+            swal({
+                    title: "Group Id: " + consumergroup,
+                    text: result
+                });
+            }
+        }
+
         $scope.getAivenServiceAccount = function(environment, topicName, userName, aclReqNo){
             $http({
                 method: "GET",
@@ -17,11 +17,31 @@ app.controller("kwMetricsCtrl", function($scope, $http, $location, $window) {
 	$http.defaults.headers.common['Accept'] = 'application/json';
 	$scope.showServerStatus = "false";
 
+        $scope.getEnvs = function() {
+                $http({
+                    method: "GET",
+                    url: "getEnvs",
+                    headers : { 'Content-Type' : 'application/json' }
+                }).success(function(output) {
+                    $scope.allenvs = output;
+                    if(output.length > 0){
+                        $scope.getAllMetrics.envId = output[0].id;
+                        $scope.getAllMetrics();
+                    }
+                }).error(
+                    function(error)
+                    {
+                        $scope.alert = error;
+                    }
+                );
+            }
+
         $scope.getAllMetrics = function() {
                 $http({
                     method: "GET",
                     url: "getBrokerTopMetrics",
-                    headers : { 'Content-Type' : 'application/json' }
+                    headers : { 'Content-Type' : 'application/json' },
+                    params: {'env' : $scope.getAllMetrics.envId}
                 }).success(function(output) {
                     $scope.brokermetrics = output.brokerTopMetricsOverview;
                 }).error(
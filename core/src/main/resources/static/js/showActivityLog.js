@@ -128,19 +128,29 @@ app.controller("showActivityLogCtrl", function($scope, $http, $location, $window
 
 		//serviceInput['clusterType'] = $scope.getTopics.clusterType.value;
 		serviceInput['env'] = $scope.getActivityLog.envId;
-		
+
+		var params = {'env' : $scope.getActivityLog.envId,
+                 'pageNo' : pageNoSelected,
+                 'currentPage' : $scope.resultPageSelected };
+		// the next page is read after the last row of the current page, instead of skipping all earlier rows
+		if($scope.lastActivityLog && $scope.lastActivityLogEnv == $scope.getActivityLog.envId){
+		    params['afterActivityTime'] = new Date($scope.lastActivityLog.activityTime).getTime();
+		    params['afterReqNo'] = $scope.lastActivityLog.req_no;
+		}
+
 		$http({
 			method: "GET",
 			url: "getActivityLogPerEnv",
             headers : { 'Content-Type' : 'application/json' },
-            params: {'env' : $scope.getActivityLog.envId,
-                 'pageNo' : pageNoSelected,
-                 'currentPage' : $scope.resultPageSelected }
+            params: params
 		}).success(function(output) {
 			$scope.resultBrowse = output;
+			$scope.lastActivityLog = null;
 			if(output!=null && output.length>0){
                 $scope.resultPages = output[0].allPageNos;
                 $scope.resultPageSelected = output[0].currentPage;
+                $scope.lastActivityLog = output[output.length - 1];
+                $scope.lastActivityLogEnv = params['env'];
             }
 		}).error(
 			function(error) 
@@ -148,6 +158,7 @@ app.controller("showActivityLogCtrl", function($scope, $http, $location, $window
 				$scope.alert = error;
 				$scope.resultPages = null;
                 $scope.resultPageSelected = null;
+                $scope.lastActivityLog = null;
 			}
 		);
 		
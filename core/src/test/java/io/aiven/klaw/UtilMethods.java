@@ -12,6 +12,7 @@ import io.aiven.klaw.dao.Topic;
 import io.aiven.klaw.dao.TopicRequest;
 import io.aiven.klaw.dao.UserInfo;
 import io.aiven.klaw.model.*;
+import io.aiven.klaw.model.cluster.ClusterTopic;
 import io.aiven.klaw.model.enums.AclIPPrincipleType;
 import io.aiven.klaw.model.enums.AclPatternType;
 import io.aiven.klaw.model.enums.AclPermissionType;
@@ -577,15 +578,10 @@ public class UtilMethods {
     return aclRequest;
   }
 
-  public List<Map<String, String>> getClusterApiTopics(String topicPrefix, int size) {
-    List<Map<String, String>> listTopics = new ArrayList<>();
-    HashMap<String, String> hashMap;
+  public List<ClusterTopic> getClusterApiTopics(String topicPrefix, int size) {
+    List<ClusterTopic> listTopics = new ArrayList<>();
     for (int i = 0; i < size; i++) {
-      hashMap = new HashMap<>();
-      hashMap.put("topicName", topicPrefix + i);
-      hashMap.put("replicationFactor", "1");
-      hashMap.put("partitions", "2");
-      listTopics.add(hashMap);
+      listTopics.add(new ClusterTopic(topicPrefix + i, 2, 1));
     }
     return listTopics;
   }
@@ -0,0 +1,84 @@
+package io.aiven.klaw.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.aiven.klaw.config.ManageDatabase;
+import io.aiven.klaw.dao.UserInfo;
+import io.aiven.klaw.helpers.db.rdbms.HandleDbRequestsJdbc;
+import org.jasypt.util.text.BasicTextEncryptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+public class KwUserDetailsServiceTest {
+
+  private static final String SECRET_KEY = "secretkey";
+  private static final String USER = "kwusera";
+
+  @Mock private ManageDatabase manageDatabase;
+  @Mock private HandleDbRequestsJdbc handleDbRequests;
+
+  private final PasswordEncoder encoder =
+      PasswordEncoderFactories.createDelegatingPasswordEncoder();
+
+  private KwUserDetailsService kwUserDetailsService;
+
+  @BeforeEach
+  public void setUp() {
+    kwUserDetailsService = new KwUserDetailsService(manageDatabase, SECRET_KEY, 600000);
+    when(manageDatabase.getHandleDbRequests()).thenReturn(handleDbRequests);
+  }
+
+  @Test
+  public void userIsLoadedOnceUntilEvicted() {
+    when(handleDbRequests.getUsersInfo(USER)).thenReturn(getUserInfo("pwd1", "USER"));
+
+    UserDetails userDetails = kwUserDetailsService.loadUserByUsername(USER);
+    assertThat(encoder.matches("pwd1", userDetails.getPassword())).isTrue();
+    assertThat(AuthorityUtils.authorityListToSet(userDetails.getAuthorities()))
+        .containsExactly("USER");
+    // credentials of an authenticated user are erased, the next login still has them
+    ((User) userDetails).eraseCredentials();
+    assertThat(encoder.matches("pwd1", kwUserDetailsService.loadUserByUsername(USER).getPassword()))
+        .isTrue();
+    verify(handleDbRequests, times(1)).getUsersInfo(USER);
+
+    when(handleDbRequests.getUsersInfo(USER)).thenReturn(getUserInfo("pwd2", "SUPERADMIN"));
+    kwUserDetailsService.evictAllUsers();
+
+    userDetails = kwUserDetailsService.loadUserByUsername(USER);
+    assertThat(encoder.matches("pwd2", userDetails.getPassword())).isTrue();
+    assertThat(AuthorityUtils.authorityListToSet(userDetails.getAuthorities()))
+        .containsExactly("SUPERADMIN");
+    verify(handleDbRequests, times(2)).getUsersInfo(USER);
+  }
+
+  @Test
+  public void unknownUserIsNotFound() {
+    assertThatThrownBy(() -> kwUserDetailsService.loadUserByUsername("unknown"))
+        .isInstanceOf(UsernameNotFoundException.class);
+  }
+
+  private UserInfo getUserInfo(String pwd, String role) {
+    BasicTextEncryptor textEncryptor = new BasicTextEncryptor();
+    textEncryptor.setPasswordCharArray(SECRET_KEY.toCharArray());
+    UserInfo userInfo = new UserInfo();
+    userInfo.setUsername(USER);
+    userInfo.setPwd(textEncryptor.encrypt(pwd));
+    userInfo.setRole(role);
+    return userInfo;
+  }
+}
@@ -260,7 +260,13 @@ public class TopicControllerTest {
     List<TopicRequestModel> topicRequests = utilMethods.getTopicRequestsModel();
 
     when(topicSyncControllerService.getSyncTopics(
-            anyString(), anyString(), anyString(), anyString(), anyString(), anyBoolean()))
+            anyString(),
+            anyString(),
+            anyString(),
+            anyString(),
+            anyString(),
+            anyBoolean(),
+            anyBoolean()))
         .thenReturn(hashMap);
 
     mvcSync
@@ -4,6 +4,7 @@ import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -385,7 +386,8 @@ public class UiConfigControllerTest {
   @Order(20)
   public void showActivityLog() throws Exception {
     List<ActivityLog> activityLogs = utilMethods.getLogs();
-    when(uiConfigControllerService.showActivityLog(anyString(), anyString(), anyString()))
+    when(uiConfigControllerService.showActivityLog(
+            anyString(), anyString(), anyString(), isNull(), isNull()))
         .thenReturn(activityLogs);
 
     mvc.perform(
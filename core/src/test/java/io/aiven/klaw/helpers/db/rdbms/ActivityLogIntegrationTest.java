@@ -0,0 +1,106 @@
+package io.aiven.klaw.helpers.db.rdbms;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.aiven.klaw.dao.ActivityLog;
+import io.aiven.klaw.dao.UserInfo;
+import io.aiven.klaw.repository.ActivityLogRepo;
+import io.aiven.klaw.repository.UserInfoRepo;
+import java.sql.Timestamp;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+public class ActivityLogIntegrationTest {
+
+  private static final long START_TIME = 1_677_000_000_000L;
+
+  @Autowired TestEntityManager entityManager;
+  @Autowired ActivityLogRepo activityLogRepo;
+  @Autowired UserInfoRepo userInfoRepo;
+
+  private SelectDataJdbc selectDataJdbc;
+
+  @BeforeEach
+  public void setUp() {
+    selectDataJdbc = new SelectDataJdbc();
+    ReflectionTestUtils.setField(selectDataJdbc, "activityLogRepo", activityLogRepo);
+    ReflectionTestUtils.setField(selectDataJdbc, "userInfoRepo", userInfoRepo);
+
+    // 50 rows of team 1 in dev and tst, two rows share each activity time
+    for (int reqNo = 1; reqNo <= 50; reqNo++) {
+      ActivityLog activityLog = new ActivityLog();
+      activityLog.setReq_no(reqNo);
+      activityLog.setTenantId(101);
+      activityLog.setTeamId(reqNo % 5 == 0 ? 2 : 1);
+      activityLog.setEnv(reqNo % 2 == 0 ? "dev" : "tst");
+      activityLog.setActivityName("TopicRequest");
+      activityLog.setDetails("details");
+      activityLog.setActivityTime(new Timestamp(START_TIME + (reqNo / 2) * 1000L));
+      entityManager.persist(activityLog);
+    }
+    ActivityLog otherTenant = new ActivityLog();
+    otherTenant.setReq_no(1);
+    otherTenant.setTenantId(103);
+    otherTenant.setTeamId(1);
+    otherTenant.setEnv("dev");
+    otherTenant.setActivityTime(new Timestamp(START_TIME));
+    entityManager.persist(otherTenant);
+
+    UserInfo user = new UserInfo();
+    user.setUsername("user1");
+    user.setTenantId(101);
+    user.setTeamId(2);
+    user.setRole("USER");
+    entityManager.persistAndFlush(user);
+  }
+
+  @Test
+  public void pagesAreReadNewestFirstInTheDatabase() {
+    List<ActivityLog> firstPage =
+        selectDataJdbc.selectActivityLogPage("user1", "", true, 101, 1, 20, null, null);
+    List<ActivityLog> thirdPage =
+        selectDataJdbc.selectActivityLogPage("user1", null, true, 101, 3, 20, null, null);
+
+    assertThat(selectDataJdbc.countActivityLog("user1", "", true, 101)).isEqualTo(50);
+    assertThat(firstPage).hasSize(20);
+    assertThat(firstPage).extracting(ActivityLog::getReq_no).startsWith(50, 49, 48, 47);
+    assertThat(firstPage.get(0).getActivityTimeString()).isNotNull();
+    assertThat(thirdPage).extracting(ActivityLog::getReq_no).endsWith(2, 1).hasSize(10);
+  }
+
+  @Test
+  public void nextPageAfterLastRowMatchesOffsetPage() {
+    List<ActivityLog> firstPage =
+        selectDataJdbc.selectActivityLogPage("user1", "", true, 101, 1, 20, null, null);
+    ActivityLog lastRow = firstPage.get(firstPage.size() - 1);
+
+    List<ActivityLog> afterLastRow =
+        selectDataJdbc.selectActivityLogPage(
+            "user1", "", true, 101, 2, 20, lastRow.getActivityTime(), lastRow.getReq_no());
+    List<ActivityLog> secondPage =
+        selectDataJdbc.selectActivityLogPage("user1", "", true, 101, 2, 20, null, null);
+
+    assertThat(afterLastRow)
+        .extracting(ActivityLog::getReq_no)
+        .containsExactlyElementsOf(secondPage.stream().map(ActivityLog::getReq_no).toList());
+  }
+
+  @Test
+  public void envAndTeamOfUserFilterRows() {
+    List<ActivityLog> teamDevRows =
+        selectDataJdbc.selectActivityLogPage("user1", "dev", false, 101, 1, 20, null, null);
+
+    // even request numbers divisible by 5 belong to team 2 in dev
+    assertThat(selectDataJdbc.countActivityLog("user1", "dev", false, 101)).isEqualTo(5);
+    assertThat(teamDevRows).extracting(ActivityLog::getReq_no).containsExactly(50, 40, 30, 20, 10);
+  }
+}
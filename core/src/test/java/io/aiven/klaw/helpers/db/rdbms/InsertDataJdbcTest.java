@@ -1,37 +1,53 @@
 package io.aiven.klaw.helpers.db.rdbms;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.aiven.klaw.UtilMethods;
 import io.aiven.klaw.dao.Acl;
 import io.aiven.klaw.dao.Env;
+import io.aiven.klaw.dao.KwMetricsPoint;
+import io.aiven.klaw.dao.KwMetricsPointID;
+import io.aiven.klaw.dao.KwMetricsSeries;
+import io.aiven.klaw.dao.KwSequence;
 import io.aiven.klaw.dao.MessageSchema;
 import io.aiven.klaw.dao.SchemaRequest;
 import io.aiven.klaw.dao.Topic;
 import io.aiven.klaw.dao.TopicRequest;
 import io.aiven.klaw.dao.UserInfo;
+import io.aiven.klaw.model.MetricsSample;
 import io.aiven.klaw.model.enums.ApiResultStatus;
+import io.aiven.klaw.model.enums.MetricsResolution;
 import io.aiven.klaw.repository.AclRepo;
 import io.aiven.klaw.repository.AclRequestsRepo;
 import io.aiven.klaw.repository.ActivityLogRepo;
 import io.aiven.klaw.repository.EnvRepo;
+import io.aiven.klaw.repository.KwMetricsPointRepo;
+import io.aiven.klaw.repository.KwMetricsSeriesRepo;
+import io.aiven.klaw.repository.KwSequenceRepo;
 import io.aiven.klaw.repository.MessageSchemaRepo;
 import io.aiven.klaw.repository.SchemaRequestRepo;
 import io.aiven.klaw.repository.TeamRepo;
 import io.aiven.klaw.repository.TopicRepo;
 import io.aiven.klaw.repository.TopicRequestsRepo;
 import io.aiven.klaw.repository.UserInfoRepo;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @ExtendWith(SpringExtension.class)
 public class InsertDataJdbcTest {
@@ -60,6 +76,18 @@ public class InsertDataJdbcTest {
 
   @Mock SelectDataJdbc jdbcSelectHelper;
 
+  @Mock private KwSequenceRepo kwSequenceRepo;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  @Mock private KwMetricsSeriesRepo kwMetricsSeriesRepo;
+
+  @Mock private KwMetricsPointRepo kwMetricsPointRepo;
+
+  @Captor private ArgumentCaptor<List<KwMetricsSeries>> kwMetricsSeriesCaptor;
+
+  @Captor private ArgumentCaptor<Collection<KwMetricsPoint>> kwMetricsPointsCaptor;
+
   private InsertDataJdbc insertData;
 
   private UtilMethods utilMethods;
@@ -79,6 +107,10 @@ public class InsertDataJdbcTest {
     ReflectionTestUtils.setField(insertData, "schemaRequestRepo", schemaRequestRepo);
     ReflectionTestUtils.setField(insertData, "aclRequestsRepo", aclRequestsRepo);
     ReflectionTestUtils.setField(insertData, "envRepo", envRepo);
+    ReflectionTestUtils.setField(insertData, "metricsSeriesRepo", kwMetricsSeriesRepo);
+    ReflectionTestUtils.setField(insertData, "metricsPointRepo", kwMetricsPointRepo);
+    ReflectionTestUtils.setField(
+        insertData, "kwIdGenerator", new KwIdGenerator(kwSequenceRepo, transactionManager, 50));
   }
 
   @Test
@@ -94,12 +126,30 @@ public class InsertDataJdbcTest {
     assertThat(result).containsEntry("result", ApiResultStatus.SUCCESS.value);
   }
 
+  @Test
+  public void insertIntoRequestTopicReadsMaxIdOnce() {
+    UserInfo userInfo = utilMethods.getUserInfoMockDao();
+    when(jdbcSelectHelper.selectUserInfo(anyString())).thenReturn(userInfo);
+    when(topicRequestsRepo.getNextTopicRequestId(anyInt())).thenReturn(101);
+    when(activityLogRepo.getNextActivityLogRequestId(anyInt())).thenReturn(101);
+
+    Map<String, String> first = insertData.insertIntoRequestTopic(utilMethods.getTopicRequest(1));
+    Map<String, String> second = insertData.insertIntoRequestTopic(utilMethods.getTopicRequest(2));
+
+    assertThat(first).containsEntry("topicId", "102");
+    assertThat(second).containsEntry("topicId", "103");
+    verify(topicRequestsRepo, times(1)).getNextTopicRequestId(anyInt());
+    verify(kwSequenceRepo, times(2)).save(any(KwSequence.class));
+  }
+
   @Test
   public void insertIntoTopicSOT() {
     List<Topic> topics = utilMethods.getTopics();
+    topics.forEach(topic -> topic.setTenantId(101));
     when(topicRepo.getNextTopicRequestId(anyInt())).thenReturn(101);
     String result = insertData.insertIntoTopicSOT(topics, true);
     assertThat(result).isEqualTo(ApiResultStatus.SUCCESS.value);
+    assertThat(topics.get(0).getTopicid()).isEqualTo(102);
   }
 
   @Test
@@ -160,4 +210,44 @@ public class InsertDataJdbcTest {
     String result = insertData.insertIntoEnvs(new Env());
     assertThat(result).isEqualTo(ApiResultStatus.SUCCESS.value);
   }
+
+  @Test
+  public void insertMetricsSamplesMergesIntoBucketsOfSeries() {
+    long sampleTime = 1_677_654_321_000L;
+    when(kwMetricsSeriesRepo.findAllByTenantId(101))
+        .thenReturn(List.of(new KwMetricsSeries(7, 101, "1", "type", "name")));
+    KwMetricsPointID hourPointID =
+        new KwMetricsPointID(
+            7, MetricsResolution.HOUR.seconds, MetricsResolution.HOUR.bucketStart(sampleTime));
+    when(kwMetricsPointRepo.findAllById(any()))
+        .thenReturn(List.of(new KwMetricsPoint(hourPointID, 10)));
+
+    String result =
+        insertData.insertMetricsSamples(
+            101,
+            sampleTime,
+            List.of(
+                new MetricsSample("1", "type", "name", 30),
+                new MetricsSample("1", "type", "othername", 5)));
+
+    assertThat(result).isEqualTo(ApiResultStatus.SUCCESS.value);
+    // the stored point is updated in place
+    verify(kwMetricsPointRepo)
+        .addSample(
+            hourPointID.getSeriesId(),
+            hourPointID.getResolution(),
+            hourPointID.getBucketTime(),
+            30.0);
+    verify(kwMetricsSeriesRepo).saveAll(kwMetricsSeriesCaptor.capture());
+    assertThat(kwMetricsSeriesCaptor.getValue())
+        .singleElement()
+        .extracting(KwMetricsSeries::getMetricsName)
+        .isEqualTo("othername");
+    // minute and day points of the series and all points of the new series are inserted
+    verify(kwMetricsPointRepo).saveAll(kwMetricsPointsCaptor.capture());
+    assertThat(kwMetricsPointsCaptor.getValue())
+        .hasSize(5)
+        .allMatch(KwMetricsPoint::isNew)
+        .noneMatch(point -> point.getId().equals(hourPointID));
+  }
 }
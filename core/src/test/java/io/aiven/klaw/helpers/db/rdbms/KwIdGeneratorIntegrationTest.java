@@ -0,0 +1,74 @@
+package io.aiven.klaw.helpers.db.rdbms;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.aiven.klaw.dao.KwSequenceID;
+import io.aiven.klaw.repository.KwSequenceRepo;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class KwIdGeneratorIntegrationTest {
+
+  @Autowired private KwSequenceRepo kwSequenceRepo;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Test
+  public void idsContinueAfterHighestIdInUse() {
+    KwIdGenerator kwIdGenerator = new KwIdGenerator(kwSequenceRepo, transactionManager, 10);
+
+    List<Integer> ids = new ArrayList<>();
+    for (int i = 0; i < 25; i++) {
+      ids.add(kwIdGenerator.nextId("TOPIC_REQ_ID", 101, () -> 2000));
+    }
+
+    assertThat(ids).first().isEqualTo(2001);
+    assertThat(ids).last().isEqualTo(2025);
+    assertThat(kwSequenceRepo.findById(new KwSequenceID("TOPIC_REQ_ID", 101)))
+        .hasValueSatisfying(kwSequence -> assertThat(kwSequence.getNextId()).isEqualTo(2031));
+  }
+
+  @Test
+  public void sequenceWithoutIdsInUseStartsAtInitialId() {
+    KwIdGenerator kwIdGenerator = new KwIdGenerator(kwSequenceRepo, transactionManager, 10);
+
+    assertThat(kwIdGenerator.nextId("ACL_ID", 102, () -> null)).isEqualTo(KwIdGenerator.INITIAL_ID);
+  }
+
+  // two generators sharing the database act as two klaw instances
+  @Test
+  public void instancesNeverHandOutTheSameId() throws InterruptedException {
+    KwIdGenerator firstInstance = new KwIdGenerator(kwSequenceRepo, transactionManager, 5);
+    KwIdGenerator secondInstance = new KwIdGenerator(kwSequenceRepo, transactionManager, 5);
+    // create the sequence, so the instances only contend on reserving blocks
+    firstInstance.nextId("ACTIVITY_LOG_ID", 103, () -> null);
+
+    Set<Integer> ids = ConcurrentHashMap.newKeySet();
+    ExecutorService executorService = Executors.newFixedThreadPool(4);
+    for (int i = 0; i < 200; i++) {
+      KwIdGenerator kwIdGenerator = i % 2 == 0 ? firstInstance : secondInstance;
+      executorService.execute(
+          () -> ids.add(kwIdGenerator.nextId("ACTIVITY_LOG_ID", 103, () -> null)));
+    }
+    executorService.shutdown();
+    assertThat(executorService.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+    assertThat(ids).hasSize(200).doesNotContain(KwIdGenerator.INITIAL_ID);
+  }
+}
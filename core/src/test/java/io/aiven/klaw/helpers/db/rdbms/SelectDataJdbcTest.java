@@ -3,7 +3,8 @@ package io.aiven.klaw.helpers.db.rdbms;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 
 import io.aiven.klaw.UtilMethods;
@@ -27,6 +28,7 @@ import io.aiven.klaw.repository.TeamRepo;
 import io.aiven.klaw.repository.TopicRepo;
 import io.aiven.klaw.repository.TopicRequestsRepo;
 import io.aiven.klaw.repository.UserInfoRepo;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -231,12 +233,14 @@ public class SelectDataJdbcTest {
     userInfo.setRole("ADMIN");
     when(userInfoRepo.findByUsernameIgnoreCase(username))
         .thenReturn(java.util.Optional.of(userInfo));
-    when(activityLogRepo.findAllByEnvAndTenantId(anyString(), anyInt()))
+    when(activityLogRepo.findActivityLogPage(eq(1), eq(env), isNull(), any()))
         .thenReturn(utilMethods.getLogs());
 
-    List<ActivityLog> activityLogs = selectData.selectActivityLog(username, env, true, 1);
+    List<ActivityLog> activityLogs =
+        selectData.selectActivityLogPage(username, env, true, 1, 1, 20, null, null);
 
     assertThat(activityLogs).hasSize(1);
+    assertThat(activityLogs.get(0).getActivityTimeString()).isNotNull();
   }
 
   @Test
@@ -248,9 +252,13 @@ public class SelectDataJdbcTest {
     userInfo.setRole("SUPERUSER");
     when(userInfoRepo.findByUsernameIgnoreCase(username))
         .thenReturn(java.util.Optional.of(userInfo));
-    when(activityLogRepo.findAllByEnvAndTenantId(env, 1)).thenReturn(utilMethods.getLogs());
+    Timestamp afterActivityTime = new Timestamp(System.currentTimeMillis());
+    when(activityLogRepo.findActivityLogPageAfter(
+            eq(1), eq(env), eq(1), eq(afterActivityTime), eq(1001), any()))
+        .thenReturn(utilMethods.getLogs());
 
-    List<ActivityLog> activityLogs = selectData.selectActivityLog(username, env, true, 1);
+    List<ActivityLog> activityLogs =
+        selectData.selectActivityLogPage(username, env, false, 1, 2, 20, afterActivityTime, 1001);
 
     assertThat(activityLogs).hasSize(1);
   }
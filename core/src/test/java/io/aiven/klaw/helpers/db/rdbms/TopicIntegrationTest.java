@@ -218,6 +218,45 @@ public class TopicIntegrationTest {
     assertThat(res2.size()).isEqualTo(1);
   }
 
+  @Test
+  @Order(12)
+  public void selectSyncTopicsPage() {
+    List<String> envs = List.of("dev", "tst");
+
+    assertThat(selectDataJdbc.countSyncTopicNames(envs, null, null, 101)).isEqualTo(20);
+    List<Topic> page1 = selectDataJdbc.selectSyncTopicsPage(envs, null, null, 101, 1, 15);
+    List<Topic> page2 = selectDataJdbc.selectSyncTopicsPage(envs, null, null, 101, 2, 15);
+
+    assertThat(page1).extracting(Topic::getTopicname).startsWith("firsttopic0").hasSize(15);
+    assertThat(page2)
+        .extracting(Topic::getTopicname)
+        .containsExactly(
+            "secondtopic5", "secondtopic6", "secondtopic7", "secondtopic8", "secondtopic9");
+    // a topic is returned once with all its envs
+    assertThat(page1.get(10).getTopicname()).isEqualTo("secondtopic0");
+    assertThat(page1.get(10).getEnvironmentsList()).contains("dev", "tst");
+    assertThat(page1.get(0).getEnvironmentsList()).containsExactly("dev");
+  }
+
+  @Test
+  @Order(13)
+  public void selectSyncTopicsPage_Filtered() {
+    assertThat(selectDataJdbc.countSyncTopicNames(List.of("tst"), null, null, 101)).isEqualTo(10);
+    assertThat(selectDataJdbc.countSyncTopicNames(List.of("dev", "tst"), 103, null, 101))
+        .isEqualTo(0);
+    assertThat(selectDataJdbc.countSyncTopicNames(List.of("dev"), null, "SECOND", 101))
+        .isEqualTo(10);
+    // like wildcards in the search are matched literally
+    assertThat(selectDataJdbc.countSyncTopicNames(List.of("dev"), null, "topic_", 101))
+        .isEqualTo(0);
+    assertThat(selectDataJdbc.countSyncTopicNames(List.of(), null, null, 101)).isEqualTo(0);
+
+    List<Topic> page = selectDataJdbc.selectSyncTopicsPage(List.of("dev"), 101, "first", 101, 1, 5);
+    assertThat(page)
+        .extracting(Topic::getTopicname)
+        .containsExactly("firsttopic0", "firsttopic1", "firsttopic2", "firsttopic3", "firsttopic4");
+  }
+
   private void generateData(
       int number,
       int tenantId,
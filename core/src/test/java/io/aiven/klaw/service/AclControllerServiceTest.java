@@ -21,6 +21,7 @@ import io.aiven.klaw.error.KlawException;
 import io.aiven.klaw.helpers.db.rdbms.HandleDbRequestsJdbc;
 import io.aiven.klaw.model.AclRequestsModel;
 import io.aiven.klaw.model.ApiResponse;
+import io.aiven.klaw.model.cluster.ConsumerGroupLags;
 import io.aiven.klaw.model.enums.AclIPPrincipleType;
 import io.aiven.klaw.model.enums.AclPatternType;
 import io.aiven.klaw.model.enums.AclType;
@@ -695,6 +696,45 @@ public class AclControllerServiceTest {
     assertThat(resultObj).hasSize(0);
   }
 
+  @Test
+  @Order(30)
+  public void getConsumerGroupLagsOfAllSubscriptionsInOneCall() throws KlawException {
+    mockKafkaFlavor();
+    when(commonUtilsService.getTenantId(userDetails.getUsername())).thenReturn(101);
+    when(handleDbRequests.getSyncAcls("1", "testtopic", 101))
+        .thenReturn(
+            List.of(
+                getConsumerAcl("group1"),
+                getConsumerAcl("group2"),
+                getConsumerAcl("group2"),
+                getConsumerAcl(null)));
+    ConsumerGroupLags consumerGroupLags = new ConsumerGroupLags();
+    consumerGroupLags.getLags().put("group1", Map.of("testtopic", List.of(Map.of("lag", "10"))));
+    consumerGroupLags.getFailedConsumerGroups().put("group2", "not authorized");
+    when(clusterApiService.getConsumerGroupLags(
+            any(),
+            any(),
+            anyString(),
+            eq(Map.of("group1", List.of("testtopic"), "group2", List.of("testtopic"))),
+            eq(101)))
+        .thenReturn(consumerGroupLags);
+
+    ConsumerGroupLags result = aclControllerService.getConsumerGroupLags("1", "testtopic");
+
+    assertThat(result.getLags().get("group1").get("testtopic")).hasSize(1);
+    assertThat(result.getFailedConsumerGroups()).containsOnlyKeys("group2");
+    Mockito.verify(clusterApiService, Mockito.times(1))
+        .getConsumerGroupLags(any(), any(), anyString(), any(), anyInt());
+  }
+
+  private Acl getConsumerAcl(String consumerGroup) {
+    Acl acl = new Acl();
+    acl.setTopicname("testtopic");
+    acl.setTopictype(AclType.CONSUMER.value);
+    acl.setConsumergroup(consumerGroup);
+    return acl;
+  }
+
   private AclRequestsModel getAclRequestProducer() {
     AclRequestsModel aclReq = new AclRequestsModel();
     aclReq.setTopicname("testtopic");
@@ -5,6 +5,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 import io.aiven.klaw.UtilMethods;
@@ -20,6 +21,7 @@ import io.aiven.klaw.model.AclInfo;
 import io.aiven.klaw.model.ApiResponse;
 import io.aiven.klaw.model.KafkaSupportedProtocol;
 import io.aiven.klaw.model.SyncAclUpdates;
+import io.aiven.klaw.model.enums.AclResourceNameMatch;
 import io.aiven.klaw.model.enums.AclType;
 import io.aiven.klaw.model.enums.ApiResultStatus;
 import io.aiven.klaw.model.enums.KafkaClustersType;
@@ -160,7 +162,14 @@ public class AclSyncControllerServiceTest {
     when(manageDatabase.getTeamsAndAllowedEnvs(anyInt(), anyInt()))
         .thenReturn(Collections.singletonList("1"));
     when(manageDatabase.getKafkaEnvList(anyInt())).thenReturn(utilMethods.getEnvLists());
-    when(clusterApiService.getAcls(anyString(), any(), any(KafkaSupportedProtocol.class), anyInt()))
+    when(clusterApiService.getAcls(
+            anyString(),
+            any(),
+            any(KafkaSupportedProtocol.class),
+            eq("TOPIC"),
+            eq(topicNameSearch),
+            eq(AclResourceNameMatch.CONTAINS),
+            anyInt()))
         .thenReturn(utilMethods.getClusterAcls());
     when(handleDbRequests.selectAllTeamsOfUsers(anyString(), anyInt()))
         .thenReturn(getAvailableTeams());
@@ -186,7 +195,14 @@ public class AclSyncControllerServiceTest {
     when(manageDatabase.getTeamsAndAllowedEnvs(anyInt(), anyInt()))
         .thenReturn(Collections.singletonList("1"));
     when(manageDatabase.getKafkaEnvList(anyInt())).thenReturn(utilMethods.getEnvLists());
-    when(clusterApiService.getAcls(anyString(), any(), any(KafkaSupportedProtocol.class), anyInt()))
+    when(clusterApiService.getAcls(
+            anyString(),
+            any(),
+            any(KafkaSupportedProtocol.class),
+            eq("TOPIC"),
+            eq(topicNameSearch),
+            eq(AclResourceNameMatch.CONTAINS),
+            anyInt()))
         .thenReturn(utilMethods.getClusterAcls());
     when(handleDbRequests.selectAllTeamsOfUsers(anyString(), anyInt()))
         .thenReturn(getAvailableTeams());
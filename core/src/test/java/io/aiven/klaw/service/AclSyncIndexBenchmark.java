@@ -0,0 +1,170 @@
+package io.aiven.klaw.service;
+
+import io.aiven.klaw.dao.Acl;
+import io.aiven.klaw.model.enums.AclType;
+import io.aiven.klaw.model.enums.KafkaFlavors;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the indexed acl reconciliation with the previous search of the cluster acls for the
+ * consumer group of every topic acl and of the klaw acls for every cluster acl. Every consumer has
+ * a topic READ and a GROUP READ acl on the cluster, every producer a topic WRITE acl. Three
+ * quarters of the cluster acls are known in klaw.
+ *
+ * <p>Run the main method from the test classpath, e.g. <code>
+ * mvn -pl core test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=io.aiven.klaw.service.AclSyncIndexBenchmark</code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class AclSyncIndexBenchmark {
+
+  @Param({"1000", "10000", "30000"})
+  private int numberOfAcls;
+
+  private List<Map<String, String>> clusterAcls;
+
+  private List<Map<String, String>> topicAcls;
+
+  private List<Acl> aclsFromSOT;
+
+  @Setup
+  public void setUp() {
+    clusterAcls = new ArrayList<>();
+    topicAcls = new ArrayList<>();
+    aclsFromSOT = new ArrayList<>();
+    for (int i = 0; clusterAcls.size() < numberOfAcls; i++) {
+      String principal = "User:app" + i;
+      String host = "10.0." + (i / 250) + "." + (i % 250);
+      boolean consumer = i % 2 == 0;
+      Map<String, String> topicAcl =
+          getClusterAcl("TOPIC", "topic" + i, consumer ? "READ" : "WRITE", principal, host);
+      clusterAcls.add(topicAcl);
+      topicAcls.add(topicAcl);
+      if (consumer) {
+        clusterAcls.add(getClusterAcl("GROUP", "group" + i, "READ", principal, host));
+      }
+
+      if (i % 4 != 3) {
+        Acl acl = new Acl();
+        acl.setTopicname("topic" + i);
+        acl.setAclssl("app" + i);
+        acl.setAclip(host);
+        acl.setTopictype(consumer ? AclType.CONSUMER.value : AclType.PRODUCER.value);
+        acl.setTeamId(101);
+        aclsFromSOT.add(acl);
+      }
+    }
+  }
+
+  @Benchmark
+  public void indexed(Blackhole blackhole) {
+    List<Map<String, String>> acls = AclSyncIndex.withConsumerGroups(topicAcls, clusterAcls);
+    AclSyncIndex aclSyncIndex = AclSyncIndex.of(aclsFromSOT, KafkaFlavors.APACHE_KAFKA.value);
+    for (Map<String, String> acl : acls) {
+      blackhole.consume(
+          aclSyncIndex.getMatchedAcl(
+              acl.get("resourceName"), acl.get("principle"), acl.get("host"), getAclType(acl)));
+    }
+  }
+
+  // the lookups AclSyncControllerService used to do
+  @Benchmark
+  public void linearSearch(Blackhole blackhole) {
+    List<Map<String, String>> acls = new ArrayList<>(topicAcls);
+    for (Map<String, String> topicAcl : topicAcls) {
+      for (Map<String, String> clusterAcl : clusterAcls) {
+        if ("READ".equals(topicAcl.get("operation"))
+            && "READ".equals(clusterAcl.get("operation"))
+            && "GROUP".equals(clusterAcl.get("resourceType"))
+            && Objects.equals(clusterAcl.get("host"), topicAcl.get("host"))
+            && Objects.equals(clusterAcl.get("principle"), topicAcl.get("principle"))) {
+          Map<String, String> hashMap = new HashMap<>(topicAcl);
+          hashMap.put("consumerGroup", clusterAcl.get("resourceName"));
+          acls.add(hashMap);
+          break;
+        }
+      }
+    }
+
+    for (Map<String, String> acl : acls) {
+      String aclType = getAclType(acl);
+      Acl matchedAcl = null;
+      for (Acl aclSotItem : aclsFromSOT) {
+        String aclSsl = aclSotItem.getAclssl();
+        if (aclSsl == null || aclSsl.equals("")) {
+          aclSsl = "User:*";
+        } else if (!aclSsl.startsWith("User:")) {
+          aclSsl = "User:" + aclSsl;
+        }
+        String aclHost = aclSotItem.getAclip();
+        if (aclHost == null || aclHost.equals("")) {
+          aclHost = "*";
+        }
+        if (aclSotItem.getTopicname() != null
+            && Objects.equals(acl.get("resourceName"), aclSotItem.getTopicname())
+            && Objects.equals(acl.get("host"), aclHost)
+            && Objects.equals(acl.get("principle"), aclSsl)
+            && Objects.equals(aclSotItem.getTopictype(), aclType)) {
+          matchedAcl = aclSotItem;
+          break;
+        }
+      }
+      blackhole.consume(matchedAcl);
+    }
+  }
+
+  private static String getAclType(Map<String, String> acl) {
+    return "WRITE".equals(acl.get("operation")) ? AclType.PRODUCER.value : AclType.CONSUMER.value;
+  }
+
+  private static Map<String, String> getClusterAcl(
+      String resourceType, String resourceName, String operation, String principle, String host) {
+    Map<String, String> clusterAcl = new HashMap<>();
+    clusterAcl.put("resourceType", resourceType);
+    clusterAcl.put("resourceName", resourceName);
+    clusterAcl.put("operation", operation);
+    clusterAcl.put("principle", principle);
+    clusterAcl.put("host", host);
+    clusterAcl.put("permissionType", "ALLOW");
+    return clusterAcl;
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(
+            new OptionsBuilder()
+                .include(AclSyncIndexBenchmark.class.getSimpleName() + ".indexed")
+                .build())
+        .run();
+    // quadratic, one invocation at 30k acls takes seconds
+    new Runner(
+            new OptionsBuilder()
+                .include(AclSyncIndexBenchmark.class.getSimpleName() + ".linearSearch")
+                .param("numberOfAcls", "1000", "10000")
+                .build())
+        .run();
+  }
+}
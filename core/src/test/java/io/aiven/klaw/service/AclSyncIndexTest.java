@@ -0,0 +1,84 @@
+package io.aiven.klaw.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.aiven.klaw.dao.Acl;
+import io.aiven.klaw.model.enums.AclType;
+import io.aiven.klaw.model.enums.KafkaFlavors;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class AclSyncIndexTest {
+
+  @Test
+  public void consumerGroupsAreAddedForTopicReadAclsOfTheSamePrincipalAndHost() {
+    Map<String, String> topicRead = getClusterAcl("TOPIC", "topic1", "READ", "User:*", "1.1.1.1");
+    Map<String, String> topicWrite = getClusterAcl("TOPIC", "topic1", "WRITE", "User:*", "1.1.1.1");
+    Map<String, String> otherHostRead =
+        getClusterAcl("TOPIC", "topic2", "READ", "User:*", "2.2.2.2");
+    List<Map<String, String>> clusterAcls =
+        List.of(
+            topicRead,
+            topicWrite,
+            otherHostRead,
+            getClusterAcl("GROUP", "group1", "READ", "User:*", "1.1.1.1"),
+            getClusterAcl("GROUP", "group2", "READ", "User:*", "1.1.1.1"),
+            getClusterAcl("GROUP", "group3", "READ", "User:alice", "2.2.2.2"));
+
+    List<Map<String, String>> acls =
+        AclSyncIndex.withConsumerGroups(List.of(topicRead, topicWrite, otherHostRead), clusterAcls);
+
+    assertThat(acls).hasSize(4);
+    assertThat(acls.subList(0, 3)).containsExactly(topicRead, topicWrite, otherHostRead);
+    assertThat(acls.get(3)).containsEntry("consumerGroup", "group1");
+    assertThat(acls.get(3)).containsEntry("resourceName", "topic1");
+  }
+
+  @Test
+  public void klawAclsAreMatchedWithNormalizedPrincipalAndHost() {
+    Acl producer = getAcl("topic1", "alice", null, AclType.PRODUCER.value);
+    Acl duplicateProducer = getAcl("topic1", "User:alice", "", AclType.PRODUCER.value);
+    Acl consumer = getAcl("topic1", null, "1.1.1.1", AclType.CONSUMER.value);
+
+    AclSyncIndex aclSyncIndex =
+        AclSyncIndex.of(
+            List.of(producer, duplicateProducer, consumer), KafkaFlavors.APACHE_KAFKA.value);
+
+    assertThat(aclSyncIndex.getMatchedAcl("topic1", "User:alice", "*", AclType.PRODUCER.value))
+        .isSameAs(producer);
+    assertThat(aclSyncIndex.getMatchedAcl("topic1", "User:*", "1.1.1.1", AclType.CONSUMER.value))
+        .isSameAs(consumer);
+    assertThat(aclSyncIndex.getMatchedAcl("topic1", "User:*", "1.1.1.1", AclType.PRODUCER.value))
+        .isNull();
+    // aiven principals are not prefixed
+    assertThat(
+            AclSyncIndex.of(List.of(producer), KafkaFlavors.AIVEN_FOR_APACHE_KAFKA.value)
+                .getMatchedAcl("topic1", "alice", "*", AclType.PRODUCER.value))
+        .isSameAs(producer);
+  }
+
+  private static Map<String, String> getClusterAcl(
+      String resourceType, String resourceName, String operation, String principle, String host) {
+    return Map.of(
+        "resourceType",
+        resourceType,
+        "resourceName",
+        resourceName,
+        "operation",
+        operation,
+        "principle",
+        principle,
+        "host",
+        host);
+  }
+
+  private static Acl getAcl(String topicName, String aclSsl, String aclIp, String aclType) {
+    Acl acl = new Acl();
+    acl.setTopicname(topicName);
+    acl.setAclssl(aclSsl);
+    acl.setAclip(aclIp);
+    acl.setTopictype(aclType);
+    return acl;
+  }
+}
@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.aiven.klaw.UtilMethods;
 import io.aiven.klaw.config.ManageDatabase;
 import io.aiven.klaw.dao.AclRequests;
@@ -16,13 +17,16 @@ import io.aiven.klaw.error.KlawException;
 import io.aiven.klaw.helpers.db.rdbms.HandleDbRequestsJdbc;
 import io.aiven.klaw.model.ApiResponse;
 import io.aiven.klaw.model.KafkaSupportedProtocol;
+import io.aiven.klaw.model.cluster.ClusterTopic;
 import io.aiven.klaw.model.enums.AclIPPrincipleType;
+import io.aiven.klaw.model.enums.AclResourceNameMatch;
 import io.aiven.klaw.model.enums.ApiResultStatus;
 import io.aiven.klaw.model.enums.ClusterStatus;
 import io.aiven.klaw.model.enums.KafkaClustersType;
 import io.aiven.klaw.model.enums.RequestOperationType;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -35,12 +39,16 @@ import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpResponse;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
 @ExtendWith(SpringExtension.class)
@@ -119,33 +127,86 @@ public class ClusterApiServiceTest {
 
   @Test
   @Order(3)
-  public void getAclsSuccess() throws KlawException {
+  public void getAclsSuccess() throws Exception {
     Set<Map<String, String>> aclListOriginal = utilMethods.getAclsMock();
-    ResponseEntity response = new ResponseEntity<>(aclListOriginal, HttpStatus.OK);
 
     when(manageDatabase.getClusters(any(KafkaClustersType.class), anyInt()))
         .thenReturn(clustersHashMap);
     when(clustersHashMap.get(any())).thenReturn(kwClusters);
     when(kwClusters.getKafkaFlavor()).thenReturn("Apache Kafka");
 
-    when(restTemplate.exchange(
+    when(restTemplate.execute(
             Mockito.anyString(),
             eq(HttpMethod.GET),
-            Mockito.any(),
-            (ParameterizedTypeReference<Object>) any()))
-        .thenReturn(response);
+            any(RequestCallback.class),
+            any(ResponseExtractor.class),
+            Mockito.anyMap()))
+        .thenAnswer(
+            invocation ->
+                extractBody(invocation, new ObjectMapper().writeValueAsString(aclListOriginal)));
 
     List<Map<String, String>> result =
         clusterApiService.getAcls("", env, KafkaSupportedProtocol.PLAINTEXT, 1);
     assertThat(result).isEqualTo(new ArrayList<>(aclListOriginal));
   }
 
+  @Test
+  @Order(3)
+  public void getAclsFilteredAsColumns() throws Exception {
+    when(manageDatabase.getClusters(any(KafkaClustersType.class), anyInt()))
+        .thenReturn(clustersHashMap);
+    when(clustersHashMap.get(any())).thenReturn(kwClusters);
+    when(kwClusters.getKafkaFlavor()).thenReturn("Apache Kafka");
+    when(restTemplate.execute(
+            Mockito.endsWith(
+                "?resourceName={resourceName}&resourceNameMatch={resourceNameMatch}"
+                    + "&resourceType={resourceType}"),
+            eq(HttpMethod.GET),
+            any(RequestCallback.class),
+            any(ResponseExtractor.class),
+            eq(
+                Map.of(
+                    "resourceType",
+                    "TOPIC",
+                    "resourceName",
+                    "test topic",
+                    "resourceNameMatch",
+                    "CONTAINS"))))
+        .thenAnswer(
+            invocation ->
+                extractBody(
+                    invocation,
+                    "{\"columns\":[\"resourceName\",\"resourceType\"],"
+                        + "\"rows\":[[\"test topic\",\"TOPIC\"],[\"test topic2\",null]]}"));
+
+    List<Map<String, String>> result =
+        clusterApiService.getAcls(
+            "",
+            env,
+            KafkaSupportedProtocol.PLAINTEXT,
+            "TOPIC",
+            "test topic",
+            AclResourceNameMatch.CONTAINS,
+            1);
+    assertThat(result)
+        .containsExactly(
+            Map.of("resourceName", "test topic", "resourceType", "TOPIC"),
+            Map.of("resourceName", "test topic2"));
+  }
+
   @Test
   @Order(4)
   public void getAclsFailure() {
-
-    when(restTemplate.exchange(
-            Mockito.anyString(), eq(HttpMethod.GET), Mockito.any(), eq(Set.class)))
+    when(manageDatabase.getClusters(any(KafkaClustersType.class), anyInt()))
+        .thenReturn(clustersHashMap);
+    when(clustersHashMap.get(any())).thenReturn(kwClusters);
+    when(kwClusters.getKafkaFlavor()).thenReturn("Apache Kafka");
+    when(restTemplate.execute(
+            Mockito.anyString(),
+            eq(HttpMethod.GET),
+            any(RequestCallback.class),
+            any(ResponseExtractor.class),
+            Mockito.anyMap()))
         .thenThrow(new RuntimeException("error"));
 
     assertThatThrownBy(
@@ -156,27 +217,37 @@ public class ClusterApiServiceTest {
   @Test
   @Order(5)
   public void getAllTopicsSuccess() throws Exception {
-    Set<String> topicsList = getTopics();
-    ResponseEntity response = new ResponseEntity<>(topicsList, HttpStatus.OK);
+    mockTopicsStream(
+        "{\"topics\":[{\"topicName\":\"testtopic\",\"partitions\":\"2\",\"replicationFactor\":\"1\"}],"
+            + "\"failedTopics\":[]}");
 
-    when(restTemplate.exchange(
-            Mockito.anyString(),
-            eq(HttpMethod.GET),
-            Mockito.any(),
-            (ParameterizedTypeReference<Object>) any()))
-        .thenReturn(response);
+    List<ClusterTopic> result =
+        clusterApiService.getAllTopics("", KafkaSupportedProtocol.PLAINTEXT, "", "", 1);
+    assertThat(result).containsExactly(new ClusterTopic("testtopic", 2, 1));
+  }
 
-    List<Map<String, String>> result =
+  @Test
+  @Order(5)
+  public void getAllTopicsAsColumns() throws Exception {
+    mockTopicsStream(
+        "{\"columns\":[\"topicName\",\"partitions\",\"replicationFactor\"],"
+            + "\"topics\":[[\"testtopic\",2,1],[\"testtopic2\",3,2]],\"failedTopics\":[]}");
+
+    List<ClusterTopic> result =
         clusterApiService.getAllTopics("", KafkaSupportedProtocol.PLAINTEXT, "", "", 1);
-    assertThat(result).isEqualTo(new ArrayList<>(topicsList));
+    assertThat(result)
+        .containsExactly(new ClusterTopic("testtopic", 2, 1), new ClusterTopic("testtopic2", 3, 2));
   }
 
   @Test
   @Order(6)
   public void getAllTopicsFailure() throws Exception {
 
-    when(restTemplate.exchange(
-            Mockito.anyString(), eq(HttpMethod.GET), Mockito.any(), eq(Set.class)))
+    when(restTemplate.execute(
+            Mockito.anyString(),
+            eq(HttpMethod.GET),
+            any(RequestCallback.class),
+            any(ResponseExtractor.class)))
         .thenThrow(new RuntimeException("error"));
 
     assertThatThrownBy(
@@ -184,6 +255,26 @@ public class ClusterApiServiceTest {
         .isInstanceOf(KlawException.class);
   }
 
+  @Test
+  @Order(6)
+  public void getAllTopicsFailsOnPartialResult() throws Exception {
+    mockTopicsStream(
+        "{\"topics\":[{\"topicName\":\"testtopic\",\"partitions\":\"2\",\"replicationFactor\":\"1\"}],"
+            + "\"failedTopics\":[\"testtopic2\"]}");
+
+    List<ClusterTopic> streamedTopics = new ArrayList<>();
+    List<String> failedTopics =
+        clusterApiService.getAllTopics(
+            "", KafkaSupportedProtocol.PLAINTEXT, "", "", 1, streamedTopics::add);
+    assertThat(streamedTopics).hasSize(1);
+    assertThat(failedTopics).containsExactly("testtopic2");
+
+    assertThatThrownBy(
+            () -> clusterApiService.getAllTopics("", KafkaSupportedProtocol.PLAINTEXT, "", "", 1))
+        .isInstanceOf(KlawException.class)
+        .hasMessageContaining("Could not load 1 topics");
+  }
+
   @Test
   @Order(7)
   public void approveTopicRequestsSuccess() throws KlawException {
@@ -360,11 +451,88 @@ public class ClusterApiServiceTest {
         .isInstanceOf(KlawException.class);
   }
 
-  private Set<String> getTopics() {
-    Set<String> topicsList = new HashSet<>();
-    topicsList.add("topic1");
-    topicsList.add("topic2");
+  @Test
+  @Order(14)
+  public void generateTokenReusesTokenUntilShortlyBeforeExpiry() {
+    String token = ReflectionTestUtils.invokeMethod(clusterApiService, "generateToken", "testuser");
+    String reusedToken =
+        ReflectionTestUtils.invokeMethod(clusterApiService, "generateToken", "testuser");
+    String otherUserToken =
+        ReflectionTestUtils.invokeMethod(clusterApiService, "generateToken", "otheruser");
+
+    assertThat(reusedToken).isEqualTo(token);
+    assertThat(otherUserToken).isNotEqualTo(token);
+  }
+
+  @Test
+  @Order(15)
+  public void streamTopicEventsCopiesEventsToOutput() throws Exception {
+    String events =
+        "id:0-5\ndata:{\"partition\":0,\"offset\":5,\"value\":\"v5\"}\n\n"
+            + "id:0-6\ndata:{\"partition\":0,\"offset\":6,\"value\":\"v6\"}\n\n";
+    when(restTemplate.execute(
+            Mockito.endsWith("/testtopic/2?partitionId={partitionId}&startOffset={startOffset}"),
+            eq(HttpMethod.GET),
+            any(RequestCallback.class),
+            any(ResponseExtractor.class),
+            eq(Map.of("partitionId", 0, "startOffset", 5L))))
+        .thenAnswer(
+            invocation ->
+                invocation
+                    .<ResponseExtractor<?>>getArgument(3)
+                    .extractData(
+                        new MockClientHttpResponse(
+                            events.getBytes(StandardCharsets.UTF_8), HttpStatus.OK)));
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    clusterApiService.streamTopicEvents(
+        "",
+        KafkaSupportedProtocol.PLAINTEXT,
+        "",
+        "testtopic",
+        "2",
+        0,
+        5L,
+        null,
+        null,
+        outputStream,
+        1);
+
+    assertThat(outputStream.toString(StandardCharsets.UTF_8)).isEqualTo(events);
+  }
+
+  @Test
+  @Order(16)
+  public void retrieveMetricsOnlyReadsJmxUrlsOfCluster() {
+    when(kwClusters.getJmxUrls()).thenReturn("broker1:9999, service:jmx:jmxmp://broker2:9998");
+
+    assertThat(ClusterApiService.getJmxServiceUrls(kwClusters))
+        .containsExactly(
+            "service:jmx:rmi:///jndi/rmi://broker1:9999/jmxrmi", "service:jmx:jmxmp://broker2:9998");
+    assertThatThrownBy(
+            () ->
+                clusterApiService.retrieveMetrics(
+                    kwClusters,
+                    "service:jmx:rmi:///jndi/rmi://attacker:9999/jmxrmi",
+                    "kafka.server:type=BrokerTopicMetrics,name=MessagesInPerSec",
+                    1))
+        .isInstanceOf(KlawException.class);
+    Mockito.verifyNoInteractions(restTemplate);
+  }
+
+  private void mockTopicsStream(String body) {
+    when(restTemplate.execute(
+            Mockito.anyString(),
+            eq(HttpMethod.GET),
+            any(RequestCallback.class),
+            any(ResponseExtractor.class)))
+        .thenAnswer(invocation -> extractBody(invocation, body));
+  }
 
-    return topicsList;
+  private static Object extractBody(InvocationOnMock invocation, String body) throws Exception {
+    return invocation
+        .<ResponseExtractor<?>>getArgument(3)
+        .extractData(
+            new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8), HttpStatus.OK));
   }
 }
@@ -0,0 +1,119 @@
+package io.aiven.klaw.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.aiven.klaw.config.ManageDatabase;
+import io.aiven.klaw.dao.UserInfo;
+import io.aiven.klaw.helpers.db.rdbms.HandleDbRequestsJdbc;
+import io.aiven.klaw.model.KwMetadataUpdates;
+import io.aiven.klaw.model.enums.EntityType;
+import io.aiven.klaw.model.enums.MetadataOperationType;
+import io.aiven.klaw.model.enums.PermissionType;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+@ExtendWith(SpringExtension.class)
+public class CommonUtilsServiceTest {
+
+  private static final int TENANT_ID = 101;
+  private static final String USER = "kwusera";
+
+  @Mock private ManageDatabase manageDatabase;
+  @Mock private HandleDbRequestsJdbc handleDbRequests;
+
+  private CommonUtilsService commonUtilsService;
+
+  @BeforeEach
+  public void setUp() {
+    commonUtilsService = new CommonUtilsService();
+    ReflectionTestUtils.setField(commonUtilsService, "manageDatabase", manageDatabase);
+    commonUtilsService.configureUserContextCache();
+    when(manageDatabase.getHandleDbRequests()).thenReturn(handleDbRequests);
+    when(manageDatabase.getRolesPermissionsPerTenant(TENANT_ID))
+        .thenReturn(Map.of("USER", List.of(PermissionType.REQUEST_CREATE_TOPICS.name())));
+    when(handleDbRequests.getUsersInfo(USER)).thenReturn(getUserInfo("USER", 3));
+  }
+
+  @AfterEach
+  public void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Test
+  public void userIsResolvedOnceForAllChecks() {
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes(new MockHttpServletRequest()));
+
+    assertThat(commonUtilsService.getTenantId(USER)).isEqualTo(TENANT_ID);
+    assertThat(commonUtilsService.getTeamId(USER)).isEqualTo(3);
+    assertThat(commonUtilsService.isNotAuthorizedUser(USER, PermissionType.REQUEST_CREATE_TOPICS))
+        .isFalse();
+    assertThat(commonUtilsService.isNotAuthorizedUser(USER, PermissionType.APPROVE_TOPICS))
+        .isTrue();
+    RequestContextHolder.resetRequestAttributes();
+    // next request without a lookup either
+    assertThat(commonUtilsService.getTenantId(USER)).isEqualTo(TENANT_ID);
+
+    verify(handleDbRequests, times(1)).getUsersInfo(USER);
+  }
+
+  @Test
+  public void userUpdateInvalidatesCachedUser() {
+    assertThat(commonUtilsService.getTeamId(USER)).isEqualTo(3);
+
+    when(handleDbRequests.getUsersInfo(USER)).thenReturn(getUserInfo("USER", 4));
+    commonUtilsService.updateMetadata(
+        KwMetadataUpdates.builder()
+            .tenantId(TENANT_ID)
+            .entityType(EntityType.USERS.name())
+            .operationType(MetadataOperationType.UPDATE.name())
+            .build());
+
+    assertThat(commonUtilsService.getTeamId(USER)).isEqualTo(4);
+    verify(handleDbRequests, times(2)).getUsersInfo(USER);
+  }
+
+  @Test
+  public void revokedPermissionIsDeniedOnNextCheck() {
+    RequestContextHolder.setRequestAttributes(
+        new ServletRequestAttributes(new MockHttpServletRequest()));
+    assertThat(commonUtilsService.isNotAuthorizedUser(USER, PermissionType.REQUEST_CREATE_TOPICS))
+        .isFalse();
+
+    // the role loses the permission, the user stays cached
+    when(manageDatabase.getRolesPermissionsPerTenant(TENANT_ID))
+        .thenReturn(Map.of("USER", List.of()));
+
+    assertThat(commonUtilsService.isNotAuthorizedUser(USER, PermissionType.REQUEST_CREATE_TOPICS))
+        .isTrue();
+    verify(handleDbRequests, times(1)).getUsersInfo(USER);
+  }
+
+  @Test
+  public void unknownUserIsNotAuthorized() {
+    assertThat(commonUtilsService.isNotAuthorizedUser("unknown", PermissionType.APPROVE_TOPICS))
+        .isTrue();
+  }
+
+  private UserInfo getUserInfo(String role, int teamId) {
+    UserInfo userInfo = new UserInfo();
+    userInfo.setUsername(USER);
+    userInfo.setTenantId(TENANT_ID);
+    userInfo.setTeamId(teamId);
+    userInfo.setRole(role);
+    return userInfo;
+  }
+}
@@ -0,0 +1,73 @@
+package io.aiven.klaw.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.aiven.klaw.dao.Env;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class EnvFanOutServiceTest {
+
+  private EnvFanOutService envFanOutService;
+
+  @BeforeEach
+  public void setUp() {
+    envFanOutService = new EnvFanOutService();
+    ReflectionTestUtils.setField(envFanOutService, "fanOutTimeoutMs", 500L);
+    envFanOutService.init();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    envFanOutService.shutdown();
+  }
+
+  @Test
+  public void envsAreQueriedConcurrently() {
+    List<Env> envs = List.of(getEnv("1"), getEnv("2"), getEnv("3"));
+    // every query waits for all others, which only succeeds if they run at the same time
+    CountDownLatch allEnvsQueried = new CountDownLatch(envs.size());
+
+    Map<String, String> results =
+        envFanOutService.queryEnvs(
+            envs,
+            env -> {
+              allEnvsQueried.countDown();
+              return allEnvsQueried.await(400, TimeUnit.MILLISECONDS) ? "env" + env.getId() : null;
+            });
+
+    assertThat(results)
+        .containsExactly(Map.entry("1", "env1"), Map.entry("2", "env2"), Map.entry("3", "env3"));
+  }
+
+  @Test
+  public void failedAndSlowEnvsAreLeftOut() {
+    List<Env> envs = List.of(getEnv("1"), getEnv("2"), getEnv("3"));
+
+    Map<String, String> results =
+        envFanOutService.queryEnvs(
+            envs,
+            env -> {
+              if (env.getId().equals("2")) {
+                throw new IllegalStateException("schema registry unavailable");
+              } else if (env.getId().equals("3")) {
+                Thread.sleep(5000);
+              }
+              return "env" + env.getId();
+            });
+
+    assertThat(results).containsOnlyKeys("1");
+  }
+
+  private static Env getEnv(String envId) {
+    Env env = new Env();
+    env.setId(envId);
+    return env;
+  }
+}
@@ -0,0 +1,178 @@
+package io.aiven.klaw.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.aiven.klaw.config.ManageDatabase;
+import io.aiven.klaw.dao.Env;
+import io.aiven.klaw.dao.KwClusters;
+import io.aiven.klaw.helpers.db.rdbms.HandleDbRequestsJdbc;
+import io.aiven.klaw.model.MetricsSample;
+import io.aiven.klaw.model.enums.KafkaClustersType;
+import io.aiven.klaw.model.enums.MetricsResolution;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(SpringExtension.class)
+public class MetricsControllerServiceTest {
+
+  private static final int TENANT_ID = 101;
+  private static final String MESSAGES_IN =
+      "kafka.server:type=BrokerTopicMetrics,name=MessagesInPerSec";
+
+  @Mock private ManageDatabase manageDatabase;
+  @Mock private HandleDbRequestsJdbc handleDbRequests;
+  @Mock private ClusterApiService clusterApiService;
+  @Mock private CommonUtilsService commonUtilsService;
+  @Mock private MailUtils mailService;
+  @Captor private ArgumentCaptor<List<MetricsSample>> samplesCaptor;
+
+  private EnvFanOutService envFanOutService;
+  private MetricsControllerService metricsControllerService;
+
+  @BeforeEach
+  public void setUp() {
+    envFanOutService = new EnvFanOutService();
+    envFanOutService.init();
+    metricsControllerService = new MetricsControllerService();
+    ReflectionTestUtils.setField(metricsControllerService, "manageDatabase", manageDatabase);
+    ReflectionTestUtils.setField(metricsControllerService, "clusterApiService", clusterApiService);
+    ReflectionTestUtils.setField(metricsControllerService, "envFanOutService", envFanOutService);
+    ReflectionTestUtils.setField(
+        metricsControllerService, "commonUtilsService", commonUtilsService);
+    ReflectionTestUtils.setField(metricsControllerService, "mailService", mailService);
+    when(manageDatabase.getHandleDbRequests()).thenReturn(handleDbRequests);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    envFanOutService.shutdown();
+  }
+
+  @Test
+  public void brokerCountersAreSummedPerEnvOfCluster() throws Exception {
+    when(manageDatabase.getClusters(KafkaClustersType.KAFKA, TENANT_ID))
+        .thenReturn(Map.of(1, getCluster(1, "broker1:9999, broker2:9999"), 2, getCluster(2, null)));
+    when(manageDatabase.getKafkaEnvList(TENANT_ID))
+        .thenReturn(List.of(getEnv("1", 1), getEnv("2", 1), getEnv("3", 2)));
+    when(clusterApiService.retrieveClusterMetrics(
+            eq(
+                List.of(
+                    "service:jmx:rmi:///jndi/rmi://broker1:9999/jmxrmi",
+                    "service:jmx:rmi:///jndi/rmi://broker2:9999/jmxrmi")),
+            eq(List.of(MESSAGES_IN)),
+            eq(TENANT_ID)))
+        .thenReturn(
+            Map.of(
+                "service:jmx:rmi:///jndi/rmi://broker1:9999/jmxrmi",
+                Map.of(MESSAGES_IN, Map.of("Count", "40", "MeanRate", "1.5")),
+                "service:jmx:rmi:///jndi/rmi://broker2:9999/jmxrmi",
+                Map.of(MESSAGES_IN, Map.of("Count", "2"))));
+
+    metricsControllerService.collectMetrics(TENANT_ID);
+
+    // envs 1 and 2 share the scraped cluster, env 3 has no jmx urls
+    verify(clusterApiService, times(1)).retrieveClusterMetrics(anyList(), anyList(), eq(TENANT_ID));
+    verify(handleDbRequests)
+        .insertMetricsSamples(eq(TENANT_ID), anyLong(), samplesCaptor.capture());
+    assertThat(samplesCaptor.getValue())
+        .extracting(
+            MetricsSample::getEnv,
+            MetricsSample::getMetricsType,
+            MetricsSample::getMetricsName,
+            MetricsSample::getValue)
+        .containsExactly(
+            tuple("1", "kafka.server:type=BrokerTopicMetrics", "name=MessagesInPerSec", 42.0),
+            tuple("2", "kafka.server:type=BrokerTopicMetrics", "name=MessagesInPerSec", 42.0));
+  }
+
+  @Test
+  public void brokerTopMetricsAreReadForSelectedEnv() {
+    Authentication authentication = mock(Authentication.class);
+    SecurityContext securityContext = mock(SecurityContext.class);
+    when(securityContext.getAuthentication()).thenReturn(authentication);
+    SecurityContextHolder.setContext(securityContext);
+    when(mailService.getUserName(any())).thenReturn("user");
+    when(commonUtilsService.getTenantId("user")).thenReturn(TENANT_ID);
+
+    metricsControllerService.getBrokerTopMetrics("3");
+
+    verify(handleDbRequests)
+        .selectMetricsPoints(
+            eq("kafka.server:type=BrokerTopicMetrics"),
+            eq("name=MessagesInPerSec"),
+            eq("3"),
+            eq(TENANT_ID),
+            anyLong(),
+            anyLong(),
+            anyInt());
+    verify(commonUtilsService)
+        .getChartsJsOverview(
+            anyList(), anyString(), anyString(), anyString(), anyString(), anyString(), anyInt());
+  }
+
+  @Test
+  public void nothingIsScrapedWithoutJmxUrls() throws Exception {
+    when(manageDatabase.getClusters(KafkaClustersType.KAFKA, TENANT_ID))
+        .thenReturn(Map.of(1, getCluster(1, "")));
+    when(manageDatabase.getKafkaEnvList(TENANT_ID)).thenReturn(List.of(getEnv("1", 1)));
+
+    metricsControllerService.collectMetrics(TENANT_ID);
+
+    verify(clusterApiService, times(0)).retrieveClusterMetrics(anyList(), anyList(), eq(TENANT_ID));
+    verify(handleDbRequests, times(0)).insertMetricsSamples(anyInt(), anyLong(), anyList());
+  }
+
+  @Test
+  public void pointsOlderThanRetentionOfResolutionAreDeleted() {
+    long now = 1_677_654_321_000L;
+
+    metricsControllerService.purgeMetrics(now);
+
+    verify(handleDbRequests)
+        .deleteMetricsPoints(MetricsResolution.MINUTE, now - TimeUnit.DAYS.toMillis(2));
+    verify(handleDbRequests)
+        .deleteMetricsPoints(MetricsResolution.HOUR, now - TimeUnit.DAYS.toMillis(90));
+    verify(handleDbRequests)
+        .deleteMetricsPoints(MetricsResolution.DAY, now - TimeUnit.DAYS.toMillis(730));
+  }
+
+  private static KwClusters getCluster(int clusterId, String jmxUrls) {
+    KwClusters kwClusters = new KwClusters();
+    kwClusters.setClusterId(clusterId);
+    kwClusters.setTenantId(TENANT_ID);
+    kwClusters.setJmxUrls(jmxUrls);
+    return kwClusters;
+  }
+
+  private static Env getEnv(String envId, int clusterId) {
+    Env env = new Env();
+    env.setId(envId);
+    env.setClusterId(clusterId);
+    env.setTenantId(TENANT_ID);
+    return env;
+  }
+}
@@ -78,6 +78,9 @@ public class SchemaOverviewServiceTest {
     ReflectionTestUtils.setField(schemaOverviewService, "manageDatabase", manageDatabase);
     ReflectionTestUtils.setField(schemaOverviewService, "commonUtilsService", commonUtilsService);
     ReflectionTestUtils.setField(schemaOverviewService, "clusterApiService", clusterApiService);
+    EnvFanOutService envFanOutService = new EnvFanOutService();
+    envFanOutService.init();
+    ReflectionTestUtils.setField(schemaOverviewService, "envFanOutService", envFanOutService);
     when(manageDatabase.getHandleDbRequests()).thenReturn(handleDbRequests);
     loginMock();
   }
@@ -172,6 +175,7 @@ public class SchemaOverviewServiceTest {
   private KwClusters createCluster(KafkaClustersType clusterType) {
     KwClusters cluster = new KwClusters();
     cluster.setClusterId(1);
+    cluster.setClusterName("cluster");
     cluster.setClusterType(clusterType.value);
     cluster.setBootstrapServers("server:8081");
     cluster.setTenantId(101);
@@ -201,9 +205,11 @@ public class SchemaOverviewServiceTest {
         .thenReturn(createListOfEnvs(KafkaClustersType.SCHEMA_REGISTRY, numberOfEnvs));
     when(manageDatabase.getClusters(KafkaClustersType.SCHEMA_REGISTRY, 101))
         .thenReturn(createClusterMap(numberOfEnvs));
+    // registries are queried in parallel, only the one of the first env has the schema
     when(clusterApiService.getAvroSchema(any(), any(), any(), eq(testtopic), eq(101)))
-        .thenReturn(createSchemaList())
         .thenReturn(null);
+    when(clusterApiService.getAvroSchema(any(), any(), eq("cluster1"), eq(testtopic), eq(101)))
+        .thenReturn(createSchemaList());
   }
 
   private void stubKafkaPromotion(String testtopic, int numberOfEnvs) throws Exception {
@@ -234,7 +240,9 @@ public class SchemaOverviewServiceTest {
     Map<Integer, KwClusters> map = new HashMap<>();
 
     for (int i = 0; i < numberOfClusters; i++) {
-      map.put(i + 1, createCluster(KafkaClustersType.SCHEMA_REGISTRY));
+      KwClusters cluster = createCluster(KafkaClustersType.SCHEMA_REGISTRY);
+      cluster.setClusterId(i + 1);
+      map.put(i + 1, cluster);
     }
     return map;
   }
@@ -5,8 +5,12 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.aiven.klaw.UtilMethods;
@@ -38,6 +42,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
@@ -77,6 +82,8 @@ public class TopicControllerServiceTest {
 
   @Mock RolesPermissionsControllerService rolesPermissionsControllerService;
 
+  @Mock private TopicSyncControllerService topicSyncControllerService;
+
   @Mock Map<Integer, KwTenantConfigModel> tenantConfig;
 
   @Mock KwTenantConfigModel tenantConfigModel;
@@ -95,6 +102,8 @@ public class TopicControllerServiceTest {
     ReflectionTestUtils.setField(topicControllerService, "manageDatabase", manageDatabase);
     ReflectionTestUtils.setField(topicControllerService, "mailService", mailService);
     ReflectionTestUtils.setField(topicControllerService, "commonUtilsService", commonUtilsService);
+    ReflectionTestUtils.setField(
+        topicControllerService, "topicSyncControllerService", topicSyncControllerService);
     ReflectionTestUtils.setField(
         topicControllerService,
         "rolesPermissionsControllerService",
@@ -821,7 +830,10 @@ public class TopicControllerServiceTest {
     when(commonUtilsService.getEnvsFromUserId(anyString()))
         .thenReturn(new HashSet<>(Collections.singletonList("1")));
     when(commonUtilsService.deriveCurrentPage(anyString(), anyString(), anyInt())).thenReturn("1");
-    when(handleDbRequests.getSyncTopics(any(), any(), anyInt()))
+    when(handleDbRequests.countSyncTopicNames(eq(Set.of("1")), any(), eq("top"), anyInt()))
+        .thenReturn(4L);
+    when(handleDbRequests.getSyncTopicsPage(
+            eq(Set.of("1")), any(), eq("top"), anyInt(), eq(1), anyInt()))
         .thenReturn(getSyncTopics("topic", 4));
     when(manageDatabase.getKafkaEnvList(anyInt())).thenReturn(utilMethods.getEnvLists());
     when(manageDatabase.getTeamNameFromTeamId(anyInt(), anyInt()))
@@ -831,12 +843,12 @@ public class TopicControllerServiceTest {
             KwConstants.INFRATEAM,
             KwConstants.INFRATEAM);
     when(mailService.getEnvProperty(anyInt(), anyString())).thenReturn("1");
-    when(commonUtilsService.groupTopicsByEnv(any())).thenReturn(getSyncTopics("topic", 4));
 
     List<List<TopicInfo>> topicsList =
         topicControllerService.getTopics(envSel, pageNo, "", topicNameSearch, null, null);
 
     assertThat(topicsList).hasSize(2);
+    verify(handleDbRequests, never()).getSyncTopics(any(), any(), anyInt());
   }
 
   @Test
@@ -915,7 +927,9 @@ public class TopicControllerServiceTest {
     when(manageDatabase.getTeamsAndAllowedEnvs(anyInt(), anyInt()))
         .thenReturn(Collections.singletonList("1"));
     when(commonUtilsService.deriveCurrentPage(anyString(), anyString(), anyInt())).thenReturn("1");
-    when(handleDbRequests.getSyncTopics(envSel, null, 1)).thenReturn(getSyncTopics("topic", 4));
+    when(commonUtilsService.getEnvsFromUserId(anyString()))
+        .thenReturn(new HashSet<>(Collections.singletonList("1")));
+    when(handleDbRequests.countSyncTopicNames(any(), any(), eq("demo"), anyInt())).thenReturn(0L);
 
     List<List<TopicInfo>> topicsList =
         topicControllerService.getTopics(envSel, pageNo, "", topicNameSearch, null, null);
@@ -1109,6 +1123,50 @@ public class TopicControllerServiceTest {
         });
   }
 
+  @Test
+  @Order(49)
+  public void approveTopicRequestsBulk() throws KlawException {
+    TopicRequest topicRequest1 = getTopicRequest("topic1");
+    TopicRequest topicRequest2 = getTopicRequest("topic2");
+    topicRequest2.setTopictype(RequestOperationType.DELETE.value);
+
+    stubUserInfo();
+    when(handleDbRequests.selectTopicRequestsForTopic(eq(1001), anyInt()))
+        .thenReturn(topicRequest1);
+    when(handleDbRequests.selectTopicRequestsForTopic(eq(1002), anyInt()))
+        .thenReturn(topicRequest2);
+    when(handleDbRequests.selectTopicRequestsForTopic(eq(1003), anyInt())).thenReturn(null);
+    when(handleDbRequests.updateTopicRequest(any(), anyString()))
+        .thenReturn(ApiResultStatus.SUCCESS.value);
+    when(clusterApiService.approveTopicRequests(anyList(), anyList(), anyInt()))
+        .thenReturn(
+            List.of(
+                ApiResponse.builder().result(ApiResultStatus.SUCCESS.value).build(),
+                ApiResponse.builder().result("Topic does not exist").build()));
+    when(commonUtilsService.getEnvsFromUserId(anyString()))
+        .thenReturn(new HashSet<>(Collections.singletonList("1")));
+
+    ApiResponse apiResponse =
+        topicControllerService.approveTopicRequests(List.of("1001", "1002", "1003", "abc"));
+
+    assertThat(apiResponse.getResult()).isEqualTo(ApiResultStatus.FAILURE.value);
+    assertThat(apiResponse.getData())
+        .isEqualTo(
+            Map.of(
+                "1001",
+                ApiResultStatus.SUCCESS.value,
+                "1002",
+                "Topic does not exist",
+                "1003",
+                "This request does not exist anymore.",
+                "abc",
+                "Invalid request id."));
+    verify(clusterApiService, times(1)).approveTopicRequests(anyList(), anyList(), anyInt());
+    verify(handleDbRequests, times(1)).updateTopicRequest(topicRequest1, "kwusera");
+    verify(topicSyncControllerService, times(1))
+        .invalidateSyncTopics(anyInt(), eq(topicRequest1.getEnvironment()));
+  }
+
   private TopicRequestModel getTopicWithAdvancedConfigs() {
     TopicRequestModel topicRequest = new TopicRequestModel();
     topicRequest.setTopicname("newtopicname");
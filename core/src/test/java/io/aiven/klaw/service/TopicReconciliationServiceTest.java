@@ -0,0 +1,338 @@
+package io.aiven.klaw.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.aiven.klaw.UtilMethods;
+import io.aiven.klaw.config.ManageDatabase;
+import io.aiven.klaw.dao.KwClusters;
+import io.aiven.klaw.dao.KwTopicDrift;
+import io.aiven.klaw.dao.KwTopicRecon;
+import io.aiven.klaw.dao.KwTopicSnapshot;
+import io.aiven.klaw.dao.Topic;
+import io.aiven.klaw.helpers.db.rdbms.HandleDbRequestsJdbc;
+import io.aiven.klaw.model.KafkaSupportedProtocol;
+import io.aiven.klaw.model.TopicRequestModel;
+import io.aiven.klaw.model.cluster.ClusterTopic;
+import io.aiven.klaw.model.enums.KafkaClustersType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.stubbing.Answer;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(SpringExtension.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class TopicReconciliationServiceTest {
+
+  public static final int TENANT_ID = 101;
+
+  @Mock private ClusterApiService clusterApiService;
+
+  @Mock private ManageDatabase manageDatabase;
+
+  @Mock private HandleDbRequestsJdbc handleDbRequests;
+
+  @Mock private CommonUtilsService commonUtilsService;
+
+  @Mock private MailUtils mailService;
+
+  @Mock private Map<Integer, KwClusters> clustersHashMap;
+
+  @Mock private KwClusters kwClusters;
+
+  private TopicReconciliationService topicReconciliationService;
+
+  private UtilMethods utilMethods;
+
+  // drift reported in the database
+  private final List<KwTopicDrift> reportedDrift = new ArrayList<>();
+
+  // reconciliation state and snapshot stored in the database
+  private final List<KwTopicRecon> topicRecons = new ArrayList<>();
+
+  private final Map<String, KwTopicSnapshot> storedSnapshot = new HashMap<>();
+
+  @BeforeEach
+  public void setUp() {
+    topicReconciliationService = getTopicReconciliationService();
+    utilMethods = new UtilMethods();
+
+    when(manageDatabase.getHandleDbRequests()).thenReturn(handleDbRequests);
+    when(manageDatabase.getKafkaEnvListAllTenants(TENANT_ID)).thenReturn(utilMethods.getEnvLists());
+    when(manageDatabase.getClusters(any(KafkaClustersType.class), anyInt()))
+        .thenReturn(clustersHashMap);
+    when(manageDatabase.getTeamNameFromTeamId(TENANT_ID, 101)).thenReturn("Octopus");
+    when(clustersHashMap.get(any())).thenReturn(kwClusters);
+    when(kwClusters.getBootstrapServers()).thenReturn("clusters");
+    when(kwClusters.getProtocol()).thenReturn(KafkaSupportedProtocol.PLAINTEXT);
+    when(kwClusters.getClusterName()).thenReturn("cluster");
+    when(kwClusters.getKafkaFlavor()).thenReturn("Apache Kafka");
+
+    reportedDrift.clear();
+    when(handleDbRequests.getReportedTopicDrift(TENANT_ID, "1"))
+        .thenAnswer(invocation -> List.copyOf(reportedDrift));
+    doAnswer(
+            invocation -> {
+              reportedDrift.clear();
+              reportedDrift.addAll(invocation.getArgument(2));
+              return null;
+            })
+        .when(handleDbRequests)
+        .updateReportedTopicDrift(eq(TENANT_ID), eq("1"), any());
+    when(handleDbRequests.acquireSchedulerLock(anyString(), anyString(), any(Long.class)))
+        .thenReturn(true);
+
+    topicRecons.clear();
+    storedSnapshot.clear();
+    when(handleDbRequests.getTopicRecons(TENANT_ID))
+        .thenAnswer(invocation -> List.copyOf(topicRecons));
+    doAnswer(invocation -> topicRecons.add(invocation.getArgument(0)))
+        .when(handleDbRequests)
+        .addTopicRecon(any());
+    doAnswer(
+            invocation -> {
+              topicRecons.forEach(
+                  topicRecon -> topicRecon.setSyncVersion(topicRecon.getSyncVersion() + 1));
+              return null;
+            })
+        .when(handleDbRequests)
+        .updateTopicsSynced(TENANT_ID);
+    when(handleDbRequests.getTopicSnapshot(TENANT_ID, "1"))
+        .thenAnswer(invocation -> List.copyOf(storedSnapshot.values()));
+    doAnswer(
+            invocation -> {
+              List<KwTopicSnapshot> changedTopics = invocation.getArgument(2);
+              List<KwTopicSnapshot> removedTopics = invocation.getArgument(3);
+              removedTopics.forEach(
+                  topicSnapshot -> storedSnapshot.remove(topicSnapshot.getTopicName()));
+              changedTopics.forEach(
+                  topicSnapshot -> storedSnapshot.put(topicSnapshot.getTopicName(), topicSnapshot));
+              topicRecons.forEach(
+                  topicRecon -> {
+                    topicRecon.setReconciledVersion(invocation.getArgument(4));
+                    topicRecon.setLastRunTime(invocation.getArgument(5));
+                  });
+              return null;
+            })
+        .when(handleDbRequests)
+        .updateTopicSnapshot(eq(TENANT_ID), eq("1"), any(), any(), anyInt(), any(Long.class));
+  }
+
+  private TopicReconciliationService getTopicReconciliationService() {
+    TopicReconciliationService reconciliationService = new TopicReconciliationService();
+    ReflectionTestUtils.setField(reconciliationService, "manageDatabase", manageDatabase);
+    ReflectionTestUtils.setField(reconciliationService, "clusterApiService", clusterApiService);
+    ReflectionTestUtils.setField(reconciliationService, "mailService", mailService);
+    ReflectionTestUtils.setField(reconciliationService, "commonUtilsService", commonUtilsService);
+    ReflectionTestUtils.setField(reconciliationService, "reconEnabled", true);
+    return reconciliationService;
+  }
+
+  @Test
+  @Order(1)
+  public void reconcileTopicsReportsOnlyNewDrift() throws Exception {
+    when(clusterApiService.getAllTopics(
+            anyString(),
+            any(KafkaSupportedProtocol.class),
+            anyString(),
+            anyString(),
+            anyInt(),
+            any()))
+        .thenAnswer(streamTopics(utilMethods.getClusterApiTopics("topic", 3)))
+        .thenAnswer(streamTopics(utilMethods.getClusterApiTopics("topic", 4)));
+    when(handleDbRequests.getSyncTopics("1", null, TENANT_ID))
+        .thenReturn(List.of(getTopic("topic0", 1), getTopic("klawtopic", 2)));
+
+    assertThat(topicReconciliationService.getTopicDrift(TENANT_ID, "1")).isEmpty();
+
+    List<TopicRequestModel> drift = topicReconciliationService.reconcileTopics(TENANT_ID, "1");
+    assertThat(drift)
+        .extracting(TopicRequestModel::getTopicname)
+        .containsExactlyInAnyOrder("topic1", "topic2", "klawtopic");
+
+    // topic3 is created on the cluster
+    drift = topicReconciliationService.reconcileTopics(TENANT_ID, "1");
+    assertThat(drift).extracting(TopicRequestModel::getTopicname).containsExactly("topic3");
+    assertThat(drift.get(0).getRemarks()).isEqualTo(TopicReconciliationService.ADDED);
+
+    assertThat(topicReconciliationService.getTopicDrift(TENANT_ID, "1"))
+        .hasValueSatisfying(
+            topicDrift ->
+                assertThat(topicDrift)
+                    .extracting(TopicRequestModel::getTopicname)
+                    .containsExactly("topic1", "topic2", "topic3", "klawtopic"));
+    verify(mailService, times(2))
+        .sendReconMailToAdmin(anyString(), anyString(), any(), eq(TENANT_ID), any());
+  }
+
+  @Test
+  @Order(2)
+  public void reconcileTopicsWithoutChanges() throws Exception {
+    when(clusterApiService.getAllTopics(
+            anyString(),
+            any(KafkaSupportedProtocol.class),
+            anyString(),
+            anyString(),
+            anyInt(),
+            any()))
+        .thenAnswer(streamTopics(utilMethods.getClusterApiTopics("topic", 2)));
+    when(handleDbRequests.getSyncTopics("1", null, TENANT_ID))
+        .thenReturn(List.of(getTopic("topic0", 1), getTopic("topic1", 2)));
+
+    assertThat(topicReconciliationService.reconcileTopics(TENANT_ID, "1")).isEmpty();
+    assertThat(topicReconciliationService.reconcileTopics(TENANT_ID, "1")).isEmpty();
+    verify(mailService, never())
+        .sendReconMailToAdmin(anyString(), anyString(), any(), anyInt(), any());
+  }
+
+  @Test
+  @Order(3)
+  public void invalidatedDriftIsNotServed() throws Exception {
+    when(clusterApiService.getAllTopics(
+            anyString(),
+            any(KafkaSupportedProtocol.class),
+            anyString(),
+            anyString(),
+            anyInt(),
+            any()))
+        .thenAnswer(streamTopics(utilMethods.getClusterApiTopics("topic", 2)));
+    when(handleDbRequests.getSyncTopics("1", null, TENANT_ID)).thenReturn(List.of());
+
+    topicReconciliationService.reconcileTopics(TENANT_ID, "1");
+    assertThat(topicReconciliationService.getTopicDrift(TENANT_ID, "1")).isPresent();
+
+    topicReconciliationService.invalidate(TENANT_ID);
+    assertThat(topicReconciliationService.getTopicDrift(TENANT_ID, "1")).isEmpty();
+    // the scheduler lock is left to the instance holding it
+    verify(handleDbRequests, never())
+        .acquireSchedulerLock(anyString(), anyString(), any(Long.class));
+
+    topicReconciliationService.reconcileTopics(TENANT_ID, "1");
+    assertThat(topicReconciliationService.getTopicDrift(TENANT_ID, "1")).isPresent();
+  }
+
+  @Test
+  @Order(4)
+  public void reportedDriftIsNotMailedAgainAfterRestart() throws Exception {
+    when(clusterApiService.getAllTopics(
+            anyString(),
+            any(KafkaSupportedProtocol.class),
+            anyString(),
+            anyString(),
+            anyInt(),
+            any()))
+        .thenAnswer(streamTopics(utilMethods.getClusterApiTopics("topic", 2)));
+    when(handleDbRequests.getSyncTopics("1", null, TENANT_ID))
+        .thenReturn(List.of(getTopic("topic0", 1)));
+    reportedDrift.add(new KwTopicDrift(TENANT_ID, "1", "topic1", TopicReconciliationService.ADDED));
+
+    // a new instance has no drift in memory
+    assertThat(topicReconciliationService.reconcileTopics(TENANT_ID, "1")).isEmpty();
+    assertThat(topicReconciliationService.getTopicDrift(TENANT_ID, "1"))
+        .hasValueSatisfying(
+            topicDrift ->
+                assertThat(topicDrift)
+                    .extracting(TopicRequestModel::getTopicname)
+                    .containsExactly("topic1"));
+    verify(mailService, never())
+        .sendReconMailToAdmin(anyString(), anyString(), any(), anyInt(), any());
+  }
+
+  @Test
+  @Order(5)
+  public void resolvedDriftIsRemovedFromReportedDrift() throws Exception {
+    when(clusterApiService.getAllTopics(
+            anyString(),
+            any(KafkaSupportedProtocol.class),
+            anyString(),
+            anyString(),
+            anyInt(),
+            any()))
+        .thenAnswer(streamTopics(utilMethods.getClusterApiTopics("topic", 1)));
+    when(handleDbRequests.getSyncTopics("1", null, TENANT_ID))
+        .thenReturn(List.of(getTopic("topic0", 1)));
+    reportedDrift.add(new KwTopicDrift(TENANT_ID, "1", "topic1", TopicReconciliationService.ADDED));
+
+    assertThat(topicReconciliationService.reconcileTopics(TENANT_ID, "1")).isEmpty();
+    assertThat(reportedDrift).isEmpty();
+  }
+
+  @Test
+  @Order(6)
+  public void restartedInstanceDiffsAgainstStoredSnapshot() throws Exception {
+    when(clusterApiService.getAllTopics(
+            anyString(),
+            any(KafkaSupportedProtocol.class),
+            anyString(),
+            anyString(),
+            anyInt(),
+            any()))
+        .thenAnswer(streamTopics(utilMethods.getClusterApiTopics("topic", 3)))
+        .thenAnswer(streamTopics(utilMethods.getClusterApiTopics("topic", 4)));
+    when(handleDbRequests.getSyncTopics("1", null, TENANT_ID))
+        .thenReturn(List.of(getTopic("topic0", 1), getTopic("klawtopic", 2)));
+
+    topicReconciliationService.reconcileTopics(TENANT_ID, "1");
+
+    // topic3 is created on the cluster while klaw restarts
+    TopicReconciliationService restartedService = getTopicReconciliationService();
+    List<TopicRequestModel> drift = restartedService.reconcileTopics(TENANT_ID, "1");
+    assertThat(drift).extracting(TopicRequestModel::getTopicname).containsExactly("topic3");
+    assertThat(restartedService.getTopicDrift(TENANT_ID, "1"))
+        .hasValueSatisfying(
+            topicDrift ->
+                assertThat(topicDrift)
+                    .extracting(TopicRequestModel::getTopicname)
+                    .containsExactly("topic1", "topic2", "topic3", "klawtopic"));
+
+    // only the topic which changed since the stored run is written
+    ArgumentCaptor<List<KwTopicSnapshot>> changedTopics = ArgumentCaptor.forClass(List.class);
+    verify(handleDbRequests, times(2))
+        .updateTopicSnapshot(
+            eq(TENANT_ID), eq("1"), changedTopics.capture(), any(), anyInt(), any(Long.class));
+    assertThat(changedTopics.getValue())
+        .extracting(KwTopicSnapshot::getTopicName)
+        .containsExactly("topic3");
+    assertThat(changedTopics.getValue().get(0).isNew()).isTrue();
+  }
+
+  private static Topic getTopic(String topicName, int topicId) {
+    Topic topic = new Topic();
+    topic.setTopicname(topicName);
+    topic.setTopicid(topicId);
+    topic.setTeamId(101);
+    topic.setEnvironment("1");
+    topic.setNoOfPartitions(2);
+    topic.setNoOfReplcias("1");
+    return topic;
+  }
+
+  // passes the topics to the consumer of the call, as they are streamed from cluster api
+  private static Answer<List<String>> streamTopics(List<ClusterTopic> clusterTopics) {
+    return invocation -> {
+      Consumer<ClusterTopic> topicConsumer = invocation.getArgument(5);
+      clusterTopics.forEach(topicConsumer);
+      return List.of();
+    };
+  }
+}
@@ -24,6 +24,8 @@ import io.aiven.klaw.model.KafkaSupportedProtocol;
 import io.aiven.klaw.model.KwTenantConfigModel;
 import io.aiven.klaw.model.SyncBackTopics;
 import io.aiven.klaw.model.SyncTopicUpdates;
+import io.aiven.klaw.model.TopicRequestModel;
+import io.aiven.klaw.model.cluster.ClusterTopic;
 import io.aiven.klaw.model.enums.ApiResultStatus;
 import io.aiven.klaw.model.enums.KafkaClustersType;
 import java.util.ArrayList;
@@ -33,6 +35,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
@@ -43,6 +46,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -80,6 +84,8 @@ public class TopicSyncControllerServiceTest {
 
   @Mock private MailUtils mailService;
 
+  @Mock private TopicReconciliationService topicReconciliationService;
+
   private TopicSyncControllerService topicSyncControllerService;
 
   @Mock RolesPermissionsControllerService rolesPermissionsControllerService;
@@ -112,6 +118,9 @@ public class TopicSyncControllerServiceTest {
         topicSyncControllerService,
         "rolesPermissionsControllerService",
         rolesPermissionsControllerService);
+    ReflectionTestUtils.setField(
+        topicSyncControllerService, "topicReconciliationService", topicReconciliationService);
+    topicSyncControllerService.configureSyncCaches();
 
     when(manageDatabase.getHandleDbRequests()).thenReturn(handleDbRequests);
     loginMock();
@@ -189,8 +198,13 @@ public class TopicSyncControllerServiceTest {
     stubUserInfo();
     when(manageDatabase.getKafkaEnvList(anyInt())).thenReturn(utilMethods.getEnvLists());
     when(clusterApiService.getAllTopics(
-            anyString(), any(KafkaSupportedProtocol.class), anyString(), anyString(), anyInt()))
-        .thenReturn(utilMethods.getClusterApiTopics("topic", 10));
+            anyString(),
+            any(KafkaSupportedProtocol.class),
+            anyString(),
+            anyString(),
+            anyInt(),
+            any()))
+        .thenAnswer(streamTopics(utilMethods.getClusterApiTopics("topic", 10)));
     when(handleDbRequests.selectAllTeamsOfUsers(anyString(), anyInt()))
         .thenReturn(getAvailableTeams());
     when(manageDatabase.getClusters(any(KafkaClustersType.class), anyInt()))
@@ -395,6 +409,102 @@ public class TopicSyncControllerServiceTest {
         .isEqualTo("Error :Could not approve topic request. Please contact Administrator.");
   }
 
+  @Test
+  @Order(10)
+  public void getSyncTopicsPagesFromCachedClusterSnapshot() throws Exception {
+    stubUserInfo();
+    when(manageDatabase.getKafkaEnvList(anyInt())).thenReturn(utilMethods.getEnvLists());
+    when(clusterApiService.getAllTopics(
+            anyString(),
+            any(KafkaSupportedProtocol.class),
+            anyString(),
+            anyString(),
+            anyInt(),
+            any()))
+        .thenAnswer(streamTopics(utilMethods.getClusterApiTopics("topic", 30)));
+    when(manageDatabase.getClusters(any(KafkaClustersType.class), anyInt()))
+        .thenReturn(clustersHashMap);
+    when(clustersHashMap.get(any())).thenReturn(kwClusters);
+    when(kwClusters.getBootstrapServers()).thenReturn("clusters");
+    when(kwClusters.getProtocol()).thenReturn(KafkaSupportedProtocol.PLAINTEXT);
+    when(kwClusters.getClusterName()).thenReturn("cluster");
+    when(kwClusters.getKafkaFlavor()).thenReturn("Apache Kafka");
+    when(commonUtilsService.deriveCurrentPage(anyString(), anyString(), anyInt()))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    Map<String, Object> firstPage =
+        topicSyncControllerService.getSyncTopics("1", "1", "", null, "true", false);
+    Map<String, Object> secondPage =
+        topicSyncControllerService.getSyncTopics("1", "2", "", null, "true", false);
+
+    assertThat((List<?>) firstPage.get("resultSet")).hasSize(20);
+    assertThat((List<?>) secondPage.get("resultSet")).hasSize(10);
+    assertThat(secondPage.get("allTopicsCount")).isEqualTo(30);
+    verify(clusterApiService, times(1))
+        .getAllTopics(
+            anyString(),
+            any(KafkaSupportedProtocol.class),
+            anyString(),
+            anyString(),
+            anyInt(),
+            any());
+
+    topicSyncControllerService.getSyncTopics("1", "1", "", null, "true", false, true);
+    verify(clusterApiService, times(2))
+        .getAllTopics(
+            anyString(),
+            any(KafkaSupportedProtocol.class),
+            anyString(),
+            anyString(),
+            anyInt(),
+            any());
+
+    // e.g. a topic request of the environment was approved
+    topicSyncControllerService.invalidateSyncTopics(TENANT_ID, "1");
+    topicSyncControllerService.getSyncTopics("1", "2", "", null, "true", false);
+    verify(clusterApiService, times(3))
+        .getAllTopics(
+            anyString(),
+            any(KafkaSupportedProtocol.class),
+            anyString(),
+            anyString(),
+            anyInt(),
+            any());
+  }
+
+  @Test
+  @Order(11)
+  public void getReconTopicsFromBackgroundReconciliation() throws Exception {
+    stubUserInfo();
+    TopicRequestModel addedTopic = new TopicRequestModel();
+    addedTopic.setTopicname("testtopic");
+    addedTopic.setRemarks("ADDED");
+    addedTopic.setTeamId(0);
+    TopicRequestModel deletedTopic = new TopicRequestModel();
+    deletedTopic.setTopicname("othertopic");
+    deletedTopic.setRemarks("DELETED");
+    deletedTopic.setTeamId(101);
+    when(topicReconciliationService.getTopicDrift(anyInt(), eq("1")))
+        .thenReturn(Optional.of(List.of(addedTopic, deletedTopic)));
+    when(commonUtilsService.deriveCurrentPage(anyString(), anyString(), anyInt()))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    Map<String, Object> reconTopics =
+        topicSyncControllerService.getReconTopics("1", "1", "", "test", "false", false);
+
+    assertThat((List<TopicRequestModel>) reconTopics.get("resultSet"))
+        .extracting(TopicRequestModel::getTopicname)
+        .containsExactly("testtopic");
+    verify(clusterApiService, times(0))
+        .getAllTopics(
+            anyString(),
+            any(KafkaSupportedProtocol.class),
+            anyString(),
+            anyString(),
+            anyInt(),
+            any());
+  }
+
   private List<Team> getAvailableTeams() {
 
     Team team1 = new Team();
@@ -492,4 +602,13 @@ public class TopicSyncControllerServiceTest {
     assertThat(topicReq.getTopicid()).isEqualTo(topicId);
     assertThat(topicReq.getTopicname()).isEqualTo(topicName);
   }
+
+  // passes the topics to the consumer of the call, as they are streamed from cluster api
+  private static Answer<List<String>> streamTopics(List<ClusterTopic> clusterTopics) {
+    return invocation -> {
+      Consumer<ClusterTopic> topicConsumer = invocation.getArgument(5);
+      clusterTopics.forEach(topicConsumer);
+      return List.of();
+    };
+  }
 }
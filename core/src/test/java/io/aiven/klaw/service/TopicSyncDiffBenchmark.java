@@ -0,0 +1,110 @@
+package io.aiven.klaw.service;
+
+import io.aiven.klaw.dao.Topic;
+import io.aiven.klaw.model.cluster.ClusterTopic;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the hash indexed topic sync diff with the previous linear search of the klaw topics for
+ * every cluster topic. Half of the topics exist on both sides, a quarter only on the cluster and a
+ * quarter only in klaw.
+ *
+ * <p>Run the main method from the test classpath, e.g. <code>
+ * mvn -pl core test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=io.aiven.klaw.service.TopicSyncDiffBenchmark</code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class TopicSyncDiffBenchmark {
+
+  @Param({"1000", "10000", "100000"})
+  private int numberOfTopics;
+
+  private List<ClusterTopic> clusterTopics;
+
+  private List<Topic> topicsFromSOT;
+
+  @Setup
+  public void setUp() {
+    clusterTopics = new ArrayList<>();
+    topicsFromSOT = new ArrayList<>();
+    int offset = numberOfTopics / 4;
+    for (int i = 0; i < numberOfTopics; i++) {
+      clusterTopics.add(new ClusterTopic("topic" + i, 2, 1));
+
+      Topic topic = new Topic();
+      topic.setTopicname("topic" + (i + offset));
+      topic.setTeamId(101);
+      topicsFromSOT.add(topic);
+    }
+  }
+
+  @Benchmark
+  public void hashIndexed(Blackhole blackhole) {
+    TopicSyncDiff topicSyncDiff = TopicSyncDiff.diff(clusterTopics, topicsFromSOT);
+    for (ClusterTopic clusterTopic : clusterTopics) {
+      blackhole.consume(topicSyncDiff.getMatchedTopic(clusterTopic.getTopicName()));
+    }
+    blackhole.consume(topicSyncDiff.getDeleted());
+  }
+
+  // the lookups TopicSyncControllerService used to do
+  @Benchmark
+  public void linearSearch(Blackhole blackhole) {
+    for (ClusterTopic clusterTopic : clusterTopics) {
+      String topicName = clusterTopic.getTopicName();
+      Optional<Topic> topic =
+          topicsFromSOT.stream()
+              .filter(a -> Objects.equals(a.getTopicname(), topicName))
+              .findFirst();
+      blackhole.consume(topic);
+    }
+
+    List<String> clusterTopicStringList = new ArrayList<>();
+    clusterTopics.forEach(clusterTopic -> clusterTopicStringList.add(clusterTopic.getTopicName()));
+    List<String> sotTopicStringList = new ArrayList<>();
+    topicsFromSOT.forEach(topic -> sotTopicStringList.add(topic.getTopicname()));
+    blackhole.consume(
+        sotTopicStringList.stream()
+            .filter(topicName -> !clusterTopicStringList.contains(topicName))
+            .collect(Collectors.toList()));
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(
+            new OptionsBuilder()
+                .include(TopicSyncDiffBenchmark.class.getSimpleName() + ".hashIndexed")
+                .build())
+        .run();
+    // quadratic, one invocation at 100k topics takes minutes
+    new Runner(
+            new OptionsBuilder()
+                .include(TopicSyncDiffBenchmark.class.getSimpleName() + ".linearSearch")
+                .param("numberOfTopics", "1000", "10000")
+                .build())
+        .run();
+  }
+}
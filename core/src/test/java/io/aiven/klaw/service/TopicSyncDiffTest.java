@@ -0,0 +1,54 @@
+package io.aiven.klaw.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.aiven.klaw.dao.Topic;
+import io.aiven.klaw.model.cluster.ClusterTopic;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class TopicSyncDiffTest {
+
+  @Test
+  public void diffPartitionsTopicsIntoAddedMatchedAndDeleted() {
+    Topic topic1 = getTopic("topic1", 1);
+    Topic topic2 = getTopic("topic2", 2);
+    Topic duplicateTopic2 = getTopic("topic2", 3);
+    Topic topic3 = getTopic("topic3", 4);
+
+    TopicSyncDiff topicSyncDiff =
+        TopicSyncDiff.diff(
+            List.of(
+                getClusterTopic("topic0"), getClusterTopic("topic1"), getClusterTopic("topic2")),
+            List.of(topic1, topic2, duplicateTopic2, topic3));
+
+    assertThat(topicSyncDiff.getAdded()).containsExactly(getClusterTopic("topic0"));
+    assertThat(topicSyncDiff.getMatched()).containsOnlyKeys("topic1", "topic2");
+    assertThat(topicSyncDiff.getMatchedTopic("topic2")).isSameAs(topic2);
+    assertThat(topicSyncDiff.getMatchedTopic("topic0")).isNull();
+    assertThat(topicSyncDiff.getDeleted()).containsExactly(topic3);
+  }
+
+  @Test
+  public void diffOfEmptyCluster() {
+    Topic topic1 = getTopic("topic1", 1);
+
+    TopicSyncDiff topicSyncDiff = TopicSyncDiff.diff(List.of(), List.of(topic1));
+
+    assertThat(topicSyncDiff.getAdded()).isEmpty();
+    assertThat(topicSyncDiff.getMatched()).isEmpty();
+    assertThat(topicSyncDiff.getDeleted()).containsExactly(topic1);
+  }
+
+  private static ClusterTopic getClusterTopic(String topicName) {
+    return new ClusterTopic(topicName, 2, 1);
+  }
+
+  private static Topic getTopic(String topicName, int topicId) {
+    Topic topic = new Topic();
+    topic.setTopicname(topicName);
+    topic.setTopicid(topicId);
+    topic.setTeamId(101);
+    return topic;
+  }
+}
@@ -35,7 +35,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -59,8 +58,6 @@ public class UiConfigControllerServiceTest {
 
   @Mock CommonUtilsService commonUtilsService;
 
-  @Mock private InMemoryUserDetailsManager inMemoryUserDetailsManager;
-
   @Mock private Map<Integer, String> tenantMap;
 
   @Mock private Map<Integer, KwClusters> kwClustersHashMap;
@@ -83,8 +80,6 @@ public class UiConfigControllerServiceTest {
 
     this.env = new EnvModel();
     env.setName("DEV");
-    ReflectionTestUtils.setField(
-        usersTeamsControllerService, "inMemoryUserDetailsManager", inMemoryUserDetailsManager);
     ReflectionTestUtils.setField(
         envsClustersTenantsControllerService, "manageDatabase", manageDatabase);
     ReflectionTestUtils.setField(
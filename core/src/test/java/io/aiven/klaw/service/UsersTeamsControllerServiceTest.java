@@ -4,6 +4,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.aiven.klaw.UtilMethods;
@@ -26,7 +29,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -36,7 +38,6 @@ public class UsersTeamsControllerServiceTest {
 
   private UtilMethods utilMethods;
 
-  @Mock InMemoryUserDetailsManager inMemoryUserDetailsManager;
   @Mock private MailUtils mailService;
 
   @Mock private HandleDbRequestsJdbc handleDbRequests;
@@ -51,8 +52,6 @@ public class UsersTeamsControllerServiceTest {
   void setUp() {
     utilMethods = new UtilMethods();
     usersTeamsControllerService = new UsersTeamsControllerService();
-    ReflectionTestUtils.setField(
-        usersTeamsControllerService, "inMemoryUserDetailsManager", inMemoryUserDetailsManager);
     ReflectionTestUtils.setField(usersTeamsControllerService, "manageDatabase", manageDatabase);
     ReflectionTestUtils.setField(usersTeamsControllerService, "mailService", mailService);
     ReflectionTestUtils.setField(
@@ -140,7 +139,24 @@ public class UsersTeamsControllerServiceTest {
   void deleteUser() {}
 
   @Test
-  void addNewUser() {}
+  void addNewUser() throws KlawException {
+    UserInfoModel userInfoModel = utilMethods.getUserInfoMock();
+    addNewUserMock();
+    when(handleDbRequests.addNewUser(any())).thenReturn(ApiResultStatus.SUCCESS.value);
+    ApiResponse apiResponse = usersTeamsControllerService.addNewUser(userInfoModel, true);
+    assertThat(apiResponse.getResult()).isEqualTo(ApiResultStatus.SUCCESS.value);
+    verify(mailService).sendMail(eq("kwusera"), eq("mypwadasdas"), any(), any());
+  }
+
+  @Test
+  void addNewUserAlreadyExists() throws KlawException {
+    UserInfoModel userInfoModel = utilMethods.getUserInfoMock();
+    addNewUserMock();
+    when(handleDbRequests.addNewUser(any())).thenReturn("Failure. User already exists");
+    ApiResponse apiResponse = usersTeamsControllerService.addNewUser(userInfoModel, true);
+    assertThat(apiResponse.getResult()).isEqualTo("Failure. User already exists");
+    verify(mailService, never()).sendMail(anyString(), anyString(), any(), any());
+  }
 
   @Test
   void addNewTeam() {}
@@ -178,6 +194,13 @@ public class UsersTeamsControllerServiceTest {
   @Test
   void getEnvDetailsFromId() {}
 
+  private void addNewUserMock() {
+    ReflectionTestUtils.setField(usersTeamsControllerService, "authenticationType", "db");
+    ReflectionTestUtils.setField(usersTeamsControllerService, "encryptorSecretKey", "secretkey");
+    when(commonUtilsService.isNotAuthorizedUser(any(), any())).thenReturn(false);
+    when(mailService.getUserName(any())).thenReturn("superadmin");
+  }
+
   private void loginMock() {
     Authentication authentication = Mockito.mock(Authentication.class);
     SecurityContext securityContext = Mockito.mock(SecurityContext.class);